@@ -0,0 +1,35 @@
+package com.ocean.scdemo.redispubsub.aggregation;
+
+/**
+ * 메시지에 실려 온 알림 임계치 (윈도우가 닫힐 때 한 번 평가)
+ *
+ * 초과 조건(GT/GTE)은 윈도우 최댓값, 미만 조건(LT/LTE)은 최솟값, EQ 는 평균으로 비교한다.
+ */
+public record AlertRule(double threshold, String operator) {
+
+    public AlertRule {
+        operator = operator != null ? operator : "GT";
+    }
+
+    public boolean isViolatedBy(WindowResult window) {
+        return switch (operator) {
+            case "GT" -> window.max() > threshold;
+            case "GTE" -> window.max() >= threshold;
+            case "LT" -> window.min() < threshold;
+            case "LTE" -> window.min() <= threshold;
+            case "EQ" -> window.mean() == threshold;
+            default -> false;
+        };
+    }
+
+    /**
+     * 비교에 사용한 윈도우 통계값
+     */
+    public double observed(WindowResult window) {
+        return switch (operator) {
+            case "GT", "GTE" -> window.max();
+            case "LT", "LTE" -> window.min();
+            default -> window.mean();
+        };
+    }
+}
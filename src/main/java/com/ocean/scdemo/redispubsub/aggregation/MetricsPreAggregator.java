@@ -0,0 +1,248 @@
+package com.ocean.scdemo.redispubsub.aggregation;
+
+import com.ocean.scdemo.redispubsub.message.MetricsMessage;
+import com.ocean.scdemo.redispubsub.monitoring.MetricsCollectorService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * MetricsMessage 스트리밍 사전 집계
+ *
+ * 핵심 기능:
+ * - 메시지 값을 (메트릭명, 디멘션) 시리즈별 1초/10초/1분 텀블링 윈도우에 누적
+ * - 닫힌 윈도우를 MetricsCollectorService 로 전달 (1분 윈도우는 시계열 이력으로 보관)
+ * - 메시지에 실린 알림 임계치는 alert-resolution 윈도우가 닫힐 때 한 번만 평가하여 리스너에 통지
+ * - 초당 처리량과 시리즈당 메모리 보고
+ *
+ * 윈도우는 roll-interval-ms 주기의 가상 스레드가 닫으므로 샘플이 끊겨도 결과가 늦지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetricsPreAggregator {
+
+    private final MetricsCollectorService metricsCollectorService;
+
+    @Value("${pubsub.metrics-aggregation.max-series:10000}")
+    private int maxSeries;
+
+    @Value("${pubsub.metrics-aggregation.idle-evict-seconds:120}")
+    private long idleEvictSeconds;
+
+    @Value("${pubsub.metrics-aggregation.roll-interval-ms:200}")
+    private long rollIntervalMillis;
+
+    @Value("${pubsub.metrics-aggregation.alert-resolution:10s}")
+    private String alertResolutionLabel;
+
+    private TumblingWindowAggregator aggregator;
+    private Resolution alertResolution;
+
+    private final List<Consumer<WindowResult>> alertListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<String>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread roller;
+
+    // 초당 처리량 (직전 1초 샘플 수)
+    private final LongAdder currentSecondSamples = new LongAdder();
+    private volatile long currentSecond;
+    private volatile long lastSecondSamples;
+
+    // 통계
+    private final AtomicLong totalAlertChecks = new AtomicLong(0);
+    private final AtomicLong totalAlertsRaised = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        alertResolution = Resolution.fromLabel(alertResolutionLabel);
+        aggregator = new TumblingWindowAggregator(maxSeries, idleEvictSeconds * 1000, this::onWindowClosed);
+        aggregator.setEvictionListener(this::onSeriesEvicted);
+
+        running = true;
+        roller = Thread.ofVirtual().name("metrics-window-roller").start(this::rollLoop);
+        log.info("메트릭 사전 집계 시작 - 최대 시리즈={}, 알림 평가 해상도={}, roll 주기={}ms",
+                maxSeries, alertResolution.label(), rollIntervalMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (roller != null) {
+            roller.interrupt();
+        }
+    }
+
+    /**
+     * 임계치 위반 윈도우 리스너 등록
+     */
+    public void addAlertListener(Consumer<WindowResult> listener) {
+        alertListeners.add(listener);
+    }
+
+    /**
+     * 유휴 시리즈 축출 리스너 등록 (시리즈 키 기준으로 쌓은 상태 정리용)
+     */
+    public void addEvictionListener(Consumer<String> listener) {
+        evictionListeners.add(listener);
+    }
+
+    /**
+     * 메트릭 메시지 값 기록 (값이 없으면 무시)
+     *
+     * @return 집계에 반영되었으면 true
+     */
+    public boolean record(MetricsMessage message) {
+        if (message.getValue() == null || message.getMetricName() == null) {
+            return false;
+        }
+        AlertRule alertRule = message.getAlertThreshold() != null && !Boolean.FALSE.equals(message.getAlertEnabled())
+                ? new AlertRule(message.getAlertThreshold(), message.getAlertOperator())
+                : null;
+
+        boolean recorded = aggregator.record(message.getMetricName(), message.getDimensions(),
+                message.getValue(), alertRule, System.currentTimeMillis());
+        if (recorded) {
+            currentSecondSamples.increment();
+        }
+        return recorded;
+    }
+
+    public int seriesCount() {
+        return aggregator.seriesCount();
+    }
+
+    private void onWindowClosed(WindowResult window) {
+        metricsCollectorService.recordWindowAggregate(window.seriesKey(), window.resolution().label(),
+                toAggregatedMetrics(window));
+
+        if (window.resolution() == alertResolution && window.alertRule() != null) {
+            totalAlertChecks.incrementAndGet();
+            if (window.alertRule().isViolatedBy(window)) {
+                totalAlertsRaised.incrementAndGet();
+                for (Consumer<WindowResult> listener : alertListeners) {
+                    try {
+                        listener.accept(window);
+                    } catch (Exception e) {
+                        log.warn("임계치 위반 리스너 실패: series={}", window.seriesKey(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    private void onSeriesEvicted(String seriesKey) {
+        metricsCollectorService.removeWindowAggregates(seriesKey);
+        for (Consumer<String> listener : evictionListeners) {
+            try {
+                listener.accept(seriesKey);
+            } catch (Exception e) {
+                log.warn("시리즈 축출 리스너 실패: series={}", seriesKey, e);
+            }
+        }
+    }
+
+    private void rollLoop() {
+        while (running) {
+            try {
+                Thread.sleep(rollIntervalMillis);
+                long now = System.currentTimeMillis();
+                aggregator.roll(now);
+
+                long second = now / 1000;
+                if (second != currentSecond) {
+                    lastSecondSamples = currentSecondSamples.sumThenReset();
+                    currentSecond = second;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("메트릭 윈도우 roll 실패", e);
+            }
+        }
+    }
+
+    private static MetricsCollectorService.AggregatedMetrics toAggregatedMetrics(WindowResult window) {
+        MetricsCollectorService.AggregatedMetrics aggregated = new MetricsCollectorService.AggregatedMetrics();
+        aggregated.setCount(window.count());
+        aggregated.setSum(window.sum());
+        aggregated.setAverage(window.mean());
+        aggregated.setMinimum(window.min());
+        aggregated.setMaximum(window.max());
+        aggregated.setP50(window.p50());
+        aggregated.setP95(window.p95());
+        aggregated.setP99(window.p99());
+        aggregated.setPeriodStart(toLocalDateTime(window.startMillis()));
+        aggregated.setPeriodEnd(toLocalDateTime(window.endMillis()));
+        return aggregated;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 사전 집계 통계 (처리량, 시리즈당 메모리)
+     */
+    public AggregationStats getStats() {
+        Map<String, Long> memoryBySeries = aggregator.memoryBySeries();
+        long totalMemory = memoryBySeries.values().stream().mapToLong(Long::longValue).sum();
+        long maxMemory = memoryBySeries.values().stream().mapToLong(Long::longValue).max().orElse(0);
+
+        return AggregationStats.builder()
+                .activeSeries(memoryBySeries.size())
+                .maxSeries(maxSeries)
+                .samplesPerSecond(lastSecondSamples)
+                .totalRecorded(aggregator.getTotalRecorded())
+                .droppedSamples(aggregator.getDroppedSamples())
+                .evictedSeries(aggregator.getEvictedSeries())
+                .windowsEmitted1s(aggregator.getWindowsEmitted(Resolution.ONE_SECOND))
+                .windowsEmitted10s(aggregator.getWindowsEmitted(Resolution.TEN_SECONDS))
+                .windowsEmitted1m(aggregator.getWindowsEmitted(Resolution.ONE_MINUTE))
+                .alertResolution(alertResolution.label())
+                .totalAlertChecks(totalAlertChecks.get())
+                .totalAlertsRaised(totalAlertsRaised.get())
+                .totalMemoryBytes(totalMemory)
+                .avgMemoryBytesPerSeries(memoryBySeries.isEmpty() ? 0 : totalMemory / memoryBySeries.size())
+                .maxMemoryBytesPerSeries(maxMemory)
+                .build();
+    }
+
+    /**
+     * 사전 집계 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class AggregationStats {
+        private final int activeSeries;
+        private final int maxSeries;
+        private final long samplesPerSecond;
+        private final long totalRecorded;
+        private final long droppedSamples;
+        private final long evictedSeries;
+        private final long windowsEmitted1s;
+        private final long windowsEmitted10s;
+        private final long windowsEmitted1m;
+        private final String alertResolution;
+        private final long totalAlertChecks;
+        private final long totalAlertsRaised;
+        private final long totalMemoryBytes;
+        private final long avgMemoryBytesPerSeries;
+        private final long maxMemoryBytesPerSeries;
+    }
+}
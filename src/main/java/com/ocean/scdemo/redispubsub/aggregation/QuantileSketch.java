@@ -0,0 +1,217 @@
+package com.ocean.scdemo.redispubsub.aggregation;
+
+/**
+ * 병합 가능한 분위수 스케치 (로그 버킷, 상대 오차 보장)
+ *
+ * - 값 v 는 ceil(log_γ(v)) 버킷에 들어가며 γ = (1+α)/(1-α) 이므로 분위수 추정의 상대 오차는 α 이하
+ * - 버킷 배열은 실제 값 범위만큼만 커지고 maxBins 를 넘으면 가장 작은 쪽 버킷을 합쳐 메모리 상한 유지
+ *   (상위 분위수 p95/p99 정확도는 유지되고 극단적으로 작은 값만 뭉개짐)
+ * - 같은 α 를 쓰는 스케치끼리는 버킷을 더하기만 하면 병합되므로 1초 → 10초 → 1분 롤업에 그대로 쓴다
+ *
+ * 동기화하지 않는다. 호출 측(시리즈 단위 락)에서 보호한다.
+ */
+public class QuantileSketch {
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    public static final int DEFAULT_MAX_BINS = 2048;
+
+    // 이보다 작은 절댓값은 0 으로 취급
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final int maxBins;
+
+    private final Store positive;
+    private final Store negative;
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BINS);
+    }
+
+    public QuantileSketch(double relativeAccuracy, int maxBins) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy 는 0 과 1 사이여야 합니다: " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.maxBins = maxBins;
+        this.positive = new Store(maxBins);
+        this.negative = new Store(maxBins);
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value > MIN_INDEXABLE) {
+            positive.add(index(value), 1);
+        } else if (value < -MIN_INDEXABLE) {
+            negative.add(index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+    }
+
+    /**
+     * 다른 스케치 병합 (상대 오차가 같아야 함)
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("상대 오차가 다른 스케치는 병합할 수 없습니다");
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+     * q 분위수 추정 (0 ≤ q ≤ 1, 비어 있으면 NaN)
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (Math.max(0, Math.min(1, q)) * (count - 1));
+
+        // 음수는 절댓값이 큰(가장 작은 값) 버킷부터
+        long seen = 0;
+        for (int i = negative.maxIndex; negative.total > 0 && i >= negative.minIndex; i--) {
+            seen += negative.get(i);
+            if (seen > rank) {
+                return -value(i);
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = positive.minIndex; positive.total > 0 && i <= positive.maxIndex; i++) {
+            seen += positive.get(i);
+            if (seen > rank) {
+                return value(i);
+            }
+        }
+        return value(positive.maxIndex);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /**
+     * 버킷 배열이 차지하는 대략적인 바이트 수
+     */
+    public long memoryBytes() {
+        return 64 + positive.memoryBytes() + negative.memoryBytes();
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    // 버킷 (γ^(i-1), γ^i] 의 대표값 - 양 끝 대비 상대 오차가 α 로 같아지는 지점
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * 연속 버킷 저장소 (offset 기준 dense 배열, 최대 maxBins 칸)
+     */
+    private static final class Store {
+
+        private static final int INITIAL_BINS = 32;
+
+        private final int maxBins;
+        private long[] bins;
+        private int offset;
+        int minIndex = Integer.MAX_VALUE;
+        int maxIndex = Integer.MIN_VALUE;
+        long total;
+
+        Store(int maxBins) {
+            this.maxBins = maxBins;
+        }
+
+        long get(int index) {
+            int slot = index - offset;
+            return slot >= 0 && slot < bins.length ? bins[slot] : 0;
+        }
+
+        void add(int index, long n) {
+            if (bins == null) {
+                bins = new long[Math.min(INITIAL_BINS, maxBins)];
+                offset = index - bins.length / 2;
+            }
+            if (index < offset || index >= offset + bins.length) {
+                index = resize(index);
+            }
+            bins[index - offset] += n;
+            minIndex = Math.min(minIndex, index);
+            maxIndex = Math.max(maxIndex, index);
+            total += n;
+        }
+
+        void merge(Store other) {
+            if (other.total == 0) {
+                return;
+            }
+            for (int i = other.minIndex; i <= other.maxIndex; i++) {
+                long n = other.get(i);
+                if (n > 0) {
+                    add(i, n);
+                }
+            }
+        }
+
+        long memoryBytes() {
+            return 32 + (bins != null ? 16 + 8L * bins.length : 0);
+        }
+
+        /**
+         * 새 인덱스를 담도록 배열 재배치, 범위가 maxBins 를 넘으면 하위 버킷을 가장 낮은 칸으로 합침
+         *
+         * @return 실제로 기록할 인덱스 (하위로 합쳐졌으면 새 최저 인덱스)
+         */
+        private int resize(int index) {
+            int low = total > 0 ? Math.min(minIndex, index) : index;
+            int high = total > 0 ? Math.max(maxIndex, index) : index;
+            int span = high - low + 1;
+
+            int size;
+            int newOffset;
+            if (span > maxBins) {
+                size = maxBins;
+                newOffset = high - maxBins + 1;
+            } else {
+                size = Math.min(maxBins, Math.max(bins.length, Integer.highestOneBit(span - 1) << 1));
+                newOffset = low - (size - span) / 2;
+            }
+
+            long[] resized = new long[size];
+            int newMin = Integer.MAX_VALUE;
+            for (int i = minIndex; total > 0 && i <= maxIndex; i++) {
+                long n = get(i);
+                if (n > 0) {
+                    int target = Math.max(i, newOffset);
+                    resized[target - newOffset] += n;
+                    newMin = Math.min(newMin, target);
+                }
+            }
+            bins = resized;
+            offset = newOffset;
+            minIndex = newMin;
+            return Math.max(index, newOffset);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ocean.scdemo.redispubsub.aggregation;
+
+/**
+ * 텀블링 윈도우 해상도 (작은 해상도의 닫힌 윈도우를 병합해 다음 해상도를 만든다)
+ */
+public enum Resolution {
+
+    ONE_SECOND("1s", 1_000),
+    TEN_SECONDS("10s", 10_000),
+    ONE_MINUTE("1m", 60_000);
+
+    private final String label;
+    private final long millis;
+
+    Resolution(String label, long millis) {
+        this.label = label;
+        this.millis = millis;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public long millis() {
+        return millis;
+    }
+
+    public long windowStart(long epochMillis) {
+        return Math.floorDiv(epochMillis, millis) * millis;
+    }
+
+    public static Resolution fromLabel(String label) {
+        for (Resolution resolution : values()) {
+            if (resolution.label.equalsIgnoreCase(label)) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("지원하지 않는 해상도: " + label);
+    }
+}
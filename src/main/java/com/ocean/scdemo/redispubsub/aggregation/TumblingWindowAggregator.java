@@ -0,0 +1,251 @@
+package com.ocean.scdemo.redispubsub.aggregation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * 시리즈(메트릭명 + 디멘션)별 텀블링 윈도우 사전 집계기
+ *
+ * - 샘플은 현재 1초 윈도우에만 더한다 (count/sum/min/max + 분위수 스케치)
+ * - 1초 윈도우가 닫히면 10초 윈도우에 병합, 10초 윈도우가 닫히면 1분 윈도우에 병합 (롤업)
+ * - 닫힌 윈도우는 해상도마다 한 번씩 sink 로 내보낸다 (비어 있는 윈도우는 내보내지 않음)
+ * - 윈도우 경계는 처리 시각(도착 시각) 기준이므로 늦게 온 샘플도 현재 윈도우에 들어간다
+ *
+ * 시리즈 수는 maxSeries 로 제한하고, 넘치는 새 시리즈의 샘플은 버리고 카운트한다.
+ * 모든 윈도우가 비어 있고 idleEvictMillis 동안 샘플이 없던 시리즈는 roll 시 제거한다.
+ * 시리즈 단위로 동기화하며 sink 호출은 락 밖에서 한다.
+ */
+public class TumblingWindowAggregator {
+
+    private static final Resolution[] LEVELS = Resolution.values();
+
+    private final int maxSeries;
+    private final long idleEvictMillis;
+    private final Consumer<WindowResult> sink;
+    private volatile Consumer<String> evictionListener = key -> { };
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    private final AtomicLong totalRecorded = new AtomicLong(0);
+    private final AtomicLong droppedSamples = new AtomicLong(0);
+    private final AtomicLong evictedSeries = new AtomicLong(0);
+    private final AtomicLongArray windowsEmitted = new AtomicLongArray(LEVELS.length);
+
+    public TumblingWindowAggregator(int maxSeries, long idleEvictMillis, Consumer<WindowResult> sink) {
+        this.maxSeries = maxSeries;
+        this.idleEvictMillis = idleEvictMillis;
+        this.sink = sink;
+    }
+
+    /**
+     * 유휴 시리즈 제거 시 호출할 리스너 (시리즈 키 전달)
+     */
+    public void setEvictionListener(Consumer<String> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * 샘플 기록
+     *
+     * @return 시리즈 상한 초과로 버려졌으면 false
+     */
+    public boolean record(String metricName, Map<String, String> dimensions, double value,
+                          AlertRule alertRule, long nowMillis) {
+        String key = seriesKey(metricName, dimensions);
+
+        while (true) {
+            Series current = series.get(key);
+            if (current == null) {
+                if (series.size() >= maxSeries) {
+                    droppedSamples.incrementAndGet();
+                    return false;
+                }
+                current = series.computeIfAbsent(key, k -> new Series(k, metricName, dimensions, nowMillis));
+            }
+
+            List<WindowResult> closed;
+            synchronized (current) {
+                if (current.evicted) {
+                    // roll 이 방금 제거한 시리즈 - 새로 만들어 다시 시도
+                    continue;
+                }
+                closed = current.rollTo(nowMillis);
+                current.add(value, alertRule, nowMillis);
+            }
+            totalRecorded.incrementAndGet();
+            emit(closed);
+            return true;
+        }
+    }
+
+    /**
+     * 시각이 지난 윈도우를 모두 닫고 유휴 시리즈 제거
+     *
+     * @return 내보낸 윈도우 수
+     */
+    public int roll(long nowMillis) {
+        int emitted = 0;
+        for (Series current : series.values()) {
+            List<WindowResult> closed;
+            boolean evict = false;
+            synchronized (current) {
+                closed = current.rollTo(nowMillis);
+                if (current.isEmpty() && nowMillis - current.lastUpdateMillis >= idleEvictMillis) {
+                    current.evicted = true;
+                    evict = true;
+                }
+            }
+            emit(closed);
+            emitted += closed.size();
+
+            if (evict && series.remove(current.key, current)) {
+                evictedSeries.incrementAndGet();
+                evictionListener.accept(current.key);
+            }
+        }
+        return emitted;
+    }
+
+    public int seriesCount() {
+        return series.size();
+    }
+
+    public long getTotalRecorded() {
+        return totalRecorded.get();
+    }
+
+    public long getDroppedSamples() {
+        return droppedSamples.get();
+    }
+
+    public long getEvictedSeries() {
+        return evictedSeries.get();
+    }
+
+    public long getWindowsEmitted(Resolution resolution) {
+        return windowsEmitted.get(resolution.ordinal());
+    }
+
+    /**
+     * 시리즈별 메모리 사용량 (키 → 바이트)
+     */
+    public Map<String, Long> memoryBySeries() {
+        Map<String, Long> memory = new TreeMap<>();
+        for (Series current : series.values()) {
+            synchronized (current) {
+                memory.put(current.key, current.memoryBytes());
+            }
+        }
+        return memory;
+    }
+
+    /**
+     * 시리즈 키: 메트릭명 + 키 순으로 정렬한 디멘션
+     */
+    public static String seriesKey(String metricName, Map<String, String> dimensions) {
+        if (dimensions == null || dimensions.isEmpty()) {
+            return metricName;
+        }
+        StringJoiner joiner = new StringJoiner(",", metricName + "{", "}");
+        new TreeMap<>(dimensions).forEach((name, value) -> joiner.add(name + "=" + value));
+        return joiner.toString();
+    }
+
+    private void emit(List<WindowResult> closed) {
+        for (WindowResult result : closed) {
+            windowsEmitted.incrementAndGet(result.resolution().ordinal());
+            sink.accept(result);
+        }
+    }
+
+    /**
+     * 시리즈 하나의 해상도별 현재 윈도우
+     */
+    private static final class Series {
+
+        final String key;
+        final String metricName;
+        final Map<String, String> dimensions;
+        final WindowAggregate[] windows = new WindowAggregate[LEVELS.length];
+        AlertRule alertRule;
+        long lastUpdateMillis;
+        boolean evicted;
+
+        Series(String key, String metricName, Map<String, String> dimensions, long nowMillis) {
+            this.key = key;
+            this.metricName = metricName;
+            this.dimensions = dimensions == null || dimensions.isEmpty()
+                    ? Map.of() : Collections.unmodifiableMap(new TreeMap<>(dimensions));
+            for (int level = 0; level < LEVELS.length; level++) {
+                windows[level] = new WindowAggregate(LEVELS[level].windowStart(nowMillis));
+            }
+            this.lastUpdateMillis = nowMillis;
+        }
+
+        void add(double value, AlertRule rule, long nowMillis) {
+            windows[0].add(value);
+            if (rule != null) {
+                alertRule = rule;
+            }
+            lastUpdateMillis = Math.max(lastUpdateMillis, nowMillis);
+        }
+
+        List<WindowResult> rollTo(long nowMillis) {
+            List<WindowResult> closed = new ArrayList<>(0);
+            for (int level = 0; level < LEVELS.length; level++) {
+                closeUpTo(level, nowMillis, closed);
+            }
+            return closed;
+        }
+
+        boolean isEmpty() {
+            for (WindowAggregate window : windows) {
+                if (!window.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long memoryBytes() {
+            long bytes = 64 + 2L * key.length();
+            for (WindowAggregate window : windows) {
+                bytes += window.memoryBytes();
+            }
+            return bytes;
+        }
+
+        /**
+         * level 윈도우가 time 이 속한 윈도우보다 이전이면 닫고 상위 해상도로 병합
+         */
+        private void closeUpTo(int level, long time, List<WindowResult> closed) {
+            WindowAggregate window = windows[level];
+            long start = LEVELS[level].windowStart(time);
+            if (window.startMillis >= start) {
+                return;
+            }
+            if (!window.isEmpty()) {
+                closed.add(toResult(LEVELS[level], window));
+                if (level + 1 < LEVELS.length) {
+                    closeUpTo(level + 1, window.startMillis, closed);
+                    windows[level + 1].merge(window);
+                }
+            }
+            window.reset(start);
+        }
+
+        private WindowResult toResult(Resolution resolution, WindowAggregate window) {
+            return new WindowResult(key, metricName, dimensions, resolution, window.startMillis,
+                    window.count, window.sum, window.min, window.max,
+                    window.quantile(0.50), window.quantile(0.95), window.quantile(0.99), alertRule);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ocean.scdemo.redispubsub.aggregation;
+
+/**
+ * 윈도우 하나의 count/sum/min/max + 분위수 스케치
+ *
+ * 동기화하지 않는다. 시리즈 락 안에서만 사용한다.
+ */
+final class WindowAggregate {
+
+    long startMillis;
+    long count;
+    double sum;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    QuantileSketch sketch = new QuantileSketch();
+
+    WindowAggregate(long startMillis) {
+        this.startMillis = startMillis;
+    }
+
+    void add(double value) {
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sketch.add(value);
+    }
+
+    void merge(WindowAggregate other) {
+        if (other.count == 0) {
+            return;
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sketch.merge(other.sketch);
+    }
+
+    /**
+     * 다음 윈도우로 초기화 (스케치는 새로 만들어 이전 결과와 공유하지 않음)
+     */
+    void reset(long startMillis) {
+        this.startMillis = startMillis;
+        count = 0;
+        sum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        sketch = new QuantileSketch();
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    long memoryBytes() {
+        return 48 + sketch.memoryBytes();
+    }
+
+    // 스케치 추정치는 실제 관측 범위를 벗어나지 않도록 min/max 로 자름
+    double quantile(double q) {
+        return Math.max(min, Math.min(max, sketch.quantile(q)));
+    }
+}
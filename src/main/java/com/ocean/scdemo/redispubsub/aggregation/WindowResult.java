@@ -0,0 +1,33 @@
+package com.ocean.scdemo.redispubsub.aggregation;
+
+import java.util.Map;
+
+/**
+ * 닫힌 텀블링 윈도우 집계 결과
+ *
+ * @param seriesKey  메트릭명 + 정렬된 디멘션 (예: response_time{region=kr,service=api})
+ * @param alertRule  시리즈에 마지막으로 실려 온 임계치 (없으면 null)
+ */
+public record WindowResult(
+        String seriesKey,
+        String metricName,
+        Map<String, String> dimensions,
+        Resolution resolution,
+        long startMillis,
+        long count,
+        double sum,
+        double min,
+        double max,
+        double p50,
+        double p95,
+        double p99,
+        AlertRule alertRule) {
+
+    public long endMillis() {
+        return startMillis + resolution.millis();
+    }
+
+    public double mean() {
+        return count > 0 ? sum / count : 0.0;
+    }
+}
@@ -0,0 +1,116 @@
+package com.ocean.scdemo.redispubsub.analytics;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 에러 시그니처 상위 K 추적
+ *
+ * 핵심 기능:
+ * - 시그니처(서비스:에러코드, 코드가 없으면 정규화한 메시지)별 최근 윈도우 건수를 고정 메모리로 추적
+ * - "최근 N초 상위 에러" / "특정 시그니처의 최근 N초 건수" 조회
+ * - 메시지 안의 숫자/UUID/16진수 값은 치환하여 같은 종류의 에러가 한 시그니처로 모이도록 함
+ *
+ * 추적 개수를 넘는 시그니처는 Space-Saving 방식으로 최근 건수가 가장 적은 것부터 밀려난다.
+ */
+@Slf4j
+@Component
+public class ErrorSignatureTracker {
+
+    private static final Pattern UUID = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern HEX = Pattern.compile("0x[0-9a-fA-F]+");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final int MAX_MESSAGE_LENGTH = 120;
+
+    @Value("${pubsub.errors.capacity:128}")
+    private int capacity;
+
+    @Value("${pubsub.errors.window-seconds:300}")
+    private int windowSeconds;
+
+    private SlidingTopK topK;
+
+    @PostConstruct
+    public void init() {
+        topK = new SlidingTopK(capacity, windowSeconds);
+        log.info("에러 시그니처 추적 시작 - 추적 개수={}, 윈도우={}초", capacity, windowSeconds);
+    }
+
+    /**
+     * 에러 발생 기록
+     *
+     * @return 기록한 시그니처
+     */
+    public String record(String serviceName, String errorCode, String errorMessage) {
+        String signature = signatureOf(serviceName, errorCode, errorMessage);
+        topK.record(signature, System.currentTimeMillis());
+        return signature;
+    }
+
+    /**
+     * 최근 windowSeconds 초 상위 k 개 에러 시그니처
+     */
+    public List<SlidingTopK.Entry> topErrors(int k, int windowSeconds) {
+        return topK.top(k, windowSeconds, System.currentTimeMillis());
+    }
+
+    /**
+     * 시그니처의 최근 windowSeconds 초 발생 건수
+     */
+    public long countInWindow(String signature, int windowSeconds) {
+        return topK.windowCount(signature, windowSeconds, System.currentTimeMillis());
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    /**
+     * 에러 시그니처 생성 (에러 코드 우선, 없으면 정규화한 메시지)
+     */
+    public static String signatureOf(String serviceName, String errorCode, String errorMessage) {
+        String service = serviceName != null ? serviceName : "unknown";
+        if (errorCode != null && !errorCode.isBlank()) {
+            return service + ":" + errorCode;
+        }
+        if (errorMessage == null || errorMessage.isBlank()) {
+            return service + ":UNKNOWN";
+        }
+        return service + ":" + normalize(errorMessage);
+    }
+
+    static String normalize(String message) {
+        String normalized = UUID.matcher(message).replaceAll("<uuid>");
+        normalized = HEX.matcher(normalized).replaceAll("<hex>");
+        normalized = NUMBER.matcher(normalized).replaceAll("#");
+        return normalized.length() > MAX_MESSAGE_LENGTH ? normalized.substring(0, MAX_MESSAGE_LENGTH) : normalized;
+    }
+
+    /**
+     * 추적 통계
+     */
+    public TrackerStats getStats() {
+        return TrackerStats.builder()
+                .trackedSignatures(topK.size())
+                .capacity(topK.getCapacity())
+                .windowSeconds(topK.getWindowSeconds())
+                .build();
+    }
+
+    /**
+     * 에러 시그니처 추적 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class TrackerStats {
+        private final int trackedSignatures;
+        private final int capacity;
+        private final int windowSeconds;
+    }
+}
@@ -0,0 +1,179 @@
+package com.ocean.scdemo.redispubsub.analytics;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Redis 호환 HyperLogLog (p=14, 16384 레지스터)
+ *
+ * - 해시/레지스터 계산을 Redis 와 동일하게 맞춤 (MurmurHash64A, seed 0xadc83b19)
+ *   → 같은 원소를 로컬에 넣든 PFADD 하든 레지스터 값이 같다
+ * - Redis dense 인코딩(HYLL 헤더 + 6비트 패킹 레지스터)으로 직렬화하여
+ *   임시 키에 SET 후 PFMERGE 하면 노드 간 합산이 된다
+ * - 메모리는 원소 수와 무관하게 16KB 고정, 표준 오차 약 0.81%
+ */
+public class HyperLogLog {
+
+    public static final int P = 14;
+    public static final int REGISTERS = 1 << P;
+
+    private static final int Q = 64 - P;
+    private static final int BITS = 6;
+    private static final int HEADER_SIZE = 16;
+    public static final int DENSE_SIZE = HEADER_SIZE + (REGISTERS * BITS + 7) / 8;
+
+    private static final long SEED = 0xadc83b19L;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    /**
+     * 원소 추가
+     *
+     * @return 레지스터가 바뀌었으면 true (추정치가 달라질 수 있음)
+     */
+    public synchronized boolean add(String element) {
+        byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+        long hash = murmurHash64A(bytes);
+
+        int index = (int) (hash & (REGISTERS - 1));
+        long remaining = (hash >>> P) | (1L << Q);
+        byte count = (byte) (Long.numberOfTrailingZeros(remaining) + 1);
+
+        if (registers[index] < count) {
+            registers[index] = count;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 다른 스케치 병합 (레지스터별 최대값)
+     */
+    public synchronized void merge(HyperLogLog other) {
+        byte[] source = other.snapshot();
+        for (int i = 0; i < REGISTERS; i++) {
+            if (registers[i] < source[i]) {
+                registers[i] = source[i];
+            }
+        }
+    }
+
+    /**
+     * 고유 원소 수 추정 (소규모 구간은 linear counting 보정)
+     */
+    public long estimate() {
+        byte[] current = snapshot();
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : current) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Redis dense 인코딩으로 직렬화 (캐시된 카디널리티는 무효로 표시하여 Redis 가 다시 계산)
+     */
+    public byte[] toRedisDense() {
+        byte[] current = snapshot();
+        byte[] out = new byte[DENSE_SIZE];
+        out[0] = 'H';
+        out[1] = 'Y';
+        out[2] = 'L';
+        out[3] = 'L';
+        out[4] = 0;                 // HLL_DENSE
+        out[15] = (byte) (1 << 7);  // 캐시 무효 플래그
+
+        for (int regnum = 0; regnum < REGISTERS; regnum++) {
+            int value = current[regnum];
+            int bitOffset = regnum * BITS;
+            int byteIndex = HEADER_SIZE + bitOffset / 8;
+            int shift = bitOffset & 7;
+
+            out[byteIndex] |= (byte) (value << shift);
+            if (shift > 8 - BITS && byteIndex + 1 < DENSE_SIZE) {
+                out[byteIndex + 1] |= (byte) (value >>> (8 - shift));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Redis dense 인코딩에서 복원
+     */
+    public static HyperLogLog fromRedisDense(byte[] dense) {
+        if (dense.length != DENSE_SIZE || dense[0] != 'H' || dense[1] != 'Y' || dense[2] != 'L' || dense[3] != 'L'
+                || dense[4] != 0) {
+            throw new IllegalArgumentException("Redis dense HLL 형식이 아닙니다");
+        }
+        HyperLogLog hll = new HyperLogLog();
+        for (int regnum = 0; regnum < REGISTERS; regnum++) {
+            int bitOffset = regnum * BITS;
+            int byteIndex = HEADER_SIZE + bitOffset / 8;
+            int shift = bitOffset & 7;
+
+            int value = (dense[byteIndex] & 0xff) >>> shift;
+            if (shift > 8 - BITS && byteIndex + 1 < DENSE_SIZE) {
+                value |= (dense[byteIndex + 1] & 0xff) << (8 - shift);
+            }
+            hll.registers[regnum] = (byte) (value & ((1 << BITS) - 1));
+        }
+        return hll;
+    }
+
+    public static long memoryBytes() {
+        return REGISTERS;
+    }
+
+    private synchronized byte[] snapshot() {
+        return registers.clone();
+    }
+
+    /**
+     * MurmurHash64A (Redis hyperloglog.c 와 동일, little-endian)
+     */
+    static long murmurHash64A(byte[] data) {
+        final long m = 0xc6a4a7935bd1e995L;
+        final int r = 47;
+        int length = data.length;
+        long h = SEED ^ (length * m);
+
+        int blocks = length - (length & 7);
+        for (int i = 0; i < blocks; i += 8) {
+            long k = (data[i] & 0xffL)
+                    | (data[i + 1] & 0xffL) << 8
+                    | (data[i + 2] & 0xffL) << 16
+                    | (data[i + 3] & 0xffL) << 24
+                    | (data[i + 4] & 0xffL) << 32
+                    | (data[i + 5] & 0xffL) << 40
+                    | (data[i + 6] & 0xffL) << 48
+                    | (data[i + 7] & 0xffL) << 56;
+            k *= m;
+            k ^= k >>> r;
+            k *= m;
+            h ^= k;
+            h *= m;
+        }
+
+        int tail = length & 7;
+        if (tail > 0) {
+            for (int i = tail - 1; i >= 0; i--) {
+                h ^= (data[blocks + i] & 0xffL) << (8 * i);
+            }
+            h *= m;
+        }
+
+        h ^= h >>> r;
+        h *= m;
+        h ^= h >>> r;
+        return h;
+    }
+}
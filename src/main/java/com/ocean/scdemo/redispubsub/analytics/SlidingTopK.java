@@ -0,0 +1,196 @@
+package com.ocean.scdemo.redispubsub.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 슬라이딩 윈도우 Top-K (Space-Saving + 키별 초 단위 링 버킷)
+ *
+ * - 최대 capacity 개 키만 추적하므로 고유 키가 무한히 들어와도 메모리 고정
+ *   (capacity × windowSeconds × 4바이트 + 키 문자열)
+ * - 키마다 초 단위 카운트 링을 두어 "최근 N초" 건수/초당 비율을 구함
+ * - 표가 가득 찬 상태에서 새 키가 오면 최근 윈도우 건수가 가장 작은 키를 축출하고,
+ *   그 건수를 새 키의 최대 과대추정치(maxError)로 물려준다 (Space-Saving 의 오차 한계)
+ *   → 한때 폭주했다가 잠잠해진 키는 자연스럽게 밀려나므로 과거 배포 한 번이 순위를 고정시키지 않는다
+ *
+ * 키마다 전체 윈도우 합계(windowSum)를 슬롯 증가/회전 시 함께 갱신하므로 전체 윈도우 건수 조회는 O(1) 이다.
+ * 슬롯 회전 비용은 지난 초 수만큼(최대 windowSeconds) 들지만 각 슬롯은 초마다 한 번만 지워지고,
+ * 합계가 0 인 유휴 키는 지우지 않고 건너뛰므로 상각 O(1) 이다.
+ * 따라서 새 키가 들어올 때의 축출 대상 탐색은 O(capacity), 기존 키 증가는 O(1) 이다.
+ * 동기화는 인스턴스 단위로 한다.
+ */
+public class SlidingTopK {
+
+    private final int capacity;
+    private final int windowSeconds;
+    private final Map<String, Counter> counters;
+
+    public SlidingTopK(int capacity, int windowSeconds) {
+        if (capacity <= 0 || windowSeconds <= 0) {
+            throw new IllegalArgumentException("capacity/windowSeconds 는 양수여야 합니다");
+        }
+        this.capacity = capacity;
+        this.windowSeconds = windowSeconds;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * 키 발생 기록
+     */
+    public synchronized void record(String key, long nowMillis) {
+        long second = nowMillis / 1000;
+        Counter counter = counters.get(key);
+
+        if (counter == null) {
+            long inheritedError = 0;
+            if (counters.size() >= capacity) {
+                Counter victim = minByWindow(second);
+                counters.remove(victim.key);
+                inheritedError = victim.windowSum(second) + victim.maxError;
+            }
+            counter = new Counter(key, windowSeconds, inheritedError, second);
+            counters.put(key, counter);
+        }
+
+        counter.increment(second, nowMillis);
+    }
+
+    /**
+     * 최근 windowSeconds 초 기준 상위 k 개 (윈도우 건수 내림차순)
+     */
+    public synchronized List<Entry> top(int k, int windowSeconds, long nowMillis) {
+        int window = Math.min(windowSeconds, this.windowSeconds);
+        long second = nowMillis / 1000;
+
+        List<Entry> entries = new ArrayList<>(counters.size());
+        for (Counter counter : counters.values()) {
+            long count = counter.windowCount(second, window);
+            if (count > 0) {
+                entries.add(new Entry(counter.key, count, (double) count / window,
+                        counter.total, counter.maxError, counter.lastSeenMillis));
+            }
+        }
+        entries.sort(Comparator.comparingLong(Entry::windowCount).reversed()
+                .thenComparing(Entry::key));
+        return entries.size() > k ? new ArrayList<>(entries.subList(0, k)) : entries;
+    }
+
+    /**
+     * 키의 최근 windowSeconds 초 건수 (추적 중이 아니면 0)
+     */
+    public synchronized long windowCount(String key, int windowSeconds, long nowMillis) {
+        Counter counter = counters.get(key);
+        return counter != null ? counter.windowCount(nowMillis / 1000, Math.min(windowSeconds, this.windowSeconds)) : 0;
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    private Counter minByWindow(long second) {
+        Counter min = null;
+        long minCount = Long.MAX_VALUE;
+        for (Counter counter : counters.values()) {
+            long count = counter.windowSum(second);
+            if (count < minCount || (count == minCount && counter.lastSeenMillis < min.lastSeenMillis)) {
+                min = counter;
+                minCount = count;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * 조회 결과
+     *
+     * @param key            키
+     * @param windowCount    윈도우 내 관측 건수 (하한)
+     * @param ratePerSecond  윈도우 평균 초당 건수
+     * @param total          추적 시작 이후 누적 건수
+     * @param maxError       축출된 키로부터 물려받은 최대 과대추정치 (실제 값 ≤ windowCount + maxError)
+     * @param lastSeenMillis 마지막 발생 시각
+     */
+    public record Entry(String key, long windowCount, double ratePerSecond,
+                        long total, long maxError, long lastSeenMillis) {
+    }
+
+    /**
+     * 키별 초 단위 링 버킷 (지난 슬롯은 시간이 흐를 때 0 으로 지우고 합계에서 뺌)
+     */
+    private static final class Counter {
+
+        final String key;
+        final int[] buckets;
+        final long maxError;
+        long headSecond;
+        long windowSum;
+        long total;
+        long lastSeenMillis;
+
+        Counter(String key, int windowSeconds, long maxError, long nowSecond) {
+            this.key = key;
+            this.buckets = new int[windowSeconds];
+            this.maxError = maxError;
+            this.headSecond = nowSecond;
+        }
+
+        void increment(long second, long nowMillis) {
+            advance(second);
+            if (second > headSecond - buckets.length) {
+                buckets[(int) Math.floorMod(second, buckets.length)]++;
+                windowSum++;
+            }
+            total++;
+            lastSeenMillis = Math.max(lastSeenMillis, nowMillis);
+        }
+
+        /**
+         * 전체 윈도우(windowSeconds) 건수 - O(1) (회전 비용 제외)
+         */
+        long windowSum(long nowSecond) {
+            advance(nowSecond);
+            return windowSum;
+        }
+
+        long windowCount(long nowSecond, int window) {
+            if (window >= buckets.length) {
+                return windowSum(nowSecond);
+            }
+            advance(nowSecond);
+            long sum = 0;
+            for (int i = 0; i < window; i++) {
+                sum += buckets[(int) Math.floorMod(headSecond - i, buckets.length)];
+            }
+            return sum;
+        }
+
+        private void advance(long second) {
+            if (second <= headSecond) {
+                return;
+            }
+            if (windowSum == 0) {
+                // 모든 슬롯이 이미 0 - 지울 것 없음
+                headSecond = second;
+                return;
+            }
+            long stale = Math.min(second - headSecond, buckets.length);
+            for (long s = 1; s <= stale; s++) {
+                int slot = (int) Math.floorMod(headSecond + s, buckets.length);
+                windowSum -= buckets[slot];
+                buckets[slot] = 0;
+            }
+            headSecond = second;
+        }
+    }
+}
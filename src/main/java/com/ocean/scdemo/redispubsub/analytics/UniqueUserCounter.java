@@ -0,0 +1,332 @@
+package com.ocean.scdemo.redispubsub.analytics;
+
+import com.ocean.scdemo.redispubsub.config.NodeIdentity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 고유 사용자 수(DAU/HAU/이벤트 타입별) 근사 집계
+ *
+ * 핵심 기능:
+ * - 일/시간/이벤트 타입 구간마다 로컬 HyperLogLog 하나 (구간당 16KB 고정)
+ * - 주기적으로 변경된 스케치를 Redis dense 형식으로 임시 키에 SET → PFMERGE 하여 노드 간 합산
+ * - 조회는 Redis PFCOUNT (전체 노드 합산 결과), 로컬 추정치는 노드 기여분 확인용
+ * - 끝난 구간은 마지막 flush 후 로컬에서 제거
+ *
+ * Redis 키는 구간 이름을 해시 태그로 묶어 클러스터에서도 임시 키와 같은 슬롯에 놓인다.
+ * 예) pubsub:hll:{dau:20261018}, pubsub:hll:{hau:2026101809}, pubsub:hll:{event:LOGIN:20261018}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UniqueUserCounter {
+
+    private static final String KEY_PREFIX = "pubsub:hll:";
+    private static final String EVENT_TYPES_KEY_PREFIX = "pubsub:hll:event-types:";
+    private static final String OTHER_EVENT_TYPE = "OTHER";
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("yyyyMMddHH");
+
+    /**
+     * 임시 키의 dense 스케치를 대상 키에 병합하고 보관 기간 갱신
+     */
+    private static final byte[] MERGE_SCRIPT = """
+            redis.call('SET', KEYS[2], ARGV[1])
+            redis.call('PFMERGE', KEYS[1], KEYS[2])
+            redis.call('DEL', KEYS[2])
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisPubSubTemplate;
+    private final NodeIdentity nodeIdentity;
+
+    @Value("${pubsub.hll.flush-interval-ms:10000}")
+    private long flushIntervalMillis;
+
+    @Value("${pubsub.hll.retention-days:8}")
+    private long retentionDays;
+
+    @Value("${pubsub.hll.max-event-types:64}")
+    private int maxEventTypes;
+
+    // 구간 이름(dau:yyyyMMdd 등) → 로컬 스케치
+    private final Map<String, WindowSketch> sketches = new ConcurrentHashMap<>();
+
+    // 추적 중인 이벤트 타입 (상한 초과분은 OTHER 로 집계)
+    private final Set<String> eventTypes = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    // 통계
+    private final AtomicLong totalRecorded = new AtomicLong(0);
+    private final AtomicLong totalFlushes = new AtomicLong(0);
+    private final AtomicLong totalFlushFailures = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        running = true;
+        flusher = Thread.ofVirtual().name("hll-flusher").start(this::flushLoop);
+        log.info("고유 사용자 집계 시작 - flush 주기={}ms, 보관={}일", flushIntervalMillis, retentionDays);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+        try {
+            flush(LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("종료 전 HLL flush 실패", e);
+        }
+    }
+
+    /**
+     * 사용자 활동 기록 (일/시간/이벤트 타입 스케치에 추가)
+     */
+    public void record(String userId, String eventType) {
+        record(userId, eventType, LocalDateTime.now());
+    }
+
+    public void record(String userId, String eventType, LocalDateTime at) {
+        if (userId == null) {
+            return;
+        }
+        String day = at.format(DAY);
+
+        sketch("dau:" + day, at.toLocalDate()).add(userId);
+        sketch("hau:" + at.format(HOUR), at.toLocalDate()).add(userId);
+        if (eventType != null) {
+            sketch("event:" + trackedEventType(eventType) + ":" + day, at.toLocalDate()).add(userId);
+        }
+        totalRecorded.incrementAndGet();
+    }
+
+    /**
+     * 날짜별 고유 사용자 조회 (Redis 에 합산된 전체 노드 기준)
+     */
+    public UniqueUsersReport getReport(LocalDate date) {
+        String day = date.format(DAY);
+
+        Map<String, Long> hourly = new LinkedHashMap<>();
+        for (int hour = 0; hour < 24; hour++) {
+            String hourKey = date.atTime(hour, 0).format(HOUR);
+            hourly.put(String.format("%02d", hour), pfCount("hau:" + hourKey));
+        }
+
+        Map<String, Long> byEventType = new TreeMap<>();
+        for (String eventType : registeredEventTypes(day)) {
+            byEventType.put(eventType, pfCount("event:" + eventType + ":" + day));
+        }
+
+        WindowSketch local = sketches.get("dau:" + day);
+
+        return UniqueUsersReport.builder()
+                .date(date)
+                .dailyActiveUsers(pfCount("dau:" + day))
+                .hourlyActiveUsers(hourly)
+                .uniquesByEventType(byEventType)
+                .localDailyEstimate(local != null ? local.hll.estimate() : 0)
+                .build();
+    }
+
+    /**
+     * 변경된 스케치를 Redis 로 병합하고 끝난 구간 제거
+     */
+    public int flush(LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        String currentHour = now.format(HOUR);
+        int flushed = 0;
+
+        for (Map.Entry<String, WindowSketch> entry : sketches.entrySet()) {
+            String window = entry.getKey();
+            WindowSketch sketch = entry.getValue();
+
+            if (sketch.dirty) {
+                sketch.dirty = false;
+                try {
+                    mergeIntoRedis(window, sketch);
+                    flushed++;
+                } catch (Exception e) {
+                    sketch.dirty = true;
+                    totalFlushFailures.incrementAndGet();
+                    log.warn("HLL 병합 실패: window={}", window, e);
+                    continue;
+                }
+            }
+
+            // 끝난 구간은 마지막 병합 후 로컬에서 제거 (다음 기록이 오면 새 스케치로 다시 시작)
+            boolean ended = window.startsWith("hau:")
+                    ? window.substring(4).compareTo(currentHour) < 0
+                    : sketch.day.isBefore(today);
+            if (ended && !sketch.dirty && sketches.remove(window, sketch) && sketch.dirty) {
+                // 제거 직전에 늦게 도착한 기록은 바로 병합
+                mergeIntoRedis(window, sketch);
+            }
+        }
+
+        totalFlushes.incrementAndGet();
+        return flushed;
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMillis);
+                int flushed = flush(LocalDateTime.now());
+                if (flushed > 0) {
+                    log.debug("HLL 스케치 병합: {}건", flushed);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("HLL flush 실패", e);
+            }
+        }
+    }
+
+    private void mergeIntoRedis(String window, WindowSketch sketch) {
+        byte[] target = bytes(redisKey(window));
+        byte[] temp = bytes(redisKey(window) + ":tmp:" + nodeIdentity.getNodeId());
+        byte[] dense = sketch.hll.toRedisDense();
+        byte[] ttl = bytes(Long.toString(retentionDays * 86_400));
+
+        redisPubSubTemplate.execute((RedisCallback<Object>) connection ->
+                connection.scriptingCommands().eval(MERGE_SCRIPT, ReturnType.INTEGER, 2, target, temp, dense, ttl));
+
+        if (window.startsWith("event:")) {
+            String eventType = window.substring("event:".length(), window.lastIndexOf(':'));
+            byte[] typesKey = bytes(EVENT_TYPES_KEY_PREFIX + sketch.day.format(DAY));
+            redisPubSubTemplate.execute((RedisCallback<Object>) connection -> {
+                connection.setCommands().sAdd(typesKey, bytes(eventType));
+                connection.keyCommands().expire(typesKey, retentionDays * 86_400);
+                return null;
+            });
+        }
+    }
+
+    private long pfCount(String window) {
+        Long count = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.hyperLogLogCommands().pfCount(bytes(redisKey(window))));
+        return count != null ? count : 0;
+    }
+
+    private List<String> registeredEventTypes(String day) {
+        Set<byte[]> members = redisPubSubTemplate.execute((RedisCallback<Set<byte[]>>) connection ->
+                connection.setCommands().sMembers(bytes(EVENT_TYPES_KEY_PREFIX + day)));
+        List<String> types = new ArrayList<>();
+        if (members != null) {
+            members.forEach(member -> types.add(new String(member, StandardCharsets.UTF_8)));
+        }
+        return types;
+    }
+
+    private WindowSketch sketch(String window, LocalDate day) {
+        return sketches.computeIfAbsent(window, w -> new WindowSketch(day));
+    }
+
+    private String trackedEventType(String eventType) {
+        if (eventTypes.contains(eventType)) {
+            return eventType;
+        }
+        if (eventTypes.size() < maxEventTypes && eventTypes.add(eventType)) {
+            return eventType;
+        }
+        return OTHER_EVENT_TYPE;
+    }
+
+    private static String redisKey(String window) {
+        return KEY_PREFIX + "{" + window + "}";
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 로컬 집계 통계 (스케치 수, 고정 메모리)
+     */
+    public CounterStats getStats() {
+        return CounterStats.builder()
+                .localSketches(sketches.size())
+                .trackedEventTypes(eventTypes.size())
+                .sketchMemoryBytes(sketches.size() * HyperLogLog.memoryBytes())
+                .totalRecorded(totalRecorded.get())
+                .totalFlushes(totalFlushes.get())
+                .totalFlushFailures(totalFlushFailures.get())
+                .build();
+    }
+
+    /**
+     * 구간 스케치 (dirty: 마지막 flush 이후 변경 여부)
+     */
+    private static final class WindowSketch {
+
+        final HyperLogLog hll = new HyperLogLog();
+        final LocalDate day;
+        volatile boolean dirty;
+
+        WindowSketch(LocalDate day) {
+            this.day = day;
+        }
+
+        void add(String userId) {
+            // 레지스터가 바뀐 경우만 병합 대상 (이미 센 사용자는 Redis 왕복 없음)
+            if (hll.add(userId)) {
+                dirty = true;
+            }
+        }
+    }
+
+    /**
+     * 고유 사용자 리포트 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class UniqueUsersReport {
+        private final LocalDate date;
+        private final long dailyActiveUsers;
+        private final Map<String, Long> hourlyActiveUsers;
+        private final Map<String, Long> uniquesByEventType;
+        private final long localDailyEstimate;
+    }
+
+    /**
+     * 로컬 집계 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class CounterStats {
+        private final int localSketches;
+        private final int trackedEventTypes;
+        private final long sketchMemoryBytes;
+        private final long totalRecorded;
+        private final long totalFlushes;
+        private final long totalFlushFailures;
+    }
+}
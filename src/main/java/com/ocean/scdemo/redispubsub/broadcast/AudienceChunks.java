@@ -0,0 +1,71 @@
+package com.ocean.scdemo.redispubsub.broadcast;
+
+import java.util.Arrays;
+
+/**
+ * 대상자 비트맵을 ID 구간 청크로 나누고 청크 바이트열에서 대상자를 꺼내는 계산
+ *
+ * 청크 i 는 전역 ID [i * chunkSize, (i + 1) * chunkSize) 를 맡으며, chunkSize 는 8 의 배수여서
+ * 청크 하나가 Redis 비트맵의 연속된 바이트 구간(GETRANGE) 하나와 정확히 대응한다.
+ * 비트 순서는 Redis 와 같이 바이트의 최상위 비트가 가장 작은 오프셋이다.
+ */
+public final class AudienceChunks {
+
+    private AudienceChunks() {
+    }
+
+    /**
+     * 비트맵 길이(바이트)에 필요한 청크 수
+     */
+    public static int chunkCount(long bitmapBytes, int chunkSize) {
+        long bits = bitmapBytes * 8;
+        return (int) ((bits + chunkSize - 1) / chunkSize);
+    }
+
+    /**
+     * 청크의 첫 바이트 위치 (GETRANGE start)
+     */
+    public static long startByte(int chunk, int chunkSize) {
+        return (long) chunk * (chunkSize / 8);
+    }
+
+    /**
+     * 청크의 마지막 바이트 위치 (GETRANGE end, 포함)
+     */
+    public static long endByte(int chunk, int chunkSize) {
+        return startByte(chunk, chunkSize) + chunkSize / 8 - 1;
+    }
+
+    /**
+     * 청크 바이트열에서 켜진 비트의 전역 ID (오름차순, resumeAfter 이하는 제외 - 체크포인트 재개)
+     *
+     * @param range       GETRANGE 결과 (비트맵 끝을 넘는 청크는 더 짧을 수 있음)
+     * @param baseId      청크 첫 전역 ID
+     * @param resumeAfter 이미 처리한 마지막 전역 ID (처음이면 -1)
+     */
+    public static int[] members(byte[] range, int baseId, int resumeAfter) {
+        if (range == null || range.length == 0) {
+            return new int[0];
+        }
+        int firstByte = Math.max(0, (resumeAfter + 1 - baseId) / 8);
+        int total = 0;
+        for (int i = firstByte; i < range.length; i++) {
+            total += Integer.bitCount(range[i] & 0xFF);
+        }
+
+        int[] ids = new int[total];
+        int count = 0;
+        for (int i = firstByte; i < range.length; i++) {
+            int value = range[i] & 0xFF;
+            for (int bit = 0; bit < 8 && value != 0; bit++) {
+                if ((value & (0x80 >>> bit)) != 0) {
+                    int id = baseId + i * 8 + bit;
+                    if (id > resumeAfter) {
+                        ids[count++] = id;
+                    }
+                }
+            }
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+}
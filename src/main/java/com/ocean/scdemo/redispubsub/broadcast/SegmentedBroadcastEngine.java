@@ -0,0 +1,747 @@
+package com.ocean.scdemo.redispubsub.broadcast;
+
+import com.ocean.scdemo.redispubsub.config.NodeIdentity;
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig;
+import com.ocean.scdemo.redispubsub.message.NotificationMessage;
+import com.ocean.scdemo.redispubsub.presence.PresenceService;
+import com.ocean.scdemo.redispubsub.publisher.MessagePublisher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 세그먼트 브로드캐스트 엔진
+ *
+ * 핵심 기능:
+ * - 대상자: 세그먼트 비트맵 (접속 상태 서비스의 전역 조밀 ID 위치에 SETBIT)
+ *   · "online" → 온라인 비트맵, "room:{방ID}" → 방 멤버 비트맵, 그 외 → {pubsub:broadcast}:segment:{이름}
+ * - 분할: 전역 ID 구간 청크(chunk-size 비트 = GETRANGE 한 번)로 나눠 공유 작업 큐(LIST)에 적재
+ * - 분산 처리: 모든 노드의 작업자(가상 스레드)가 Lua 로 청크를 원자적으로 claim, 임대(lease) ZSET + 소유 토큰 기록
+ * - 체크포인트: checkpoint-every 건마다 마지막 처리 ID 와 전달 건수를 기록하고 임대 연장
+ *   (토큰이 바뀌었으면 임대를 잃은 것이므로 중단)
+ * - 장애 복구: 임대 만료 청크는 큐 앞으로 되돌려 다른 노드가 체크포인트 다음 ID 부터 이어서 처리
+ * - 진행률: 브로드캐스트별 HASH (완료 청크, 전달/실패 건수, 시작/종료 시각) → 처리율 계산
+ * - 전달: 체크포인트 구간(checkpoint-every 명) 단위로 BroadcastDelivery 호출. 기본(delivery=batch)은 구간 하나를
+ *   수신자 목록(recipientIds)을 담은 알림 한 건으로 브로드캐스트 채널에 발행하여 각 노드가 자기에게 연결된 수신자에게만
+ *   내보내게 한다 (대상자 수만큼의 발행/멱등 확인이 생기지 않음). 메시지 ID 는 브로드캐스트ID:구간 첫 전역 ID 로 고정해
+ *   재개 시 다시 전달되어도 수신 측 멱등 게이트에서 걸러짐. 대상자별 알림 채널 발행(delivery=per-user)은 데모용 선택 사항이며,
+ *   setDelivery 로 푸시 게이트웨이/사용자별 스트림 등으로 교체할 수 있다
+ * - MessagePublisher.publishBroadcast 는 활성화 시 default-segment 대상으로 이 엔진을 통해 시작
+ *
+ * 마지막 체크포인트와 장애 사이에 전달된 대상자는 재개 시 다시 전달될 수 있다 (at-least-once).
+ * 모든 키는 같은 해시 태그를 써서 스크립트가 클러스터에서도 한 슬롯 안에서 동작한다.
+ * 세그먼트 비트맵이 접속 상태 키({pubsub:presence})인 경우 청크 읽기(GETRANGE)만 별도 명령으로 수행한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SegmentedBroadcastEngine {
+
+    static final String QUEUE_KEY = "{pubsub:broadcast}:queue";
+    static final String LEASE_KEY = "{pubsub:broadcast}:leases";
+    static final String OWNER_KEY = "{pubsub:broadcast}:owners";
+    static final String CHECKPOINT_KEY = "{pubsub:broadcast}:checkpoints";
+    static final String INDEX_KEY = "{pubsub:broadcast}:index";
+    static final String JOB_KEY_PREFIX = "{pubsub:broadcast}:job:";
+    static final String SEGMENT_KEY_PREFIX = "{pubsub:broadcast}:segment:";
+
+    /**
+     * 청크 하나 claim - 큐에서 꺼내 임대/소유자 기록, 체크포인트와 함께 반환
+     * 반환: [청크, 체크포인트(없으면 -1)] 또는 nil
+     */
+    private static final byte[] CLAIM_SCRIPT = """
+            local chunk = redis.call('LPOP', KEYS[1])
+            if not chunk then return nil end
+            redis.call('ZADD', KEYS[2], ARGV[2], chunk)
+            redis.call('HSET', KEYS[3], chunk, ARGV[1])
+            local checkpoint = redis.call('HGET', KEYS[4], chunk)
+            return {chunk, checkpoint or '-1'}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 체크포인트 - 소유 토큰이 같을 때만 기록하고 임대 연장, 전달 건수 누적 (1 / 임대를 잃었으면 0)
+     */
+    private static final byte[] CHECKPOINT_SCRIPT = """
+            if redis.call('HGET', KEYS[2], ARGV[1]) ~= ARGV[2] then return 0 end
+            redis.call('HSET', KEYS[3], ARGV[1], ARGV[3])
+            redis.call('ZADD', KEYS[1], ARGV[4], ARGV[1])
+            if redis.call('EXISTS', KEYS[4]) == 1 then
+              redis.call('HINCRBY', KEYS[4], 'delivered', ARGV[5])
+              redis.call('HINCRBY', KEYS[4], 'failed', ARGV[6])
+            end
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 청크 완료 - 임대/소유자/체크포인트 정리, 완료 청크 수 증가, 마지막 청크면 완료 표시
+     * 메타데이터가 만료/삭제된 브로드캐스트는 정리만 하고 진행률 키를 다시 만들지 않음
+     * 반환: 완료 청크 수 (메타데이터가 없으면 0, 임대를 잃었으면 -1)
+     */
+    private static final byte[] COMPLETE_SCRIPT = """
+            if redis.call('HGET', KEYS[2], ARGV[1]) ~= ARGV[2] then return -1 end
+            redis.call('ZREM', KEYS[1], ARGV[1])
+            redis.call('HDEL', KEYS[2], ARGV[1])
+            redis.call('HDEL', KEYS[3], ARGV[1])
+            local chunks = tonumber(redis.call('HGET', KEYS[4], 'chunks'))
+            if not chunks then return 0 end
+            redis.call('HINCRBY', KEYS[4], 'delivered', ARGV[3])
+            redis.call('HINCRBY', KEYS[4], 'failed', ARGV[4])
+            local done = redis.call('HINCRBY', KEYS[4], 'completedChunks', 1)
+            if done >= chunks then
+              redis.call('HSET', KEYS[4], 'state', 'COMPLETED', 'finishedAt', ARGV[5])
+              redis.call('PEXPIRE', KEYS[4], ARGV[6])
+            end
+            return done
+            """.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 임대 만료 청크를 최대 n 개 큐 앞으로 복귀 (체크포인트는 유지)
+     */
+    private static final byte[] REQUEUE_SCRIPT = """
+            local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            for _, chunk in ipairs(expired) do
+              redis.call('ZREM', KEYS[1], chunk)
+              redis.call('HDEL', KEYS[2], chunk)
+              redis.call('LPUSH', KEYS[3], chunk)
+            end
+            return #expired
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisPubSubTemplate;
+    private final NodeIdentity nodeIdentity;
+    private final PresenceService presenceService;
+    private final MessagePublisher messagePublisher;
+
+    @Value("${pubsub.broadcast.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pubsub.broadcast.default-segment:online}")
+    private String defaultSegment;
+
+    @Value("${pubsub.broadcast.chunk-size:65536}")
+    private int chunkSize;
+
+    @Value("${pubsub.broadcast.workers:4}")
+    private int workers;
+
+    @Value("${pubsub.broadcast.lease-ms:30000}")
+    private long leaseMillis;
+
+    @Value("${pubsub.broadcast.checkpoint-every:1000}")
+    private int checkpointEvery;
+
+    @Value("${pubsub.broadcast.poll-interval-ms:500}")
+    private long pollIntervalMillis;
+
+    @Value("${pubsub.broadcast.reclaim-interval-ms:5000}")
+    private long reclaimIntervalMillis;
+
+    @Value("${pubsub.broadcast.retention-ms:86400000}")
+    private long retentionMillis;
+
+    @Value("${pubsub.broadcast.max-tracked:100}")
+    private int maxTracked;
+
+    @Value("${pubsub.broadcast.delivery:batch}")
+    private String deliveryMode;
+
+    private RedisSerializer<Object> valueSerializer;
+    private volatile BroadcastDelivery delivery = this::publishBatch;
+
+    // 작업자가 처리 중인 브로드캐스트 메타데이터 (완료 시 제거)
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private Thread reclaimer;
+
+    // 통계 (이 노드)
+    private final AtomicInteger activeChunks = new AtomicInteger(0);
+    private final AtomicLong chunksProcessed = new AtomicLong(0);
+    private final AtomicLong chunksResumed = new AtomicLong(0);
+    private final AtomicLong leasesLost = new AtomicLong(0);
+    private final AtomicLong leasesReclaimed = new AtomicLong(0);
+    private final AtomicLong deliveries = new AtomicLong(0);
+    private final AtomicLong deliveryFailures = new AtomicLong(0);
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    public void init() {
+        valueSerializer = (RedisSerializer<Object>) redisPubSubTemplate.getValueSerializer();
+        if (chunkSize <= 0 || chunkSize % 8 != 0) {
+            throw new IllegalStateException("pubsub.broadcast.chunk-size 는 8 의 배수여야 합니다: " + chunkSize);
+        }
+        if ("per-user".equalsIgnoreCase(deliveryMode)) {
+            delivery = this::publishPerUser;
+        }
+        if (!enabled) {
+            log.info("세그먼트 브로드캐스트 비활성화 (설정)");
+            return;
+        }
+
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            workerThreads.add(Thread.ofVirtual().name("broadcast-worker-" + i).start(this::workerLoop));
+        }
+        reclaimer = Thread.ofVirtual().name("broadcast-reclaimer").start(this::reclaimLoop);
+
+        log.info("세그먼트 브로드캐스트 시작 - chunk={}, workers={}, lease={}ms, checkpointEvery={}, delivery={}",
+                chunkSize, workers, leaseMillis, checkpointEvery, deliveryMode);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workerThreads.forEach(Thread::interrupt);
+        if (reclaimer != null) {
+            reclaimer.interrupt();
+        }
+    }
+
+    /**
+     * 대상자 전달 수단 등록 (푸시 게이트웨이, 사용자별 스트림 등 - 체크포인트 구간 단위 호출)
+     */
+    public void setDelivery(BroadcastDelivery delivery) {
+        this.delivery = delivery;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 기본 전달 - 구간을 수신자 목록 알림 한 건으로 브로드캐스트 채널에 발행 (실패하면 구간 전체 실패)
+     * 발행 경로에서 메시지를 변경하므로 구간마다 저장된 본문에서 새 객체를 만든다.
+     */
+    private List<String> publishBatch(String sliceKey, List<String> userIds, NotificationMessage message) {
+        NotificationMessage copy = copyOf(message);
+        copy.setMessageId(message.getMessageId() + ":" + sliceKey);
+        copy.setRecipientId(null);
+        copy.setRecipientIds(List.copyOf(userIds));
+        boolean published = messagePublisher.publishTo(RedisPubSubConfig.Channels.NOTIFICATION_BROADCAST, copy);
+        return published ? List.of() : userIds;
+    }
+
+    /**
+     * 데모용 전달 (delivery=per-user) - 대상자마다 알림 채널로 발행
+     */
+    private List<String> publishPerUser(String sliceKey, List<String> userIds, NotificationMessage message) {
+        List<String> failed = new ArrayList<>();
+        for (String userId : userIds) {
+            NotificationMessage copy = copyOf(message);
+            copy.setMessageId(message.getMessageId() + ":" + userId);
+            copy.setRecipientId(userId);
+            if (!messagePublisher.publishTo(RedisPubSubConfig.Channels.userNotification(userId), copy)) {
+                failed.add(userId);
+            }
+        }
+        return failed;
+    }
+
+    private NotificationMessage copyOf(NotificationMessage message) {
+        return (NotificationMessage) valueSerializer.deserialize(valueSerializer.serialize(message));
+    }
+
+    // === 세그먼트 ===
+
+    /**
+     * 세그먼트에 사용자 추가/제거 (전역 조밀 ID 위치 SETBIT)
+     */
+    public void updateSegment(String segment, List<String> userIds, boolean member) {
+        byte[] key = bytes(segmentKey(segment));
+        int[] ids = userIds.stream().mapToInt(presenceService::ensureId).toArray();
+        redisPubSubTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int id : ids) {
+                connection.stringCommands().setBit(key, id, member);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 세그먼트 이름 → 비트맵 키
+     */
+    static String segmentKey(String segment) {
+        if ("online".equals(segment)) {
+            return PresenceService.ONLINE_KEY;
+        }
+        if (segment.startsWith("room:")) {
+            return PresenceService.ROOM_KEY_PREFIX + segment.substring("room:".length());
+        }
+        return SEGMENT_KEY_PREFIX + segment;
+    }
+
+    // === 시작 ===
+
+    /**
+     * 기본 세그먼트(default-segment) 대상 브로드캐스트 시작
+     */
+    public String start(NotificationMessage message) {
+        return start(message, defaultSegment);
+    }
+
+    /**
+     * 세그먼트 대상 브로드캐스트 시작 - 청크를 작업 큐에 적재하고 브로드캐스트 ID(메시지 ID) 반환
+     */
+    public String start(NotificationMessage message, String segment) {
+        if (!enabled) {
+            throw new IllegalStateException("세그먼트 브로드캐스트가 비활성화되어 있습니다");
+        }
+        if (message.getMessageId() == null) {
+            message.setMessageId(UUID.randomUUID().toString());
+        }
+        String broadcastId = message.getMessageId();
+        message.setRecipientGroup("SEGMENT:" + segment);
+        String bitmapKey = segmentKey(segment);
+
+        Long bitmapBytes = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.stringCommands().strLen(bytes(bitmapKey)));
+        int chunks = AudienceChunks.chunkCount(bitmapBytes != null ? bitmapBytes : 0, chunkSize);
+        long now = System.currentTimeMillis();
+
+        Map<byte[], byte[]> fields = new HashMap<>();
+        fields.put(bytes("segment"), bytes(segment));
+        fields.put(bytes("bitmapKey"), bytes(bitmapKey));
+        fields.put(bytes("chunkSize"), bytes(Integer.toString(chunkSize)));
+        fields.put(bytes("chunks"), bytes(Integer.toString(chunks)));
+        fields.put(bytes("completedChunks"), bytes("0"));
+        fields.put(bytes("delivered"), bytes("0"));
+        fields.put(bytes("failed"), bytes("0"));
+        fields.put(bytes("startedAt"), bytes(Long.toString(now)));
+        fields.put(bytes("startedBy"), bytes(nodeIdentity.getNodeId()));
+        fields.put(bytes("state"), bytes(chunks > 0 ? "RUNNING" : "COMPLETED"));
+        fields.put(bytes("payload"), valueSerializer.serialize(message));
+        if (chunks == 0) {
+            fields.put(bytes("finishedAt"), bytes(Long.toString(now)));
+        }
+
+        byte[] jobKey = bytes(JOB_KEY_PREFIX + broadcastId);
+        redisPubSubTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hashCommands().hMSet(jobKey, fields);
+            if (chunks == 0) {
+                connection.keyCommands().pExpire(jobKey, retentionMillis);
+            }
+            connection.zSetCommands().zAdd(bytes(INDEX_KEY), now, bytes(broadcastId));
+            connection.zSetCommands().zRemRange(bytes(INDEX_KEY), 0, -(maxTracked + 1));
+            // 청크 수가 많아도 명령 하나가 너무 커지지 않도록 나눠서 적재
+            for (int from = 0; from < chunks; from += 1_000) {
+                int to = Math.min(chunks, from + 1_000);
+                byte[][] entries = new byte[to - from][];
+                for (int chunk = from; chunk < to; chunk++) {
+                    entries[chunk - from] = bytes(chunkId(broadcastId, chunk));
+                }
+                connection.listCommands().rPush(bytes(QUEUE_KEY), entries);
+            }
+            return null;
+        });
+
+        log.info("세그먼트 브로드캐스트 시작: ID={}, 세그먼트={}, 비트맵={}bytes, 청크={}",
+                broadcastId, segment, bitmapBytes, chunks);
+        return broadcastId;
+    }
+
+    // === 작업자 ===
+
+    private void workerLoop() {
+        String token = nodeIdentity.getNodeId() + ":" + UUID.randomUUID();
+
+        while (running) {
+            try {
+                Claim claim = claim(token);
+                if (claim == null) {
+                    Thread.sleep(pollIntervalMillis);
+                    continue;
+                }
+                activeChunks.incrementAndGet();
+                try {
+                    process(claim, token);
+                } finally {
+                    activeChunks.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("브로드캐스트 청크 처리 실패 (임대 만료 후 재처리)", e);
+                sleepQuietly(pollIntervalMillis);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Claim claim(String token) {
+        byte[][] keysAndArgs = {
+                bytes(QUEUE_KEY), bytes(LEASE_KEY), bytes(OWNER_KEY), bytes(CHECKPOINT_KEY),
+                bytes(token), bytes(Long.toString(System.currentTimeMillis() + leaseMillis))
+        };
+        List<byte[]> result = redisPubSubTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.scriptingCommands().eval(CLAIM_SCRIPT, ReturnType.MULTI, 4, keysAndArgs));
+        if (result == null || result.size() < 2) {
+            return null;
+        }
+        String chunkId = string(result.get(0));
+        int separator = chunkId.lastIndexOf(':');
+        return new Claim(chunkId, chunkId.substring(0, separator), Integer.parseInt(chunkId.substring(separator + 1)),
+                Integer.parseInt(string(result.get(1))));
+    }
+
+    /**
+     * 청크 처리 - 비트맵 구간 읽기 → 체크포인트 이후 대상자 → checkpointEvery 건씩 이름 조회/전달/체크포인트 → 완료
+     */
+    private void process(Claim claim, String token) {
+        Job job = job(claim.broadcastId());
+        if (job == null) {
+            // 메타데이터가 만료/삭제된 브로드캐스트의 남은 청크는 전달 없이 정리
+            complete(claim, token, 0, 0);
+            return;
+        }
+        if (claim.checkpoint() >= 0) {
+            chunksResumed.incrementAndGet();
+        }
+
+        int baseId = claim.chunk() * job.chunkSize();
+        long start = AudienceChunks.startByte(claim.chunk(), job.chunkSize());
+        long end = AudienceChunks.endByte(claim.chunk(), job.chunkSize());
+        byte[] range = redisPubSubTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().getRange(bytes(job.bitmapKey()), start, end));
+        int[] audience = AudienceChunks.members(range, baseId, claim.checkpoint());
+
+        // 체크포인트 이후 전달 건수 (체크포인트/완료 시 Redis 진행률에 누적)
+        long delivered = 0;
+        long failed = 0;
+        for (int from = 0; from < audience.length; from += checkpointEvery) {
+            int to = Math.min(audience.length, from + checkpointEvery);
+            List<String> userIds = userIdsOf(audience, from, to);
+            int sliceFailed = deliverSlice(Integer.toString(audience[from]), userIds, job.message());
+            delivered += userIds.size() - sliceFailed;
+            failed += sliceFailed;
+            if (to == audience.length) {
+                break;
+            }
+            if (!checkpoint(claim, token, audience[to - 1], delivered, failed)) {
+                leasesLost.incrementAndGet();
+                log.warn("브로드캐스트 청크 임대 상실, 중단: {}", claim.chunkId());
+                return;
+            }
+            delivered = 0;
+            failed = 0;
+        }
+        complete(claim, token, delivered, failed);
+    }
+
+    /**
+     * 체크포인트 구간 하나 전달 - 실패 건수 반환 (예외는 구간 전체 실패)
+     */
+    private int deliverSlice(String sliceKey, List<String> userIds, NotificationMessage message) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        int failed;
+        try {
+            failed = delivery.deliver(sliceKey, userIds, message).size();
+        } catch (Exception e) {
+            log.debug("브로드캐스트 구간 전달 실패: ID={}, 대상={}", message.getMessageId(), userIds.size(), e);
+            failed = userIds.size();
+        }
+        deliveries.addAndGet(userIds.size() - failed);
+        deliveryFailures.addAndGet(failed);
+        return failed;
+    }
+
+    /**
+     * 전역 ID → 사용자 ID (HMGET 한 번, 로컬에 캐시하지 않음 - 대상자가 수백만이어도 노드 메모리를 늘리지 않도록)
+     */
+    private List<String> userIdsOf(int[] audience, int from, int to) {
+        byte[][] fields = new byte[to - from][];
+        for (int i = from; i < to; i++) {
+            fields[i - from] = bytes(Integer.toString(audience[i]));
+        }
+        List<byte[]> values = redisPubSubTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.hashCommands().hMGet(bytes(PresenceService.NAMES_KEY), fields));
+
+        List<String> userIds = new ArrayList<>(fields.length);
+        for (int i = 0; values != null && i < values.size(); i++) {
+            if (values.get(i) != null) {
+                userIds.add(string(values.get(i)));
+            }
+        }
+        return userIds;
+    }
+
+    private boolean checkpoint(Claim claim, String token, int lastId, long delivered, long failed) {
+        byte[][] keysAndArgs = {
+                bytes(LEASE_KEY), bytes(OWNER_KEY), bytes(CHECKPOINT_KEY), bytes(JOB_KEY_PREFIX + claim.broadcastId()),
+                bytes(claim.chunkId()), bytes(token), bytes(Integer.toString(lastId)),
+                bytes(Long.toString(System.currentTimeMillis() + leaseMillis)),
+                bytes(Long.toString(delivered)), bytes(Long.toString(failed))
+        };
+        Long result = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.scriptingCommands().eval(CHECKPOINT_SCRIPT, ReturnType.INTEGER, 4, keysAndArgs));
+        return result != null && result == 1;
+    }
+
+    private void complete(Claim claim, String token, long delivered, long failed) {
+        byte[][] keysAndArgs = {
+                bytes(LEASE_KEY), bytes(OWNER_KEY), bytes(CHECKPOINT_KEY), bytes(JOB_KEY_PREFIX + claim.broadcastId()),
+                bytes(claim.chunkId()), bytes(token), bytes(Long.toString(delivered)), bytes(Long.toString(failed)),
+                bytes(Long.toString(System.currentTimeMillis())), bytes(Long.toString(retentionMillis))
+        };
+        Long done = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.scriptingCommands().eval(COMPLETE_SCRIPT, ReturnType.INTEGER, 4, keysAndArgs));
+        if (done == null || done < 0) {
+            leasesLost.incrementAndGet();
+            log.warn("브로드캐스트 청크 완료 전 임대 상실: {}", claim.chunkId());
+            return;
+        }
+        chunksProcessed.incrementAndGet();
+        Job job = jobs.get(claim.broadcastId());
+        if (job != null && done >= job.chunks()) {
+            jobs.remove(claim.broadcastId());
+            log.info("세그먼트 브로드캐스트 완료: ID={}", claim.broadcastId());
+        }
+    }
+
+    /**
+     * 브로드캐스트 메타데이터 (작업자 간 공유, 처음 처리하는 노드만 Redis 에서 읽음)
+     */
+    private Job job(String broadcastId) {
+        Job cached = jobs.get(broadcastId);
+        if (cached != null) {
+            return cached;
+        }
+        Map<byte[], byte[]> raw = redisPubSubTemplate.execute((RedisCallback<Map<byte[], byte[]>>) connection ->
+                connection.hashCommands().hGetAll(bytes(JOB_KEY_PREFIX + broadcastId)));
+        if (raw == null || raw.isEmpty()) {
+            return null;
+        }
+        Map<String, byte[]> fields = new HashMap<>();
+        raw.forEach((field, value) -> fields.put(string(field), value));
+        if (!(valueSerializer.deserialize(fields.get("payload")) instanceof NotificationMessage message)) {
+            return null;
+        }
+        Job job = new Job(message, string(fields.get("bitmapKey")),
+                Integer.parseInt(string(fields.get("chunkSize"))), Integer.parseInt(string(fields.get("chunks"))));
+        if (jobs.size() >= maxTracked) {
+            // 다른 노드가 마지막 청크를 끝낸 브로드캐스트는 여기서 제거되지 않으므로 주기적으로 비움 (필요하면 다시 읽음)
+            jobs.clear();
+        }
+        jobs.put(broadcastId, job);
+        return job;
+    }
+
+    // === 장애 복구 ===
+
+    private void reclaimLoop() {
+        while (running) {
+            try {
+                Thread.sleep(reclaimIntervalMillis);
+                reclaimExpired();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("브로드캐스트 임대 회수 실패", e);
+            }
+        }
+    }
+
+    int reclaimExpired() {
+        byte[][] keysAndArgs = {
+                bytes(LEASE_KEY), bytes(OWNER_KEY), bytes(QUEUE_KEY),
+                bytes(Long.toString(System.currentTimeMillis())), bytes("100")
+        };
+        Long reclaimed = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.scriptingCommands().eval(REQUEUE_SCRIPT, ReturnType.INTEGER, 3, keysAndArgs));
+        int count = reclaimed != null ? reclaimed.intValue() : 0;
+        if (count > 0) {
+            leasesReclaimed.addAndGet(count);
+            log.info("임대 만료 브로드캐스트 청크 {}개 재적재", count);
+        }
+        return count;
+    }
+
+    // === 조회 ===
+
+    /**
+     * 브로드캐스트 진행률/처리율 (없으면 null)
+     */
+    public BroadcastProgress getProgress(String broadcastId) {
+        Map<byte[], byte[]> raw = redisPubSubTemplate.execute((RedisCallback<Map<byte[], byte[]>>) connection ->
+                connection.hashCommands().hGetAll(bytes(JOB_KEY_PREFIX + broadcastId)));
+        if (raw == null || raw.isEmpty()) {
+            return null;
+        }
+        Map<String, String> fields = new HashMap<>();
+        raw.forEach((field, value) -> {
+            String name = string(field);
+            if (!"payload".equals(name)) {
+                fields.put(name, string(value));
+            }
+        });
+
+        long startedAt = Long.parseLong(fields.getOrDefault("startedAt", "0"));
+        long finishedAt = Long.parseLong(fields.getOrDefault("finishedAt", "0"));
+        long elapsed = Math.max(1, (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt);
+        int chunks = Integer.parseInt(fields.getOrDefault("chunks", "0"));
+        int completed = Integer.parseInt(fields.getOrDefault("completedChunks", "0"));
+        long delivered = Long.parseLong(fields.getOrDefault("delivered", "0"));
+
+        return BroadcastProgress.builder()
+                .broadcastId(broadcastId)
+                .segment(fields.get("segment"))
+                .state(fields.get("state"))
+                .startedBy(fields.get("startedBy"))
+                .chunks(chunks)
+                .completedChunks(completed)
+                .progressPercent(chunks > 0 ? completed * 100.0 / chunks : 100.0)
+                .delivered(delivered)
+                .failed(Long.parseLong(fields.getOrDefault("failed", "0")))
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .elapsedMillis(elapsed)
+                .deliveriesPerSecond(delivered * 1000.0 / elapsed)
+                .build();
+    }
+
+    /**
+     * 최근 브로드캐스트 진행률 (최신순, 메타데이터가 만료된 항목은 제외)
+     */
+    public List<BroadcastProgress> recent(int limit) {
+        Set<byte[]> ids = redisPubSubTemplate.execute((RedisCallback<Set<byte[]>>) connection ->
+                connection.zSetCommands().zRevRange(bytes(INDEX_KEY), 0, limit - 1));
+        List<BroadcastProgress> result = new ArrayList<>();
+        if (ids != null) {
+            for (byte[] id : ids) {
+                BroadcastProgress progress = getProgress(string(id));
+                if (progress != null) {
+                    result.add(progress);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 엔진 통계 (이 노드의 작업자 + 공유 큐 상태)
+     */
+    public BroadcastStats getStats() {
+        Long queued = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.listCommands().lLen(bytes(QUEUE_KEY)));
+        Long leased = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.zSetCommands().zCard(bytes(LEASE_KEY)));
+
+        return BroadcastStats.builder()
+                .enabled(enabled)
+                .chunkSize(chunkSize)
+                .workers(workers)
+                .delivery(deliveryMode)
+                .queuedChunks(queued != null ? queued : 0)
+                .leasedChunks(leased != null ? leased : 0)
+                .activeChunks(activeChunks.get())
+                .chunksProcessed(chunksProcessed.get())
+                .chunksResumed(chunksResumed.get())
+                .leasesLost(leasesLost.get())
+                .leasesReclaimed(leasesReclaimed.get())
+                .deliveries(deliveries.get())
+                .deliveryFailures(deliveryFailures.get())
+                .build();
+    }
+
+    private static String chunkId(String broadcastId, int chunk) {
+        return broadcastId + ":" + chunk;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 체크포인트 구간 하나의 대상자에게 브로드캐스트 전달
+     */
+    @FunctionalInterface
+    public interface BroadcastDelivery {
+        /**
+         * @param sliceKey 구간 식별자 (구간 첫 전역 ID - 재개 시에도 같은 값이므로 멱등 키로 사용)
+         * @return 전달하지 못한 사용자 ID (모두 성공하면 빈 목록)
+         */
+        List<String> deliver(String sliceKey, List<String> userIds, NotificationMessage message);
+    }
+
+    private record Claim(String chunkId, String broadcastId, int chunk, int checkpoint) {
+    }
+
+    private record Job(NotificationMessage message, String bitmapKey, int chunkSize, int chunks) {
+    }
+
+    /**
+     * 브로드캐스트 진행률 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class BroadcastProgress {
+        private final String broadcastId;
+        private final String segment;
+        private final String state;
+        private final String startedBy;
+        private final int chunks;
+        private final int completedChunks;
+        private final double progressPercent;
+        private final long delivered;
+        private final long failed;
+        private final long startedAt;
+        private final long finishedAt;
+        private final long elapsedMillis;
+        private final double deliveriesPerSecond;
+    }
+
+    /**
+     * 브로드캐스트 엔진 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class BroadcastStats {
+        private final boolean enabled;
+        private final int chunkSize;
+        private final int workers;
+        private final String delivery;
+        private final long queuedChunks;
+        private final long leasedChunks;
+        private final int activeChunks;
+        private final long chunksProcessed;
+        private final long chunksResumed;
+        private final long leasesLost;
+        private final long leasesReclaimed;
+        private final long deliveries;
+        private final long deliveryFailures;
+    }
+}
@@ -0,0 +1,211 @@
+package com.ocean.scdemo.redispubsub.codec;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 메시지 바이트 코덱
+ *
+ * 핵심 기능:
+ * - byte[] 에서 바로 파싱 (String 변환/trim 복사 없음)
+ * - 스트리밍 파서로 헤더(@type, messageId, ttl, timestamp, originNodeId, sequenceNumber)만 먼저 읽기
+ * - 만료/미지원 타입 메시지는 전체 바인딩 전에 거부
+ * - 타입별 ObjectReader 를 미리 만들어 재사용
+ */
+@Slf4j
+@Component
+public class MessageCodec {
+
+    public static final String TYPE_PROPERTY = "@type";
+
+    // 헤더 필드 개수 (@type, messageId, ttl, timestamp, originNodeId, sequenceNumber) - 모두 찾으면 스캔 조기 종료
+    private static final int HEADER_FIELD_COUNT = 6;
+
+    private final JsonFactory jsonFactory;
+    private final ObjectReader baseReader;
+    private final Map<String, ObjectReader> readersByType;
+
+    public MessageCodec(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.baseReader = objectMapper.readerFor(BaseMessage.class);
+        this.readersByType = resolveTypeReaders(objectMapper);
+    }
+
+    /**
+     * 헤더만 스트리밍으로 읽기
+     * 중첩 객체/배열은 skipChildren 으로 건너뛰며 값 객체를 만들지 않는다.
+     *
+     * @return 최상위가 JSON 객체가 아니면 null (전체 역직렬화로 폴백)
+     */
+    public MessageHeader peekHeader(byte[] payload) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            MessageHeader header = new MessageHeader();
+            int found = 0;
+
+            while (found < HEADER_FIELD_COUNT && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case TYPE_PROPERTY -> {
+                        header.setType(parser.getValueAsString());
+                        found++;
+                    }
+                    case "messageId" -> {
+                        header.setMessageId(parser.getValueAsString());
+                        found++;
+                    }
+                    case "ttl" -> {
+                        header.setTtl(value == JsonToken.VALUE_NULL ? null : parser.getLongValue());
+                        found++;
+                    }
+                    case "timestamp" -> {
+                        header.setTimestamp(readTimestamp(parser, value));
+                        found++;
+                    }
+                    case "originNodeId" -> {
+                        header.setOriginNodeId(parser.getValueAsString());
+                        found++;
+                    }
+                    case "sequenceNumber" -> {
+                        header.setSequenceNumber(value == JsonToken.VALUE_NULL ? null : parser.getLongValue());
+                        found++;
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+
+            return header;
+        }
+    }
+
+    /**
+     * 전체 역직렬화
+     * 헤더에서 구체 타입을 알면 해당 타입 전용 reader 를 사용
+     */
+    public BaseMessage decode(byte[] payload, MessageHeader header) throws IOException {
+        ObjectReader reader = header != null && header.getType() != null
+                ? readersByType.getOrDefault(header.getType(), baseReader)
+                : baseReader;
+        return reader.readValue(payload);
+    }
+
+    public BaseMessage decode(byte[] payload) throws IOException {
+        return baseReader.readValue(payload);
+    }
+
+    /**
+     * 지원하는 메시지 타입인지 확인 (BaseMessage @JsonSubTypes 기준)
+     */
+    public boolean isKnownType(String type) {
+        return type != null && readersByType.containsKey(type);
+    }
+
+    /**
+     * 공백만 있는 페이로드인지 확인 (복사 없이 바이트 스캔)
+     */
+    public static boolean isBlank(byte[] payload) {
+        if (payload == null) {
+            return true;
+        }
+        for (byte b : payload) {
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 로그용 페이로드 미리보기 (실패 경로에서만 문자열 생성)
+     */
+    public static String preview(byte[] payload, int maxBytes) {
+        if (payload == null) {
+            return "null";
+        }
+        if (payload.length <= maxBytes) {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+        return new String(payload, 0, maxBytes, StandardCharsets.UTF_8) + "...";
+    }
+
+    /**
+     * timestamp 는 직렬화 설정에 따라 배열([yyyy,MM,dd,HH,mm,ss,nanos]) 또는 ISO 문자열로 온다
+     */
+    private LocalDateTime readTimestamp(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_STRING) {
+            return LocalDateTime.parse(parser.getText());
+        }
+        if (token == JsonToken.START_ARRAY) {
+            int[] parts = new int[7];
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (index < parts.length) {
+                    parts[index++] = parser.getIntValue();
+                }
+            }
+            if (index < 5) {
+                return null;
+            }
+            return LocalDateTime.of(parts[0], parts[1], parts[2], parts[3], parts[4], parts[5], parts[6]);
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Map<String, ObjectReader> resolveTypeReaders(ObjectMapper objectMapper) {
+        JsonSubTypes subTypes = BaseMessage.class.getAnnotation(JsonSubTypes.class);
+        if (subTypes == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, ObjectReader> readers = new HashMap<>();
+        for (JsonSubTypes.Type type : subTypes.value()) {
+            readers.put(type.name(), objectMapper.readerFor(type.value()));
+        }
+        log.info("메시지 코덱 초기화 - 지원 타입: {}", readers.keySet());
+        return Collections.unmodifiableMap(readers);
+    }
+
+    /**
+     * 전체 바인딩 전에 읽는 메시지 헤더
+     */
+    @lombok.Data
+    public static class MessageHeader {
+        private String type;
+        private String messageId;
+        private Long ttl;
+        private LocalDateTime timestamp;
+        private String originNodeId;
+        private Long sequenceNumber;
+
+        public boolean hasMessageId() {
+            return messageId != null && !messageId.isBlank();
+        }
+
+        /**
+         * BaseMessage.isExpired 와 동일한 규칙 (timestamp + ttl 초 < 현재)
+         */
+        public boolean isExpired() {
+            return ttl != null && timestamp != null && timestamp.plusSeconds(ttl).isBefore(LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ocean.scdemo.redispubsub.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+/**
+ * 현재 노드(JVM) 식별자
+ *
+ * 메시지 봉투의 originNodeId 로 사용되어 자기 에코 판별 등에 쓰인다.
+ * pubsub.node-id 가 없으면 프로세스명 + 랜덤 접미사로 기동 시 한 번 생성한다.
+ */
+@Slf4j
+@Component
+public class NodeIdentity {
+
+    private final String nodeId;
+
+    public NodeIdentity(@Value("${pubsub.node-id:}") String configuredNodeId) {
+        this.nodeId = StringUtils.hasText(configuredNodeId)
+                ? configuredNodeId
+                : ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        log.info("노드 식별자: {}", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isSelf(String originNodeId) {
+        return nodeId.equals(originNodeId);
+    }
+}
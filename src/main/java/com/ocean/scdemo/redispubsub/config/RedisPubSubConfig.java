@@ -6,11 +6,14 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -60,6 +63,24 @@ public class RedisPubSubConfig {
         return template;
     }
 
+    /**
+     * 반응형 발행 전용 ReactiveRedisTemplate
+     * redisPubSubTemplate 과 같은 JSON 직렬화 설정을 사용하여 블로킹/반응형 발행 메시지 형식을 동일하게 유지
+     */
+    @Bean("reactivePubSubTemplate")
+    public ReactiveRedisTemplate<String, Object> reactivePubSubTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(createOptimizedObjectMapper());
+        
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(jsonSerializer)
+                .hashValue(jsonSerializer)
+                .build();
+        
+        log.info("Reactive Redis Pub/Sub Template 초기화 완료");
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+
     /**
      * 메시지 리스너 컨테이너 설정
      * 다중 구독자 및 패턴 매칭을 위한 고성능 설정
@@ -184,6 +205,25 @@ public class RedisPubSubConfig {
         public static final String METRICS_PERFORMANCE = "metrics:performance";
         public static final String METRICS_USAGE = "metrics:usage";
         
+        /**
+         * 샤딩 가능한 채널 패밀리 (엔티티 단위 채널)
+         * Redis Cluster 에서는 SPUBLISH/SSUBSCRIBE 로 해시 슬롯 소유 노드에만 전달된다.
+         */
+        public static final java.util.List<String> SHARDABLE_PREFIXES = java.util.List.of(
+                CHAT_ROOM_PREFIX, NOTIFICATION_USER_PREFIX, EVENT_USER_PREFIX);
+        
+        public static boolean isShardable(String channel) {
+            if (channel == null) {
+                return false;
+            }
+            for (String prefix : SHARDABLE_PREFIXES) {
+                if (channel.startsWith(prefix) && channel.length() > prefix.length()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
         /**
          * 동적 채널 이름 생성 헬퍼 메서드
          */
@@ -200,6 +240,61 @@ public class RedisPubSubConfig {
         }
     }
 
+    /**
+     * 채널 패밀리 - 채널 prefix 단위의 전송 정책 그룹
+     */
+    public enum ChannelFamily {
+        CHAT("chat:"),
+        NOTIFICATION("notification:"),
+        EVENT("event:"),
+        STATUS("status:"),
+        HEALTH("health:"),
+        METRICS("metrics:"),
+        PERFORMANCE("performance:");
+
+        private final String prefix;
+
+        ChannelFamily(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        /**
+         * 패밀리별 Redis Stream 키 (DURABLE 모드에서 사용)
+         */
+        public String getStreamKey() {
+            return "pubsub:stream:" + name().toLowerCase();
+        }
+
+        /**
+         * 채널 이름으로 패밀리 조회 (매칭되는 패밀리가 없으면 null)
+         */
+        public static ChannelFamily of(String channel) {
+            if (channel == null) {
+                return null;
+            }
+            for (ChannelFamily family : values()) {
+                if (channel.startsWith(family.prefix)) {
+                    return family;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 채널 패밀리별 전송 모드
+     * - FIRE_AND_FORGET: Redis Pub/Sub (수신자가 없으면 유실)
+     * - DURABLE: Redis Streams + Consumer Group (ACK 전까지 보관)
+     */
+    public enum DeliveryMode {
+        FIRE_AND_FORGET,
+        DURABLE
+    }
+
     /**
      * JSON 직렬화를 위한 최적화된 ObjectMapper 설정
      */
@@ -1,6 +1,9 @@
 package com.ocean.scdemo.redispubsub.config;
 
+import com.ocean.scdemo.redispubsub.routing.ChannelRouter;
+import com.ocean.scdemo.redispubsub.routing.SubscriptionCompiler.CompiledSubscriptions;
 import com.ocean.scdemo.redispubsub.subscriber.MessageSubscriber;
+import com.ocean.scdemo.redispubsub.transport.ShardedPubSubTransport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.ApplicationRunner;
@@ -8,6 +11,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
 
 import java.util.concurrent.Executor;
 
@@ -16,6 +20,7 @@ import java.util.concurrent.Executor;
  * 
  * 핵심 기능:
  * - 모든 채널에 대한 패턴 기반 구독 설정
+ * - 선언 토픽은 로컬 라우터에 등록하고 Redis 에는 겹치지 않는 최소 구독 집합만 구독
  * - 동적 구독 관리 (런타임에 구독 추가/제거)
  * - 구독 상태 모니터링
  * - 자동 재연결 및 에러 복구
@@ -27,6 +32,8 @@ import java.util.concurrent.Executor;
 public class RedisSubscriptionConfig {
 
     private final MessageSubscriber messageSubscriber;
+    private final ChannelRouter channelRouter;
+    private final ShardedPubSubTransport shardedTransport;
     private final RedisConnectionFactory redisConnectionFactory;
     private final Executor pubSubTaskExecutor;
 
@@ -46,11 +53,14 @@ public class RedisSubscriptionConfig {
                 setupMetricsSubscriptions(listenerContainer);
                 setupHealthCheckSubscriptions(listenerContainer);
                 setupSystemSubscriptions(listenerContainer);
+
+                // 겹치는 패턴을 제거한 최소 구독 집합만 Redis 에 구독
+                CompiledSubscriptions compiled = channelRouter.apply(listenerContainer);
                 
                 log.info("✅ Redis Pub/Sub 구독 초기화 완료");
                 
                 // 구독 상태 로그
-                logSubscriptionStatus(listenerContainer);
+                logSubscriptionStatus(compiled);
                 
             } catch (Exception e) {
                 log.error("❌ Redis Pub/Sub 구독 초기화 실패", e);
@@ -64,12 +74,12 @@ public class RedisSubscriptionConfig {
      */
     private void setupChatSubscriptions(RedisMessageListenerContainer container) {
         // 전체 채팅 메시지 구독
-        container.addMessageListener(messageSubscriber, RedisPubSubConfig.Topics.CHAT_MESSAGES);
-        log.debug("📝 채팅 메시지 구독 설정 완료: {}", RedisPubSubConfig.Topics.CHAT_MESSAGES.getTopic());
+        register(RedisPubSubConfig.Topics.CHAT_MESSAGES);
+        log.debug("📝 채팅 메시지 라우트 등록 완료: {}", RedisPubSubConfig.Topics.CHAT_MESSAGES.getTopic());
         
         // 채팅방별 메시지 구독
-        container.addMessageListener(messageSubscriber, RedisPubSubConfig.Topics.CHAT_ROOM_MESSAGES);
-        log.debug("🏠 채팅방 메시지 구독 설정 완료: {}", RedisPubSubConfig.Topics.CHAT_ROOM_MESSAGES.getTopic());
+        register(RedisPubSubConfig.Topics.CHAT_ROOM_MESSAGES);
+        log.debug("🏠 채팅방 메시지 라우트 등록 완료: {}", RedisPubSubConfig.Topics.CHAT_ROOM_MESSAGES.getTopic());
     }
 
     /**
@@ -77,16 +87,16 @@ public class RedisSubscriptionConfig {
      */
     private void setupNotificationSubscriptions(RedisMessageListenerContainer container) {
         // 사용자별 알림 구독
-        container.addMessageListener(messageSubscriber, RedisPubSubConfig.Topics.USER_NOTIFICATIONS);
-        log.debug("👤 사용자 알림 구독 설정 완료: {}", RedisPubSubConfig.Topics.USER_NOTIFICATIONS.getTopic());
+        register(RedisPubSubConfig.Topics.USER_NOTIFICATIONS);
+        log.debug("👤 사용자 알림 라우트 등록 완료: {}", RedisPubSubConfig.Topics.USER_NOTIFICATIONS.getTopic());
         
         // 시스템 알림 구독
-        container.addMessageListener(messageSubscriber, RedisPubSubConfig.Topics.SYSTEM_NOTIFICATIONS);
-        log.debug("🔔 시스템 알림 구독 설정 완료: {}", RedisPubSubConfig.Topics.SYSTEM_NOTIFICATIONS.getTopic());
+        register(RedisPubSubConfig.Topics.SYSTEM_NOTIFICATIONS);
+        log.debug("🔔 시스템 알림 라우트 등록 완료: {}", RedisPubSubConfig.Topics.SYSTEM_NOTIFICATIONS.getTopic());
         
         // 브로드캐스트 알림 구독
-        container.addMessageListener(messageSubscriber, RedisPubSubConfig.Topics.BROADCAST_NOTIFICATIONS);
-        log.debug("📢 브로드캐스트 알림 구독 설정 완료: {}", RedisPubSubConfig.Topics.BROADCAST_NOTIFICATIONS.getTopic());
+        register(RedisPubSubConfig.Topics.BROADCAST_NOTIFICATIONS);
+        log.debug("📢 브로드캐스트 알림 라우트 등록 완료: {}", RedisPubSubConfig.Topics.BROADCAST_NOTIFICATIONS.getTopic());
     }
 
     /**
@@ -94,12 +104,12 @@ public class RedisSubscriptionConfig {
      */
     private void setupEventSubscriptions(RedisMessageListenerContainer container) {
         // 사용자 이벤트 구독
-        container.addMessageListener(messageSubscriber, RedisPubSubConfig.Topics.USER_EVENTS);
-        log.debug("👥 사용자 이벤트 구독 설정 완료: {}", RedisPubSubConfig.Topics.USER_EVENTS.getTopic());
+        register(RedisPubSubConfig.Topics.USER_EVENTS);
+        log.debug("👥 사용자 이벤트 라우트 등록 완료: {}", RedisPubSubConfig.Topics.USER_EVENTS.getTopic());
         
         // 시스템 이벤트 구독
-        container.addMessageListener(messageSubscriber, RedisPubSubConfig.Topics.SYSTEM_EVENTS);
-        log.debug("⚙️ 시스템 이벤트 구독 설정 완료: {}", RedisPubSubConfig.Topics.SYSTEM_EVENTS.getTopic());
+        register(RedisPubSubConfig.Topics.SYSTEM_EVENTS);
+        log.debug("⚙️ 시스템 이벤트 라우트 등록 완료: {}", RedisPubSubConfig.Topics.SYSTEM_EVENTS.getTopic());
     }
 
     /**
@@ -107,12 +117,12 @@ public class RedisSubscriptionConfig {
      */
     private void setupMetricsSubscriptions(RedisMessageListenerContainer container) {
         // 메트릭스 구독
-        container.addMessageListener(messageSubscriber, RedisPubSubConfig.Topics.METRICS);
-        log.debug("📊 메트릭스 구독 설정 완료: {}", RedisPubSubConfig.Topics.METRICS.getTopic());
+        register(RedisPubSubConfig.Topics.METRICS);
+        log.debug("📊 메트릭스 라우트 등록 완료: {}", RedisPubSubConfig.Topics.METRICS.getTopic());
         
         // 성능 메트릭스 구독
-        container.addMessageListener(messageSubscriber, RedisPubSubConfig.Topics.PERFORMANCE);
-        log.debug("🚀 성능 메트릭스 구독 설정 완료: {}", RedisPubSubConfig.Topics.PERFORMANCE.getTopic());
+        register(RedisPubSubConfig.Topics.PERFORMANCE);
+        log.debug("🚀 성능 메트릭스 라우트 등록 완료: {}", RedisPubSubConfig.Topics.PERFORMANCE.getTopic());
     }
 
     /**
@@ -120,8 +130,8 @@ public class RedisSubscriptionConfig {
      */
     private void setupHealthCheckSubscriptions(RedisMessageListenerContainer container) {
         // 헬스체크 구독
-        container.addMessageListener(messageSubscriber, RedisPubSubConfig.Topics.HEALTH_CHECKS);
-        log.debug("🏥 헬스체크 구독 설정 완료: {}", RedisPubSubConfig.Topics.HEALTH_CHECKS.getTopic());
+        register(RedisPubSubConfig.Topics.HEALTH_CHECKS);
+        log.debug("🏥 헬스체크 라우트 등록 완료: {}", RedisPubSubConfig.Topics.HEALTH_CHECKS.getTopic());
     }
 
     /**
@@ -129,30 +139,33 @@ public class RedisSubscriptionConfig {
      */
     private void setupSystemSubscriptions(RedisMessageListenerContainer container) {
         // 상태 업데이트 구독
-        container.addMessageListener(messageSubscriber, RedisPubSubConfig.Topics.STATUS_UPDATES);
-        log.debug("📡 상태 업데이트 구독 설정 완료: {}", RedisPubSubConfig.Topics.STATUS_UPDATES.getTopic());
+        register(RedisPubSubConfig.Topics.STATUS_UPDATES);
+        log.debug("📡 상태 업데이트 라우트 등록 완료: {}", RedisPubSubConfig.Topics.STATUS_UPDATES.getTopic());
+    }
+
+    /**
+     * 선언 토픽을 로컬 라우터에 등록 (Redis 구독은 컴파일 후 일괄 반영)
+     */
+    private void register(Topic topic) {
+        channelRouter.register(topic.getTopic(), messageSubscriber);
     }
 
     /**
-     * 구독 상태 로깅
+     * 유효 구독 리포트 로깅
      */
-    private void logSubscriptionStatus(RedisMessageListenerContainer container) {
+    private void logSubscriptionStatus(CompiledSubscriptions compiled) {
         try {
-            // 구독 중인 채널 수 계산 (대략적)
-            int subscriptionCount = 7; // 주요 패턴 토픽 개수
-            
             log.info("📊 Redis Pub/Sub 구독 상태:");
-            log.info("  └─ 총 구독 패턴: {}개", subscriptionCount);
-            log.info("  └─ 메시지 리스너: MessageSubscriber");
+            log.info("  └─ 선언 토픽: {}개, 유효 구독: {}개 (패턴 {}개, 채널 {}개)",
+                    compiled.declared().size(), compiled.effectiveCount(),
+                    compiled.effectivePatterns().size(), compiled.effectiveChannels().size());
+            log.info("  └─ 메시지 리스너: ChannelRouter → MessageSubscriber");
             log.info("  └─ Task Executor: {}", pubSubTaskExecutor.getClass().getSimpleName());
-            log.info("  └─ 구독 대상 패턴:");
-            log.info("     ├─ 채팅: chat:*");
-            log.info("     ├─ 알림: notification:*");
-            log.info("     ├─ 이벤트: event:*");
-            log.info("     ├─ 메트릭스: metrics:*, performance:*");
-            log.info("     ├─ 헬스체크: health:*");
-            log.info("     └─ 상태: status:*");
-            
+            log.info("  └─ PSUBSCRIBE: {}", compiled.effectivePatterns());
+            log.info("  └─ SUBSCRIBE: {}", compiled.effectiveChannels());
+            compiled.subsumedBy().forEach((topic, cover) ->
+                    log.info("     ├─ 제외(포함됨): {} ⊂ {}", topic, cover));
+
         } catch (Exception e) {
             log.warn("구독 상태 로깅 중 오류 발생", e);
         }
@@ -163,7 +176,7 @@ public class RedisSubscriptionConfig {
      */
     @Bean
     public SubscriptionManager subscriptionManager(RedisMessageListenerContainer container) {
-        return new SubscriptionManager(container, messageSubscriber);
+        return new SubscriptionManager(container, messageSubscriber, channelRouter, shardedTransport);
     }
 
     /**
@@ -172,22 +185,30 @@ public class RedisSubscriptionConfig {
     public static class SubscriptionManager {
         private final RedisMessageListenerContainer container;
         private final MessageSubscriber messageSubscriber;
+        private final ChannelRouter channelRouter;
+        private final ShardedPubSubTransport shardedTransport;
         
         public SubscriptionManager(RedisMessageListenerContainer container, 
-                                 MessageSubscriber messageSubscriber) {
+                                 MessageSubscriber messageSubscriber,
+                                 ChannelRouter channelRouter,
+                                 ShardedPubSubTransport shardedTransport) {
             this.container = container;
             this.messageSubscriber = messageSubscriber;
+            this.channelRouter = channelRouter;
+            this.shardedTransport = shardedTransport;
         }
         
         /**
          * 새 채널 구독 추가
+         * 기존 구독에 포함되는 패턴이면 로컬 라우트만 추가되고 Redis 구독은 늘지 않는다.
+         * 클러스터에서 샤딩 채널(정확한 채널명)은 해시 슬롯 소유 노드에 SSUBSCRIBE 한다.
          */
         public boolean addSubscription(String channelPattern) {
             try {
-                org.springframework.data.redis.listener.PatternTopic topic = 
-                    new org.springframework.data.redis.listener.PatternTopic(channelPattern);
-                
-                container.addMessageListener(messageSubscriber, topic);
+                channelRouter.register(channelPattern, messageSubscriber);
+                if (!shardedTransport.subscribe(channelPattern)) {
+                    channelRouter.apply(container);
+                }
                 
                 log.info("➕ 새 구독 추가: {}", channelPattern);
                 return true;
@@ -203,10 +224,13 @@ public class RedisSubscriptionConfig {
          */
         public boolean removeSubscription(String channelPattern) {
             try {
-                org.springframework.data.redis.listener.PatternTopic topic = 
-                    new org.springframework.data.redis.listener.PatternTopic(channelPattern);
-                
-                container.removeMessageListener(messageSubscriber, topic);
+                if (!channelRouter.unregister(channelPattern, messageSubscriber)) {
+                    log.warn("등록되지 않은 구독 제거 요청: {}", channelPattern);
+                    return false;
+                }
+                if (!shardedTransport.unsubscribe(channelPattern)) {
+                    channelRouter.apply(container);
+                }
                 
                 log.info("➖ 구독 제거: {}", channelPattern);
                 return true;
@@ -222,7 +246,8 @@ public class RedisSubscriptionConfig {
          */
         public void removeAllSubscriptions() {
             try {
-                container.removeMessageListener(messageSubscriber);
+                channelRouter.unregisterAll(messageSubscriber);
+                channelRouter.detach(container);
                 log.info("🧹 모든 구독 제거 완료");
                 
             } catch (Exception e) {
@@ -246,6 +271,8 @@ public class RedisSubscriptionConfig {
                         .successRate(stats.getSuccessRate())
                         .failureRate(stats.getFailureRate())
                         .ignoreRate(stats.getIgnoreRate())
+                        .effectiveSubscriptions(channelRouter.getCompiledSubscriptions().effectiveCount())
+                        .duplicateDeliveries(channelRouter.getDuplicateDeliveries())
                         .containerActive(container.isActive())
                         .containerRunning(container.isRunning())
                         .build();
@@ -292,6 +319,8 @@ public class RedisSubscriptionConfig {
         private final double successRate;
         private final double failureRate;
         private final double ignoreRate;
+        private final int effectiveSubscriptions;
+        private final long duplicateDeliveries;
         private final boolean containerActive;
         private final boolean containerRunning;
         
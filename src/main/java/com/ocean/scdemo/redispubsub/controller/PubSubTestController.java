@@ -1,19 +1,30 @@
 package com.ocean.scdemo.redispubsub.controller;
 
+import com.ocean.scdemo.redispubsub.broadcast.SegmentedBroadcastEngine;
 import com.ocean.scdemo.redispubsub.config.RedisSubscriptionConfig;
+import com.ocean.scdemo.redispubsub.fanout.RoomFanoutEngine;
+import com.ocean.scdemo.redispubsub.fanout.RoomMembershipIndex;
+import com.ocean.scdemo.redispubsub.history.ChatHistoryStore;
 import com.ocean.scdemo.redispubsub.message.*;
+import com.ocean.scdemo.redispubsub.presence.PresenceService;
 import com.ocean.scdemo.redispubsub.publisher.MessagePublisher;
+import com.ocean.scdemo.redispubsub.reactive.ReactiveMessagePublisher;
 import com.ocean.scdemo.redispubsub.subscriber.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -43,6 +54,12 @@ public class PubSubTestController {
     private final MetricsMessageHandler metricsMessageHandler;
     private final HealthCheckMessageHandler healthCheckMessageHandler;
     private final RedisSubscriptionConfig.SubscriptionManager subscriptionManager;
+    private final RoomMembershipIndex membershipIndex;
+    private final RoomFanoutEngine fanoutEngine;
+    private final ReactiveMessagePublisher reactiveMessagePublisher;
+    private final PresenceService presenceService;
+    private final ChatHistoryStore chatHistoryStore;
+    private final SegmentedBroadcastEngine broadcastEngine;
 
     /**
      * 채팅 메시지 발행 테스트
@@ -80,6 +97,80 @@ public class PubSubTestController {
         }
     }
 
+    /**
+     * 채팅방 멤버 일괄 입장 테스트 (대형 방 팬아웃 시뮬레이션)
+     */
+    @Operation(summary = "채팅방 멤버 입장", description = "테스트용 사용자들을 채팅방 멤버십 인덱스에 등록합니다")
+    @PostMapping("/test/chat/room-members")
+    public ResponseEntity<?> joinRoomMembers(
+            @Parameter(description = "채팅방 ID") @RequestParam String roomId,
+            @Parameter(description = "사용자 ID 접두사") @RequestParam(defaultValue = "user-") String userPrefix,
+            @Parameter(description = "입장시킬 사용자 수") @RequestParam(defaultValue = "100") int count) {
+        
+        int joined = 0;
+        for (int i = 0; i < count; i++) {
+            if (membershipIndex.join(roomId, userPrefix + i)) {
+                presenceService.joinRoom(roomId, userPrefix + i);
+                joined++;
+            }
+        }
+        
+        return ResponseEntity.ok(Map.of(
+            "roomId", roomId,
+            "joined", joined,
+            "memberCount", membershipIndex.memberCount(roomId),
+            "pullMode", fanoutEngine.isPullRoom(roomId),
+            "timestamp", LocalDateTime.now()
+        ));
+    }
+
+    /**
+     * 대형 채팅방(Pull 모델) 타임라인 조회
+     */
+    @Operation(summary = "채팅방 타임라인 조회", description = "Pull 모델 채팅방의 최근 메시지를 시퀀스 이후부터 조회합니다")
+    @GetMapping("/chat/rooms/{roomId}/timeline")
+    public ResponseEntity<List<RoomFanoutEngine.TimelineEntry>> getRoomTimeline(
+            @PathVariable String roomId,
+            @Parameter(description = "마지막으로 읽은 시퀀스") @RequestParam(defaultValue = "0") long afterSequence,
+            @Parameter(description = "최대 조회 건수") @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(fanoutEngine.pull(roomId, afterSequence, limit));
+    }
+
+    /**
+     * 채팅방 이력 페이지 조회 (before 시퀀스 이전 최근 메시지, 본문은 세그먼트에서 그대로 전송)
+     */
+    @Operation(summary = "채팅방 이력 조회", description = "before 시퀀스 이전의 최근 메시지를 오름차순으로 조회합니다. 응답의 nextBefore 로 이전 페이지를 이어서 조회합니다")
+    @GetMapping("/chat/rooms/{roomId}/history")
+    public ResponseEntity<StreamingResponseBody> getRoomHistory(
+            @PathVariable String roomId,
+            @Parameter(description = "이 시퀀스 이전부터 조회 (0 이면 최신)") @RequestParam(defaultValue = "0") long before,
+            @Parameter(description = "최대 조회 건수") @RequestParam(defaultValue = "50") int limit) {
+        StreamingResponseBody body = out -> chatHistoryStore.writePage(roomId, before, limit, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * 접속 상태 하트비트 테스트 (사용자 일괄 온라인 처리)
+     */
+    @Operation(summary = "접속 상태 하트비트", description = "테스트용 사용자들의 하트비트를 보내 온라인 상태로 만듭니다")
+    @PostMapping("/test/presence/heartbeat")
+    public ResponseEntity<?> sendPresenceHeartbeats(
+            @Parameter(description = "사용자 ID 접두사") @RequestParam(defaultValue = "user-") String userPrefix,
+            @Parameter(description = "하트비트를 보낼 사용자 수") @RequestParam(defaultValue = "100") int count) {
+        
+        for (int i = 0; i < count; i++) {
+            presenceService.heartbeat(userPrefix + i);
+        }
+        
+        return ResponseEntity.ok(Map.of(
+            "heartbeats", count,
+            "onlineCount", presenceService.onlineCount(),
+            "timestamp", LocalDateTime.now()
+        ));
+    }
+
     /**
      * 알림 메시지 발행 테스트
      */
@@ -307,6 +398,68 @@ public class PubSubTestController {
         }
     }
 
+    /**
+     * 블로킹/비동기/반응형 발행 경로 비교 벤치마크
+     */
+    @Operation(summary = "발행 경로 벤치마크", description = "같은 개수의 메시지를 동기 convertAndSend, publishAsync(Lettuce 비동기), ReactiveMessagePublisher 로 발행해 처리량을 비교합니다")
+    @PostMapping("/test/benchmark/reactive")
+    public ResponseEntity<?> benchmarkReactivePublish(
+            @RequestParam(defaultValue = "CHAT") String messageType,
+            @RequestParam(defaultValue = "1000") int count) {
+        try {
+            if (count <= 0 || count > 100_000) {
+                return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", "count 는 1 ~ 100000 이어야 합니다"
+                ));
+            }
+            
+            // 블로킹 경로: 요청 스레드에서 convertAndSend 를 순차 실행
+            long blockingStart = System.nanoTime();
+            long blockingDelivered = 0;
+            for (int i = 0; i < count; i++) {
+                BaseMessage message = createTestMessage(messageType);
+                if (messagePublisher.publishTo(messagePublisher.resolveChannel(message), message)) {
+                    blockingDelivered++;
+                }
+            }
+            long blockingNanos = System.nanoTime() - blockingStart;
+            
+            // 비동기 경로: Lettuce 비동기 PUBLISH (진행 중 상한 초과분은 false)
+            long asyncStart = System.nanoTime();
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                futures.add(messagePublisher.publishAsync(createTestMessage(messageType)));
+            }
+            long asyncDelivered = futures.stream().map(CompletableFuture::join).filter(Boolean::booleanValue).count();
+            long asyncNanos = System.nanoTime() - asyncStart;
+            
+            // 반응형 경로: flatMap(concurrency) 로 비동기 PUBLISH
+            long reactiveStart = System.nanoTime();
+            Long reactiveDelivered = reactiveMessagePublisher
+                    .publish(Flux.range(0, count).map(i -> createTestMessage(messageType)))
+                    .filter(Boolean::booleanValue)
+                    .count()
+                    .block();
+            long reactiveNanos = System.nanoTime() - reactiveStart;
+            
+            return ResponseEntity.ok(Map.of(
+                "count", count,
+                "blocking", benchmarkResult(count, blockingDelivered, blockingNanos),
+                "async", benchmarkResult(count, asyncDelivered, asyncNanos),
+                "reactive", benchmarkResult(count, reactiveDelivered != null ? reactiveDelivered : 0, reactiveNanos),
+                "timestamp", LocalDateTime.now()
+            ));
+            
+        } catch (Exception e) {
+            log.error("발행 경로 벤치마크 실패", e);
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "error", e.getMessage()
+            ));
+        }
+    }
+
     /**
      * 브로드캐스트 메시지 발행
      */
@@ -336,6 +489,49 @@ public class PubSubTestController {
         }
     }
 
+    /**
+     * 세그먼트 대상자 등록 테스트
+     */
+    @Operation(summary = "브로드캐스트 세그먼트 등록", description = "테스트용 사용자들을 세그먼트 비트맵에 추가합니다")
+    @PostMapping("/test/broadcast/segments/{segment}")
+    public ResponseEntity<?> addSegmentMembers(
+            @PathVariable String segment,
+            @Parameter(description = "사용자 ID 접두사") @RequestParam(defaultValue = "user-") String userPrefix,
+            @Parameter(description = "추가할 사용자 수") @RequestParam(defaultValue = "1000") int count) {
+        
+        List<String> userIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            userIds.add(userPrefix + i);
+        }
+        broadcastEngine.updateSegment(segment, userIds, true);
+        
+        return ResponseEntity.ok(Map.of(
+            "segment", segment,
+            "added", count,
+            "timestamp", LocalDateTime.now()
+        ));
+    }
+
+    /**
+     * 세그먼트 브로드캐스트 시작
+     */
+    @Operation(summary = "세그먼트 브로드캐스트", description = "세그먼트 비트맵 대상자에게 청크 단위로 분산 전달합니다 (online, room:{방ID}, 사용자 정의 세그먼트)")
+    @PostMapping("/test/broadcast/segmented")
+    public ResponseEntity<?> startSegmentedBroadcast(
+            @Parameter(description = "대상 세그먼트") @RequestParam(defaultValue = "online") String segment,
+            @RequestParam String message) {
+        
+        NotificationMessage broadcast = NotificationMessage.createPushNotification(null, "공지", message, null);
+        String broadcastId = broadcastEngine.start(broadcast, segment);
+        
+        return ResponseEntity.ok(Map.of(
+            "broadcastId", broadcastId,
+            "segment", segment,
+            "progress", "/api/pubsub/monitoring/broadcast/" + broadcastId,
+            "timestamp", LocalDateTime.now()
+        ));
+    }
+
     /**
      * 발행 통계 조회
      */
@@ -450,6 +646,15 @@ public class PubSubTestController {
 
     // === 헬퍼 메서드 ===
 
+    private Map<String, Object> benchmarkResult(int count, long delivered, long elapsedNanos) {
+        double elapsedMillis = elapsedNanos / 1_000_000.0;
+        return Map.of(
+            "delivered", delivered,
+            "elapsedMs", elapsedMillis,
+            "messagesPerSecond", elapsedMillis > 0 ? count * 1000.0 / elapsedMillis : 0.0
+        );
+    }
+
     private BaseMessage createTestMessage(String messageType) {
         return switch (messageType.toUpperCase()) {
             case "CHAT" -> ChatMessage.createTextMessage("test", "TestUser", "global", "테스트 메시지");
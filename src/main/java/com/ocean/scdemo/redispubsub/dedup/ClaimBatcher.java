@@ -0,0 +1,245 @@
+package com.ocean.scdemo.redispubsub.dedup;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 멱등 키 선점/해제 요청 묶음 처리기 (group commit)
+ *
+ * 요청은 FIFO 큐 하나에 쌓이고, flush 스레드 하나가 큐에서 최대 maxBatch 개를 꺼내 한 번에 넘긴다.
+ * 이전 묶음을 보내는 동안 들어온 요청이 다음 묶음이 되므로 부하가 높을수록 묶음이 커지고
+ * 메시지당 왕복은 줄어든다. 같은 키의 선점 → 해제 순서는 큐 순서대로 유지된다.
+ *
+ * 큐는 capacity 로 제한된다. 가득 차면(Redis 지연/장애로 flush 가 밀리는 경우) 요청을 호출 스레드에서
+ * 단건으로 바로 전송하여 메모리가 무한히 늘지 않게 하고 호출 측에 배압을 건다
+ * (이때 이미 큐에 있는 같은 키의 요청보다 먼저 적용될 수 있다).
+ * 결과를 기다리는 쪽이 없는 write-behind 요청의 전송 실패는 건수를 집계하고 로그로 남긴다.
+ *
+ * 실제 전송(Redis 파이프라인 등)은 {@link Flusher} 가 담당한다.
+ */
+@Slf4j
+public class ClaimBatcher {
+
+    public enum OpType { CLAIM, RELEASE }
+
+    /**
+     * 선점/해제 요청 (result 가 null 이면 결과를 기다리는 쪽이 없는 write-behind 요청)
+     */
+    public record Op(OpType type, String key, CompletableFuture<Boolean> result) {
+    }
+
+    /**
+     * 묶음 전송 (반환 목록은 ops 와 같은 순서, CLAIM 은 선점 성공 여부)
+     */
+    @FunctionalInterface
+    public interface Flusher {
+        List<Boolean> flush(List<Op> ops) throws Exception;
+    }
+
+    private final int maxBatch;
+    private final Flusher flusher;
+    private final String threadName;
+    private final int capacity;
+    private final LinkedBlockingQueue<Op> queue;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    // 통계
+    private final AtomicLong totalOps = new AtomicLong(0);
+    private final AtomicLong totalBatches = new AtomicLong(0);
+    private final AtomicLong totalFailedBatches = new AtomicLong(0);
+    private final AtomicLong totalFailedWriteBehind = new AtomicLong(0);
+    private final AtomicLong totalSyncFlushes = new AtomicLong(0);
+    private volatile int largestBatch;
+
+    /**
+     * @param capacity 큐 상한 (가득 차면 호출 스레드에서 단건 전송)
+     */
+    public ClaimBatcher(int maxBatch, int capacity, Flusher flusher, String threadName) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch 는 0보다 커야 합니다: " + maxBatch);
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity 는 0보다 커야 합니다: " + capacity);
+        }
+        this.maxBatch = maxBatch;
+        this.capacity = capacity;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.flusher = flusher;
+        this.threadName = threadName;
+    }
+
+    public void start() {
+        running = true;
+        worker = Thread.ofVirtual().name(threadName).start(this::flushLoop);
+    }
+
+    /**
+     * 중지 (남은 요청은 마지막으로 한 번 더 전송)
+     */
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        while (!queue.isEmpty()) {
+            List<Op> batch = new ArrayList<>(maxBatch);
+            queue.drainTo(batch, maxBatch);
+            flushBatch(batch);
+        }
+    }
+
+    /**
+     * 선점 요청 (결과 대기)
+     */
+    public CompletableFuture<Boolean> claim(String key) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        enqueue(new Op(OpType.CLAIM, key, result));
+        return result;
+    }
+
+    /**
+     * 선점 요청 (결과를 기다리지 않음)
+     */
+    public void claimBehind(String key) {
+        enqueue(new Op(OpType.CLAIM, key, null));
+    }
+
+    /**
+     * 해제 요청 (결과를 기다리지 않음)
+     */
+    public void release(String key) {
+        enqueue(new Op(OpType.RELEASE, key, null));
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 큐 적재 - 가득 차면 호출 스레드에서 단건 전송
+     */
+    private void enqueue(Op op) {
+        if (queue.offer(op)) {
+            return;
+        }
+        totalSyncFlushes.incrementAndGet();
+        flushBatch(List.of(op));
+    }
+
+    private void flushLoop() {
+        List<Op> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                Op first = queue.take();
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                flushBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushBatch(List<Op> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        totalBatches.incrementAndGet();
+        totalOps.addAndGet(batch.size());
+        if (batch.size() > largestBatch) {
+            largestBatch = batch.size();
+        }
+
+        try {
+            List<Boolean> results = flusher.flush(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                CompletableFuture<Boolean> result = batch.get(i).result();
+                Boolean value = results != null && i < results.size() ? results.get(i) : null;
+                if (result == null) {
+                    if (value == null) {
+                        writeBehindFailed(1);
+                    }
+                } else if (value != null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(new IllegalStateException("선점 결과 없음: " + batch.get(i).key()));
+                }
+            }
+        } catch (Exception e) {
+            totalFailedBatches.incrementAndGet();
+            log.warn("멱등 키 묶음 전송 실패: {}건", batch.size(), e);
+            int writeBehind = 0;
+            for (Op op : batch) {
+                if (op.result() != null) {
+                    op.result().completeExceptionally(e);
+                } else {
+                    writeBehind++;
+                }
+            }
+            writeBehindFailed(writeBehind);
+        }
+    }
+
+    /**
+     * 기다리는 쪽이 없는 요청의 전송 실패 집계 (선점 기록이 빠지면 다른 전달이 중복 처리될 수 있음)
+     */
+    private void writeBehindFailed(int count) {
+        if (count == 0) {
+            return;
+        }
+        long total = totalFailedWriteBehind.addAndGet(count);
+        log.warn("write-behind 멱등 키 전송 실패: {}건 (누적 {}건)", count, total);
+    }
+
+    public long getTotalOps() {
+        return totalOps.get();
+    }
+
+    public long getTotalBatches() {
+        return totalBatches.get();
+    }
+
+    public long getTotalFailedBatches() {
+        return totalFailedBatches.get();
+    }
+
+    public long getTotalFailedWriteBehind() {
+        return totalFailedWriteBehind.get();
+    }
+
+    public long getTotalSyncFlushes() {
+        return totalSyncFlushes.get();
+    }
+
+    public int getLargestBatch() {
+        return largestBatch;
+    }
+
+    /**
+     * 묶음당 평균 요청 수
+     */
+    public double averageBatchSize() {
+        long batches = totalBatches.get();
+        return batches == 0 ? 0.0 : (double) totalOps.get() / batches;
+    }
+}
@@ -0,0 +1,286 @@
+package com.ocean.scdemo.redispubsub.dedup;
+
+import com.ocean.scdemo.redispubsub.config.NodeIdentity;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 핸들러 디스패치 앞단의 공용 멱등 처리 게이트 (messageId 기준)
+ *
+ * 판정 순서:
+ * 1. 로컬 Bloom 필터(MessageDeduplicator, 타입별 이름) 조회 - 처음 보는 ID 는 거짓 음성이 없으므로 확정적으로 새 메시지
+ * 2. Redis SET NX + TTL 로 선점하여 노드 간/재시작 후에도 유일성 확인
+ *
+ * 범위:
+ * - 노드 범위(기본): 키에 노드 ID 포함. Bloom 음성이면 바로 처리하고 SET NX 는 write-behind 로 묶어 보냄 (왕복 없음)
+ *   Bloom 양성일 때만 SET NX 결과를 기다려 거짓 양성/해제된 키를 걸러낸다.
+ * - 클러스터 범위(cluster-types): 모든 노드가 같은 키를 선점하므로 선점에 성공한 노드 하나만 처리한다.
+ *   이 경우는 선점 결과를 기다리지만 요청은 ClaimBatcher 로 묶여 파이프라인 한 번에 나간다.
+ *
+ * 핸들러 처리에 실패하면 release 로 키를 지워 스트림 재전달 등 이후 전달이 다시 처리될 수 있게 한다.
+ * Redis 장애 시 Bloom 양성은 중복으로, 클러스터 범위의 새 메시지는 처리하는 쪽으로 판정한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyGate {
+
+    private static final String KEY_PREFIX = "pubsub:idem:";
+    private static final String CLUSTER_SCOPE = "cluster";
+    private static final byte[] CLAIM_VALUE = "1".getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisPubSubTemplate;
+    private final MessageDeduplicator messageDeduplicator;
+    private final NodeIdentity nodeIdentity;
+
+    @Value("${pubsub.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pubsub.idempotency.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${pubsub.idempotency.batch-size:256}")
+    private int batchSize;
+
+    @Value("${pubsub.idempotency.queue-capacity:16384}")
+    private int queueCapacity;
+
+    @Value("${pubsub.idempotency.confirm-timeout-ms:1000}")
+    private long confirmTimeoutMillis;
+
+    @Value("${pubsub.idempotency.types:CHAT,NOTIFICATION,USER_EVENT,SYSTEM_EVENT}")
+    private String typeSpec;
+
+    @Value("${pubsub.idempotency.cluster-types:NOTIFICATION}")
+    private String clusterTypeSpec;
+
+    private Set<String> gatedTypes;
+    private Set<String> clusterTypes;
+    private ClaimBatcher batcher;
+
+    // 통계
+    private final AtomicLong totalFastPath = new AtomicLong(0);
+    private final AtomicLong totalConfirmed = new AtomicLong(0);
+    private final AtomicLong totalDuplicates = new AtomicLong(0);
+    private final AtomicLong totalBloomFalsePositives = new AtomicLong(0);
+    private final AtomicLong totalReleased = new AtomicLong(0);
+    private final AtomicLong totalConfirmFailures = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        gatedTypes = parseTypes(typeSpec);
+        clusterTypes = parseTypes(clusterTypeSpec);
+        batcher = new ClaimBatcher(batchSize, queueCapacity, this::flush, "idempotency-flusher");
+        batcher.start();
+        log.info("멱등 처리 게이트 시작 - 활성={}, 대상={}, 클러스터 범위={}, TTL={}초, 묶음={}, 큐={}",
+                enabled, gatedTypes, clusterTypes, ttlSeconds, batchSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (batcher != null) {
+            batcher.stop();
+        }
+    }
+
+    /**
+     * 처리 권한 선점 (false 면 이미 처리된/처리 중인 중복 메시지)
+     */
+    public boolean tryClaim(BaseMessage message) {
+        if (!isGated(message)) {
+            return true;
+        }
+        String type = message.getMessageType();
+        String messageId = message.getMessageId();
+        boolean clusterScope = clusterTypes.contains(type);
+        boolean seenLocally = messageDeduplicator.checkAndRecord(filterName(type), messageId);
+
+        if (!seenLocally && !clusterScope) {
+            // 로컬 Bloom 음성 = 이 노드에서는 확실히 처음 → Redis 기록은 뒤에서 묶어 보냄
+            batcher.claimBehind(redisKey(clusterScope, messageId));
+            totalFastPath.incrementAndGet();
+            return true;
+        }
+
+        Boolean claimed = confirm(redisKey(clusterScope, messageId));
+        if (claimed == null) {
+            // Redis 확인 불가: 로컬에서 본 적 있으면 중복으로, 클러스터 범위의 새 메시지는 처리로 판정
+            if (seenLocally) {
+                totalDuplicates.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+        if (claimed) {
+            if (seenLocally) {
+                totalBloomFalsePositives.incrementAndGet();
+            }
+            return true;
+        }
+        totalDuplicates.incrementAndGet();
+        log.debug("중복 메시지 폐기: ID={}, 타입={}, 범위={}", messageId, type, clusterScope ? CLUSTER_SCOPE : "node");
+        return false;
+    }
+
+    /**
+     * 처리 실패한 메시지의 선점 해제 (이후 재전달을 다시 처리할 수 있도록)
+     *
+     * Bloom 필터에서는 지울 수 없으므로 다음 수신은 Redis 확인 경로를 탄다.
+     */
+    public void release(BaseMessage message) {
+        if (!isGated(message)) {
+            return;
+        }
+        batcher.release(redisKey(clusterTypes.contains(message.getMessageType()), message.getMessageId()));
+        totalReleased.incrementAndGet();
+    }
+
+    private Boolean confirm(String key) {
+        try {
+            Boolean claimed = batcher.claim(key).get(confirmTimeoutMillis, TimeUnit.MILLISECONDS);
+            totalConfirmed.incrementAndGet();
+            return claimed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            totalConfirmFailures.incrementAndGet();
+            return null;
+        } catch (TimeoutException e) {
+            totalConfirmFailures.incrementAndGet();
+            log.warn("멱등 키 선점 확인 시간 초과: key={}, {}ms", key, confirmTimeoutMillis);
+            return null;
+        } catch (Exception e) {
+            totalConfirmFailures.incrementAndGet();
+            log.warn("멱등 키 선점 확인 실패: key={}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * 묶음 전송 - SET NX EX / DEL 을 파이프라인 한 번으로 보냄
+     */
+    private List<Boolean> flush(List<ClaimBatcher.Op> ops) {
+        Expiration expiration = Expiration.seconds(ttlSeconds);
+        List<Object> replies = redisPubSubTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (ClaimBatcher.Op op : ops) {
+                byte[] key = op.key().getBytes(StandardCharsets.UTF_8);
+                if (op.type() == ClaimBatcher.OpType.CLAIM) {
+                    connection.stringCommands().set(key, CLAIM_VALUE, expiration, SetOption.SET_IF_ABSENT);
+                } else {
+                    connection.keyCommands().del(key);
+                }
+            }
+            return null;
+        });
+
+        List<Boolean> results = new ArrayList<>(ops.size());
+        for (int i = 0; i < ops.size(); i++) {
+            Object reply = i < replies.size() ? replies.get(i) : null;
+            results.add(ops.get(i).type() == ClaimBatcher.OpType.RELEASE || Boolean.TRUE.equals(reply));
+        }
+        return results;
+    }
+
+    private boolean isGated(BaseMessage message) {
+        return enabled && message.getMessageId() != null && gatedTypes.contains(message.getMessageType());
+    }
+
+    private String redisKey(boolean clusterScope, String messageId) {
+        return KEY_PREFIX + (clusterScope ? CLUSTER_SCOPE : nodeIdentity.getNodeId()) + ":" + messageId;
+    }
+
+    /**
+     * 타입별 Bloom 필터 이름 (USER_EVENT → user-event)
+     */
+    static String filterName(String messageType) {
+        return messageType.toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    private static Set<String> parseTypes(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(spec.split(","))
+                .map(String::trim)
+                .filter(type -> !type.isEmpty())
+                .map(type -> type.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * 게이트 통계 (빠른 경로 비율, 묶음 크기)
+     */
+    public IdempotencyStats getStats() {
+        long fastPath = totalFastPath.get();
+        long confirmed = totalConfirmed.get();
+        long decided = fastPath + confirmed;
+
+        return IdempotencyStats.builder()
+                .enabled(enabled)
+                .gatedTypes(gatedTypes)
+                .clusterTypes(clusterTypes)
+                .ttlSeconds(ttlSeconds)
+                .totalFastPath(fastPath)
+                .totalConfirmed(confirmed)
+                .fastPathRatio(decided == 0 ? 0.0 : (double) fastPath / decided)
+                .totalDuplicates(totalDuplicates.get())
+                .totalBloomFalsePositives(totalBloomFalsePositives.get())
+                .totalReleased(totalReleased.get())
+                .totalConfirmFailures(totalConfirmFailures.get())
+                .pendingOps(batcher.pending())
+                .queueCapacity(batcher.capacity())
+                .totalBatches(batcher.getTotalBatches())
+                .totalFailedBatches(batcher.getTotalFailedBatches())
+                .totalFailedWriteBehind(batcher.getTotalFailedWriteBehind())
+                .totalSyncFlushes(batcher.getTotalSyncFlushes())
+                .averageBatchSize(batcher.averageBatchSize())
+                .largestBatch(batcher.getLargestBatch())
+                .build();
+    }
+
+    /**
+     * 멱등 처리 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class IdempotencyStats {
+        private final boolean enabled;
+        private final Set<String> gatedTypes;
+        private final Set<String> clusterTypes;
+        private final long ttlSeconds;
+        private final long totalFastPath;
+        private final long totalConfirmed;
+        private final double fastPathRatio;
+        private final long totalDuplicates;
+        private final long totalBloomFalsePositives;
+        private final long totalReleased;
+        private final long totalConfirmFailures;
+        private final int pendingOps;
+        private final int queueCapacity;
+        private final long totalBatches;
+        private final long totalFailedBatches;
+        private final long totalFailedWriteBehind;
+        private final long totalSyncFlushes;
+        private final double averageBatchSize;
+        private final int largestBatch;
+    }
+}
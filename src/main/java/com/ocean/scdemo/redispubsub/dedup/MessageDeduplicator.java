@@ -0,0 +1,143 @@
+package com.ocean.scdemo.redispubsub.dedup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 핸들러 공용 중복 메시지 판별기
+ *
+ * 이름(메시지 타입별 chat, notification, user-event 등)마다 TimeBucketedBloomFilter 를 하나씩 두며,
+ * 모든 필터가 같은 보존 구간/버킷 설정을 공유한다. IdempotencyGate 의 로컬 빠른 경로로 사용된다. 메모리는 필터 수 × 버킷 수 × 비트 배열로 고정된다.
+ */
+@Slf4j
+@Component
+public class MessageDeduplicator {
+
+    @Value("${pubsub.dedup.horizon-seconds:300}")
+    private long horizonSeconds;
+
+    @Value("${pubsub.dedup.buckets:5}")
+    private int bucketCount;
+
+    @Value("${pubsub.dedup.expected-per-bucket:50000}")
+    private int expectedPerBucket;
+
+    @Value("${pubsub.dedup.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private final Map<String, NamedFilter> filters = new ConcurrentHashMap<>();
+
+    /**
+     * 이미 처리한 메시지인지 확인 (기록하지 않음)
+     */
+    public boolean isDuplicate(String name, String messageId) {
+        if (messageId == null) {
+            return false;
+        }
+        NamedFilter filter = filter(name);
+        if (filter.bloom.mightContain(messageId)) {
+            filter.duplicates.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 처리 완료 메시지 기록
+     */
+    public void record(String name, String messageId) {
+        if (messageId != null) {
+            filter(name).bloom.put(messageId);
+        }
+    }
+
+    /**
+     * 조회 후 처음 보는 메시지면 기록 (중복이면 true)
+     */
+    public boolean checkAndRecord(String name, String messageId) {
+        if (isDuplicate(name, messageId)) {
+            return true;
+        }
+        record(name, messageId);
+        return false;
+    }
+
+    private NamedFilter filter(String name) {
+        return filters.computeIfAbsent(name, this::createFilter);
+    }
+
+    private NamedFilter createFilter(String name) {
+        TimeBucketedBloomFilter bloom = new TimeBucketedBloomFilter(
+                horizonSeconds * 1000, bucketCount, expectedPerBucket, falsePositiveRate);
+        log.info("중복 판별 필터 생성: name={}, 보존={}초, 버킷={}개, 비트/버킷={}, 해시={}개, 메모리={}KB",
+                name, horizonSeconds, bloom.getBucketCount(), bloom.getNumBits(), bloom.getNumHashes(),
+                bloom.memoryBytes() / 1024);
+        return new NamedFilter(bloom);
+    }
+
+    /**
+     * 필터별 통계 (추정 거짓 양성률, 메모리 사용량)
+     */
+    public DedupStats getStats() {
+        Map<String, FilterStats> perFilter = new TreeMap<>();
+        long totalMemory = 0;
+
+        for (Map.Entry<String, NamedFilter> entry : filters.entrySet()) {
+            TimeBucketedBloomFilter bloom = entry.getValue().bloom;
+            perFilter.put(entry.getKey(), FilterStats.builder()
+                    .liveCount(bloom.liveCount())
+                    .duplicatesDetected(entry.getValue().duplicates.get())
+                    .estimatedFalsePositiveRate(bloom.estimatedFalsePositiveRate())
+                    .memoryBytes(bloom.memoryBytes())
+                    .build());
+            totalMemory += bloom.memoryBytes();
+        }
+
+        return DedupStats.builder()
+                .horizonSeconds(horizonSeconds)
+                .bucketCount(bucketCount)
+                .expectedPerBucket(expectedPerBucket)
+                .targetFalsePositiveRate(falsePositiveRate)
+                .totalMemoryBytes(totalMemory)
+                .filters(perFilter)
+                .build();
+    }
+
+    private record NamedFilter(TimeBucketedBloomFilter bloom, AtomicLong duplicates) {
+        NamedFilter(TimeBucketedBloomFilter bloom) {
+            this(bloom, new AtomicLong());
+        }
+    }
+
+    /**
+     * 중복 판별 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class DedupStats {
+        private final long horizonSeconds;
+        private final int bucketCount;
+        private final int expectedPerBucket;
+        private final double targetFalsePositiveRate;
+        private final long totalMemoryBytes;
+        private final Map<String, FilterStats> filters;
+    }
+
+    /**
+     * 필터별 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class FilterStats {
+        private final long liveCount;
+        private final long duplicatesDetected;
+        private final double estimatedFalsePositiveRate;
+        private final long memoryBytes;
+    }
+}
@@ -0,0 +1,254 @@
+package com.ocean.scdemo.redispubsub.dedup;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 시간 버킷 회전 Bloom 필터
+ *
+ * 보존 구간(horizon)을 bucketCount 개 구간으로 나누고 구간마다 Bloom 필터 하나를 둔다.
+ * - put: 현재 구간 필터에 기록
+ * - mightContain: 보존 구간 안의 모든 필터 조회
+ * - 구간이 바뀌면 가장 오래된 필터 자리에 새로 할당한 빈 필터를 CAS 로 끼워 넣음 (링 크기 고정)
+ *
+ * 버킷의 구간(epoch)은 생성 후 바뀌지 않으므로 회전 중에도 기록/조회가 반쯤 지워진 비트를 보지 않는다.
+ * 회전에 진 기록은 새 버킷을 다시 읽어 기록하고, 시계가 늦은 기록은 더 새 버킷에 남겨 보존 기간만 늘어난다.
+ *
+ * 링 크기는 bucketCount + 1 이므로 기록된 키는 최소 horizon, 최대 horizon + 한 구간 동안 유지된다.
+ * Bloom 필터 특성상 거짓 음성은 없다. 조회는 살아있는 버킷을 모두 보므로 거짓 양성률이 버킷 수만큼 누적되며,
+ * 이를 감안해 버킷마다 falsePositiveRate / 링 크기 로 크기를 잡아 조회 전체 기준 목표치를 맞춘다.
+ */
+public class TimeBucketedBloomFilter {
+
+    private static final double LN2_SQUARED = Math.log(2) * Math.log(2);
+
+    private final long bucketMillis;
+    private final int numBits;
+    private final int numHashes;
+    private final AtomicReferenceArray<Bucket> ring;
+    private final LongSupplier clock;
+
+    public TimeBucketedBloomFilter(long horizonMillis, int bucketCount, int expectedPerBucket,
+                                   double falsePositiveRate) {
+        this(horizonMillis, bucketCount, expectedPerBucket, falsePositiveRate, System::currentTimeMillis);
+    }
+
+    public TimeBucketedBloomFilter(long horizonMillis, int bucketCount, int expectedPerBucket,
+                                   double falsePositiveRate, LongSupplier clock) {
+        if (horizonMillis <= 0 || bucketCount <= 0 || expectedPerBucket <= 0) {
+            throw new IllegalArgumentException("horizon, bucketCount, expectedPerBucket 는 0보다 커야 합니다");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate 는 (0, 1) 범위여야 합니다: " + falsePositiveRate);
+        }
+
+        int ringSize = bucketCount + 1;
+        this.bucketMillis = Math.max(1, horizonMillis / bucketCount);
+        this.numBits = optimalNumBits(expectedPerBucket, falsePositiveRate / ringSize);
+        this.numHashes = optimalNumHashes(expectedPerBucket, numBits);
+        this.clock = clock;
+
+        this.ring = new AtomicReferenceArray<>(ringSize);
+        for (int i = 0; i < ringSize; i++) {
+            ring.set(i, new Bucket(numBits, Long.MIN_VALUE));
+        }
+    }
+
+    /**
+     * 키 기록
+     */
+    public void put(String key) {
+        long epoch = currentEpoch();
+        Bucket bucket = bucketFor(epoch);
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < numHashes; i++) {
+            bucket.set(index(h1, h2, i));
+        }
+        bucket.count.incrementAndGet();
+    }
+
+    /**
+     * 보존 구간 안에서 본 적이 있는지 확인 (거짓 양성 가능, 거짓 음성 없음)
+     */
+    public boolean mightContain(String key) {
+        long epoch = currentEpoch();
+        long oldestLive = epoch - ring.length() + 1;
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            long bucketEpoch = bucket.epoch;
+            if (bucketEpoch < oldestLive || bucketEpoch > epoch || bucket.count.get() == 0) {
+                continue;
+            }
+            if (bucket.containsAll(h1, h2, numHashes, numBits)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 조회 후 기록 (처음 보는 키면 false)
+     */
+    public boolean checkAndPut(String key) {
+        if (mightContain(key)) {
+            return true;
+        }
+        put(key);
+        return false;
+    }
+
+    /**
+     * 현재 보존 구간 기준 추정 거짓 양성률
+     * 조회는 살아있는 모든 버킷을 보므로 1 - Π(1 - p_i), p_i = (1 - e^(-k·n_i/m))^k
+     */
+    public double estimatedFalsePositiveRate() {
+        long epoch = currentEpoch();
+        long oldestLive = epoch - ring.length() + 1;
+        double notFalsePositive = 1.0;
+
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket.epoch < oldestLive || bucket.epoch > epoch) {
+                continue;
+            }
+            int n = bucket.count.get();
+            double p = Math.pow(1 - Math.exp(-(double) numHashes * n / numBits), numHashes);
+            notFalsePositive *= (1 - p);
+        }
+        return 1 - notFalsePositive;
+    }
+
+    /**
+     * 보존 구간 안에 기록된 건수
+     */
+    public long liveCount() {
+        long epoch = currentEpoch();
+        long oldestLive = epoch - ring.length() + 1;
+        long total = 0;
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket.epoch >= oldestLive && bucket.epoch <= epoch) {
+                total += bucket.count.get();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 비트 배열 메모리 (바이트)
+     */
+    public long memoryBytes() {
+        return (long) ring.length() * ((numBits + 63) / 64) * Long.BYTES;
+    }
+
+    public int getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    public int getBucketCount() {
+        return ring.length();
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    private long currentEpoch() {
+        return clock.getAsLong() / bucketMillis;
+    }
+
+    /**
+     * 구간의 버킷 - 자리에 지난 구간 버킷이 있으면 새 버킷으로 교체 (CAS 에 지면 이긴 쪽 버킷 사용)
+     */
+    private Bucket bucketFor(long epoch) {
+        int slot = (int) (epoch % ring.length());
+        while (true) {
+            Bucket bucket = ring.get(slot);
+            if (bucket.epoch >= epoch) {
+                return bucket;
+            }
+            Bucket fresh = new Bucket(numBits, epoch);
+            if (ring.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int index(int h1, int h2, int i) {
+        int combined = h1 + i * h2;
+        return (combined & Integer.MAX_VALUE) % numBits;
+    }
+
+    /**
+     * 64비트 해시 (FNV-1a + murmur3 fmix64)
+     * 상/하위 32비트를 Kirsch-Mitzenmacher 이중 해싱의 h1, h2 로 사용
+     */
+    static long hash64(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    static int optimalNumBits(long expected, double falsePositiveRate) {
+        long bits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / LN2_SQUARED);
+        return (int) Math.min(Integer.MAX_VALUE - 64, Math.max(64, bits));
+    }
+
+    static int optimalNumHashes(long expected, long numBits) {
+        return Math.max(1, (int) Math.round((double) numBits / expected * Math.log(2)));
+    }
+
+    private static final class Bucket {
+        private final AtomicLongArray bits;
+        private final AtomicInteger count = new AtomicInteger();
+        private final long epoch;
+
+        private Bucket(int numBits, long epoch) {
+            this.bits = new AtomicLongArray((numBits + 63) / 64);
+            this.epoch = epoch;
+        }
+
+        private void set(int bitIndex) {
+            int word = bitIndex >>> 6;
+            long mask = 1L << bitIndex;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    return;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+
+        private boolean containsAll(int h1, int h2, int numHashes, int numBits) {
+            for (int i = 0; i < numHashes; i++) {
+                int bitIndex = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+                if ((bits.get(bitIndex >>> 6) & (1L << bitIndex)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
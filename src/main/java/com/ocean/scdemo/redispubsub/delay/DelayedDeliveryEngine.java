@@ -0,0 +1,465 @@
+package com.ocean.scdemo.redispubsub.delay;
+
+import com.ocean.scdemo.redispubsub.codec.MessageCodec;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import com.ocean.scdemo.redispubsub.retry.DeadLetterStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 지연 전달 엔진 (예약 알림)
+ *
+ * 핵심 기능:
+ * - 내구성: Redis ZSET(score = 만료 epoch millis) + 페이로드 HASH, member 는 messageId
+ *   (여러 노드가 같은 예약 메시지를 받아 등록해도 Lua 의 ZADD NX/HSETNX 로 첫 등록만 반영되고,
+ *   전달 중(임대)이거나 이미 확인된 항목(delivered ZSET)은 다시 등록하지 않으며 시도 횟수도 초기화하지 않음)
+ * - 정밀도: 가까운 만료 시각은 계층형 타이밍 휠에 O(1) 로 등록해 tick 단위로 깨어남
+ * - 분산 처리: Lua 스크립트로 만료 항목을 배치 단위로 원자적으로 꺼내(ZPOPMIN 방식) 노드 간 중복 없이 분담
+ * - 안전성: 꺼낸 항목은 임대(lease) ZSET 으로 옮기고 전달 성공 시 확인, 임대 만료 시 다시 대기열로 복귀
+ * - 재시도 상한: claim 마다 시도 횟수(attempts HASH)를 올리고 max-attempts 에 도달한 실패 항목은 DLQ 로 옮김
+ *   (페이로드를 읽을 수 없는 항목은 DLQ 에 담을 수 없으므로 폐기하고 집계)
+ *
+ * 휠에는 메시지 자체가 아니라 "깨어날 tick" 만 올리므로 수백만 건이 대기해도 노드 메모리는
+ * 휠 범위(horizon) 안의 서로 다른 tick 수로 제한된다. 다른 노드가 등록했거나 재시작 전에 등록된
+ * 항목은 주기적 prefetch 로 휠에 올리고, 폴링 claim 이 최종 안전망 역할을 한다.
+ * 티커는 SmartLifecycle 로 시작하므로 디스패치 테이블이 컴파일된 뒤에 첫 전달이 일어난다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DelayedDeliveryEngine implements SmartLifecycle {
+
+    // 스크립트가 세 키를 함께 다루므로 클러스터에서도 같은 슬롯에 놓이도록 해시 태그 사용
+    static final String DUE_KEY = "{pubsub:delayed}:due";
+    static final String LEASE_KEY = "{pubsub:delayed}:lease";
+    static final String PAYLOAD_KEY = "{pubsub:delayed}:payload";
+    static final String ATTEMPTS_KEY = "{pubsub:delayed}:attempts";
+    static final String DELIVERED_KEY = "{pubsub:delayed}:delivered";
+
+    /**
+     * 멱등 등록 - 확인 완료(delivered) 또는 전달 중(임대)인 항목은 건너뛰고, 대기 중이면 기존 만료 시각/페이로드 유지
+     * 반환: 1 (새로 등록) / 0 (중복)
+     */
+    private static final byte[] SCHEDULE_SCRIPT = """
+            if redis.call('ZSCORE', KEYS[4], ARGV[1]) then return 0 end
+            if redis.call('ZSCORE', KEYS[2], ARGV[1]) then return 0 end
+            redis.call('HSETNX', KEYS[3], ARGV[1], ARGV[2])
+            return redis.call('ZADD', KEYS[1], 'NX', ARGV[3], ARGV[1])
+            """.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 원자적 배치 claim
+     * 1) 임대 만료 항목을 대기열로 복귀  2) 만료된 항목을 최대 n 개 꺼내 임대 ZSET 으로 이동하고 시도 횟수 증가
+     * 반환: [id1, payload1, attempts1, id2, payload2, attempts2, ...]
+     */
+    private static final byte[] CLAIM_SCRIPT = """
+            local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            for _, id in ipairs(expired) do
+              redis.call('ZREM', KEYS[2], id)
+              redis.call('ZADD', KEYS[1], ARGV[1], id)
+            end
+            local ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            local result = {}
+            for _, id in ipairs(ids) do
+              redis.call('ZREM', KEYS[1], id)
+              local payload = redis.call('HGET', KEYS[3], id)
+              if payload then
+                redis.call('ZADD', KEYS[2], ARGV[3], id)
+                table.insert(result, id)
+                table.insert(result, payload)
+                table.insert(result, tostring(redis.call('HINCRBY', KEYS[4], id, 1)))
+              else
+                redis.call('HDEL', KEYS[4], id)
+              end
+            end
+            return result
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisPubSubTemplate;
+    private final MessageCodec messageCodec;
+    private final DeadLetterStore deadLetterStore;
+
+    @Value("${pubsub.delayed.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pubsub.delayed.tick-ms:100}")
+    private long tickMillis;
+
+    @Value("${pubsub.delayed.wheel-size:64}")
+    private int wheelSize;
+
+    @Value("${pubsub.delayed.wheel-levels:3}")
+    private int wheelLevels;
+
+    @Value("${pubsub.delayed.horizon-seconds:600}")
+    private long horizonSeconds;
+
+    @Value("${pubsub.delayed.batch-size:200}")
+    private int batchSize;
+
+    @Value("${pubsub.delayed.poll-interval-ms:1000}")
+    private long pollIntervalMillis;
+
+    @Value("${pubsub.delayed.prefetch-limit:10000}")
+    private int prefetchLimit;
+
+    @Value("${pubsub.delayed.lease-ms:30000}")
+    private long leaseMillis;
+
+    @Value("${pubsub.delayed.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${pubsub.delayed.delivered-retention-ms:86400000}")
+    private long deliveredRetentionMillis;
+
+    private HierarchicalTimingWheel<Long> wheel;
+
+    // 휠에 이미 올린 tick (같은 tick 의 깨어남은 하나로 합침)
+    private final Set<Long> armedTicks = ConcurrentHashMap.newKeySet();
+
+    private volatile Predicate<BaseMessage> deliveryHandler;
+
+    private volatile boolean running;
+    private Thread ticker;
+
+    // 통계
+    private final AtomicLong totalScheduled = new AtomicLong(0);
+    private final AtomicLong totalDuplicateSchedules = new AtomicLong(0);
+    private final AtomicLong totalWheelWakeups = new AtomicLong(0);
+    private final AtomicLong totalClaimed = new AtomicLong(0);
+    private final AtomicLong totalDelivered = new AtomicLong(0);
+    private final AtomicLong totalDeliveryFailed = new AtomicLong(0);
+    private final AtomicLong totalDeadLettered = new AtomicLong(0);
+    private final AtomicLong totalDropped = new AtomicLong(0);
+    private final AtomicLong totalPrefetched = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, wheelSize, wheelLevels, System.currentTimeMillis());
+        if (horizonMillis() >= wheel.spanMillis()) {
+            throw new IllegalStateException("pubsub.delayed.horizon-seconds 가 타이밍 휠 범위("
+                    + wheel.spanMillis() / 1000 + "s)보다 큽니다");
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("지연 전달 엔진 비활성화 (설정)");
+            return;
+        }
+
+        running = true;
+        ticker = Thread.ofVirtual().name("delayed-delivery-ticker").start(this::tickLoop);
+
+        log.info("지연 전달 엔진 시작 - tick={}ms, 휠={}x{}레벨(범위 {}s), horizon={}s, 배치={}",
+                tickMillis, wheelSize, wheelLevels, wheel.spanMillis() / 1000, horizonSeconds, batchSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 만료 항목을 전달할 핸들러 등록 (true 반환 시 확인 처리)
+     */
+    public void setDeliveryHandler(Predicate<BaseMessage> deliveryHandler) {
+        this.deliveryHandler = deliveryHandler;
+    }
+
+    /**
+     * 예약 등록 - Redis 에 멱등하게 영속화하고 horizon 안이면 휠에 깨어날 tick 등록
+     */
+    public void schedule(BaseMessage message, LocalDateTime dueAt) {
+        schedule(message, dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void schedule(BaseMessage message, long dueMillis) {
+        byte[] id = bytes(message.getMessageId());
+        byte[] payload = ((RedisSerializer<Object>) redisPubSubTemplate.getValueSerializer()).serialize(message);
+
+        byte[][] keysAndArgs = {
+                bytes(DUE_KEY), bytes(LEASE_KEY), bytes(PAYLOAD_KEY), bytes(DELIVERED_KEY),
+                id, payload, bytes(Long.toString(dueMillis))
+        };
+        Long added = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.scriptingCommands().eval(SCHEDULE_SCRIPT, ReturnType.INTEGER, 4, keysAndArgs));
+        if (added == null || added == 0) {
+            // 다른 노드가 먼저 등록했거나 이미 전달/전달 중인 항목
+            totalDuplicateSchedules.incrementAndGet();
+            log.debug("지연 전달 중복 등록 무시: ID={}", message.getMessageId());
+            return;
+        }
+        totalScheduled.incrementAndGet();
+
+        arm(dueMillis);
+
+        log.debug("지연 전달 등록: ID={}, 만료={}", message.getMessageId(), Instant.ofEpochMilli(dueMillis));
+    }
+
+    private void tickLoop() {
+        long nextPoll = 0;
+        long nextPrefetch = 0;
+
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+
+                int wakeups = wheel.advance(now, armedTicks::remove);
+                totalWheelWakeups.addAndGet(wakeups);
+
+                if (wakeups > 0 || now >= nextPoll) {
+                    claimDue(now);
+                    nextPoll = now + pollIntervalMillis;
+                }
+                if (now >= nextPrefetch) {
+                    prefetch(now);
+                    nextPrefetch = now + horizonMillis() / 2;
+                }
+
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("지연 전달 tick 처리 실패", e);
+            }
+        }
+    }
+
+    /**
+     * 만료 항목을 배치 단위로 claim 하여 전달 (배치가 가득 차면 이어서 claim)
+     */
+    int claimDue(long now) {
+        Predicate<BaseMessage> handler = this.deliveryHandler;
+        if (handler == null) {
+            return 0;
+        }
+
+        int claimedTotal = 0;
+        List<byte[]> batch;
+        do {
+            batch = claimBatch(now);
+            int claimed = batch.size() / 3;
+            claimedTotal += claimed;
+            totalClaimed.addAndGet(claimed);
+
+            List<byte[]> finished = new ArrayList<>(claimed);
+            for (int i = 0; i < batch.size(); i += 3) {
+                byte[] id = batch.get(i);
+                int attempts = Integer.parseInt(new String(batch.get(i + 2), StandardCharsets.UTF_8));
+                if (deliver(handler, id, batch.get(i + 1), attempts)) {
+                    finished.add(id);
+                }
+            }
+            acknowledge(finished);
+        } while (batch.size() / 3 >= batchSize && running);
+
+        return claimedTotal;
+    }
+
+    /**
+     * 항목 하나 전달 - 확인(임대/페이로드 삭제)할 항목이면 true
+     * 시도 횟수가 상한에 닿은 실패 항목은 DLQ 로 옮긴 뒤 true (더 이상 재시도하지 않음)
+     */
+    private boolean deliver(Predicate<BaseMessage> handler, byte[] id, byte[] payload, int attempts) {
+        String messageId = new String(id, StandardCharsets.UTF_8);
+        BaseMessage message;
+        try {
+            message = messageCodec.decode(payload);
+        } catch (Exception e) {
+            totalDropped.incrementAndGet();
+            log.error("지연 전달 페이로드 역직렬화 실패, 폐기: ID={}", messageId, e);
+            return true;
+        }
+
+        String error;
+        try {
+            // 이전 노드가 전달 도중 중단되어 상한을 넘긴 항목은 다시 전달하지 않음
+            if (attempts <= maxAttempts && handler.test(message)) {
+                totalDelivered.incrementAndGet();
+                return true;
+            }
+            error = "지연 전달 실패";
+        } catch (Exception e) {
+            log.error("지연 전달 처리 오류: ID={}", messageId, e);
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        totalDeliveryFailed.incrementAndGet();
+
+        if (attempts < maxAttempts) {
+            log.warn("지연 전달 실패, 임대 만료 후 재시도: ID={}, 시도={}/{}", messageId, attempts, maxAttempts);
+            return false;
+        }
+        try {
+            deadLetterStore.add(message, attempts, error + " (지연 전달 재시도 " + maxAttempts + "회 초과)");
+            totalDeadLettered.incrementAndGet();
+            return true;
+        } catch (Exception e) {
+            log.error("지연 전달 DLQ 적재 실패, 임대 만료 후 재시도: ID={}", messageId, e);
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<byte[]> claimBatch(long now) {
+        byte[][] keysAndArgs = {
+                bytes(DUE_KEY), bytes(LEASE_KEY), bytes(PAYLOAD_KEY), bytes(ATTEMPTS_KEY),
+                bytes(Long.toString(now)), bytes(Integer.toString(batchSize)), bytes(Long.toString(now + leaseMillis))
+        };
+        List<byte[]> result = redisPubSubTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.scriptingCommands().eval(CLAIM_SCRIPT, ReturnType.MULTI, 4, keysAndArgs));
+        return result != null ? result : Collections.emptyList();
+    }
+
+    /**
+     * 전달 완료(또는 DLQ 이동/폐기) 항목 확인 - 임대/페이로드/시도 횟수 일괄 삭제, 확인 표시 기록
+     * (확인 표시는 delivered-retention-ms 동안 유지되어 늦게 도착한 같은 예약의 재등록을 막음)
+     */
+    private void acknowledge(List<byte[]> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        byte[][] members = ids.toArray(new byte[0][]);
+        long now = System.currentTimeMillis();
+        redisPubSubTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] member : members) {
+                connection.zSetCommands().zAdd(bytes(DELIVERED_KEY), now, member);
+            }
+            connection.zSetCommands().zRemRangeByScore(bytes(DELIVERED_KEY), Double.NEGATIVE_INFINITY,
+                    now - deliveredRetentionMillis);
+            connection.zSetCommands().zRem(bytes(LEASE_KEY), members);
+            connection.hashCommands().hDel(bytes(PAYLOAD_KEY), members);
+            connection.hashCommands().hDel(bytes(ATTEMPTS_KEY), members);
+            return null;
+        });
+    }
+
+    /**
+     * horizon 안에 만료되는 항목의 깨어날 tick 을 휠에 등록 (다른 노드 등록분/재시작 이전 등록분)
+     */
+    private void prefetch(long now) {
+        Set<Tuple> upcoming = redisPubSubTemplate.execute((RedisCallback<Set<Tuple>>) connection ->
+                connection.zSetCommands().zRangeByScoreWithScores(bytes(DUE_KEY),
+                        Range.closed((double) now, (double) (now + horizonMillis())),
+                        Limit.limit().count(prefetchLimit)));
+        if (upcoming == null) {
+            return;
+        }
+        int armed = 0;
+        for (Tuple tuple : upcoming) {
+            if (arm(tuple.getScore().longValue())) {
+                armed++;
+            }
+        }
+        totalPrefetched.addAndGet(armed);
+    }
+
+    /**
+     * horizon 안의 만료 시각이면 휠에 깨어날 tick 등록 (tick 당 한 번)
+     */
+    private boolean arm(long dueMillis) {
+        if (dueMillis - System.currentTimeMillis() > horizonMillis()) {
+            return false;
+        }
+        long tick = dueMillis / tickMillis;
+        if (!armedTicks.add(tick)) {
+            return false;
+        }
+        if (!wheel.schedule(dueMillis, tick)) {
+            armedTicks.remove(tick);
+            return false;
+        }
+        return true;
+    }
+
+    private long horizonMillis() {
+        return horizonSeconds * 1000;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 지연 전달 통계
+     */
+    public DelayedStats getStats() {
+        Long pending = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.zSetCommands().zCard(bytes(DUE_KEY)));
+        Long leased = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.zSetCommands().zCard(bytes(LEASE_KEY)));
+
+        return DelayedStats.builder()
+                .enabled(enabled)
+                .pending(pending != null ? pending : 0)
+                .leased(leased != null ? leased : 0)
+                .wheelEntries(wheel.size())
+                .armedTicks(armedTicks.size())
+                .totalScheduled(totalScheduled.get())
+                .totalDuplicateSchedules(totalDuplicateSchedules.get())
+                .totalWheelWakeups(totalWheelWakeups.get())
+                .totalPrefetched(totalPrefetched.get())
+                .totalClaimed(totalClaimed.get())
+                .totalDelivered(totalDelivered.get())
+                .totalDeliveryFailed(totalDeliveryFailed.get())
+                .totalDeadLettered(totalDeadLettered.get())
+                .totalDropped(totalDropped.get())
+                .build();
+    }
+
+    /**
+     * 지연 전달 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class DelayedStats {
+        private final boolean enabled;
+        private final long pending;
+        private final long leased;
+        private final int wheelEntries;
+        private final int armedTicks;
+        private final long totalScheduled;
+        private final long totalDuplicateSchedules;
+        private final long totalWheelWakeups;
+        private final long totalPrefetched;
+        private final long totalClaimed;
+        private final long totalDelivered;
+        private final long totalDeliveryFailed;
+        private final long totalDeadLettered;
+        private final long totalDropped;
+    }
+}
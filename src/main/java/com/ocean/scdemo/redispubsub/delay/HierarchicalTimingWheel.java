@@ -0,0 +1,253 @@
+package com.ocean.scdemo.redispubsub.delay;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 계층형 타이밍 휠
+ *
+ * - 레벨 0 슬롯 하나가 tick 하나, 레벨 L 슬롯 하나가 wheelSize^L tick 을 담당
+ * - 등록은 만료 tick 으로 레벨/슬롯을 계산해 넣기만 하므로 O(1)
+ * - 상위 레벨 슬롯은 해당 구간이 시작될 때 하위 레벨로 내려 보낸다 (cascade)
+ * - 등록은 어느 스레드에서나 가능 (lock-free inbox), advance 는 단일 틱 스레드에서만 호출
+ * - 슬롯은 침투형 이중 연결 리스트라 scheduleTimer 로 받은 타이머를 O(1) 로 취소할 수 있음
+ *   (취소는 advance 와 같은 스레드 또는 같은 잠금 아래에서만 호출)
+ *
+ * 전체 범위(tickMillis × wheelSize^levels)를 넘는 항목은 등록을 거절한다.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelBits;
+    private final int wheelMask;
+    private final int levels;
+    private final Bucket<T>[][] slots;
+
+    private final ConcurrentLinkedQueue<Timer<T>> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize 는 2의 거듭제곱이어야 합니다: " + wheelSize);
+        }
+        if (levels <= 0 || (long) Integer.numberOfTrailingZeros(wheelSize) * levels >= 62) {
+            throw new IllegalArgumentException("levels 범위가 올바르지 않습니다: " + levels);
+        }
+
+        this.tickMillis = tickMillis;
+        this.wheelBits = Integer.numberOfTrailingZeros(wheelSize);
+        this.wheelMask = wheelSize - 1;
+        this.levels = levels;
+        this.currentTick = startMillis / tickMillis;
+
+        this.slots = new Bucket[levels][wheelSize];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots[level][slot] = new Bucket<>();
+            }
+        }
+    }
+
+    /**
+     * 만료 시각(epoch millis)에 항목 등록
+     *
+     * @return 휠 범위를 넘어 등록하지 못했으면 false
+     */
+    public boolean schedule(long dueMillis, T item) {
+        return scheduleTimer(dueMillis, item) != null;
+    }
+
+    /**
+     * 만료 시각(epoch millis)에 항목 등록 후 취소용 타이머 반환
+     *
+     * @return 휠 범위를 넘어 등록하지 못했으면 null
+     */
+    public Timer<T> scheduleTimer(long dueMillis, T item) {
+        long dueTick = dueMillis / tickMillis;
+        if (dueTick - currentTick >= spanTicks()) {
+            return null;
+        }
+        Timer<T> timer = new Timer<>(this, dueTick, item);
+        inbox.add(timer);
+        size.incrementAndGet();
+        return timer;
+    }
+
+    /**
+     * 현재 시각까지 tick 을 진행하며 만료된 항목 전달
+     *
+     * @return 만료된 항목 수
+     */
+    public int advance(long nowMillis, Consumer<T> onExpired) {
+        drainInbox();
+
+        long targetTick = nowMillis / tickMillis;
+        int expired = 0;
+
+        while (currentTick < targetTick) {
+            long tick = currentTick + 1;
+            cascade(tick);
+            currentTick = tick;
+
+            Bucket<T> slot = slots[0][(int) (tick & wheelMask)];
+            Timer<T> timer;
+            while ((timer = slot.poll()) != null) {
+                timer.done = true;
+                size.decrementAndGet();
+                expired++;
+                onExpired.accept(timer.item);
+            }
+            drainInbox();
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * 휠이 표현할 수 있는 최대 지연 (millis)
+     */
+    public long spanMillis() {
+        return spanTicks() * tickMillis;
+    }
+
+    private long spanTicks() {
+        return 1L << (wheelBits * levels);
+    }
+
+    /**
+     * tick 이 레벨 L 구간의 시작이면 레벨 L 의 해당 슬롯을 하위 레벨로 재배치 (상위 레벨부터)
+     */
+    private void cascade(long tick) {
+        for (int level = levels - 1; level >= 1; level--) {
+            long lowMask = (1L << (wheelBits * level)) - 1;
+            if ((tick & lowMask) != 0) {
+                continue;
+            }
+            // 이 구간의 항목은 남은 tick 이 wheelSize^level 미만이라 항상 더 낮은 레벨로 옮겨진다
+            Bucket<T> slot = slots[level][(int) ((tick >>> (wheelBits * level)) & wheelMask)];
+            Timer<T> timer;
+            while ((timer = slot.poll()) != null) {
+                place(timer, tick, timer.dueTick);
+            }
+        }
+    }
+
+    private void drainInbox() {
+        Timer<T> timer;
+        while ((timer = inbox.poll()) != null) {
+            if (!timer.done) {
+                place(timer, currentTick, Math.max(timer.dueTick, currentTick + 1));
+            }
+        }
+    }
+
+    /**
+     * 기준 tick 대비 남은 tick 수로 레벨 결정, 만료 tick 으로 슬롯 결정
+     * 새로 들어온 항목 중 이미 지난 것은 다음 tick 으로 보정되어 들어온다.
+     */
+    private void place(Timer<T> timer, long baseTick, long dueTick) {
+        long delta = dueTick - baseTick;
+
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (wheelBits * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((dueTick >>> (wheelBits * level)) & wheelMask);
+        timer.dueTick = dueTick;
+        slots[level][slot].add(timer);
+    }
+
+    /**
+     * 등록된 항목 하나 (슬롯 연결 리스트의 노드 겸 취소 핸들)
+     */
+    public static final class Timer<T> {
+
+        private final HierarchicalTimingWheel<T> wheel;
+        private final T item;
+        private long dueTick;
+        private volatile boolean done;
+
+        private Bucket<T> bucket;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(HierarchicalTimingWheel<T> wheel, long dueTick, T item) {
+            this.wheel = wheel;
+            this.dueTick = dueTick;
+            this.item = item;
+        }
+
+        /**
+         * 만료 전이면 휠에서 제거 (inbox 에 있으면 배치 시 건너뜀)
+         *
+         * @return 이미 만료/취소된 타이머면 false
+         */
+        public boolean cancel() {
+            if (done) {
+                return false;
+            }
+            done = true;
+            if (bucket != null) {
+                bucket.remove(this);
+            }
+            wheel.size.decrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * 슬롯 하나 - 등록 순서를 유지하는 침투형 이중 연결 리스트
+     */
+    private static final class Bucket<T> {
+
+        private Timer<T> head;
+        private Timer<T> tail;
+
+        void add(Timer<T> timer) {
+            timer.bucket = this;
+            timer.prev = tail;
+            timer.next = null;
+            if (tail == null) {
+                head = timer;
+            } else {
+                tail.next = timer;
+            }
+            tail = timer;
+        }
+
+        void remove(Timer<T> timer) {
+            if (timer.prev == null) {
+                head = timer.next;
+            } else {
+                timer.prev.next = timer.next;
+            }
+            if (timer.next == null) {
+                tail = timer.prev;
+            } else {
+                timer.next.prev = timer.prev;
+            }
+            timer.bucket = null;
+            timer.prev = null;
+            timer.next = null;
+        }
+
+        Timer<T> poll() {
+            Timer<T> first = head;
+            if (first != null) {
+                remove(first);
+            }
+            return first;
+        }
+    }
+}
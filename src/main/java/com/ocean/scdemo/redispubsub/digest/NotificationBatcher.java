@@ -0,0 +1,232 @@
+package com.ocean.scdemo.redispubsub.digest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사용자별 알림 묶음(digest) 버퍼와 전송 속도 상한
+ *
+ * - 키(사용자 + 알림 타입)마다 첫 항목이 들어온 시점부터 창(window) 동안 모았다가 한 번에 내보낸다
+ * - 창 안에서 maxBatchSize 개가 차면 창을 기다리지 않고 바로 내보낸다
+ * - 버퍼는 키마다 maxBuffered 개로 제한하며, 넘치면 가장 오래된 항목을 버리고 개수만 남긴다 ("외 N건")
+ * - 사용자별 토큰 버킷(분당 ratePerMinute, 같은 크기 버스트)으로 전송 횟수를 제한한다.
+ *   토큰이 없으면 묶음을 버리지 않고 다음 토큰 시각까지 미뤄 그 사이 들어온 항목과 더 크게 합친다
+ * - 창을 우회하는 즉시 전송(높은 우선순위)은 막지 않되 토큰을 소비하여 이후 묶음 전송을 늦춘다
+ *
+ * 시각은 호출 측이 넘겨주며, 동기화는 이 클래스가 담당한다.
+ */
+public class NotificationBatcher<T> {
+
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final int maxBuffered;
+    private final int ratePerMinute;
+
+    private final Map<String, Pending<T>> pending = new HashMap<>();
+    private final Map<String, TokenBucket> buckets = new HashMap<>();
+
+    private long totalOffered;
+    private long totalDropped;
+    private long totalBatches;
+    private long totalBatchedItems;
+    private long totalBypassed;
+    private long totalRateLimited;
+
+    public NotificationBatcher(long windowMillis, int maxBatchSize, int maxBuffered, int ratePerMinute) {
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxBuffered = Math.max(this.maxBatchSize, maxBuffered);
+        this.ratePerMinute = ratePerMinute;
+    }
+
+    /**
+     * 항목 추가 - maxBatchSize 에 도달했고 토큰이 있으면 바로 내보낼 묶음 반환, 아니면 null
+     */
+    public synchronized Batch<T> offer(String key, String userId, T item, long nowMillis) {
+        totalOffered++;
+        Pending<T> buffer = pending.computeIfAbsent(key, k -> new Pending<>(userId, nowMillis + windowMillis));
+        if (buffer.items.size() >= maxBuffered) {
+            buffer.items.pollFirst();
+            buffer.dropped++;
+            totalDropped++;
+        }
+        buffer.items.addLast(item);
+
+        if (buffer.items.size() >= maxBatchSize && bucket(userId, nowMillis).tryAcquire(nowMillis)) {
+            pending.remove(key);
+            return release(key, buffer);
+        }
+        return null;
+    }
+
+    /**
+     * 창이 지난 묶음 반환 (토큰이 없는 사용자의 묶음은 다음 토큰 시각으로 미룸)
+     */
+    public synchronized List<Batch<T>> drain(long nowMillis) {
+        List<Batch<T>> due = new ArrayList<>();
+        Iterator<Map.Entry<String, Pending<T>>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Pending<T>> entry = iterator.next();
+            Pending<T> buffer = entry.getValue();
+            if (buffer.dueMillis > nowMillis) {
+                continue;
+            }
+            TokenBucket bucket = bucket(buffer.userId, nowMillis);
+            if (!bucket.tryAcquire(nowMillis)) {
+                buffer.dueMillis = nowMillis + bucket.millisUntilToken(nowMillis);
+                totalRateLimited++;
+                continue;
+            }
+            iterator.remove();
+            due.add(release(entry.getKey(), buffer));
+        }
+        evictIdleBuckets(nowMillis);
+        return due;
+    }
+
+    /**
+     * 창과 전송 상한을 무시하고 남은 묶음 모두 반환 (종료 시)
+     */
+    public synchronized List<Batch<T>> drainAll() {
+        List<Batch<T>> all = new ArrayList<>(pending.size());
+        pending.forEach((key, buffer) -> all.add(release(key, buffer)));
+        pending.clear();
+        return all;
+    }
+
+    /**
+     * 창을 우회하는 즉시 전송 기록 (막지 않고 토큰만 소비)
+     */
+    public synchronized void bypass(String userId, long nowMillis) {
+        totalBypassed++;
+        bucket(userId, nowMillis).tryAcquire(nowMillis);
+    }
+
+    private Batch<T> release(String key, Pending<T> buffer) {
+        totalBatches++;
+        totalBatchedItems += buffer.items.size();
+        return new Batch<>(key, buffer.userId, List.copyOf(buffer.items), buffer.dropped);
+    }
+
+    private TokenBucket bucket(String userId, long nowMillis) {
+        return buckets.computeIfAbsent(userId, id -> new TokenBucket(ratePerMinute, nowMillis));
+    }
+
+    /**
+     * 가득 찬 버킷은 새로 만든 것과 같으므로 제거 (사용자 수만큼 쌓이지 않도록)
+     */
+    private void evictIdleBuckets(long nowMillis) {
+        buckets.values().removeIf(bucket -> bucket.isFull(nowMillis));
+    }
+
+    public synchronized int pendingKeys() {
+        return pending.size();
+    }
+
+    public synchronized int pendingItems() {
+        return pending.values().stream().mapToInt(buffer -> buffer.items.size()).sum();
+    }
+
+    public synchronized long getTotalOffered() {
+        return totalOffered;
+    }
+
+    public synchronized long getTotalDropped() {
+        return totalDropped;
+    }
+
+    public synchronized long getTotalBatches() {
+        return totalBatches;
+    }
+
+    public synchronized long getTotalBatchedItems() {
+        return totalBatchedItems;
+    }
+
+    public synchronized long getTotalBypassed() {
+        return totalBypassed;
+    }
+
+    public synchronized long getTotalRateLimited() {
+        return totalRateLimited;
+    }
+
+    /**
+     * 내보낸 묶음
+     *
+     * @param key     버퍼 키 (사용자 + 알림 타입)
+     * @param userId  수신자
+     * @param items   남아 있던 항목 (오래된 순)
+     * @param dropped 버퍼 상한으로 버려진 항목 수
+     */
+    public record Batch<T>(String key, String userId, List<T> items, int dropped) {
+
+        public int totalCount() {
+            return items.size() + dropped;
+        }
+    }
+
+    private static final class Pending<T> {
+        private final String userId;
+        private final ArrayDeque<T> items = new ArrayDeque<>();
+        private long dueMillis;
+        private int dropped;
+
+        private Pending(String userId, long dueMillis) {
+            this.userId = userId;
+            this.dueMillis = dueMillis;
+        }
+    }
+
+    /**
+     * 분당 rate 개, 최대 rate 개까지 쌓이는 토큰 버킷 (rate 가 0 이하이면 제한 없음)
+     */
+    private static final class TokenBucket {
+        private final int ratePerMinute;
+        private double tokens;
+        private long lastRefillMillis;
+
+        private TokenBucket(int ratePerMinute, long nowMillis) {
+            this.ratePerMinute = ratePerMinute;
+            this.tokens = ratePerMinute;
+            this.lastRefillMillis = nowMillis;
+        }
+
+        private boolean tryAcquire(long nowMillis) {
+            if (ratePerMinute <= 0) {
+                return true;
+            }
+            refill(nowMillis);
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        private long millisUntilToken(long nowMillis) {
+            refill(nowMillis);
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * 60_000.0 / ratePerMinute);
+        }
+
+        private boolean isFull(long nowMillis) {
+            if (ratePerMinute <= 0) {
+                return true;
+            }
+            refill(nowMillis);
+            return tokens >= ratePerMinute;
+        }
+
+        private void refill(long nowMillis) {
+            long elapsed = nowMillis - lastRefillMillis;
+            if (elapsed > 0) {
+                tokens = Math.min(ratePerMinute, tokens + elapsed * ratePerMinute / 60_000.0);
+                lastRefillMillis = nowMillis;
+            }
+        }
+    }
+}
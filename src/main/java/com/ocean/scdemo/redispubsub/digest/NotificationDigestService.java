@@ -0,0 +1,271 @@
+package com.ocean.scdemo.redispubsub.digest;
+
+import com.ocean.scdemo.redispubsub.message.NotificationMessage;
+import com.ocean.scdemo.redispubsub.retry.RetryScheduler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * 사용자별 알림 묶음(digest) 전달
+ *
+ * 핵심 기능:
+ * - 낮은/보통 우선순위 알림을 (수신자, 알림 타입) 단위로 window 동안 모아 한 번에 전달
+ *   (max-batch-size 개가 차면 즉시, 한 건뿐이면 원본 그대로, 여러 건이면 createDigest 로 합친 알림)
+ * - 키별 버퍼 상한(max-buffered-per-key), 넘치면 오래된 항목을 버리고 "외 N건" 으로만 반영
+ * - 사용자별 분당 전달 상한(rate-cap-per-minute), 초과분은 버리지 않고 다음 묶음으로 합침
+ * - 높은 우선순위는 창을 우회하여 즉시 처리하되 전달 상한 토큰은 소비
+ * - 묶음 비율(collapse ratio) = 묶인 알림 수 / 실제 전달 수
+ *
+ * 묶음은 노드 메모리에만 있으므로 종료 시 남은 버퍼는 즉시 전달하고 끝낸다.
+ * 내보낸 알림은 status 를 RELEASED_STATUS 로 표시하여 다시 전달 경로로 들어올 때 묶지 않는다.
+ * 전달에 실패한 묶음은 RetryScheduler 로 넘겨 타입별 정책(백오프, 최대 재시도)으로 재시도하고, 소진되면 DLQ 에 남는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDigestService {
+
+    public static final String BATCHED_STATUS = "BATCHED";
+    public static final String RELEASED_STATUS = "BATCH_RELEASED";
+
+    private final RetryScheduler retryScheduler;
+
+    @Value("${pubsub.digest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pubsub.digest.window-ms:10000}")
+    private long windowMillis;
+
+    @Value("${pubsub.digest.max-batch-size:20}")
+    private int maxBatchSize;
+
+    @Value("${pubsub.digest.max-buffered-per-key:100}")
+    private int maxBufferedPerKey;
+
+    @Value("${pubsub.digest.rate-cap-per-minute:30}")
+    private int rateCapPerMinute;
+
+    @Value("${pubsub.digest.flush-interval-ms:200}")
+    private long flushIntervalMillis;
+
+    @Value("${pubsub.digest.types:PUSH,EMAIL,IN_APP}")
+    private String typeSpec;
+
+    private NotificationBatcher<NotificationMessage> batcher;
+    private Set<String> types;
+    private volatile Predicate<NotificationMessage> deliveryHandler = message -> true;
+    private ExecutorService deliveryExecutor;
+
+    private volatile boolean running;
+    private Thread ticker;
+
+    // 통계
+    private final AtomicLong totalDigests = new AtomicLong(0);
+    private final AtomicLong totalSingles = new AtomicLong(0);
+    private final AtomicLong deliveryFailures = new AtomicLong(0);
+    private final AtomicLong retryScheduled = new AtomicLong(0);
+    private final AtomicLong deadLettered = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        batcher = new NotificationBatcher<>(windowMillis, maxBatchSize, maxBufferedPerKey, rateCapPerMinute);
+        types = Arrays.stream(typeSpec.split(","))
+                .map(String::trim)
+                .filter(type -> !type.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        if (!enabled) {
+            log.info("알림 묶음 전달 비활성화 (설정)");
+            return;
+        }
+
+        deliveryExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("digest-delivery-", 0).factory());
+        running = true;
+        ticker = Thread.ofVirtual().name("digest-ticker").start(this::tickLoop);
+
+        log.info("알림 묶음 전달 시작 - window={}ms, maxBatch={}, maxBuffered={}, rateCap={}/min, types={}",
+                windowMillis, maxBatchSize, maxBufferedPerKey, rateCapPerMinute, types);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+        if (deliveryExecutor != null) {
+            // 남은 버퍼는 창과 상한을 무시하고 전달
+            batcher.drainAll().forEach(this::deliver);
+            deliveryExecutor.close();
+        }
+    }
+
+    /**
+     * 묶어서 전달할 항목을 받을 핸들러 등록 (true 반환 시 전달 성공)
+     */
+    public void setDeliveryHandler(Predicate<NotificationMessage> deliveryHandler) {
+        this.deliveryHandler = deliveryHandler;
+    }
+
+    /**
+     * 묶음 대상이면 버퍼에 넣고 true (호출 측은 전달을 생략), 대상이 아니면 false
+     */
+    public boolean tryBatch(NotificationMessage message) {
+        if (!running || message.getRecipientId() == null || RELEASED_STATUS.equals(message.getStatus())
+                || !types.contains(message.getNotificationType())) {
+            return false;
+        }
+
+        message.setStatus(BATCHED_STATUS);
+        String key = message.getRecipientId() + "|" + message.getNotificationType();
+        NotificationBatcher.Batch<NotificationMessage> full =
+                batcher.offer(key, message.getRecipientId(), message, System.currentTimeMillis());
+        if (full != null) {
+            deliveryExecutor.execute(() -> deliver(full));
+        }
+        return true;
+    }
+
+    /**
+     * 창을 우회하는 높은 우선순위 알림 기록 (수신자 전달 상한 토큰 소비)
+     */
+    public void recordBypass(NotificationMessage message) {
+        if (running && message.getRecipientId() != null) {
+            batcher.bypass(message.getRecipientId(), System.currentTimeMillis());
+        }
+    }
+
+    private void tickLoop() {
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMillis);
+
+                for (NotificationBatcher.Batch<NotificationMessage> batch : batcher.drain(System.currentTimeMillis())) {
+                    deliveryExecutor.execute(() -> deliver(batch));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("알림 묶음 flush 실패", e);
+            }
+        }
+    }
+
+    /**
+     * 한 건이면 원본 그대로, 여러 건이면 묶음 알림으로 전달
+     */
+    private void deliver(NotificationBatcher.Batch<NotificationMessage> batch) {
+        List<NotificationMessage> items = batch.items();
+        NotificationMessage delivery;
+        if (items.size() == 1 && batch.dropped() == 0) {
+            delivery = items.get(0);
+            totalSingles.incrementAndGet();
+        } else {
+            delivery = NotificationMessage.createDigest(
+                    batch.userId(), items.get(0).getNotificationType(), items, batch.dropped());
+            totalDigests.incrementAndGet();
+            log.debug("알림 묶음 전달: 수신자={}, 타입={}, 건수={}",
+                    batch.userId(), delivery.getNotificationType(), batch.totalCount());
+        }
+        delivery.setStatus(RELEASED_STATUS);
+
+        String error;
+        try {
+            if (deliveryHandler.test(delivery)) {
+                return;
+            }
+            error = "알림 묶음 전달 실패";
+            log.warn("알림 묶음 전달 실패: 수신자={}, 건수={}", batch.userId(), batch.totalCount());
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.error("알림 묶음 전달 중 오류: 수신자={}", batch.userId(), e);
+        }
+        deliveryFailures.incrementAndGet();
+        retryFailed(delivery, error);
+    }
+
+    /**
+     * 실패한 묶음 재시도 예약 (RELEASED_STATUS 이므로 재시도 시 다시 묶이지 않고 바로 전달됨)
+     */
+    private void retryFailed(NotificationMessage delivery, String error) {
+        try {
+            if (retryScheduler.submit(delivery, error)) {
+                retryScheduled.incrementAndGet();
+            } else {
+                deadLettered.incrementAndGet();
+            }
+        } catch (Exception e) {
+            log.error("알림 묶음 재시도 예약 실패, 유실: ID={}, 수신자={}", delivery.getMessageId(), delivery.getRecipientId(), e);
+        }
+    }
+
+    /**
+     * 통계 조회
+     */
+    public DigestStats getStats() {
+        return DigestStats.builder()
+                .enabled(enabled)
+                .windowMillis(windowMillis)
+                .maxBatchSize(maxBatchSize)
+                .rateCapPerMinute(rateCapPerMinute)
+                .pendingKeys(batcher.pendingKeys())
+                .pendingItems(batcher.pendingItems())
+                .totalOffered(batcher.getTotalOffered())
+                .totalBatches(batcher.getTotalBatches())
+                .totalBatchedItems(batcher.getTotalBatchedItems())
+                .totalDigests(totalDigests.get())
+                .totalSingles(totalSingles.get())
+                .totalDropped(batcher.getTotalDropped())
+                .totalBypassed(batcher.getTotalBypassed())
+                .totalRateLimited(batcher.getTotalRateLimited())
+                .deliveryFailures(deliveryFailures.get())
+                .retryScheduled(retryScheduled.get())
+                .deadLettered(deadLettered.get())
+                .build();
+    }
+
+    /**
+     * 알림 묶음 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class DigestStats {
+        private final boolean enabled;
+        private final long windowMillis;
+        private final int maxBatchSize;
+        private final int rateCapPerMinute;
+        private final int pendingKeys;
+        private final int pendingItems;
+        private final long totalOffered;
+        private final long totalBatches;
+        private final long totalBatchedItems;
+        private final long totalDigests;
+        private final long totalSingles;
+        private final long totalDropped;
+        private final long totalBypassed;
+        private final long totalRateLimited;
+        private final long deliveryFailures;
+        private final long retryScheduled;
+        private final long deadLettered;
+
+        /**
+         * 전달 1회당 묶인 알림 수 (버퍼 상한으로 버려진 건 포함)
+         */
+        public double getCollapseRatio() {
+            return totalBatches > 0 ? (double) (totalBatchedItems + totalDropped) / totalBatches : 0.0;
+        }
+    }
+}
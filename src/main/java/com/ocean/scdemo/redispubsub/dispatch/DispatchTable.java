@@ -0,0 +1,242 @@
+package com.ocean.scdemo.redispubsub.dispatch;
+
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * (메시지 클래스, 서브타입) → 처리기 불변 디스패치 테이블
+ *
+ * 빈 목록에서 {@link PubSubHandler}/{@link PubSubAround}/{@link PubSubValidator} 메서드를 찾아 한 번 컴파일하며,
+ * 이후 디스패치는 맵 조회 두 번(클래스 → 서브타입)과 MethodHandle 호출만 한다.
+ * 같은 (타입, 서브타입) 처리기가 둘 이상이거나 메서드 형태가 맞지 않으면 시작 시 실패한다.
+ */
+public final class DispatchTable {
+
+    private static final MethodType LEAF_TYPE = MethodType.methodType(boolean.class, BaseMessage.class);
+    private static final MethodType AROUND_TYPE = MethodType.methodType(boolean.class, BaseMessage.class, HandlerChain.class);
+
+    private final Map<Class<?>, Route> routes;
+
+    private DispatchTable(Map<Class<?>, Route> routes) {
+        this.routes = Map.copyOf(routes);
+    }
+
+    public static DispatchTable empty() {
+        return new DispatchTable(Map.of());
+    }
+
+    /**
+     * 빈들의 애노테이션 메서드를 테이블로 컴파일
+     */
+    public static DispatchTable compile(Collection<?> beans) {
+        Map<Class<?>, RouteBuilder> builders = new LinkedHashMap<>();
+
+        for (Object bean : beans) {
+            for (Class<?> c = bean.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Method method : c.getDeclaredMethods()) {
+                    PubSubHandler handler = method.getAnnotation(PubSubHandler.class);
+                    if (handler != null) {
+                        RouteBuilder route = builders.computeIfAbsent(handler.type(), RouteBuilder::new);
+                        route.addHandler(handler, leaf(bean, method, handler.type(), handler.maxConcurrency(),
+                                routeName(handler.type(), handler.subtype())));
+                    }
+                    PubSubAround around = method.getAnnotation(PubSubAround.class);
+                    if (around != null) {
+                        builders.computeIfAbsent(around.value(), RouteBuilder::new).setAround(around(bean, method, around.value()));
+                    }
+                    PubSubValidator validator = method.getAnnotation(PubSubValidator.class);
+                    if (validator != null) {
+                        builders.computeIfAbsent(validator.value(), RouteBuilder::new)
+                                .setValidator(bind(bean, method, validator.value(), false).asType(LEAF_TYPE), describe(method));
+                    }
+                }
+            }
+        }
+
+        Map<Class<?>, Route> routes = new HashMap<>();
+        builders.forEach((type, builder) -> routes.put(type, builder.build()));
+        return new DispatchTable(routes);
+    }
+
+    /**
+     * 메시지를 서브타입 처리기로 전달 (처리기가 없으면 false)
+     */
+    public boolean dispatch(BaseMessage message, long acquireTimeoutMillis) {
+        Route route = routeFor(message.getClass());
+        if (route == null) {
+            return false;
+        }
+        HandlerInvoker leaf = route.leafFor(message.subtype());
+        HandlerChain chain = () -> leaf != null && leaf.invoke(message, acquireTimeoutMillis);
+        return route.around() != null ? route.around().invokeAround(message, chain) : chain.proceed();
+    }
+
+    /**
+     * 타입별 상세 검증 (검증기가 없으면 통과)
+     */
+    public boolean validate(BaseMessage message) {
+        Route route = routeFor(message.getClass());
+        if (route == null || route.validator() == null) {
+            return true;
+        }
+        try {
+            return (boolean) route.validator().invokeExact(message);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("검증기 실행 실패: " + route.validatorName(), t);
+        }
+    }
+
+    public boolean supports(Class<? extends BaseMessage> type) {
+        return routeFor(type) != null;
+    }
+
+    /**
+     * 등록된 메시지 클래스 (없으면 상위 클래스 경로로 조회)
+     */
+    Route routeFor(Class<?> type) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            Route route = routes.get(c);
+            if (route != null) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    public Collection<Route> routes() {
+        return routes.values();
+    }
+
+    /**
+     * 전체 처리기 목록 (공통 전/후처리 포함)
+     */
+    public List<HandlerInvoker> invokers() {
+        List<HandlerInvoker> invokers = new ArrayList<>();
+        for (Route route : routes.values()) {
+            if (route.around() != null) {
+                invokers.add(route.around());
+            }
+            invokers.addAll(route.bySubtype().values());
+            if (route.fallback() != null) {
+                invokers.add(route.fallback());
+            }
+        }
+        return invokers;
+    }
+
+    // === 컴파일 ===
+
+    private static HandlerInvoker leaf(Object bean, Method method, Class<?> type, int maxConcurrency, String route) {
+        return new HandlerInvoker(route, describe(method), bind(bean, method, type, false).asType(LEAF_TYPE), maxConcurrency);
+    }
+
+    private static HandlerInvoker around(Object bean, Method method, Class<?> type) {
+        return new HandlerInvoker(routeName(type, "*"), describe(method), bind(bean, method, type, true).asType(AROUND_TYPE), 0);
+    }
+
+    private static MethodHandle bind(Object bean, Method method, Class<?> type, boolean withChain) {
+        Class<?>[] params = method.getParameterTypes();
+        boolean shapeOk = method.getReturnType() == boolean.class
+                && params.length == (withChain ? 2 : 1)
+                && params[0].isAssignableFrom(type)
+                && (!withChain || params[1] == HandlerChain.class);
+        if (!shapeOk) {
+            throw new IllegalStateException("처리기 메서드 형태 오류 (boolean " + method.getName() + "("
+                    + type.getSimpleName() + (withChain ? ", HandlerChain" : "") + ") 이어야 함): " + describe(method));
+        }
+        try {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method).bindTo(bean);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("처리기 메서드 접근 불가: " + describe(method), e);
+        }
+    }
+
+    private static String routeName(Class<?> type, String subtype) {
+        return type.getSimpleName() + "/" + (subtype.isEmpty() ? "default" : subtype);
+    }
+
+    private static String describe(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "#" + method.getName();
+    }
+
+    /**
+     * 메시지 클래스 하나의 경로
+     */
+    public record Route(Class<?> type,
+                        HandlerInvoker around,
+                        Map<String, HandlerInvoker> bySubtype,
+                        HandlerInvoker fallback,
+                        MethodHandle validator,
+                        String validatorName) {
+
+        HandlerInvoker leafFor(String subtype) {
+            HandlerInvoker leaf = subtype != null ? bySubtype.get(subtype) : null;
+            return leaf != null ? leaf : fallback;
+        }
+    }
+
+    private static final class RouteBuilder {
+
+        private final Class<?> type;
+        private final Map<String, HandlerInvoker> bySubtype = new HashMap<>();
+        private HandlerInvoker fallback;
+        private HandlerInvoker around;
+        private MethodHandle validator;
+        private String validatorName;
+
+        RouteBuilder(Class<?> type) {
+            this.type = type;
+        }
+
+        void addHandler(PubSubHandler handler, HandlerInvoker invoker) {
+            HandlerInvoker previous = handler.subtype().isEmpty()
+                    ? replaceFallback(invoker)
+                    : bySubtype.putIfAbsent(handler.subtype(), invoker);
+            if (previous != null) {
+                throw new IllegalStateException("처리기 중복: " + invoker.getRoute() + " → "
+                        + previous.getMethod() + ", " + invoker.getMethod());
+            }
+        }
+
+        private HandlerInvoker replaceFallback(HandlerInvoker invoker) {
+            HandlerInvoker previous = fallback;
+            if (previous == null) {
+                fallback = invoker;
+            }
+            return previous;
+        }
+
+        void setAround(HandlerInvoker invoker) {
+            if (around != null) {
+                throw new IllegalStateException("공통 전/후처리 중복: " + type.getSimpleName() + " → "
+                        + around.getMethod() + ", " + invoker.getMethod());
+            }
+            around = invoker;
+        }
+
+        void setValidator(MethodHandle handle, String name) {
+            if (validator != null) {
+                throw new IllegalStateException("검증기 중복: " + type.getSimpleName() + " → " + validatorName + ", " + name);
+            }
+            validator = handle;
+            validatorName = name;
+        }
+
+        Route build() {
+            return new Route(type, around, Map.copyOf(bySubtype), fallback, validator, validatorName);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ocean.scdemo.redispubsub.dispatch;
+
+/**
+ * {@link PubSubAround} 메서드에서 서브타입 처리기를 호출하는 연결점
+ */
+@FunctionalInterface
+public interface HandlerChain {
+
+    /**
+     * 서브타입 처리기 실행 (동시 실행 상한 초과로 자리를 얻지 못하면 false)
+     */
+    boolean proceed();
+}
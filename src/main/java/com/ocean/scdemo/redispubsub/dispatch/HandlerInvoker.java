@@ -0,0 +1,147 @@
+package com.ocean.scdemo.redispubsub.dispatch;
+
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 컴파일된 처리기 하나 (바인딩된 MethodHandle + 동시 실행 상한 + 실행 시간 통계)
+ *
+ * 처리기 형태에 따라 MethodHandle 타입은 (BaseMessage)boolean 또는 (BaseMessage, HandlerChain)boolean 으로 맞춰져 있다.
+ */
+public final class HandlerInvoker {
+
+    private final String route;
+    private final String method;
+    private final MethodHandle handle;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+
+    // 통계
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong(0);
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    HandlerInvoker(String route, String method, MethodHandle handle, int maxConcurrency) {
+        this.route = route;
+        this.method = method;
+        this.handle = handle;
+        this.maxConcurrency = Math.max(0, maxConcurrency);
+        this.permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+    }
+
+    /**
+     * 서브타입 처리기 호출 (자리를 acquireTimeoutMillis 안에 얻지 못하면 false)
+     */
+    boolean invoke(BaseMessage message, long acquireTimeoutMillis) {
+        if (!acquire(acquireTimeoutMillis)) {
+            rejected.increment();
+            return false;
+        }
+        try {
+            return timed(message, null);
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * 공통 전/후처리 호출
+     */
+    boolean invokeAround(BaseMessage message, HandlerChain chain) {
+        return timed(message, chain);
+    }
+
+    private boolean timed(BaseMessage message, HandlerChain chain) {
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            success = chain == null
+                    ? (boolean) handle.invokeExact(message)
+                    : (boolean) handle.invokeExact(message, chain);
+            return success;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("처리기 실행 실패: " + method, t);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            inFlight.decrementAndGet();
+            invocations.increment();
+            totalNanos.add(elapsed);
+            maxNanos.accumulateAndGet(elapsed, Math::max);
+            if (!success) {
+                failures.increment();
+            }
+        }
+    }
+
+    private boolean acquire(long acquireTimeoutMillis) {
+        if (permits == null) {
+            return true;
+        }
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        try {
+            return acquireTimeoutMillis > 0 && permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * 처리기 통계 스냅샷
+     */
+    public HandlerStats getStats() {
+        long count = invocations.sum();
+        return HandlerStats.builder()
+                .route(route)
+                .method(method)
+                .maxConcurrency(maxConcurrency)
+                .inFlight(inFlight.get())
+                .invocations(count)
+                .failures(failures.sum())
+                .rejected(rejected.sum())
+                .avgMillis(count == 0 ? 0.0 : totalNanos.sum() / (double) count / 1_000_000.0)
+                .maxMillis(maxNanos.get() / 1_000_000.0)
+                .build();
+    }
+
+    /**
+     * 처리기 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class HandlerStats {
+        private final String route;
+        private final String method;
+        private final int maxConcurrency;
+        private final int inFlight;
+        private final long invocations;
+        private final long failures;
+        private final long rejected;
+        private final double avgMillis;
+        private final double maxMillis;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ocean.scdemo.redispubsub.dispatch;
+
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 애노테이션 기반 메시지 처리기 레지스트리
+ *
+ * 핵심 기능:
+ * - 모든 싱글톤 생성 후 {@link PubSubHandler}/{@link PubSubAround}/{@link PubSubValidator} 메서드를 가진 빈을 찾아
+ *   불변 DispatchTable 로 한 번 컴파일 (구독자는 메시지 타입을 몰라도 됨)
+ * - 처리기별 동시 실행 상한(bulkhead)과 실행 시간 통계
+ *
+ * 새 메시지 타입은 BaseMessage 하위 클래스와 애노테이션을 단 처리기 빈만 추가하면 된다.
+ * 테이블은 afterSingletonsInstantiated 에서 컴파일되고, 메시지를 끌어오는 구성요소
+ * (리스너 컨테이너, RedisStreamConsumer, ReactiveMessageSubscriber, 지연 전달 티커)는 모두 그 뒤의
+ * SmartLifecycle 시작 단계에서 동작을 시작하므로 첫 메시지 전에 테이블이 준비된다.
+ * (@PostConstruct 에서 소비를 시작하면 테이블보다 먼저 메시지가 들어올 수 있으므로 사용하지 않는다)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HandlerRegistry implements SmartInitializingSingleton {
+
+    private final ApplicationContext applicationContext;
+
+    @Value("${pubsub.handlers.acquire-timeout-ms:50}")
+    private long acquireTimeoutMillis;
+
+    private volatile DispatchTable table = DispatchTable.empty();
+
+    private final AtomicLong totalUnrouted = new AtomicLong(0);
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Object> beans = new ArrayList<>();
+        for (String name : applicationContext.getBeanNamesForType(Object.class, false, false)) {
+            Class<?> type = applicationContext.getType(name, false);
+            if (type != null && hasHandlerMethods(ClassUtils.getUserClass(type))) {
+                Object bean = applicationContext.getBean(name);
+                Object target = AopProxyUtils.getSingletonTarget(bean);
+                beans.add(target != null ? target : bean);
+            }
+        }
+
+        table = DispatchTable.compile(beans);
+        table.routes().forEach(route -> log.info("메시지 처리기 등록: 타입={}, 서브타입={}, 기본={}, 전/후처리={}, 검증={}",
+                route.type().getSimpleName(), route.bySubtype().keySet(),
+                route.fallback() != null ? route.fallback().getMethod() : "-",
+                route.around() != null ? route.around().getMethod() : "-",
+                route.validatorName() != null ? route.validatorName() : "-"));
+    }
+
+    private static boolean hasHandlerMethods(Class<?> type) {
+        if (!AnnotationUtils.isCandidateClass(type, List.of(PubSubHandler.class, PubSubAround.class, PubSubValidator.class))) {
+            return false;
+        }
+        boolean[] found = {false};
+        ReflectionUtils.doWithMethods(type, method -> found[0] = true, method ->
+                !found[0] && (method.isAnnotationPresent(PubSubHandler.class)
+                        || method.isAnnotationPresent(PubSubAround.class)
+                        || method.isAnnotationPresent(PubSubValidator.class)));
+        return found[0];
+    }
+
+    /**
+     * 메시지 처리 (등록된 처리기가 없으면 false)
+     */
+    public boolean dispatch(BaseMessage message) {
+        DispatchTable current = table;
+        if (!current.supports(message.getClass())) {
+            totalUnrouted.incrementAndGet();
+            log.warn("지원하지 않는 메시지 타입: {}, ID={}", message.getClass().getSimpleName(), message.getMessageId());
+            return false;
+        }
+        return current.dispatch(message, acquireTimeoutMillis);
+    }
+
+    /**
+     * 타입별 상세 검증 (검증기가 없으면 통과)
+     */
+    public boolean validate(BaseMessage message) {
+        return table.validate(message);
+    }
+
+    /**
+     * 처리기별 통계 (경로 이름순)
+     */
+    public RegistryStats getStats() {
+        Map<String, HandlerInvoker.HandlerStats> handlers = new TreeMap<>();
+        for (HandlerInvoker invoker : table.invokers()) {
+            handlers.put(invoker.getRoute() + " " + invoker.getMethod(), invoker.getStats());
+        }
+
+        return RegistryStats.builder()
+                .messageTypes(table.routes().size())
+                .handlerCount(handlers.size())
+                .acquireTimeoutMillis(acquireTimeoutMillis)
+                .totalUnrouted(totalUnrouted.get())
+                .handlers(handlers)
+                .build();
+    }
+
+    /**
+     * 레지스트리 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class RegistryStats {
+        private final int messageTypes;
+        private final int handlerCount;
+        private final long acquireTimeoutMillis;
+        private final long totalUnrouted;
+        private final Map<String, HandlerInvoker.HandlerStats> handlers;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ocean.scdemo.redispubsub.dispatch;
+
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 메시지 타입 공통 전/후처리 메서드 선언 (타입당 하나)
+ *
+ * 메서드 형태: {@code boolean 메서드(메시지타입 message, HandlerChain chain)}
+ * chain.proceed() 가 서브타입에 맞는 {@link PubSubHandler} 를 호출하며, 호출하지 않으면 처리기는 실행되지 않는다.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PubSubAround {
+
+    /**
+     * 대상 메시지 클래스
+     */
+    Class<? extends BaseMessage> value();
+}
@@ -0,0 +1,46 @@
+package com.ocean.scdemo.redispubsub.dispatch;
+
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 메시지 처리 메서드 선언
+ *
+ * 시작 시 HandlerRegistry 가 스프링 빈에서 찾아 (메시지 클래스, 서브타입) 디스패치 테이블로 컴파일한다.
+ * 메서드 형태: {@code boolean 메서드(메시지타입 message)} (접근 제한자 무관)
+ *
+ * <pre>
+ * &#64;PubSubHandler(type = ChatMessage.class, subtype = "TEXT")
+ * private boolean handleTextMessage(ChatMessage message) { ... }
+ * </pre>
+ *
+ * 서브타입은 {@link BaseMessage#subtype()} 값과 비교하며, subtype 을 비우면 해당 타입의 기본 처리기
+ * (일치하는 서브타입이 없을 때 사용)가 된다.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PubSubHandler {
+
+    String DEFAULT_SUBTYPE = "";
+
+    /**
+     * 처리할 메시지 클래스
+     */
+    Class<? extends BaseMessage> type();
+
+    /**
+     * 처리할 서브타입 (비우면 기본 처리기)
+     */
+    String subtype() default DEFAULT_SUBTYPE;
+
+    /**
+     * 동시 실행 상한 (0 이하면 제한 없음). 자리가 없으면 acquire-timeout 만큼 기다린 뒤 실패로 처리한다.
+     */
+    int maxConcurrency() default 0;
+}
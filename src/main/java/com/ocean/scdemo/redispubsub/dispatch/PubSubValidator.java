@@ -0,0 +1,25 @@
+package com.ocean.scdemo.redispubsub.dispatch;
+
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 메시지 타입별 상세 검증 메서드 선언 (타입당 하나)
+ *
+ * 메서드 형태: {@code boolean 메서드(메시지타입 message)} - false 면 구독자가 핸들러 호출 전에 무시한다.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PubSubValidator {
+
+    /**
+     * 대상 메시지 클래스
+     */
+    Class<? extends BaseMessage> value();
+}
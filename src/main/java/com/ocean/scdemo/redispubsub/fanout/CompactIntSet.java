@@ -0,0 +1,167 @@
+package com.ocean.scdemo.redispubsub.fanout;
+
+import java.util.Arrays;
+
+/**
+ * 음이 아닌 int ID 집합 (정렬 배열 ↔ 비트맵 자동 전환)
+ *
+ * - 작은/희소한 집합: 정렬된 int[] (원소당 4바이트, 이진 탐색)
+ * - 크고 조밀한 집합: long[] 비트맵 (ID 당 1비트)
+ * - 두 표현 중 메모리가 작은 쪽으로 전환하며, 경계에서 반복 전환되지 않도록 여유(hysteresis)를 둔다
+ *
+ * 동기화하지 않으므로 호출 측에서 잠금 후 사용한다.
+ */
+public final class CompactIntSet {
+
+    // 이 크기 미만에서는 항상 배열 표현 유지
+    static final int MIN_BITMAP_SIZE = 1024;
+
+    private int[] array = new int[4];
+    private long[] bitmap;
+    private int size;
+
+    public boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("음수 ID 는 저장할 수 없습니다: " + value);
+        }
+        if (bitmap != null) {
+            int word = value >>> 6;
+            if (word >= bitmap.length) {
+                bitmap = Arrays.copyOf(bitmap, Math.max(word + 1, bitmap.length * 2));
+            }
+            long bit = 1L << value;
+            if ((bitmap[word] & bit) != 0) {
+                return false;
+            }
+            bitmap[word] |= bit;
+            size++;
+            // 멀리 떨어진 ID 로 비트맵이 커져 희소해졌으면 배열로 복귀
+            if (word >= MIN_BITMAP_SIZE && isSparseBitmap()) {
+                toArrayMode();
+            }
+            return true;
+        }
+
+        int index = Arrays.binarySearch(array, 0, size, value);
+        if (index >= 0) {
+            return false;
+        }
+        index = -index - 1;
+        if (size == array.length) {
+            array = Arrays.copyOf(array, size * 2);
+        }
+        System.arraycopy(array, index, array, index + 1, size - index);
+        array[index] = value;
+        size++;
+
+        if (size >= MIN_BITMAP_SIZE && bitmapBytes(array[size - 1]) < (long) size * Integer.BYTES) {
+            toBitmap();
+        }
+        return true;
+    }
+
+    public boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        if (bitmap != null) {
+            int word = value >>> 6;
+            long bit = 1L << value;
+            if (word >= bitmap.length || (bitmap[word] & bit) == 0) {
+                return false;
+            }
+            bitmap[word] &= ~bit;
+            size--;
+            if (isSparseBitmap()) {
+                toArrayMode();
+            }
+            return true;
+        }
+
+        int index = Arrays.binarySearch(array, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+        size--;
+        if (array.length > 16 && size < array.length / 4) {
+            array = Arrays.copyOf(array, array.length / 2);
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        if (bitmap != null) {
+            int word = value >>> 6;
+            return word < bitmap.length && (bitmap[word] & (1L << value)) != 0;
+        }
+        return Arrays.binarySearch(array, 0, size, value) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isBitmap() {
+        return bitmap != null;
+    }
+
+    /**
+     * 오름차순 스냅샷
+     */
+    public int[] toArray() {
+        if (bitmap == null) {
+            return Arrays.copyOf(array, size);
+        }
+        int[] result = new int[size];
+        int n = 0;
+        for (int word = 0; word < bitmap.length; word++) {
+            long bits = bitmap[word];
+            while (bits != 0) {
+                result[n++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 현재 표현이 차지하는 원소 저장 공간 (바이트)
+     */
+    public long memoryBytes() {
+        return bitmap != null ? (long) bitmap.length * Long.BYTES : (long) array.length * Integer.BYTES;
+    }
+
+    /**
+     * 배열 표현이 비트맵의 절반보다 작으면 희소 (전환 경계 반복 방지용 2배 여유)
+     */
+    private boolean isSparseBitmap() {
+        return (long) size * Integer.BYTES * 2 < (long) bitmap.length * Long.BYTES;
+    }
+
+    private static long bitmapBytes(int maxValue) {
+        return ((long) (maxValue >>> 6) + 1) * Long.BYTES;
+    }
+
+    private void toBitmap() {
+        long[] words = new long[(array[size - 1] >>> 6) + 1];
+        for (int i = 0; i < size; i++) {
+            words[array[i] >>> 6] |= 1L << array[i];
+        }
+        bitmap = words;
+        array = null;
+    }
+
+    private void toArrayMode() {
+        int[] values = toArray();
+        array = Arrays.copyOf(values, Math.max(4, values.length));
+        bitmap = null;
+    }
+}
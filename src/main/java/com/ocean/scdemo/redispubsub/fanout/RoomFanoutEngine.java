@@ -0,0 +1,613 @@
+package com.ocean.scdemo.redispubsub.fanout;
+
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig;
+import com.ocean.scdemo.redispubsub.message.ChatMessage;
+import com.ocean.scdemo.redispubsub.message.NotificationMessage;
+import com.ocean.scdemo.redispubsub.publisher.MessagePublisher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 채팅방 팬아웃 엔진
+ *
+ * 핵심 기능:
+ * - Push: 멤버 스냅샷을 청크로 나눠 가상 스레드에서 병렬 전달 (작은 방은 호출 스레드에서 바로 전달)
+ * - Pull: 멤버 수가 임계치 이상인 방은 방 타임라인에 한 번만 적재하고 멤버가 가져가게 함
+ *   (멘션된 사용자만 즉시 push)
+ * - 방 크기 구간별 팬아웃 지연시간(log2 히스토그램) 측정
+ * - 전달 결과(실패 멤버)를 future 로 돌려주고, 같은 메시지가 재시도되면 실패한 멤버에게만 다시 전달
+ * - Pull 타임라인은 방 수 상한 + 유휴 만료로 제한
+ *
+ * 멤버 전달(MemberDelivery)은 청크 단위로 호출된다. 기본(delivery=batch)은 청크 하나를 수신자 목록(recipientIds)을 담은
+ * IN_APP 알림 한 건으로 브로드캐스트 채널에 발행하여, 각 노드가 자기에게 연결된 수신자에게만 내보내게 한다
+ * (노드 수 × 멤버 수 만큼의 발행/멱등 확인이 생기지 않음). 멤버별 알림 채널 발행(delivery=per-user)은 데모용 선택 사항이다.
+ * 알림 messageId 는 채팅 messageId + 수신자로 고정되어 재전달되어도 수신 측 멱등 게이트에서 한 번만 처리된다.
+ *
+ * 청크 전달은 리스너 스레드 풀(pubSubTaskExecutor)과 분리된 가상 스레드에서 수행하여
+ * 큰 방 팬아웃이 Pub/Sub 수신 처리량을 막지 않도록 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomFanoutEngine {
+
+    // 방 크기 구간 상한 (마지막은 그 이상 전부)
+    private static final int[] SIZE_CLASS_BOUNDS = {10, 100, 1_000, 10_000, Integer.MAX_VALUE};
+    private static final String[] SIZE_CLASS_NAMES = {"≤10", "≤100", "≤1K", "≤10K", ">10K"};
+
+    private static final long TIMELINE_SWEEP_INTERVAL_MILLIS = 60_000;
+
+    private final RoomMembershipIndex membershipIndex;
+    private final MessagePublisher messagePublisher;
+
+    @Value("${pubsub.fanout.chunk-size:256}")
+    private int chunkSize;
+
+    @Value("${pubsub.fanout.pull-threshold:5000}")
+    private int pullThreshold;
+
+    @Value("${pubsub.fanout.pull-timeline-size:500}")
+    private int pullTimelineSize;
+
+    @Value("${pubsub.fanout.max-pull-rooms:1000}")
+    private int maxPullRooms;
+
+    @Value("${pubsub.fanout.pull-timeline-idle-minutes:60}")
+    private long pullTimelineIdleMinutes;
+
+    @Value("${pubsub.fanout.tracked-messages:10000}")
+    private int trackedMessages;
+
+    @Value("${pubsub.fanout.delivery:batch}")
+    private String deliveryMode;
+
+    private final ExecutorService fanoutExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("room-fanout-", 0).factory());
+
+    private volatile MemberDelivery memberDelivery = this::publishBatch;
+
+    // Pull 모델 방 타임라인 (max-pull-rooms 개까지, 유휴 만료)
+    private final Map<String, RoomTimeline> timelines = new ConcurrentHashMap<>();
+    private volatile long nextTimelineSweepAt;
+    private final AtomicLong timelineAppends = new AtomicLong(0);
+
+    // 최근 팬아웃 결과 (messageId -> 결과, 재시도 시 실패 멤버만 재전달, tracked-messages 개까지)
+    private final Map<String, CompletableFuture<FanoutResult>> recentFanouts = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<FanoutResult>> eldest) {
+                    return size() > Math.max(1, trackedMessages);
+                }
+            });
+
+    private final SizeClassLatency[] latencies = newLatencies();
+
+    // 통계
+    private final AtomicLong pushFanouts = new AtomicLong(0);
+    private final AtomicLong pullFanouts = new AtomicLong(0);
+    private final LongAdder deliveries = new LongAdder();
+    private final LongAdder deliveryFailures = new LongAdder();
+    private final AtomicLong redeliveries = new AtomicLong(0);
+    private final AtomicLong timelinesEvicted = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        if ("per-user".equalsIgnoreCase(deliveryMode)) {
+            memberDelivery = this::publishPerMember;
+        }
+        log.info("채팅방 팬아웃 - chunk={}, pullThreshold={}, delivery={}", chunkSize, pullThreshold, deliveryMode);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanoutExecutor.shutdown();
+    }
+
+    /**
+     * 멤버 전달 수단 등록 (WebSocket/SSE 게이트웨이 등, 청크 단위 호출)
+     */
+    public void setMemberDelivery(MemberDelivery memberDelivery) {
+        this.memberDelivery = memberDelivery;
+    }
+
+    /**
+     * 방 메시지 팬아웃 (발신자 제외)
+     *
+     * 같은 messageId 의 직전 팬아웃 기록이 있으면(핸들러 재시도) 그 결과를 기다린 뒤 실패한 멤버에게만 다시 전달한다.
+     *
+     * @return 청크 전달이 모두 끝나면 전달 결과로 완료되는 future
+     */
+    public CompletableFuture<FanoutResult> fanout(ChatMessage message) {
+        String messageId = message.getMessageId();
+        CompletableFuture<FanoutResult> previous = messageId != null ? recentFanouts.get(messageId) : null;
+
+        CompletableFuture<FanoutResult> result = previous == null
+                ? fanoutAll(message)
+                : previous.handle((completed, error) -> completed)
+                        .thenCompose(completed -> completed == null ? fanoutAll(message) : redeliver(completed, message));
+
+        if (messageId != null) {
+            recentFanouts.put(messageId, result);
+        }
+        return result;
+    }
+
+    /**
+     * 이전 팬아웃 기록이 남아 있는 메시지인지 (재시도 여부 판단용)
+     */
+    public boolean isTracked(String messageId) {
+        return messageId != null && recentFanouts.containsKey(messageId);
+    }
+
+    /**
+     * 다른 노드가 발행한 메시지 반영 - 멤버 전달은 발행 노드가 맡으므로 Pull 방 타임라인에만 적재
+     */
+    public void mirror(ChatMessage message) {
+        if (membershipIndex.memberCount(message.getRoomId()) >= pullThreshold) {
+            appendTimeline(message);
+        }
+    }
+
+    /**
+     * Pull 모델 방의 타임라인 조회 (afterSequence 이후 최대 limit 건)
+     */
+    public List<TimelineEntry> pull(String roomId, long afterSequence, int limit) {
+        RoomTimeline timeline = timelines.get(roomId);
+        return timeline != null ? timeline.since(afterSequence, limit) : List.of();
+    }
+
+    public boolean isPullRoom(String roomId) {
+        return membershipIndex.memberCount(roomId) >= pullThreshold;
+    }
+
+    private CompletableFuture<FanoutResult> fanoutAll(ChatMessage message) {
+        long startNanos = System.nanoTime();
+        int[] members = membershipIndex.members(message.getRoomId());
+        int senderId = membershipIndex.findUserId(message.getSenderId());
+        MemberDelivery delivery = this.memberDelivery;
+
+        if (members.length >= pullThreshold) {
+            FanoutResult result = fanoutByPull(delivery, message);
+            recordLatency(members.length, startNanos);
+            return CompletableFuture.completedFuture(result);
+        }
+
+        pushFanouts.incrementAndGet();
+        return pushInChunks(members.length, (from, to) -> deliverChunk(delivery, members, from, to, senderId, message))
+                .whenComplete((result, error) -> {
+                    recordLatency(members.length, startNanos);
+                    if (error != null) {
+                        log.warn("팬아웃 청크 실패: 방ID={}, 멤버={}", message.getRoomId(), members.length, error);
+                    }
+                });
+    }
+
+    /**
+     * 직전 팬아웃에서 실패한 멤버에게만 재전달 (모두 성공했으면 그대로 완료)
+     */
+    private CompletableFuture<FanoutResult> redeliver(FanoutResult previous, ChatMessage message) {
+        if (previous.isComplete()) {
+            return CompletableFuture.completedFuture(previous);
+        }
+        redeliveries.incrementAndGet();
+        MemberDelivery delivery = this.memberDelivery;
+        List<String> targets = previous.failedUserIds();
+        log.debug("팬아웃 실패 멤버 재전달: 방ID={}, 메시지ID={}, 대상={}", message.getRoomId(), message.getMessageId(), targets.size());
+        return pushInChunks(targets.size(), (from, to) -> deliverUsers(delivery, targets, from, to, message));
+    }
+
+    /**
+     * size 명을 청크로 나눠 전달 (청크 하나 이하면 호출 스레드에서 바로 전달)
+     */
+    private CompletableFuture<FanoutResult> pushInChunks(int size, ChunkDelivery chunk) {
+        if (size <= chunkSize) {
+            return CompletableFuture.completedFuture(chunk.deliver(0, size));
+        }
+
+        List<CompletableFuture<FanoutResult>> chunks = new ArrayList<>((size + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < size; from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, size);
+            chunks.add(CompletableFuture.supplyAsync(() -> chunk.deliver(start, end), fanoutExecutor));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> FanoutResult.merge(chunks.stream().map(CompletableFuture::join).toList()));
+    }
+
+    private FanoutResult fanoutByPull(MemberDelivery delivery, ChatMessage message) {
+        pullFanouts.incrementAndGet();
+        appendTimeline(message);
+
+        // 멘션은 타임라인을 기다리지 않고 바로 알림
+        if (!message.hasMentions()) {
+            return FanoutResult.EMPTY;
+        }
+        List<String> mentioned = message.getMentionedUserIds();
+        return deliverUsers(delivery, mentioned, 0, mentioned.size(), message);
+    }
+
+    /**
+     * Pull 타임라인 적재 - 새 방이면 먼저 상한을 맞추고, 주기적으로 유휴 타임라인 만료
+     */
+    private void appendTimeline(ChatMessage message) {
+        long now = System.currentTimeMillis();
+        if (now >= nextTimelineSweepAt) {
+            nextTimelineSweepAt = now + TIMELINE_SWEEP_INTERVAL_MILLIS;
+            expireTimelines(now);
+        }
+
+        RoomTimeline timeline = timelines.get(message.getRoomId());
+        if (timeline == null) {
+            evictForCapacity();
+            timeline = timelines.computeIfAbsent(message.getRoomId(), roomId -> new RoomTimeline(pullTimelineSize));
+        }
+        timeline.append(message, now, timelineAppends.incrementAndGet());
+    }
+
+    private void expireTimelines(long now) {
+        long idleBefore = now - pullTimelineIdleMinutes * 60_000;
+        timelines.entrySet().removeIf(entry -> {
+            if (entry.getValue().lastAppendAt() < idleBefore) {
+                timelinesEvicted.incrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * 방 수 상한에 도달하면 가장 오래 적재가 없던 타임라인부터 제거
+     */
+    private void evictForCapacity() {
+        while (timelines.size() >= Math.max(1, maxPullRooms)) {
+            String oldest = timelines.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastAppendOrder()))
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+            if (oldest == null || timelines.remove(oldest) == null) {
+                return;
+            }
+            timelinesEvicted.incrementAndGet();
+            log.debug("Pull 타임라인 상한 초과 - 제거: 방ID={}", oldest);
+        }
+    }
+
+    private FanoutResult deliverChunk(MemberDelivery delivery, int[] members, int from, int to,
+                                      int senderId, ChatMessage message) {
+        List<String> userIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            if (members[i] == senderId) {
+                continue;
+            }
+            String userId = membershipIndex.userIdOf(members[i]);
+            if (userId != null) {
+                userIds.add(userId);
+            }
+        }
+        return deliverBatch(delivery, userIds, message);
+    }
+
+    private FanoutResult deliverUsers(MemberDelivery delivery, List<String> userIds, int from, int to, ChatMessage message) {
+        return deliverBatch(delivery, userIds.subList(from, to), message);
+    }
+
+    /**
+     * 청크 하나 전달 (예외는 청크 전체 실패)
+     */
+    private FanoutResult deliverBatch(MemberDelivery delivery, List<String> userIds, ChatMessage message) {
+        if (userIds.isEmpty()) {
+            return FanoutResult.EMPTY;
+        }
+        List<String> failed;
+        try {
+            failed = delivery.deliver(userIds, message);
+        } catch (Exception e) {
+            log.debug("멤버 청크 전달 실패: 방ID={}, 대상={}", message.getRoomId(), userIds.size(), e);
+            failed = userIds;
+        }
+        deliveries.add(userIds.size() - failed.size());
+        deliveryFailures.add(failed.size());
+        return new FanoutResult(userIds.size() - failed.size(), failed);
+    }
+
+    /**
+     * 기본 멤버 전달 - 청크를 수신자 목록 알림 한 건으로 브로드캐스트 채널에 발행 (실패하면 청크 전체 실패)
+     */
+    private List<String> publishBatch(List<String> userIds, ChatMessage message) {
+        NotificationMessage notification = memberNotification(message, userIds.size() == 1 ? userIds.get(0) : null);
+        notification.setMessageId(message.getMessageId() + ":" + batchKey(userIds));
+        notification.setRecipientIds(List.copyOf(userIds));
+        boolean published = messagePublisher.publishTo(RedisPubSubConfig.Channels.NOTIFICATION_BROADCAST, notification);
+        return published ? List.of() : userIds;
+    }
+
+    /**
+     * 데모용 멤버 전달 (delivery=per-user) - 멤버마다 알림 채널로 발행
+     */
+    private List<String> publishPerMember(List<String> userIds, ChatMessage message) {
+        List<String> failed = new ArrayList<>();
+        for (String userId : userIds) {
+            NotificationMessage notification = memberNotification(message, userId);
+            notification.setMessageId(message.getMessageId() + ":" + userId);
+            if (!messagePublisher.publishTo(RedisPubSubConfig.Channels.userNotification(userId), notification)) {
+                failed.add(userId);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * 채팅 메시지 → IN_APP 알림 (recipientId 가 null 이면 수신자 목록 알림)
+     */
+    private static NotificationMessage memberNotification(ChatMessage message, String recipientId) {
+        Map<String, Object> eventData = new LinkedHashMap<>();
+        eventData.put("roomId", message.getRoomId());
+        eventData.put("chatMessageId", message.getMessageId());
+        eventData.put("senderId", message.getSenderId());
+        if (message.hasMentions()) {
+            eventData.put("mentionedUserIds", message.getMentionedUserIds());
+        }
+
+        boolean mentioned = recipientId != null && message.hasMentions()
+                && message.getMentionedUserIds().contains(recipientId);
+        return NotificationMessage.builder()
+                .messageType("NOTIFICATION")
+                .timestamp(LocalDateTime.now())
+                .notificationType("IN_APP")
+                .category("INFO")
+                .severity(mentioned ? "MEDIUM" : "LOW")
+                .recipientId(recipientId)
+                .title(message.getRoomName() != null ? message.getRoomName() : message.getRoomId())
+                .message(message.getContent())
+                .shortMessage(message.getSenderName() != null ? message.getSenderName() + "님의 새 메시지" : "새 메시지")
+                .status("PENDING")
+                .eventType(mentioned ? "CHAT_MENTION" : "CHAT_MESSAGE")
+                .entityId(message.getRoomId())
+                .entityType("CHAT_ROOM")
+                .eventData(eventData)
+                .build();
+    }
+
+    /**
+     * 수신자 목록 식별자 - 같은 목록이면 같은 값이라 재시도된 청크는 수신 측 멱등 게이트에서 걸러짐
+     */
+    static String batchKey(List<String> userIds) {
+        long hash = 1125899906842597L;
+        for (String userId : userIds) {
+            for (int i = 0; i < userId.length(); i++) {
+                hash = 31 * hash + userId.charAt(i);
+            }
+            hash = 31 * hash + ',';
+        }
+        return userIds.size() + "-" + Long.toHexString(hash);
+    }
+
+    private static SizeClassLatency[] newLatencies() {
+        SizeClassLatency[] result = new SizeClassLatency[SIZE_CLASS_BOUNDS.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new SizeClassLatency();
+        }
+        return result;
+    }
+
+    private void recordLatency(int roomSize, long startNanos) {
+        int sizeClass = 0;
+        while (roomSize > SIZE_CLASS_BOUNDS[sizeClass]) {
+            sizeClass++;
+        }
+        latencies[sizeClass].record((System.nanoTime() - startNanos) / 1_000);
+    }
+
+    /**
+     * 팬아웃 통계
+     */
+    public FanoutStats getStats() {
+        Map<String, SizeClassStats> latencyBySize = new LinkedHashMap<>();
+        for (int i = 0; i < latencies.length; i++) {
+            latencyBySize.put(SIZE_CLASS_NAMES[i], latencies[i].snapshot());
+        }
+
+        return FanoutStats.builder()
+                .chunkSize(chunkSize)
+                .pullThreshold(pullThreshold)
+                .delivery(deliveryMode)
+                .pushFanouts(pushFanouts.get())
+                .pullFanouts(pullFanouts.get())
+                .pullRooms(timelines.size())
+                .timelinesEvicted(timelinesEvicted.get())
+                .trackedFanouts(recentFanouts.size())
+                .deliveries(deliveries.sum())
+                .deliveryFailures(deliveryFailures.sum())
+                .redeliveries(redeliveries.get())
+                .latencyBySize(latencyBySize)
+                .membership(membershipIndex.getStats())
+                .build();
+    }
+
+    /**
+     * 멤버 청크 하나에 메시지 전달
+     */
+    @FunctionalInterface
+    public interface MemberDelivery {
+        /**
+         * @return 전달하지 못한 사용자 ID (모두 성공하면 빈 목록)
+         */
+        List<String> deliver(List<String> userIds, ChatMessage message);
+    }
+
+    /**
+     * 팬아웃 결과 (failedUserIds 가 비어 있으면 모든 멤버 전달 완료)
+     */
+    public record FanoutResult(int delivered, List<String> failedUserIds) {
+
+        static final FanoutResult EMPTY = new FanoutResult(0, List.of());
+
+        public FanoutResult {
+            failedUserIds = List.copyOf(failedUserIds);
+        }
+
+        public boolean isComplete() {
+            return failedUserIds.isEmpty();
+        }
+
+        static FanoutResult merge(List<FanoutResult> results) {
+            int delivered = 0;
+            List<String> failed = new ArrayList<>();
+            for (FanoutResult result : results) {
+                delivered += result.delivered();
+                failed.addAll(result.failedUserIds());
+            }
+            return new FanoutResult(delivered, failed);
+        }
+    }
+
+    /**
+     * 청크 [from, to) 구간 전달
+     */
+    @FunctionalInterface
+    private interface ChunkDelivery {
+        FanoutResult deliver(int from, int to);
+    }
+
+    /**
+     * Pull 모델 방 타임라인 항목
+     */
+    public record TimelineEntry(long sequence, ChatMessage message) {
+    }
+
+    /**
+     * 최근 메시지 고정 크기 링 버퍼 (시퀀스 단조 증가)
+     */
+    private static final class RoomTimeline {
+
+        private final TimelineEntry[] ring;
+        private long nextSequence = 1;
+        private volatile long lastAppendAt;
+        private volatile long lastAppendOrder;
+
+        RoomTimeline(int capacity) {
+            this.ring = new TimelineEntry[capacity];
+        }
+
+        synchronized void append(ChatMessage message, long now, long order) {
+            long sequence = nextSequence++;
+            ring[(int) (sequence % ring.length)] = new TimelineEntry(sequence, message);
+            lastAppendAt = now;
+            lastAppendOrder = order;
+        }
+
+        long lastAppendAt() {
+            return lastAppendAt;
+        }
+
+        long lastAppendOrder() {
+            return lastAppendOrder;
+        }
+
+        synchronized List<TimelineEntry> since(long afterSequence, int limit) {
+            long oldest = Math.max(1, nextSequence - ring.length);
+            long from = Math.max(afterSequence + 1, oldest);
+            List<TimelineEntry> result = new ArrayList<>();
+            for (long sequence = from; sequence < nextSequence && result.size() < limit; sequence++) {
+                result.add(ring[(int) (sequence % ring.length)]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 방 크기 구간 하나의 지연시간 누적 (마이크로초 log2 버킷)
+     */
+    private static final class SizeClassLatency {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final AtomicLong maxMicros = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+
+        void record(long micros) {
+            count.increment();
+            totalMicros.add(micros);
+            maxMicros.accumulateAndGet(micros, Math::max);
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(Math.max(micros, 1)) - 1);
+        }
+
+        SizeClassStats snapshot() {
+            long samples = count.sum();
+            return SizeClassStats.builder()
+                    .count(samples)
+                    .avgMicros(samples > 0 ? (double) totalMicros.sum() / samples : 0.0)
+                    .p99Micros(percentileUpperBound(samples, 0.99))
+                    .maxMicros(maxMicros.get())
+                    .build();
+        }
+
+        private long percentileUpperBound(long samples, double percentile) {
+            if (samples == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(samples * percentile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= target) {
+                    return Math.min((1L << (i + 1)) - 1, maxMicros.get());
+                }
+            }
+            return maxMicros.get();
+        }
+    }
+
+    /**
+     * 방 크기 구간별 지연시간 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class SizeClassStats {
+        private final long count;
+        private final double avgMicros;
+        private final long p99Micros;
+        private final long maxMicros;
+    }
+
+    /**
+     * 팬아웃 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class FanoutStats {
+        private final int chunkSize;
+        private final int pullThreshold;
+        private final String delivery;
+        private final long pushFanouts;
+        private final long pullFanouts;
+        private final int pullRooms;
+        private final long timelinesEvicted;
+        private final int trackedFanouts;
+        private final long deliveries;
+        private final long deliveryFailures;
+        private final long redeliveries;
+        private final Map<String, SizeClassStats> latencyBySize;
+        private final RoomMembershipIndex.MembershipStats membership;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ocean.scdemo.redispubsub.fanout;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 채팅방 멤버십 인덱스
+ *
+ * 핵심 기능:
+ * - 사용자 ID 를 조밀한 int 번호로 바꿔 방마다 CompactIntSet(정렬 배열/비트맵)으로 보관
+ * - 팬아웃 시에는 잠금 구간에서 int[] 스냅샷만 떠서 잠금 밖에서 전달
+ * - 마지막 멤버가 나가면 방 항목 제거
+ *
+ * Map&lt;String, Set&lt;String&gt;&gt; 대비 멤버 한 명당 4바이트(배열) 또는 1비트(조밀한 비트맵)만 사용한다.
+ */
+@Component
+public class RoomMembershipIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final UserIdDictionary dictionary = new UserIdDictionary();
+    private final ConcurrentHashMap<String, CompactIntSet> rooms = new ConcurrentHashMap<>();
+
+    /**
+     * 방 입장 (이미 멤버면 false)
+     */
+    public boolean join(String roomId, String userId) {
+        int id = dictionary.idOf(userId);
+        boolean[] added = new boolean[1];
+        rooms.compute(roomId, (key, members) -> {
+            CompactIntSet set = members != null ? members : new CompactIntSet();
+            synchronized (set) {
+                added[0] = set.add(id);
+            }
+            return set;
+        });
+        return added[0];
+    }
+
+    /**
+     * 방 퇴장 (멤버가 아니면 false)
+     */
+    public boolean leave(String roomId, String userId) {
+        int id = dictionary.findId(userId);
+        if (id < 0) {
+            return false;
+        }
+        boolean[] removed = new boolean[1];
+        rooms.computeIfPresent(roomId, (key, members) -> {
+            synchronized (members) {
+                removed[0] = members.remove(id);
+                return members.isEmpty() ? null : members;
+            }
+        });
+        return removed[0];
+    }
+
+    public boolean isMember(String roomId, String userId) {
+        CompactIntSet members = rooms.get(roomId);
+        int id = dictionary.findId(userId);
+        if (members == null || id < 0) {
+            return false;
+        }
+        synchronized (members) {
+            return members.contains(id);
+        }
+    }
+
+    /**
+     * 멤버 번호 스냅샷 (오름차순)
+     */
+    public int[] members(String roomId) {
+        CompactIntSet members = rooms.get(roomId);
+        if (members == null) {
+            return EMPTY;
+        }
+        synchronized (members) {
+            return members.toArray();
+        }
+    }
+
+    public int memberCount(String roomId) {
+        CompactIntSet members = rooms.get(roomId);
+        if (members == null) {
+            return 0;
+        }
+        synchronized (members) {
+            return members.size();
+        }
+    }
+
+    public int findUserId(String userId) {
+        return dictionary.findId(userId);
+    }
+
+    public String userIdOf(int id) {
+        return dictionary.userIdOf(id);
+    }
+
+    public int roomCount() {
+        return rooms.size();
+    }
+
+    /**
+     * 멤버십 인덱스 통계
+     */
+    public MembershipStats getStats() {
+        long memberships = 0;
+        long memoryBytes = 0;
+        int bitmapRooms = 0;
+        int largestRoom = 0;
+
+        for (CompactIntSet members : rooms.values()) {
+            synchronized (members) {
+                memberships += members.size();
+                memoryBytes += members.memoryBytes();
+                largestRoom = Math.max(largestRoom, members.size());
+                if (members.isBitmap()) {
+                    bitmapRooms++;
+                }
+            }
+        }
+
+        return MembershipStats.builder()
+                .rooms(rooms.size())
+                .users(dictionary.size())
+                .memberships(memberships)
+                .bitmapRooms(bitmapRooms)
+                .largestRoom(largestRoom)
+                .memberStorageBytes(memoryBytes)
+                .build();
+    }
+
+    /**
+     * 멤버십 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class MembershipStats {
+        private final int rooms;
+        private final int users;
+        private final long memberships;
+        private final int bitmapRooms;
+        private final int largestRoom;
+        private final long memberStorageBytes;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ocean.scdemo.redispubsub.fanout;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사용자 ID(String) ↔ 조밀한 int ID 사전
+ *
+ * 방 멤버 집합을 int 집합/비트맵으로 저장하기 위해 사용자마다 0 부터 순서대로 번호를 부여한다.
+ * 번호는 노드 로컬이며 프로세스 수명 동안 재사용하지 않는다.
+ */
+public final class UserIdDictionary {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[1024];
+    private int next;
+
+    /**
+     * 사용자 번호 조회 (없으면 새로 부여)
+     */
+    public int idOf(String userId) {
+        Integer id = ids.get(userId);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(userId);
+            if (id != null) {
+                return id;
+            }
+            int assigned = next++;
+            String[] current = names;
+            if (assigned >= current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[assigned] = userId;
+            names = current;
+            ids.put(userId, assigned);
+            return assigned;
+        }
+    }
+
+    /**
+     * 사용자 번호 조회 (없으면 -1, 새로 부여하지 않음)
+     */
+    public int findId(String userId) {
+        Integer id = ids.get(userId);
+        return id != null ? id : -1;
+    }
+
+    public String userIdOf(int id) {
+        String[] current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
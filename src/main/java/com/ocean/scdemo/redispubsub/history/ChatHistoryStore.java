@@ -0,0 +1,515 @@
+package com.ocean.scdemo.redispubsub.history;
+
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig.ChannelFamily;
+import com.ocean.scdemo.redispubsub.message.ChatMessage;
+import com.ocean.scdemo.redispubsub.transport.RedisStreamTransport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 채팅방별 추가 전용 이력 저장소 (메모리 매핑 세그먼트 파일)
+ *
+ * 핵심 기능:
+ * - 방마다 디렉터리 하나, 그 안에 시퀀스 범위별 세그먼트 파일(RoomLog / LogSegment)
+ * - 쓰기: 직렬화된 메시지 JSON 을 활성 세그먼트 매핑 버퍼에 그대로 기록 (레코드 길이를 마지막에 써서 커밋 표시)
+ * - 읽기: "시퀀스 X 이전 최근 N 개" 를 희소 인덱스로 찾아 매핑 버퍼 slice 로 반환, 응답 스트림에 복사 없이 전송
+ * - 유지보수 스레드: 주기적 flush, 보존 기간/용량 초과 세그먼트 삭제 및 작은 세그먼트 병합, 오래 쓰지 않은 방 닫기
+ * - 재시작 시 세그먼트를 다시 열어 CRC 검증으로 마지막 온전한 레코드까지 복구
+ *
+ * 각 노드는 모든 채팅 메시지를 자기 디스크에 기록하고, 페이지 커서(이력 시퀀스)는 모든 노드에서 같은 값이다.
+ * - Streams(내구) 채팅: 컨슈머 그룹은 엔트리마다 한 노드에만 전달하므로, 그룹과 별개로 XREAD 로 스트림을 직접 따라 읽어 기록
+ *   시퀀스 = 엔트리 ID(밀리초 * 1000 + 같은 밀리초 내 순번), 재시작 시 저장한 오프셋부터 다시 읽고 이미 기록한 엔트리는 건너뜀
+ * - Pub/Sub 채팅: 모든 노드가 같은 메시지를 받으므로 핸들러에서 기록, 시퀀스 = 발행 시각(publishedAtMicros)
+ *   (같은 시각이거나 늦게 도착한 메시지는 마지막 시퀀스 + 1 로 밀려 기록되므로 그 경우에만 노드 간 값이 어긋날 수 있음)
+ * 두 경우 모두 시퀀스는 마이크로초 단위 크기라 JSON 숫자로 안전하다 (2^53 미만).
+ * 압축은 열려 있는 방에만 적용되며, 닫힌 방은 다시 열린 뒤 다음 주기에 처리된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatHistoryStore {
+
+    private static final String DEFAULT_ROOM = "global";
+    private static final Pattern SAFE_ROOM_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final String STREAM_OFFSET_FILE = "chat-stream.offset";
+    private static final String INITIAL_STREAM_OFFSET = "0-0";
+
+    private final RedisTemplate<String, Object> redisPubSubTemplate;
+    private final RedisStreamTransport streamTransport;
+
+    @Value("${pubsub.history.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pubsub.history.dir:${java.io.tmpdir}/pubsub-history}")
+    private String dir;
+
+    @Value("${pubsub.history.segment-bytes:8388608}")
+    private int segmentBytes;
+
+    @Value("${pubsub.history.index-interval-bytes:4096}")
+    private int indexIntervalBytes;
+
+    @Value("${pubsub.history.roll-ms:3600000}")
+    private long rollMillis;
+
+    @Value("${pubsub.history.retention-bytes-per-room:268435456}")
+    private long retentionBytesPerRoom;
+
+    @Value("${pubsub.history.retention-hours:168}")
+    private long retentionHours;
+
+    @Value("${pubsub.history.merge-below-bytes:1048576}")
+    private int mergeBelowBytes;
+
+    @Value("${pubsub.history.max-open-rooms:1000}")
+    private int maxOpenRooms;
+
+    @Value("${pubsub.history.idle-close-ms:600000}")
+    private long idleCloseMillis;
+
+    @Value("${pubsub.history.flush-interval-ms:1000}")
+    private long flushIntervalMillis;
+
+    @Value("${pubsub.history.compact-interval-ms:60000}")
+    private long compactIntervalMillis;
+
+    @Value("${pubsub.history.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${pubsub.history.stream-batch-size:256}")
+    private int streamBatchSize;
+
+    @Value("${pubsub.history.stream-block-ms:2000}")
+    private long streamBlockMillis;
+
+    private final ConcurrentHashMap<String, RoomLog> logs = new ConcurrentHashMap<>();
+    private RedisSerializer<Object> valueSerializer;
+    private Path root;
+
+    private volatile boolean running;
+    private Thread maintenance;
+    private Thread streamTail;
+
+    // 스트림 따라 읽기 위치 (마지막으로 기록한 엔트리 ID, flush 후 파일에 저장)
+    private volatile String streamOffset;
+
+    // 통계
+    private final AtomicLong totalAppends = new AtomicLong(0);
+    private final AtomicLong totalAppendedBytes = new AtomicLong(0);
+    private final AtomicLong totalPageReads = new AtomicLong(0);
+    private final AtomicLong totalRecordsRead = new AtomicLong(0);
+    private final AtomicLong totalDeletedSegments = new AtomicLong(0);
+    private final AtomicLong totalMergedSegments = new AtomicLong(0);
+    private final AtomicLong totalClosedRooms = new AtomicLong(0);
+    private final AtomicLong totalDuplicatesSkipped = new AtomicLong(0);
+    private final AtomicLong totalFailures = new AtomicLong(0);
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    public void init() {
+        valueSerializer = (RedisSerializer<Object>) redisPubSubTemplate.getValueSerializer();
+        root = Path.of(dir);
+        if (!enabled) {
+            log.info("채팅 이력 저장소 비활성화 (설정)");
+            return;
+        }
+
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        running = true;
+        maintenance = Thread.ofVirtual().name("chat-history-maintenance").start(this::maintenanceLoop);
+        if (streamTransport.getDurableFamilies().contains(ChannelFamily.CHAT)) {
+            streamOffset = loadStreamOffset();
+            streamTail = Thread.ofVirtual().name("chat-history-stream-tail").start(this::streamTailLoop);
+        }
+
+        log.info("채팅 이력 저장소 시작 - dir={}, segment={}bytes, indexInterval={}bytes, retention={}h/{}bytes, 스트림 오프셋={}",
+                root, segmentBytes, indexIntervalBytes, retentionHours, retentionBytesPerRoom, streamOffset);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (maintenance != null) {
+            maintenance.interrupt();
+        }
+        if (streamTail != null) {
+            streamTail.interrupt();
+        }
+        String offset = streamOffset;
+        logs.values().forEach(RoomLog::close);
+        logs.clear();
+        saveStreamOffset(offset);
+    }
+
+    /**
+     * Pub/Sub 으로 받은 채팅 메시지를 방 이력에 추가하고 이력 시퀀스 반환 (비활성화/실패 시 -1)
+     *
+     * Streams 채팅은 스트림 따라 읽기가 기록하므로 여기서는 건너뛴다 (-1).
+     */
+    public long append(ChatMessage message) {
+        if (!enabled || (message.getChannel() != null && streamTransport.isDurable(message.getChannel()))) {
+            return -1;
+        }
+        try {
+            byte[] payload = valueSerializer.serialize(message);
+            if (payload == null || payload.length == 0) {
+                return -1;
+            }
+            long publishedAtMicros = message.getPublishedAtMicros() != null
+                    ? message.getPublishedAtMicros()
+                    : System.currentTimeMillis() * 1000;
+            return appendRecord(roomKey(message.getRoomId()), publishedAtMicros, false,
+                    publishedAtMicros / 1000, payload);
+        } catch (Exception e) {
+            totalFailures.incrementAndGet();
+            log.warn("채팅 이력 기록 실패: 방ID={}, 메시지ID={}", message.getRoomId(), message.getMessageId(), e);
+            return -1;
+        }
+    }
+
+    /**
+     * 방 로그에 기록 (exact 면 이미 기록된 시퀀스는 건너뛰고 0 반환)
+     */
+    private long appendRecord(String roomId, long sequence, boolean exact, long timestamp, byte[] payload) {
+        while (true) {
+            RoomLog roomLog = logs.computeIfAbsent(roomId, this::openLog);
+            long appended = roomLog.append(sequence, exact, timestamp, payload);
+            if (appended > 0) {
+                totalAppends.incrementAndGet();
+                totalAppendedBytes.addAndGet(payload.length);
+                return appended;
+            }
+            if (appended == 0) {
+                totalDuplicatesSkipped.incrementAndGet();
+                return 0;
+            }
+            // 유지보수 스레드가 닫은 로그 → 새로 열어 재시도
+            logs.remove(roomId, roomLog);
+        }
+    }
+
+    // === Streams 채팅 따라 읽기 ===
+
+    private void streamTailLoop() {
+        while (running) {
+            try {
+                List<ByteRecord> records = streamTransport.readFrom(ChannelFamily.CHAT, streamOffset,
+                        streamBatchSize, Duration.ofMillis(streamBlockMillis));
+                for (ByteRecord record : records) {
+                    appendStreamRecord(record);
+                    streamOffset = record.getId().getValue();
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("채팅 스트림 따라 읽기 실패 - {}ms 후 재시도 (오프셋={})", streamBlockMillis, streamOffset, e);
+                try {
+                    Thread.sleep(streamBlockMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 스트림 엔트리 하나를 방 이력에 기록 - payload 는 역직렬화해 방 ID 만 확인하고 원본 바이트 그대로 저장
+     */
+    private void appendStreamRecord(ByteRecord record) {
+        byte[] payload = null;
+        for (Map.Entry<byte[], byte[]> field : record.getValue().entrySet()) {
+            if (Arrays.equals(field.getKey(), RedisStreamTransport.FIELD_PAYLOAD)) {
+                payload = field.getValue();
+            }
+        }
+        if (payload == null || payload.length == 0) {
+            return;
+        }
+        try {
+            if (!(valueSerializer.deserialize(payload) instanceof ChatMessage message)) {
+                return;
+            }
+            RecordId id = record.getId();
+            // 같은 밀리초에 1000 건을 넘으면 순번이 겹치므로 그 뒤로 밀어 기록 (중복 판별 대상 아님)
+            boolean exact = id.getSequence() < 1000;
+            appendRecord(roomKey(message.getRoomId()), sequenceOf(id), exact, id.getTimestamp(), payload);
+        } catch (Exception e) {
+            totalFailures.incrementAndGet();
+            log.warn("채팅 스트림 이력 기록 실패: 엔트리={}", record.getId(), e);
+        }
+    }
+
+    /**
+     * 스트림 엔트리 ID → 이력 시퀀스 (밀리초 * 1000 + 같은 밀리초 내 순번)
+     */
+    static long sequenceOf(RecordId id) {
+        return id.getTimestamp() * 1000 + Math.min(id.getSequence(), 999);
+    }
+
+    private String loadStreamOffset() {
+        Path file = root.resolve(STREAM_OFFSET_FILE);
+        try {
+            if (Files.exists(file)) {
+                String offset = Files.readString(file, StandardCharsets.US_ASCII).trim();
+                if (!offset.isEmpty()) {
+                    return offset;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("채팅 스트림 오프셋 읽기 실패 - 스트림 처음부터 읽음", e);
+        }
+        // 처음 시작하는 노드는 스트림에 남아 있는 엔트리부터 채움 (다른 노드와 같은 시퀀스로 기록됨)
+        return INITIAL_STREAM_OFFSET;
+    }
+
+    /**
+     * 오프셋 저장 - 방 로그 flush 뒤에 호출하여 저장된 오프셋이 디스크에 반영된 기록보다 앞서지 않게 함
+     */
+    private void saveStreamOffset(String offset) {
+        if (offset == null) {
+            return;
+        }
+        Path file = root.resolve(STREAM_OFFSET_FILE);
+        Path temp = file.resolveSibling(STREAM_OFFSET_FILE + ".tmp");
+        try {
+            Files.writeString(temp, offset, StandardCharsets.US_ASCII);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("채팅 스트림 오프셋 저장 실패: {}", offset, e);
+        }
+    }
+
+    /**
+     * beforeSequence 이전 최근 limit 개 (오름차순, beforeSequence 가 0 이하이면 최신부터)
+     */
+    public List<HistoryRecord> readBefore(String roomId, long beforeSequence, int limit) {
+        RoomLog roomLog = findLog(roomKey(roomId));
+        if (roomLog == null) {
+            return List.of();
+        }
+        List<HistoryRecord> records = roomLog.readBefore(beforeSequence, Math.max(1, Math.min(limit, maxPageSize)));
+        totalPageReads.incrementAndGet();
+        totalRecordsRead.addAndGet(records.size());
+        return records;
+    }
+
+    /**
+     * 페이지를 JSON 으로 바로 기록 - 메시지 본문은 매핑 버퍼에서 채널로 복사 없이 전송
+     *
+     * 형식: {"nextBefore":n,"hasMore":b,"messages":[{"sequence":s,"timestamp":t,"message":{...}},...]}
+     */
+    public void writePage(String roomId, long beforeSequence, int limit, OutputStream out) throws IOException {
+        List<HistoryRecord> records = readBefore(roomId, beforeSequence, limit);
+        RoomLog roomLog = logs.get(roomKey(roomId));
+        long firstSequence = roomLog != null ? roomLog.firstSequence() : 1;
+        long nextBefore = records.isEmpty() ? 0 : records.get(0).sequence();
+        boolean hasMore = nextBefore > firstSequence;
+
+        WritableByteChannel channel = Channels.newChannel(out);
+        writeAscii(channel, "{\"nextBefore\":" + nextBefore + ",\"hasMore\":" + hasMore + ",\"messages\":[");
+        for (int i = 0; i < records.size(); i++) {
+            HistoryRecord record = records.get(i);
+            writeAscii(channel, (i > 0 ? "," : "")
+                    + "{\"sequence\":" + record.sequence() + ",\"timestamp\":" + record.timestampMillis() + ",\"message\":");
+            ByteBuffer payload = record.payload().duplicate();
+            while (payload.hasRemaining()) {
+                channel.write(payload);
+            }
+            writeAscii(channel, "}");
+        }
+        writeAscii(channel, "]}");
+        out.flush();
+    }
+
+    private static void writeAscii(WritableByteChannel channel, String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private RoomLog openLog(String roomId) {
+        return RoomLog.open(root.resolve(directoryName(roomId)), segmentBytes, indexIntervalBytes, rollMillis);
+    }
+
+    /**
+     * 읽기용 로그 조회 (디스크에 이력이 없는 방은 디렉터리를 만들지 않음)
+     */
+    private RoomLog findLog(String roomId) {
+        RoomLog roomLog = logs.get(roomId);
+        if (roomLog != null || !enabled || !Files.isDirectory(root.resolve(directoryName(roomId)))) {
+            return roomLog;
+        }
+        return logs.computeIfAbsent(roomId, this::openLog);
+    }
+
+    private static String roomKey(String roomId) {
+        return roomId == null || roomId.isBlank() ? DEFAULT_ROOM : roomId;
+    }
+
+    /**
+     * 방 ID → 디렉터리 이름 (안전한 문자만이면 그대로, 아니면 SHA-256 hex)
+     */
+    static String directoryName(String roomId) {
+        if (SAFE_ROOM_ID.matcher(roomId).matches()) {
+            return roomId;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(roomId.getBytes(StandardCharsets.UTF_8));
+            return "h-" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // === 유지보수 ===
+
+    private void maintenanceLoop() {
+        long nextCompaction = System.currentTimeMillis() + compactIntervalMillis;
+
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMillis);
+                long now = System.currentTimeMillis();
+
+                String offset = streamOffset;
+                logs.values().forEach(RoomLog::flush);
+                saveStreamOffset(offset);
+                closeIdleRooms(now);
+                if (now >= nextCompaction) {
+                    compactAll(now);
+                    nextCompaction = now + compactIntervalMillis;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("채팅 이력 유지보수 실패", e);
+            }
+        }
+    }
+
+    /**
+     * 유휴 방과 최대 개수를 넘은 오래된 방 닫기 (닫은 뒤 맵에서 제거해야 같은 파일을 두 로그가 동시에 쓰지 않음)
+     */
+    private void closeIdleRooms(long now) {
+        List<Map.Entry<String, RoomLog>> candidates = new ArrayList<>(logs.entrySet());
+        candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccessMillis()));
+
+        int excess = candidates.size() - maxOpenRooms;
+        for (Map.Entry<String, RoomLog> entry : candidates) {
+            boolean idle = now - entry.getValue().lastAccessMillis() >= idleCloseMillis;
+            if (!idle && excess <= 0) {
+                break;
+            }
+            entry.getValue().close();
+            logs.remove(entry.getKey(), entry.getValue());
+            totalClosedRooms.incrementAndGet();
+            excess--;
+        }
+    }
+
+    private void compactAll(long now) {
+        long retentionMillis = retentionHours * 3_600_000L;
+        for (Map.Entry<String, RoomLog> entry : logs.entrySet()) {
+            RoomLog.CompactionResult result = entry.getValue().compact(
+                    retentionBytesPerRoom, retentionMillis, mergeBelowBytes, now);
+            if (result.deletedSegments() > 0 || result.mergedSegments() > 0) {
+                totalDeletedSegments.addAndGet(result.deletedSegments());
+                totalMergedSegments.addAndGet(result.mergedSegments());
+                log.debug("채팅 이력 압축: 방ID={}, 삭제={}, 병합={}",
+                        entry.getKey(), result.deletedSegments(), result.mergedSegments());
+            }
+        }
+    }
+
+    /**
+     * 통계 조회
+     */
+    public HistoryStats getStats() {
+        int segments = 0;
+        long bytes = 0;
+        for (RoomLog roomLog : logs.values()) {
+            segments += roomLog.segmentCount();
+            bytes += roomLog.sizeBytes();
+        }
+
+        return HistoryStats.builder()
+                .enabled(enabled)
+                .directory(root != null ? root.toString() : dir)
+                .openRooms(logs.size())
+                .openSegments(segments)
+                .openBytes(bytes)
+                .totalAppends(totalAppends.get())
+                .totalAppendedBytes(totalAppendedBytes.get())
+                .totalPageReads(totalPageReads.get())
+                .totalRecordsRead(totalRecordsRead.get())
+                .totalDeletedSegments(totalDeletedSegments.get())
+                .totalMergedSegments(totalMergedSegments.get())
+                .totalClosedRooms(totalClosedRooms.get())
+                .streamOffset(streamOffset)
+                .totalDuplicatesSkipped(totalDuplicatesSkipped.get())
+                .totalFailures(totalFailures.get())
+                .build();
+    }
+
+    /**
+     * 채팅 이력 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class HistoryStats {
+        private final boolean enabled;
+        private final String directory;
+        private final int openRooms;
+        private final int openSegments;
+        private final long openBytes;
+        private final long totalAppends;
+        private final long totalAppendedBytes;
+        private final long totalPageReads;
+        private final long totalRecordsRead;
+        private final long totalDeletedSegments;
+        private final long totalMergedSegments;
+        private final long totalClosedRooms;
+        private final String streamOffset;
+        private final long totalDuplicatesSkipped;
+        private final long totalFailures;
+    }
+}
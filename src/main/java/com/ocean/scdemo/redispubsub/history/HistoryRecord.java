@@ -0,0 +1,15 @@
+package com.ocean.scdemo.redispubsub.history;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 채팅 이력 레코드
+ *
+ * payload 는 세그먼트 매핑 버퍼의 읽기 전용 slice 이며 직렬화된 메시지 JSON 그대로이다.
+ *
+ * @param sequence        이력 시퀀스 (방 안에서 증가하며 연속은 아님, 모든 노드에서 같은 값이라 페이지 커서로 사용)
+ * @param timestampMillis 기록 시각
+ * @param payload         직렬화된 메시지 (복사되지 않은 뷰)
+ */
+public record HistoryRecord(long sequence, long timestampMillis, ByteBuffer payload) {
+}
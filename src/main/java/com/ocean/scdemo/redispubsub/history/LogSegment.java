@@ -0,0 +1,390 @@
+package com.ocean.scdemo.redispubsub.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * 채팅 이력 세그먼트 (메모리 매핑 파일 한 개)
+ *
+ * 레코드 형식: [payload 길이 int][시퀀스 long][타임스탬프 long][CRC32C int][payload]
+ * - 길이를 마지막에 기록하여 길이가 0 인 지점이 곧 끝 (파일은 0 으로 채워진 상태로 매핑)
+ * - 재시작 시 처음부터 길이/시퀀스 증가/CRC 를 확인하며 스캔하여 찢어진 꼬리를 버림
+ * - 시퀀스는 증가하기만 하면 되고 연속일 필요는 없음 (첫 레코드 시퀀스 = baseSequence)
+ * - indexIntervalBytes 마다 (시퀀스, 위치) 희소 인덱스를 두고, 봉인 시 .idx 파일로 저장
+ *
+ * 활성 세그먼트는 READ_WRITE 로 미리 크기를 잡아 매핑하고, 봉인하면 실제 크기로 잘라 READ_ONLY 로 다시 매핑한다.
+ * 읽기는 committed(volatile) 까지만 보므로 잠금 없이 매핑 버퍼의 slice 를 그대로 반환한다 (복사 없음).
+ */
+final class LogSegment {
+
+    static final int HEADER_BYTES = 24;
+    static final String LOG_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private final Path file;
+    private final long baseSequence;
+    private final int indexIntervalBytes;
+    private final long createdMillis;
+
+    private volatile MappedByteBuffer buffer;
+    private volatile int committed;
+    private volatile long lastSequence;
+    private volatile long lastTimestamp;
+    private volatile boolean sealed;
+
+    // 희소 인덱스 (append/seal 과 조회는 이 객체 모니터로 보호)
+    private long[] indexSequences = new long[16];
+    private int[] indexPositions = new int[16];
+    private int indexSize;
+    private int bytesSinceIndex;
+
+    private LogSegment(Path file, long baseSequence, int indexIntervalBytes, long createdMillis) {
+        this.file = file;
+        this.baseSequence = baseSequence;
+        this.indexIntervalBytes = indexIntervalBytes;
+        this.createdMillis = createdMillis;
+        this.lastSequence = baseSequence - 1;
+    }
+
+    static Path logFile(Path dir, long baseSequence) {
+        return dir.resolve(String.format("%020d%s", baseSequence, LOG_SUFFIX));
+    }
+
+    static long baseSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - LOG_SUFFIX.length()));
+    }
+
+    /**
+     * 새 활성 세그먼트
+     */
+    static LogSegment create(Path dir, long baseSequence, int capacity, int indexIntervalBytes) {
+        LogSegment segment = new LogSegment(logFile(dir, baseSequence), baseSequence, indexIntervalBytes,
+                System.currentTimeMillis());
+        segment.buffer = map(segment.file, FileChannel.MapMode.READ_WRITE, capacity);
+        return segment;
+    }
+
+    /**
+     * 기존 세그먼트 열기 (active 면 이어 쓰기용으로 capacity 만큼 매핑, 아니면 읽기 전용)
+     */
+    static LogSegment open(Path file, boolean active, int capacity, int indexIntervalBytes) {
+        try {
+            long size = Files.size(file);
+            LogSegment segment = new LogSegment(file, baseSequenceOf(file), indexIntervalBytes,
+                    Files.getLastModifiedTime(file).toMillis());
+            if (active) {
+                Files.deleteIfExists(indexFile(file));
+                segment.buffer = map(file, FileChannel.MapMode.READ_WRITE, (int) Math.max(size, capacity));
+                segment.recover();
+            } else {
+                segment.buffer = map(file, FileChannel.MapMode.READ_ONLY, (int) size);
+                if (!segment.loadIndex(size)) {
+                    segment.recover();
+                    segment.writeIndex();
+                }
+                segment.sealed = true;
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, FileChannel.MapMode mode, int size) {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            // 매핑은 채널을 닫아도 유지되므로 세그먼트마다 파일 디스크립터를 잡아 두지 않음
+            return channel.map(mode, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 레코드 추가 (남은 공간이 부족하거나 봉인되었으면 false)
+     */
+    synchronized boolean append(long sequence, long timestamp, byte[] payload) {
+        int needed = HEADER_BYTES + payload.length;
+        int position = committed;
+        if (sealed || payload.length == 0 || (long) position + needed > buffer.capacity()) {
+            return false;
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        MappedByteBuffer target = buffer;
+        target.putLong(position + 4, sequence);
+        target.putLong(position + 12, timestamp);
+        target.putInt(position + 20, (int) crc.getValue());
+        target.put(position + HEADER_BYTES, payload);
+        target.putInt(position, payload.length);
+
+        indexIfDue(sequence, position, needed);
+        lastSequence = sequence;
+        lastTimestamp = timestamp;
+        committed = position + needed;
+        return true;
+    }
+
+    private void indexIfDue(long sequence, int position, int recordBytes) {
+        if (indexSize == 0 || bytesSinceIndex >= indexIntervalBytes) {
+            if (indexSize == indexSequences.length) {
+                indexSequences = Arrays.copyOf(indexSequences, indexSize * 2);
+                indexPositions = Arrays.copyOf(indexPositions, indexSize * 2);
+            }
+            indexSequences[indexSize] = sequence;
+            indexPositions[indexSize] = position;
+            indexSize++;
+            bytesSinceIndex = 0;
+        }
+        bytesSinceIndex += recordBytes;
+    }
+
+    /**
+     * 처음부터 스캔하여 유효한 끝 위치와 인덱스 복구
+     */
+    private synchronized void recover() {
+        MappedByteBuffer source = buffer;
+        int limit = source.capacity();
+        int position = 0;
+        CRC32C crc = new CRC32C();
+
+        while (position + HEADER_BYTES <= limit) {
+            int length = source.getInt(position);
+            if (length <= 0 || (long) position + HEADER_BYTES + length > limit) {
+                break;
+            }
+            long sequence = source.getLong(position + 4);
+            if (position == 0 ? sequence != baseSequence : sequence <= lastSequence) {
+                break;
+            }
+            crc.reset();
+            crc.update(source.slice(position + HEADER_BYTES, length));
+            if ((int) crc.getValue() != source.getInt(position + 20)) {
+                break;
+            }
+            indexIfDue(sequence, position, HEADER_BYTES + length);
+            lastSequence = sequence;
+            lastTimestamp = source.getLong(position + 12);
+            position += HEADER_BYTES + length;
+        }
+        committed = position;
+    }
+
+    /**
+     * 봉인 - 디스크 반영 후 실제 크기로 잘라 읽기 전용으로 다시 매핑하고 인덱스 저장
+     */
+    synchronized void seal() {
+        if (sealed) {
+            return;
+        }
+        buffer.force();
+        int size = committed;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer readOnly = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer = readOnly;
+            channel.truncate(size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        sealed = true;
+        writeIndex();
+    }
+
+    void force() {
+        if (!sealed) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * beforeSequence 미만 중 마지막 최대 limit 개 (오름차순, payload 는 매핑 버퍼의 읽기 전용 slice)
+     *
+     * 시퀀스가 연속이 아니므로 시작 위치를 계산하지 않고, beforeSequence 직전 인덱스 구간부터 앞 구간으로 거슬러 읽는다.
+     */
+    List<HistoryRecord> readLast(long beforeSequence, int limit) {
+        int end = committed;
+        ByteBuffer source = buffer;
+        List<HistoryRecord> out = new ArrayList<>();
+        int slot = floorSlot(beforeSequence - 1);
+        int stop = end;
+
+        while (slot >= 0 && out.size() < limit) {
+            int start = positionAt(slot);
+            List<HistoryRecord> block = new ArrayList<>();
+            int position = start;
+            while (position < stop && position + HEADER_BYTES <= end) {
+                int length = source.getInt(position);
+                long sequence = source.getLong(position + 4);
+                if (sequence >= beforeSequence) {
+                    break;
+                }
+                block.add(new HistoryRecord(sequence, source.getLong(position + 12),
+                        source.slice(position + HEADER_BYTES, length).asReadOnlyBuffer()));
+                position += HEADER_BYTES + length;
+            }
+            int take = Math.min(block.size(), limit - out.size());
+            out.addAll(0, block.subList(block.size() - take, block.size()));
+            stop = start;
+            slot--;
+        }
+        return out;
+    }
+
+    /**
+     * sequence 이하의 가장 가까운 인덱스 항목 번호 (없으면 -1)
+     */
+    private synchronized int floorSlot(long sequence) {
+        int low = 0;
+        int high = indexSize - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexSequences[mid] <= sequence) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private synchronized int positionAt(int slot) {
+        return indexPositions[slot];
+    }
+
+    /**
+     * 세그먼트 원본 바이트 [0, committed) 를 다른 채널로 전송 (압축 병합용, 레코드 해석 없이 복사)
+     */
+    long transferTo(FileChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = committed;
+            long transferred = 0;
+            while (transferred < size) {
+                transferred += channel.transferTo(transferred, size - transferred, target);
+            }
+            return transferred;
+        }
+    }
+
+    // === 인덱스 파일: [레코드 끝 위치 int][마지막 시퀀스 long][항목 수 int] + (시퀀스 long, 위치 int) * n ===
+
+    static Path indexFile(Path logFile) {
+        String name = logFile.getFileName().toString();
+        return logFile.resolveSibling(name.substring(0, name.length() - LOG_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    private synchronized void writeIndex() {
+        ByteBuffer out = ByteBuffer.allocate(16 + indexSize * 12);
+        out.putInt(committed).putLong(lastSequence).putInt(indexSize);
+        for (int i = 0; i < indexSize; i++) {
+            out.putLong(indexSequences[i]).putInt(indexPositions[i]);
+        }
+        try {
+            Files.write(indexFile(file), out.array());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 인덱스 파일 적재 (없거나 세그먼트 크기와 맞지 않으면 false → 스캔 복구)
+     */
+    private synchronized boolean loadIndex(long fileSize) throws IOException {
+        Path index = indexFile(file);
+        if (!Files.exists(index)) {
+            return false;
+        }
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(index));
+        if (in.remaining() < 16) {
+            return false;
+        }
+        int end = in.getInt();
+        long last = in.getLong();
+        int size = in.getInt();
+        if (end != fileSize || in.remaining() != size * 12 || size == 0) {
+            return false;
+        }
+        indexSequences = new long[size];
+        indexPositions = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexSequences[i] = in.getLong();
+            indexPositions[i] = in.getInt();
+        }
+        indexSize = size;
+        committed = end;
+        lastSequence = last;
+        // 마지막 레코드 타임스탬프 (보존 기간 판단용)
+        lastTimestamp = lastRecordTimestamp();
+        return indexSequences[0] == baseSequence;
+    }
+
+    private long lastRecordTimestamp() {
+        int position = indexPositions[indexSize - 1];
+        long timestamp = 0;
+        while (position + HEADER_BYTES <= committed) {
+            timestamp = buffer.getLong(position + 12);
+            position += HEADER_BYTES + buffer.getInt(position);
+        }
+        return timestamp;
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(indexFile(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long baseSequence() {
+        return baseSequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    long createdMillis() {
+        return createdMillis;
+    }
+
+    int sizeBytes() {
+        return committed;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    boolean isEmpty() {
+        return lastSequence < baseSequence;
+    }
+}
@@ -0,0 +1,311 @@
+package com.ocean.scdemo.redispubsub.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 채팅방 하나의 추가 전용 이력 로그 (세그먼트 목록)
+ *
+ * - 마지막 세그먼트만 활성(쓰기), 나머지는 봉인된 읽기 전용
+ * - 활성 세그먼트가 가득 차거나 rollMillis 가 지나면 봉인 후 새 세그먼트로 교체 (roll)
+ * - 압축(compact): 보존 기간/용량을 넘은 오래된 세그먼트 삭제, 작은 봉인 세그먼트들을 하나로 병합
+ * - 세그먼트 목록은 copy-on-write 로 교체하여 읽기는 잠금 없이 진행
+ * - 시퀀스는 호출 측이 정하는 증가 값이며 연속일 필요가 없음 (클러스터 공통 키를 그대로 커서로 사용)
+ *
+ * 병합은 임시 파일에 원본 바이트를 그대로 이어 붙인 뒤(transferTo) 첫 세그먼트 이름으로 원자적 교체하고 나머지를 지운다.
+ * 교체 직후 중단되어 남은 세그먼트는 다시 열 때 시퀀스가 겹치는 것으로 판별해 삭제한다.
+ */
+final class RoomLog {
+
+    private static final String COMPACTING_SUFFIX = ".compacting";
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final int indexIntervalBytes;
+    private final long rollMillis;
+
+    private volatile List<LogSegment> segments;
+    private volatile long lastSequence;
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+    private boolean closed;
+
+    private RoomLog(Path dir, int segmentBytes, int indexIntervalBytes, long rollMillis) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.indexIntervalBytes = indexIntervalBytes;
+        this.rollMillis = rollMillis;
+    }
+
+    /**
+     * 디렉터리의 세그먼트로 로그 열기 (없으면 빈 세그먼트로 시작, 첫 기록 시퀀스로 교체됨)
+     */
+    static RoomLog open(Path dir, int segmentBytes, int indexIntervalBytes, long rollMillis) {
+        RoomLog log = new RoomLog(dir, segmentBytes, indexIntervalBytes, rollMillis);
+        try {
+            Files.createDirectories(dir);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(dir)) {
+                files = listing.toList();
+            }
+            for (Path file : files) {
+                if (file.getFileName().toString().endsWith(COMPACTING_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            List<Path> logFiles = files.stream()
+                    .filter(file -> file.getFileName().toString().endsWith(LogSegment.LOG_SUFFIX))
+                    .sorted(Comparator.comparingLong(LogSegment::baseSequenceOf))
+                    .toList();
+
+            List<LogSegment> opened = new ArrayList<>(logFiles.size());
+            for (int i = 0; i < logFiles.size(); i++) {
+                boolean active = i == logFiles.size() - 1;
+                LogSegment segment = LogSegment.open(logFiles.get(i), active, segmentBytes, indexIntervalBytes);
+                if (!opened.isEmpty() && segment.baseSequence() <= opened.get(opened.size() - 1).lastSequence()) {
+                    // 병합 교체 후 지우지 못한 원본
+                    segment.delete();
+                    continue;
+                }
+                opened.add(segment);
+            }
+            if (opened.isEmpty()) {
+                opened.add(LogSegment.create(dir, 1, segmentBytes, indexIntervalBytes));
+            }
+
+            log.segments = List.copyOf(opened);
+            log.lastSequence = opened.get(opened.size() - 1).isEmpty()
+                    ? opened.get(opened.size() - 1).baseSequence() - 1
+                    : opened.get(opened.size() - 1).lastSequence();
+            return log;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 마지막 시퀀스 다음 번호로 레코드 추가 후 시퀀스 반환 (닫힌 로그면 -1)
+     */
+    long append(long timestamp, byte[] payload) {
+        return append(0, false, timestamp, payload);
+    }
+
+    /**
+     * 지정한 시퀀스로 레코드 추가 후 시퀀스 반환
+     *
+     * sequence 가 마지막 시퀀스 이하이면 exact 일 때는 기록하지 않고 0 (이미 기록된 재전달),
+     * 아니면 마지막 시퀀스 + 1 로 기록한다 (늦게 도착한 메시지도 순서를 유지하며 보관).
+     * 닫힌 로그면 -1.
+     */
+    synchronized long append(long sequence, boolean exact, long timestamp, byte[] payload) {
+        if (closed) {
+            return -1;
+        }
+        if (sequence <= lastSequence) {
+            if (exact) {
+                return 0;
+            }
+            sequence = lastSequence + 1;
+        }
+        lastAccessMillis = System.currentTimeMillis();
+        LogSegment active = segments.get(segments.size() - 1);
+
+        boolean dueForRoll = !active.isEmpty() && timestamp - active.createdMillis() >= rollMillis;
+        boolean rebase = active.isEmpty() && active.baseSequence() != sequence;
+        if (active.isSealed() || dueForRoll || rebase || !active.append(sequence, timestamp, payload)) {
+            active = roll(sequence, payload.length);
+            if (!active.append(sequence, timestamp, payload)) {
+                throw new IllegalStateException("이력 레코드를 새 세그먼트에 쓸 수 없습니다: " + payload.length + "bytes");
+            }
+        }
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * 활성 세그먼트 봉인 후 새 세그먼트 시작 (비어 있는 활성 세그먼트는 봉인하지 않고 교체)
+     */
+    private LogSegment roll(long baseSequence, int payloadLength) {
+        List<LogSegment> next = new ArrayList<>(segments);
+        LogSegment current = next.get(next.size() - 1);
+        if (current.isEmpty() && !current.isSealed()) {
+            next.remove(next.size() - 1);
+            current.delete();
+        } else {
+            current.seal();
+        }
+
+        int capacity = Math.max(segmentBytes, LogSegment.HEADER_BYTES + payloadLength);
+        LogSegment created = LogSegment.create(dir, baseSequence, capacity, indexIntervalBytes);
+        next.add(created);
+        segments = List.copyOf(next);
+        return created;
+    }
+
+    /**
+     * beforeSequence 직전 최대 limit 개 (오름차순, beforeSequence 가 0 이하이면 최신부터)
+     *
+     * 시퀀스가 연속이 아니므로 beforeSequence 를 포함하는 세그먼트부터 앞 세그먼트로 거슬러 모은다.
+     */
+    List<HistoryRecord> readBefore(long beforeSequence, int limit) {
+        lastAccessMillis = System.currentTimeMillis();
+        List<LogSegment> snapshot = segments;
+        long before = beforeSequence <= 0 ? Long.MAX_VALUE : beforeSequence;
+
+        List<HistoryRecord> out = new ArrayList<>(limit);
+        for (int i = segmentIndex(snapshot, before - 1); i >= 0 && out.size() < limit; i--) {
+            LogSegment segment = snapshot.get(i);
+            if (segment.baseSequence() >= before) {
+                continue;
+            }
+            out.addAll(0, segment.readLast(before, limit - out.size()));
+        }
+        return out;
+    }
+
+    /**
+     * sequence 를 포함하는 세그먼트 위치 (baseSequence 이하 중 가장 큰 것)
+     */
+    private static int segmentIndex(List<LogSegment> snapshot, long sequence) {
+        int low = 0;
+        int high = snapshot.size() - 1;
+        int found = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (snapshot.get(mid).baseSequence() <= sequence) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 압축 - 보존 기간/용량 초과 세그먼트 삭제, 연속된 작은 봉인 세그먼트 병합 (활성 세그먼트는 대상 아님)
+     */
+    synchronized CompactionResult compact(long retentionBytes, long retentionMillis, int mergeBelowBytes, long now) {
+        if (closed) {
+            return new CompactionResult(0, 0);
+        }
+        List<LogSegment> next = new ArrayList<>(segments);
+        int deleted = 0;
+        int merged = 0;
+
+        long totalBytes = next.stream().mapToLong(LogSegment::sizeBytes).sum();
+        while (next.size() > 1) {
+            LogSegment oldest = next.get(0);
+            boolean expired = retentionMillis > 0 && oldest.lastTimestamp() < now - retentionMillis;
+            if (!expired && totalBytes <= retentionBytes) {
+                break;
+            }
+            next.remove(0);
+            totalBytes -= oldest.sizeBytes();
+            oldest.delete();
+            deleted++;
+        }
+
+        int start = 0;
+        while (start < next.size() - 1) {
+            int end = start;
+            long runBytes = 0;
+            while (end < next.size() - 1) {
+                LogSegment candidate = next.get(end);
+                if (!candidate.isSealed() || candidate.sizeBytes() >= mergeBelowBytes
+                        || runBytes + candidate.sizeBytes() > segmentBytes) {
+                    break;
+                }
+                runBytes += candidate.sizeBytes();
+                end++;
+            }
+            if (end - start >= 2) {
+                List<LogSegment> run = new ArrayList<>(next.subList(start, end));
+                LogSegment combined = merge(run);
+                next.subList(start, end).clear();
+                next.add(start, combined);
+                merged += run.size();
+                start++;
+            } else {
+                start = Math.max(start + 1, end);
+            }
+        }
+
+        if (deleted > 0 || merged > 0) {
+            segments = List.copyOf(next);
+        }
+        return new CompactionResult(deleted, merged);
+    }
+
+    private LogSegment merge(List<LogSegment> run) {
+        Path target = LogSegment.logFile(dir, run.get(0).baseSequence());
+        Path temp = target.resolveSibling(target.getFileName() + COMPACTING_SUFFIX);
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (LogSegment segment : run) {
+                    segment.transferTo(out);
+                }
+                out.force(true);
+            }
+            Files.deleteIfExists(LogSegment.indexFile(target));
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (LogSegment segment : run.subList(1, run.size())) {
+            segment.delete();
+        }
+        return LogSegment.open(target, false, 0, indexIntervalBytes);
+    }
+
+    /**
+     * 활성 세그먼트 디스크 반영
+     */
+    void flush() {
+        List<LogSegment> snapshot = segments;
+        snapshot.get(snapshot.size() - 1).force();
+    }
+
+    /**
+     * 닫기 - 이후 append 는 -1 을 반환하여 호출 측이 새로 연 로그를 사용하게 함
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flush();
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    long firstSequence() {
+        return segments.get(0).baseSequence();
+    }
+
+    long lastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    long sizeBytes() {
+        return segments.stream().mapToLong(LogSegment::sizeBytes).sum();
+    }
+
+    record CompactionResult(int deletedSegments, int mergedSegments) {
+    }
+}
@@ -58,6 +58,16 @@ public abstract class BaseMessage {
     private String channel;
     private String topic;
     
+    /**
+     * 발행 노드 ID (자기 노드 에코 판별용)
+     */
+    private String originNodeId;
+    
+    /**
+     * 발행 시각 (발행 노드 시계 기준 epoch 마이크로초, 종단 지연 측정용)
+     */
+    private Long publishedAtMicros;
+    
     /**
      * 타임스탬프
      */
@@ -164,6 +174,13 @@ public abstract class BaseMessage {
         this.retryCount = (this.retryCount == null ? 0 : this.retryCount) + 1;
     }
     
+    /**
+     * 디스패치 서브타입 (HandlerRegistry 가 같은 타입 안에서 처리기를 고르는 키, 없으면 기본 처리기)
+     */
+    public String subtype() {
+        return null;
+    }
+    
     /**
      * 메시지 요약 정보
      */
@@ -167,6 +167,14 @@ public class ChatMessage extends BaseMessage {
                 .build());
     }
     
+    /**
+     * 디스패치 서브타입 (콘텐츠 타입)
+     */
+    @Override
+    public String subtype() {
+        return contentType;
+    }
+    
     @Override
     public BaseMessage copy() {
         return ChatMessage.builder()
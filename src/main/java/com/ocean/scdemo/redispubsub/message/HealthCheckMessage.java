@@ -239,6 +239,14 @@ public class HealthCheckMessage extends BaseMessage {
         this.healthScore = (int) ((passedChecks * 100.0) / checks.size());
     }
     
+    /**
+     * 디스패치 서브타입 (체크 타입)
+     */
+    @Override
+    public String subtype() {
+        return checkType;
+    }
+    
     @Override
     public BaseMessage copy() {
         return HealthCheckMessage.builder()
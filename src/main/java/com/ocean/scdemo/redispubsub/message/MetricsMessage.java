@@ -254,6 +254,14 @@ public class MetricsMessage extends BaseMessage {
         this.timeWindowEnd = endMillis;
     }
     
+    /**
+     * 디스패치 서브타입 (메트릭 타입)
+     */
+    @Override
+    public String subtype() {
+        return metricType;
+    }
+    
     @Override
     public BaseMessage copy() {
         return MetricsMessage.builder()
@@ -137,6 +137,41 @@ public class NotificationMessage extends BaseMessage {
                 .build();
     }
     
+    /**
+     * 같은 수신자의 알림 묶음(digest) - 최근 제목 몇 개를 본문으로, 원본 ID 와 건수는 eventData 에 기록
+     *
+     * @param items   묶인 알림 (오래된 순, 비어 있지 않음)
+     * @param dropped 버퍼 상한으로 버려져 본문에 없는 건수
+     */
+    public static NotificationMessage createDigest(String recipientId, String notificationType,
+                                                   List<NotificationMessage> items, int dropped) {
+        NotificationMessage latest = items.get(items.size() - 1);
+        int total = items.size() + dropped;
+        List<NotificationMessage> shown = items.subList(Math.max(0, items.size() - 5), items.size());
+
+        Map<String, Object> eventData = new java.util.HashMap<>();
+        eventData.put("digestCount", total);
+        eventData.put("droppedCount", dropped);
+        eventData.put("messageIds", items.stream().map(NotificationMessage::getMessageId).toList());
+
+        return NotificationMessage.builder()
+                .messageId(java.util.UUID.randomUUID().toString())
+                .messageType("NOTIFICATION")
+                .timestamp(java.time.LocalDateTime.now())
+                .notificationType(notificationType)
+                .category("DIGEST")
+                .severity(latest.getSeverity())
+                .recipientId(recipientId)
+                .title(latest.getTitle() + (total > 1 ? " 외 " + (total - 1) + "건" : ""))
+                .message(String.join("\n", shown.stream().map(NotificationMessage::getTitle).toList()))
+                .shortMessage("새 알림 " + total + "건")
+                .pushConfig(latest.getPushConfig())
+                .status("PENDING")
+                .eventType("DIGEST")
+                .eventData(eventData)
+                .build();
+    }
+    
     /**
      * 알림이 읽혔는지 확인
      */
@@ -184,6 +219,14 @@ public class NotificationMessage extends BaseMessage {
                 .build());
     }
     
+    /**
+     * 디스패치 서브타입 (알림 타입)
+     */
+    @Override
+    public String subtype() {
+        return notificationType;
+    }
+    
     @Override
     public BaseMessage copy() {
         return NotificationMessage.builder()
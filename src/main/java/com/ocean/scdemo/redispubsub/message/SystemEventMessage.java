@@ -195,6 +195,14 @@ public class SystemEventMessage extends BaseMessage {
         addEventData("linkedEvents", correlationId);
     }
     
+    /**
+     * 디스패치 서브타입 (이벤트 타입)
+     */
+    @Override
+    public String subtype() {
+        return eventType;
+    }
+    
     @Override
     public BaseMessage copy() {
         return SystemEventMessage.builder()
@@ -114,6 +114,22 @@ public class UserEventMessage extends BaseMessage {
                 .build();
     }
     
+    /**
+     * 접속 상태 전이 이벤트 (status:online / status:offline)
+     */
+    public static UserEventMessage createPresenceEvent(String userId, boolean online) {
+        return UserEventMessage.builder()
+                .messageId(java.util.UUID.randomUUID().toString())
+                .messageType("USER_EVENT")
+                .timestamp(java.time.LocalDateTime.now())
+                .eventType(online ? "ONLINE" : "OFFLINE")
+                .userId(userId)
+                .eventName(online ? "사용자 온라인" : "사용자 오프라인")
+                .category("USER_STATE")
+                .status("SUCCESS")
+                .build();
+    }
+    
     public static UserEventMessage createPurchaseEvent(String userId, String productId, 
                                                        Double amount, String currency) {
         return UserEventMessage.builder()
@@ -213,6 +229,14 @@ public class UserEventMessage extends BaseMessage {
         addEventProperty("variant", variant);
     }
     
+    /**
+     * 디스패치 서브타입 (이벤트 타입)
+     */
+    @Override
+    public String subtype() {
+        return eventType;
+    }
+    
     @Override
     public BaseMessage copy() {
         return UserEventMessage.builder()
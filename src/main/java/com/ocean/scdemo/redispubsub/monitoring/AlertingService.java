@@ -30,6 +30,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 public class AlertingService {
 
     private final MetricsCollectorService metricsCollector;
+    private final DashboardModel dashboardModel;
     
     // 알림 설정
     private final Map<String, AlertRule> alertRules = new ConcurrentHashMap<>();
@@ -435,6 +436,10 @@ public class AlertingService {
     private void addToHistory(AlertEvent event) {
         alertHistory.offer(event);
         
+        Alert alert = event.getAlert();
+        dashboardModel.recordAlert(alert.getRuleName(), String.valueOf(alert.getSeverity()),
+                event.getAction().name(), alert.getMessage(), event.getTimestamp());
+        
         // 이력 크기 제한
         while (alertHistory.size() > ALERT_HISTORY_MAX_SIZE) {
             alertHistory.poll();
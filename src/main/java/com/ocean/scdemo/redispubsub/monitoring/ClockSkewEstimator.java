@@ -0,0 +1,142 @@
+package com.ocean.scdemo.redispubsub.monitoring;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 발행 노드별 시계 오차 추정기
+ *
+ * 관측 오프셋 = 수신 시각(로컬 시계) - 발행 시각(발행 노드 시계) = 실제 전송 지연 + 시계 오차.
+ * 시간 창 안의 최소 오프셋은 "가장 빨랐던 전송 + 시계 오차" 이므로,
+ * 같은 노드 발행분(시계 오차 0)의 최소 전송 지연을 기준으로 빼서 노드별 시계 오차를 추정한다.
+ * (노드 간 최소 전송 지연이 노드 내와 같다는 가정이며, 기준이 없으면 0 으로 보아 최솟값 초과분만 남는다)
+ *
+ * 최솟값은 두 구간(현재/직전 창)으로 유지하여 시계 재조정 이후 오래된 최솟값이 계속 남지 않게 한다.
+ */
+public class ClockSkewEstimator {
+
+    private final String localNodeId;
+    private final long windowMillis;
+    private final Map<String, WindowedMin> origins;
+
+    public ClockSkewEstimator(String localNodeId, long windowMillis, int maxOrigins) {
+        this.localNodeId = localNodeId;
+        this.windowMillis = windowMillis;
+        this.origins = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, WindowedMin> eldest) {
+                return size() > maxOrigins && !localNodeId.equals(eldest.getKey());
+            }
+        };
+    }
+
+    public boolean isLocal(String originNodeId) {
+        return originNodeId == null || localNodeId.equals(originNodeId);
+    }
+
+    /**
+     * 오프셋 관측 후 해당 발행 노드에 적용할 시계 오차 반환 (같은 노드면 0)
+     */
+    public synchronized long observe(String originNodeId, long offsetMicros, long nowMillis) {
+        String origin = isLocal(originNodeId) ? localNodeId : originNodeId;
+        origins.computeIfAbsent(origin, key -> new WindowedMin()).add(offsetMicros, nowMillis);
+        return skewMicros(origin, nowMillis);
+    }
+
+    /**
+     * 추정 시계 오차 (발행 노드 시계가 로컬보다 늦으면 양수, 빠르면 음수)
+     */
+    public synchronized long skewMicros(String originNodeId, long nowMillis) {
+        if (isLocal(originNodeId)) {
+            return 0;
+        }
+        WindowedMin remote = origins.get(originNodeId);
+        if (remote == null || remote.min(nowMillis) == Long.MAX_VALUE) {
+            return 0;
+        }
+        return remote.min(nowMillis) - localBaselineMicros(nowMillis);
+    }
+
+    /**
+     * 같은 노드 발행분의 최소 전송 지연 (관측 전이면 0)
+     */
+    private long localBaselineMicros(long nowMillis) {
+        WindowedMin local = origins.get(localNodeId);
+        long min = local != null ? local.min(nowMillis) : Long.MAX_VALUE;
+        return min == Long.MAX_VALUE ? 0 : Math.max(0, min);
+    }
+
+    /**
+     * 발행 노드별 추정치
+     */
+    public synchronized List<SkewEstimate> estimates(long nowMillis) {
+        List<SkewEstimate> estimates = new ArrayList<>(origins.size());
+        origins.forEach((origin, window) -> {
+            long min = window.min(nowMillis);
+            estimates.add(SkewEstimate.builder()
+                    .originNodeId(origin)
+                    .local(localNodeId.equals(origin))
+                    .minOffsetMicros(min == Long.MAX_VALUE ? null : min)
+                    .skewMicros(skewMicros(origin, nowMillis))
+                    .samples(window.samples)
+                    .negativeOffsetSamples(window.negativeSamples)
+                    .build());
+        });
+        return estimates;
+    }
+
+    /**
+     * 두 구간 최솟값 (현재 창 + 직전 창)
+     */
+    private class WindowedMin {
+        private long windowStart = Long.MIN_VALUE;
+        private long currentMin = Long.MAX_VALUE;
+        private long previousMin = Long.MAX_VALUE;
+        private long samples;
+        private long negativeSamples;
+
+        void add(long value, long nowMillis) {
+            rotate(nowMillis);
+            currentMin = Math.min(currentMin, value);
+            samples++;
+            if (value < 0) {
+                negativeSamples++;
+            }
+        }
+
+        long min(long nowMillis) {
+            rotate(nowMillis);
+            return Math.min(currentMin, previousMin);
+        }
+
+        private void rotate(long nowMillis) {
+            if (windowStart == Long.MIN_VALUE) {
+                windowStart = nowMillis;
+                return;
+            }
+            long elapsed = nowMillis - windowStart;
+            if (elapsed < windowMillis) {
+                return;
+            }
+            previousMin = elapsed < 2 * windowMillis ? currentMin : Long.MAX_VALUE;
+            currentMin = Long.MAX_VALUE;
+            windowStart = nowMillis;
+        }
+    }
+
+    /**
+     * 발행 노드별 시계 오차 추정치 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class SkewEstimate {
+        private final String originNodeId;
+        private final boolean local;
+        private final Long minOffsetMicros;
+        private final long skewMicros;
+        private final long samples;
+        private final long negativeOffsetSamples;
+    }
+}
@@ -0,0 +1,255 @@
+package com.ocean.scdemo.redispubsub.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 대시보드 구체화(materialized) 모델
+ *
+ * 핵심 기능:
+ * - 메트릭/알림/카운터 표본/헬스 변화가 들어올 때 해당 항목만 갱신 (요청마다 전체를 다시 계산하지 않음)
+ * - 값이 실제로 바뀐 경우에만 revision 증가, 유휴 상태에서는 스냅샷과 ETag 가 그대로 유지됨
+ * - publish() 는 변경이 있을 때만 불변 스냅샷을 만들어 참조를 원자적으로 교체
+ * - 조회는 현재 스냅샷 참조를 읽기만 하므로 O(1), ETag 가 같으면 304 로 응답 가능
+ *
+ * ETag 는 기동 시각 + revision 이라 재기동 후 같은 revision 이 다른 내용을 가리키지 않는다.
+ */
+@Component
+public class DashboardModel {
+
+    public static final String TREND_PUBLISH_RATE = "publishPerSecond";
+    public static final String TREND_RECEIVE_RATE = "receivePerSecond";
+    public static final String TREND_ERROR_RATE = "errorRate";
+
+    private final int trendPoints;
+    private final int recentAlertCount;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Object lock = new Object();
+
+    // 가변 상태 (lock)
+    private final Map<String, Object> keyMetrics;
+    private final Map<String, Object> handlerPerformance = new TreeMap<>();
+    private final Map<String, Object> systemResources = new TreeMap<>();
+    private final Map<String, Object> connectionHealth = new TreeMap<>();
+    private final Map<String, Object> throughputMetrics = new TreeMap<>();
+    private final Map<String, Deque<TrendPoint>> trends = new TreeMap<>();
+    private final Deque<AlertEntry> recentAlerts = new ArrayDeque<>();
+    private PubSubMonitoringService.SystemHealthStatus overallHealth = PubSubMonitoringService.SystemHealthStatus.STARTING;
+    private long revision;
+
+    // 처리량 계산용 직전 카운터 표본
+    private long lastSampleAt;
+    private long lastPublished;
+    private long lastReceived;
+    private long lastFailed;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    public DashboardModel(@Value("${pubsub.dashboard.trend-points:120}") int trendPoints,
+                          @Value("${pubsub.dashboard.max-key-metrics:200}") int maxKeyMetrics,
+                          @Value("${pubsub.dashboard.recent-alerts:20}") int recentAlertCount) {
+        this.trendPoints = Math.max(1, trendPoints);
+        this.recentAlertCount = Math.max(1, recentAlertCount);
+        // 최근 갱신 순 LRU - 메트릭 이름이 계속 늘어도 상한 유지
+        this.keyMetrics = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                return size() > Math.max(1, maxKeyMetrics);
+            }
+        };
+        current.set(build(LocalDateTime.now()));
+    }
+
+    /**
+     * 현재 스냅샷 (O(1), 불변)
+     */
+    public Snapshot current() {
+        return current.get();
+    }
+
+    /**
+     * 변경이 있으면 새 스냅샷으로 교체하고 반환, 없으면 기존 스냅샷 반환
+     */
+    public Snapshot publish(LocalDateTime now) {
+        synchronized (lock) {
+            Snapshot published = current.get();
+            if (published.revision() == revision) {
+                return published;
+            }
+            Snapshot snapshot = build(now);
+            current.set(snapshot);
+            return snapshot;
+        }
+    }
+
+    /**
+     * 메트릭 최신값 반영
+     */
+    public void recordMetric(String name, double value, String unit) {
+        synchronized (lock) {
+            put(keyMetrics, name, new MetricValue(value, unit));
+        }
+    }
+
+    /**
+     * 누적 카운터 표본 반영 - 직전 표본과의 차이로 초당 처리량과 추이 갱신
+     */
+    public void recordCounters(long published, long received, long failed, long nowMillis) {
+        synchronized (lock) {
+            put(throughputMetrics, "totalPublished", published);
+            put(throughputMetrics, "totalReceived", received);
+            put(throughputMetrics, "totalFailed", failed);
+
+            if (lastSampleAt > 0 && nowMillis > lastSampleAt) {
+                double seconds = (nowMillis - lastSampleAt) / 1000.0;
+                long receivedDelta = Math.max(0, received - lastReceived);
+                long failedDelta = Math.max(0, failed - lastFailed);
+                double publishRate = round(Math.max(0, published - lastPublished) / seconds);
+                double receiveRate = round(receivedDelta / seconds);
+                double errorRate = receivedDelta > 0 ? round(failedDelta * 100.0 / receivedDelta) : 0.0;
+
+                put(throughputMetrics, TREND_PUBLISH_RATE, publishRate);
+                put(throughputMetrics, TREND_RECEIVE_RATE, receiveRate);
+                put(throughputMetrics, TREND_ERROR_RATE, errorRate);
+                appendTrend(TREND_PUBLISH_RATE, publishRate, nowMillis);
+                appendTrend(TREND_RECEIVE_RATE, receiveRate, nowMillis);
+                appendTrend(TREND_ERROR_RATE, errorRate, nowMillis);
+            }
+
+            lastSampleAt = nowMillis;
+            lastPublished = published;
+            lastReceived = received;
+            lastFailed = failed;
+        }
+    }
+
+    /**
+     * 핸들러별 처리 현황 반영
+     */
+    public void recordHandler(String name, long processed, double successRate) {
+        synchronized (lock) {
+            put(handlerPerformance, name, new HandlerValue(processed, round(successRate)));
+        }
+    }
+
+    /**
+     * 시스템 자원 항목 반영
+     */
+    public void recordResource(String name, Object value) {
+        synchronized (lock) {
+            put(systemResources, name, value);
+        }
+    }
+
+    /**
+     * 전체 상태와 컴포넌트(프로브)별 상태 반영
+     */
+    public void recordHealth(PubSubMonitoringService.SystemHealthStatus overall, Map<String, String> components) {
+        synchronized (lock) {
+            if (overall != overallHealth) {
+                overallHealth = overall;
+                revision++;
+            }
+            components.forEach((name, status) -> put(connectionHealth, name, status));
+        }
+    }
+
+    /**
+     * 알림 이벤트 반영 (최신순, recent-alerts 개까지)
+     */
+    public void recordAlert(String ruleName, String severity, String action, String message, LocalDateTime timestamp) {
+        synchronized (lock) {
+            recentAlerts.addFirst(new AlertEntry(ruleName, severity, action, message, timestamp));
+            while (recentAlerts.size() > recentAlertCount) {
+                recentAlerts.removeLast();
+            }
+            revision++;
+        }
+    }
+
+    /**
+     * 값이 달라졌을 때만 갱신하고 revision 증가 (lock 안에서 호출)
+     */
+    private void put(Map<String, Object> target, String key, Object value) {
+        if (!Objects.equals(target.get(key), value)) {
+            target.put(key, value);
+            revision++;
+        }
+    }
+
+    /**
+     * 추이 점 추가 - 0 이 이어지는 유휴 구간은 한 번만 기록하여 스냅샷이 바뀌지 않게 함 (lock 안에서 호출)
+     */
+    private void appendTrend(String name, double value, long nowMillis) {
+        Deque<TrendPoint> points = trends.computeIfAbsent(name, k -> new ArrayDeque<>());
+        TrendPoint last = points.peekLast();
+        if (value == 0.0 && last != null && last.value() == 0.0) {
+            return;
+        }
+        points.addLast(new TrendPoint(nowMillis, value));
+        while (points.size() > trendPoints) {
+            points.removeFirst();
+        }
+        revision++;
+    }
+
+    /**
+     * 가변 상태의 복사본으로 불변 스냅샷 생성 (lock 안에서 호출)
+     */
+    private Snapshot build(LocalDateTime now) {
+        Map<String, Object> trendView = new LinkedHashMap<>();
+        trends.forEach((name, points) -> trendView.put(name, List.copyOf(points)));
+
+        PubSubMonitoringService.DashboardData data = PubSubMonitoringService.DashboardData.builder()
+                .timestamp(now)
+                .overallHealth(overallHealth)
+                .keyMetrics(freeze(keyMetrics))
+                .recentAlerts(List.<Object>copyOf(recentAlerts))
+                .performanceTrends(Collections.unmodifiableMap(trendView))
+                .handlerPerformance(freeze(handlerPerformance))
+                .systemResources(freeze(systemResources))
+                .connectionHealth(freeze(connectionHealth))
+                .throughputMetrics(freeze(throughputMetrics))
+                .build();
+
+        return new Snapshot(revision, "\"" + epoch + "-" + revision + "\"", data);
+    }
+
+    private static Map<String, Object> freeze(Map<String, Object> source) {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(source));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * 불변 대시보드 스냅샷 (etag 는 따옴표 포함 강한 검증자)
+     */
+    public record Snapshot(long revision, String etag, PubSubMonitoringService.DashboardData data) {
+    }
+
+    public record MetricValue(double value, String unit) {
+    }
+
+    public record HandlerValue(long processed, double successRate) {
+    }
+
+    public record TrendPoint(long timestamp, double value) {
+    }
+
+    public record AlertEntry(String ruleName, String severity, String action, String message, LocalDateTime timestamp) {
+    }
+}
@@ -0,0 +1,181 @@
+package com.ocean.scdemo.redispubsub.monitoring;
+
+import com.ocean.scdemo.redispubsub.config.NodeIdentity;
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig.ChannelFamily;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 발행 → 처리 완료 구간 지연 측정 (채널 패밀리별)
+ *
+ * 핵심 기능:
+ * - 발행 시 봉투에 찍은 publishedAtMicros(발행 노드 시계) 와 originNodeId 로 수신 측에서 구간별 지연 기록
+ * - 구간: QUEUEING(발행 → 수신), DESERIALIZATION, HANDLER, TOTAL(발행 → 처리 완료)
+ * - 같은 노드 발행(LOCAL)과 다른 노드 발행(REMOTE)을 나누어 LatencyTracker 히스토그램에 집계
+ * - REMOTE 의 QUEUEING/TOTAL 은 ClockSkewEstimator 의 발행 노드별 시계 오차를 뺀 값으로 기록 (음수는 0 으로 절삭)
+ *
+ * DESERIALIZATION/HANDLER 는 수신 노드의 nanoTime 으로만 재므로 시계 오차와 무관하다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EndToEndLatencyMonitor {
+
+    private static final String UNKNOWN_FAMILY = "OTHER";
+
+    private final NodeIdentity nodeIdentity;
+
+    @Value("${pubsub.latency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pubsub.latency.skew-window-ms:300000}")
+    private long skewWindowMillis;
+
+    @Value("${pubsub.latency.max-origins:256}")
+    private int maxOrigins;
+
+    private ClockSkewEstimator skewEstimator;
+
+    /**
+     * 패밀리 → 홉 → 구간별 히스토그램
+     */
+    private final Map<String, Map<Hop, Map<Stage, LatencyTracker>>> trackers = new ConcurrentHashMap<>();
+
+    // 측정 통계
+    private final LongAdder totalRecorded = new LongAdder();
+    private final LongAdder totalUnstamped = new LongAdder();
+    private final LongAdder totalNegativeRaw = new LongAdder();
+
+    public enum Hop {
+        LOCAL, REMOTE
+    }
+
+    public enum Stage {
+        QUEUEING, DESERIALIZATION, HANDLER, TOTAL
+    }
+
+    @PostConstruct
+    public void init() {
+        skewEstimator = new ClockSkewEstimator(nodeIdentity.getNodeId(), skewWindowMillis, maxOrigins);
+        log.info("종단 지연 측정 - enabled={}, skewWindow={}ms", enabled, skewWindowMillis);
+    }
+
+    /**
+     * 처리 완료 시점에 호출
+     *
+     * @param receivedAtMicros 수신 시각 (EnvelopeClock)
+     * @param deserializeNanos 역직렬화 시간 (루프백처럼 역직렬화가 없으면 음수)
+     * @param handlerNanos     핸들러 실행 시간
+     */
+    public void record(String channel, BaseMessage message, long receivedAtMicros, long deserializeNanos, long handlerNanos) {
+        if (!enabled) {
+            return;
+        }
+        Long publishedAtMicros = message.getPublishedAtMicros();
+        if (publishedAtMicros == null) {
+            totalUnstamped.increment();
+            return;
+        }
+
+        long completedAtMicros = EnvelopeClock.nowMicros();
+        long queueingRaw = receivedAtMicros - publishedAtMicros;
+        long totalRaw = completedAtMicros - publishedAtMicros;
+        if (queueingRaw < 0) {
+            totalNegativeRaw.increment();
+        }
+
+        String origin = message.getOriginNodeId();
+        Hop hop = skewEstimator.isLocal(origin) ? Hop.LOCAL : Hop.REMOTE;
+        long skew = skewEstimator.observe(origin, queueingRaw, System.currentTimeMillis());
+
+        Map<Stage, LatencyTracker> stages = stagesFor(familyOf(channel), hop);
+        stages.get(Stage.QUEUEING).recordLatencyMicros(Math.max(0, queueingRaw - skew));
+        if (deserializeNanos >= 0) {
+            stages.get(Stage.DESERIALIZATION).recordLatencyMicros(deserializeNanos / 1_000);
+        }
+        stages.get(Stage.HANDLER).recordLatencyMicros(handlerNanos / 1_000);
+        stages.get(Stage.TOTAL).recordLatencyMicros(Math.max(0, totalRaw - skew));
+        totalRecorded.increment();
+    }
+
+    private Map<Stage, LatencyTracker> stagesFor(String family, Hop hop) {
+        return trackers
+                .computeIfAbsent(family, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(hop, key -> {
+                    Map<Stage, LatencyTracker> stages = new EnumMap<>(Stage.class);
+                    for (Stage stage : Stage.values()) {
+                        stages.put(stage, new LatencyTracker());
+                    }
+                    return stages;
+                });
+    }
+
+    private static String familyOf(String channel) {
+        ChannelFamily family = ChannelFamily.of(channel);
+        return family != null ? family.name() : UNKNOWN_FAMILY;
+    }
+
+    /**
+     * 히스토그램 초기화 (시계 오차 추정치는 유지)
+     */
+    public void reset() {
+        trackers.clear();
+        totalRecorded.reset();
+        totalUnstamped.reset();
+        totalNegativeRaw.reset();
+    }
+
+    /**
+     * 종단 지연 보고서
+     */
+    public EndToEndLatencyReport getReport() {
+        Map<String, Map<String, Map<String, LatencyStats>>> families = new TreeMap<>();
+        trackers.forEach((family, hops) -> {
+            Map<String, Map<String, LatencyStats>> byHop = new TreeMap<>();
+            hops.forEach((hop, stages) -> {
+                Map<String, LatencyStats> byStage = new TreeMap<>();
+                stages.forEach((stage, tracker) -> byStage.put(stage.name(), tracker.getStats()));
+                byHop.put(hop.name(), byStage);
+            });
+            families.put(family, byHop);
+        });
+
+        return EndToEndLatencyReport.builder()
+                .nodeId(nodeIdentity.getNodeId())
+                .enabled(enabled)
+                .totalRecorded(totalRecorded.sum())
+                .totalUnstamped(totalUnstamped.sum())
+                .totalNegativeRaw(totalNegativeRaw.sum())
+                .skewWindowMillis(skewWindowMillis)
+                .clockSkew(skewEstimator.estimates(System.currentTimeMillis()))
+                .families(families)
+                .build();
+    }
+
+    /**
+     * 종단 지연 보고서 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class EndToEndLatencyReport {
+        private final String nodeId;
+        private final boolean enabled;
+        private final long totalRecorded;
+        private final long totalUnstamped;
+        private final long totalNegativeRaw;
+        private final long skewWindowMillis;
+        private final List<ClockSkewEstimator.SkewEstimate> clockSkew;
+        private final Map<String, Map<String, Map<String, LatencyStats>>> families;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ocean.scdemo.redispubsub.monitoring;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 메시지 봉투용 epoch 마이크로초 시계
+ *
+ * System.nanoTime() 을 주기적으로 벽시계(epoch)에 다시 맞추는 방식이라
+ * 같은 노드 안에서는 뒤로 가지 않고, 노드 간에는 벽시계 오차(clock skew)만큼 어긋날 수 있다.
+ * 재보정으로 벽시계가 뒤로 가더라도 마지막으로 반환한 값보다 작아지지 않는다.
+ */
+public final class EnvelopeClock {
+
+    private static final long RECALIBRATE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private static volatile Anchor anchor = Anchor.now();
+    private static final AtomicLong lastMicros = new AtomicLong(0);
+
+    private EnvelopeClock() {
+    }
+
+    /**
+     * 현재 시각 (epoch 마이크로초, 노드 내 단조 증가)
+     */
+    public static long nowMicros() {
+        long nanos = System.nanoTime();
+        Anchor current = anchor;
+        if (nanos - current.nanos > RECALIBRATE_NANOS) {
+            current = Anchor.now();
+            anchor = current;
+        }
+        long micros = current.epochMicros + (nanos - current.nanos) / 1_000;
+        return lastMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    private record Anchor(long epochMicros, long nanos) {
+        static Anchor now() {
+            Instant instant = Instant.now();
+            return new Anchor(instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.ocean.scdemo.redispubsub.monitoring;
+
+import com.ocean.scdemo.redispubsub.config.NodeIdentity;
+import com.ocean.scdemo.redispubsub.message.HealthCheckMessage;
+import com.ocean.scdemo.redispubsub.publisher.MessagePublisher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 적응형 병렬 헬스 프로브 스케줄러
+ *
+ * 핵심 기능:
+ * - 등록된 프로브를 각자 가상 스레드에서 실행하여 느린 의존성이 다른 체크나 공용 스케줄러 스레드를 막지 않음
+ * - 프로브별 타임아웃 (초과 시 DOWN, 응답은 됐지만 degraded-ms 초과 시 DEGRADED)
+ * - 프로브별 주기 조절: 안정적이면 늘리고, 상태가 바뀌거나 flapping 이면 최소 주기로 (ProbeSchedule)
+ * - 상태가 바뀐 경우에만 HealthCheckMessage 발행 (previousStatus, statusChangedAt 포함)
+ *
+ * 타임아웃된 체크 스레드가 아직 끝나지 않았으면 그 프로브는 새로 실행하지 않고 DOWN 으로 유지하여
+ * 멈춘 의존성 하나 때문에 스레드가 쌓이지 않게 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HealthProbeScheduler {
+
+    private final MessagePublisher messagePublisher;
+    private final NodeIdentity nodeIdentity;
+
+    @Value("${pubsub.health-probe.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pubsub.health-probe.tick-ms:250}")
+    private long tickMillis;
+
+    @Value("${pubsub.health-probe.base-interval-ms:30000}")
+    private long baseIntervalMillis;
+
+    @Value("${pubsub.health-probe.min-interval-ms:5000}")
+    private long minIntervalMillis;
+
+    @Value("${pubsub.health-probe.max-interval-ms:300000}")
+    private long maxIntervalMillis;
+
+    @Value("${pubsub.health-probe.timeout-ms:3000}")
+    private long timeoutMillis;
+
+    @Value("${pubsub.health-probe.degraded-ms:1000}")
+    private long degradedMillis;
+
+    @Value("${pubsub.health-probe.stable-threshold:3}")
+    private int stableThreshold;
+
+    @Value("${pubsub.health-probe.flap-window:10}")
+    private int flapWindow;
+
+    @Value("${pubsub.health-probe.flap-threshold:4}")
+    private int flapThreshold;
+
+    @Value("${pubsub.health-probe.publish-changes:true}")
+    private boolean publishChanges;
+
+    private final Map<String, Probe> probes = new ConcurrentHashMap<>();
+    private ExecutorService probeExecutor;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    // 통계
+    private final AtomicLong totalRuns = new AtomicLong(0);
+    private final AtomicLong totalTimeouts = new AtomicLong(0);
+    private final AtomicLong totalErrors = new AtomicLong(0);
+    private final AtomicLong totalTransitions = new AtomicLong(0);
+    private final AtomicLong publishedTransitions = new AtomicLong(0);
+    private final AtomicLong skippedHung = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("헬스 프로브 스케줄러 비활성화 (설정)");
+            return;
+        }
+
+        probeExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("health-probe-", 0).factory());
+        running = true;
+        dispatcher = Thread.ofVirtual().name("health-probe-dispatcher").start(this::dispatchLoop);
+
+        log.info("헬스 프로브 스케줄러 시작 - interval={}ms ({}~{}ms), timeout={}ms, degraded={}ms",
+                baseIntervalMillis, minIntervalMillis, maxIntervalMillis, timeoutMillis, degradedMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        if (probeExecutor != null) {
+            probeExecutor.shutdownNow();
+        }
+        probes.values().forEach(probe -> {
+            Thread worker = probe.worker;
+            if (worker != null) {
+                worker.interrupt();
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 프로브 등록 (true 반환 시 정상, 예외는 DOWN)
+     */
+    public void register(String name, BooleanSupplier check) {
+        probes.put(name, new Probe(name, check, new ProbeSchedule(baseIntervalMillis, minIntervalMillis,
+                maxIntervalMillis, stableThreshold, flapWindow, flapThreshold, System.currentTimeMillis())));
+    }
+
+    /**
+     * 최근 결과 기준 통과 여부 (UP/DEGRADED 는 통과, 아직 결과가 없으면 통과로 간주)
+     */
+    public boolean isPassing(String name) {
+        Probe probe = probes.get(name);
+        if (probe == null) {
+            return true;
+        }
+        synchronized (probe.schedule) {
+            return !probe.schedule.hasResult() || !"DOWN".equals(probe.schedule.getStatus());
+        }
+    }
+
+    /**
+     * 등록된 모든 프로브가 한 번 이상 결과를 냈는지
+     */
+    public boolean isReady() {
+        return probes.values().stream().allMatch(probe -> {
+            synchronized (probe.schedule) {
+                return probe.schedule.hasResult();
+            }
+        });
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+
+                long now = System.currentTimeMillis();
+                for (Probe probe : probes.values()) {
+                    if (!isDue(probe, now)) {
+                        continue;
+                    }
+                    Thread worker = probe.worker;
+                    if (worker != null && worker.isAlive()) {
+                        // 타임아웃된 체크가 아직 돌아오지 않음 - 새로 띄우지 않고 DOWN 유지
+                        skippedHung.incrementAndGet();
+                        synchronized (probe.schedule) {
+                            recordResult(probe, "DOWN", timeoutMillis, "이전 체크가 아직 응답하지 않음", now);
+                        }
+                        continue;
+                    }
+                    if (probe.inFlight.compareAndSet(false, true)) {
+                        probeExecutor.execute(() -> runProbe(probe));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("헬스 프로브 dispatch 실패", e);
+            }
+        }
+    }
+
+    private boolean isDue(Probe probe, long now) {
+        if (probe.inFlight.get()) {
+            return false;
+        }
+        synchronized (probe.schedule) {
+            return probe.schedule.isDue(now);
+        }
+    }
+
+    private void runProbe(Probe probe) {
+        totalRuns.incrementAndGet();
+        CompletableFuture<Boolean> outcome = new CompletableFuture<>();
+        long started = System.nanoTime();
+
+        try {
+            probe.worker = Thread.ofVirtual().name("health-probe-" + probe.name).start(() -> {
+                try {
+                    outcome.complete(probe.check.getAsBoolean());
+                } catch (Throwable t) {
+                    outcome.completeExceptionally(t);
+                }
+            });
+
+            String status;
+            String error = null;
+            try {
+                boolean passed = outcome.get(timeoutMillis, TimeUnit.MILLISECONDS);
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                status = !passed ? "DOWN" : elapsed > degradedMillis ? "DEGRADED" : "UP";
+            } catch (TimeoutException e) {
+                probe.worker.interrupt();
+                totalTimeouts.incrementAndGet();
+                status = "DOWN";
+                error = "타임아웃 (" + timeoutMillis + "ms)";
+            } catch (ExecutionException e) {
+                totalErrors.incrementAndGet();
+                status = "DOWN";
+                error = String.valueOf(e.getCause().getMessage());
+            }
+
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            synchronized (probe.schedule) {
+                recordResult(probe, status, elapsed, error, System.currentTimeMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("헬스 프로브 실행 실패: {}", probe.name, e);
+        } finally {
+            probe.inFlight.set(false);
+        }
+    }
+
+    /**
+     * 결과 반영, 상태가 바뀌었으면 전이 발행 (probe.schedule 잠금 안에서 호출)
+     */
+    private void recordResult(Probe probe, String status, long elapsed, String error, long now) {
+        probe.lastResponseMillis = elapsed;
+        probe.lastError = error;
+        if (!probe.schedule.record(status, now)) {
+            return;
+        }
+
+        totalTransitions.incrementAndGet();
+        String previous = probe.schedule.getPreviousStatus();
+        if ("UP".equals(status)) {
+            log.info("헬스 프로브 상태 변경: {} {} -> {} ({}ms)", probe.name, previous, status, elapsed);
+        } else {
+            log.warn("헬스 프로브 상태 변경: {} {} -> {} ({}ms, {})", probe.name, previous, status, elapsed, error);
+        }
+
+        if (publishChanges) {
+            HealthCheckMessage message = buildTransition(probe, previous, status, elapsed, error, now);
+            probeExecutor.execute(() -> {
+                if (messagePublisher.publishHealthCheck(message)) {
+                    publishedTransitions.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private HealthCheckMessage buildTransition(Probe probe, String previous, String status,
+                                               long elapsed, String error, long now) {
+        HealthCheckMessage message = HealthCheckMessage.createServiceHealthCheck(probe.name, status, elapsed);
+        message.setMessageId(UUID.randomUUID().toString());
+        message.setTimestamp(LocalDateTime.now());
+        message.setSenderId(nodeIdentity.getNodeId());
+        message.setInstanceId(nodeIdentity.getNodeId());
+        message.setPreviousStatus(previous);
+        message.setStatusChangedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()));
+        message.setHealthDetails(error);
+        message.setHealthScore("UP".equals(status) ? 100 : "DEGRADED".equals(status) ? 60 : 0);
+        message.setCheckIntervalSeconds((int) (probe.schedule.getInterval() / 1000));
+        message.setTimeoutSeconds((int) Math.max(1, timeoutMillis / 1000));
+        return message;
+    }
+
+    /**
+     * 프로브별 현재 상태
+     */
+    public List<ProbeStatus> getProbeStatuses() {
+        return probes.values().stream()
+                .map(probe -> {
+                    synchronized (probe.schedule) {
+                        ProbeSchedule schedule = probe.schedule;
+                        return ProbeStatus.builder()
+                                .name(probe.name)
+                                .status(schedule.getStatus())
+                                .previousStatus(schedule.getPreviousStatus())
+                                .intervalMillis(schedule.getInterval())
+                                .flapping(schedule.isFlapping())
+                                .lastResponseMillis(probe.lastResponseMillis)
+                                .lastError(probe.lastError)
+                                .lastCheckedAt(schedule.getLastCheckedAt())
+                                .lastChangedAt(schedule.getLastChangedAt())
+                                .nextDueAt(schedule.getNextDueAt())
+                                .totalChecks(schedule.getTotalChecks())
+                                .totalChanges(schedule.getTotalChanges())
+                                .inFlight(probe.inFlight.get())
+                                .build();
+                    }
+                })
+                .sorted(Comparator.comparing(ProbeStatus::getName))
+                .toList();
+    }
+
+    /**
+     * 통계 조회
+     */
+    public ProbeSchedulerStats getStats() {
+        List<ProbeStatus> statuses = getProbeStatuses();
+        return ProbeSchedulerStats.builder()
+                .enabled(enabled)
+                .registeredProbes(statuses.size())
+                .flappingProbes((int) statuses.stream().filter(ProbeStatus::isFlapping).count())
+                .totalRuns(totalRuns.get())
+                .totalTimeouts(totalTimeouts.get())
+                .totalErrors(totalErrors.get())
+                .totalTransitions(totalTransitions.get())
+                .publishedTransitions(publishedTransitions.get())
+                .skippedHung(skippedHung.get())
+                .probes(statuses)
+                .build();
+    }
+
+    private static final class Probe {
+        private final String name;
+        private final BooleanSupplier check;
+        private final ProbeSchedule schedule;
+        private final AtomicBoolean inFlight = new AtomicBoolean(false);
+        private volatile Thread worker;
+        private volatile long lastResponseMillis;
+        private volatile String lastError;
+
+        private Probe(String name, BooleanSupplier check, ProbeSchedule schedule) {
+            this.name = name;
+            this.check = check;
+            this.schedule = schedule;
+        }
+    }
+
+    /**
+     * 프로브 상태 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class ProbeStatus {
+        private final String name;
+        private final String status;
+        private final String previousStatus;
+        private final long intervalMillis;
+        private final boolean flapping;
+        private final long lastResponseMillis;
+        private final String lastError;
+        private final long lastCheckedAt;
+        private final long lastChangedAt;
+        private final long nextDueAt;
+        private final long totalChecks;
+        private final long totalChanges;
+        private final boolean inFlight;
+    }
+
+    /**
+     * 헬스 프로브 스케줄러 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class ProbeSchedulerStats {
+        private final boolean enabled;
+        private final int registeredProbes;
+        private final int flappingProbes;
+        private final long totalRuns;
+        private final long totalTimeouts;
+        private final long totalErrors;
+        private final long totalTransitions;
+        private final long publishedTransitions;
+        private final long skippedHung;
+        private final List<ProbeStatus> probes;
+    }
+}
@@ -44,6 +44,9 @@ public class MetricsCollectorService {
     private final Map<String, AggregatedMetrics> hourlyAggregates = new ConcurrentHashMap<>();
     private final Map<String, AggregatedMetrics> dailyAggregates = new ConcurrentHashMap<>();
     
+    // 메트릭 메시지 사전 집계 윈도우 (시리즈@해상도 → 가장 최근 닫힌 윈도우)
+    private final Map<String, AggregatedMetrics> windowAggregates = new ConcurrentHashMap<>();
+    
     // 임계치 설정
     private final Map<String, ThresholdConfig> thresholds = new ConcurrentHashMap<>();
     
@@ -86,6 +89,27 @@ public class MetricsCollectorService {
         recordDataPoint(metricName, latencyMs, MetricType.LATENCY);
     }
     
+    /**
+     * 사전 집계된 윈도우 기록 (1분 윈도우 평균은 시계열 이력으로도 보관)
+     */
+    public void recordWindowAggregate(String seriesKey, String resolution, AggregatedMetrics aggregate) {
+        windowAggregates.put(seriesKey + "@" + resolution, aggregate);
+        if ("1m".equals(resolution)) {
+            metricsData.computeIfAbsent(seriesKey, k -> new TimeSeries(k, MetricType.HISTOGRAM))
+                    .addDataPoint(aggregate.getAverage(), aggregate.getPeriodStart());
+        }
+    }
+    
+    /**
+     * 유휴 시리즈의 최근 윈도우와 1분 윈도우 시계열 제거
+     * (같은 이름의 카운터/게이지/지연시간 시계열은 HISTOGRAM 이 아니므로 남겨 둔다)
+     */
+    public void removeWindowAggregates(String seriesKey) {
+        windowAggregates.keySet().removeIf(key -> key.startsWith(seriesKey + "@"));
+        metricsData.computeIfPresent(seriesKey,
+                (key, series) -> series.getType() == MetricType.HISTOGRAM ? null : series);
+    }
+    
     /**
      * 타이밍 유틸리티
      */
@@ -354,6 +378,7 @@ public class MetricsCollectorService {
         Map<String, AggregatedMetrics> current = new HashMap<>();
         current.putAll(hourlyAggregates);
         current.putAll(dailyAggregates);
+        current.putAll(windowAggregates);
         return current;
     }
     
@@ -478,6 +503,9 @@ public class MetricsCollectorService {
         private double minimum;
         private double maximum;
         private long count;
+        private double p50;
+        private double p95;
+        private double p99;
         private LocalDateTime periodStart;
         private LocalDateTime periodEnd;
     }
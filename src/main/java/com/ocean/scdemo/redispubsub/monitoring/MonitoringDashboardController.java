@@ -1,15 +1,40 @@
 package com.ocean.scdemo.redispubsub.monitoring;
 
+import com.ocean.scdemo.redispubsub.aggregation.MetricsPreAggregator;
+import com.ocean.scdemo.redispubsub.analytics.ErrorSignatureTracker;
+import com.ocean.scdemo.redispubsub.analytics.SlidingTopK;
+import com.ocean.scdemo.redispubsub.analytics.UniqueUserCounter;
+import com.ocean.scdemo.redispubsub.broadcast.SegmentedBroadcastEngine;
 import com.ocean.scdemo.redispubsub.config.RedisSubscriptionConfig;
+import com.ocean.scdemo.redispubsub.dedup.IdempotencyGate;
+import com.ocean.scdemo.redispubsub.dedup.MessageDeduplicator;
+import com.ocean.scdemo.redispubsub.delay.DelayedDeliveryEngine;
+import com.ocean.scdemo.redispubsub.digest.NotificationDigestService;
+import com.ocean.scdemo.redispubsub.dispatch.HandlerRegistry;
+import com.ocean.scdemo.redispubsub.fanout.RoomFanoutEngine;
+import com.ocean.scdemo.redispubsub.history.ChatHistoryStore;
+import com.ocean.scdemo.redispubsub.presence.PresenceService;
+import com.ocean.scdemo.redispubsub.publisher.AsyncPublishTransport;
 import com.ocean.scdemo.redispubsub.publisher.MessagePublisher;
+import com.ocean.scdemo.redispubsub.reactive.ReactiveMessagePublisher;
+import com.ocean.scdemo.redispubsub.reactive.ReactiveMessageSubscriber;
+import com.ocean.scdemo.redispubsub.replay.ReplayService;
+import com.ocean.scdemo.redispubsub.retry.DeadLetterStore;
+import com.ocean.scdemo.redispubsub.retry.RetryScheduler;
+import com.ocean.scdemo.redispubsub.routing.ChannelRouter;
+import com.ocean.scdemo.redispubsub.session.SessionizationEngine;
+import com.ocean.scdemo.redispubsub.transport.ShardedPubSubTransport;
 import com.ocean.scdemo.redispubsub.subscriber.MessageSubscriber;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 /**
@@ -36,6 +61,29 @@ public class MonitoringDashboardController {
     private final MessagePublisher messagePublisher;
     private final MessageSubscriber messageSubscriber;
     private final RedisSubscriptionConfig.SubscriptionManager subscriptionManager;
+    private final ChannelRouter channelRouter;
+    private final ShardedPubSubTransport shardedTransport;
+    private final MessageDeduplicator messageDeduplicator;
+    private final IdempotencyGate idempotencyGate;
+    private final DelayedDeliveryEngine delayedDeliveryEngine;
+    private final RoomFanoutEngine fanoutEngine;
+    private final SessionizationEngine sessionizationEngine;
+    private final UniqueUserCounter uniqueUserCounter;
+    private final ErrorSignatureTracker errorSignatureTracker;
+    private final MetricsPreAggregator metricsPreAggregator;
+    private final RetryScheduler retryScheduler;
+    private final DeadLetterStore deadLetterStore;
+    private final ReplayService replayService;
+    private final HandlerRegistry handlerRegistry;
+    private final ReactiveMessagePublisher reactiveMessagePublisher;
+    private final ReactiveMessageSubscriber reactiveMessageSubscriber;
+    private final AsyncPublishTransport asyncPublishTransport;
+    private final EndToEndLatencyMonitor endToEndLatencyMonitor;
+    private final PresenceService presenceService;
+    private final ChatHistoryStore chatHistoryStore;
+    private final NotificationDigestService notificationDigestService;
+    private final SegmentedBroadcastEngine broadcastEngine;
+    private final HealthProbeScheduler probeScheduler;
     
     // === 대시보드 메인 데이터 ===
     
@@ -66,6 +114,27 @@ public class MonitoringDashboardController {
         }
     }
     
+    /**
+     * 대시보드 스냅샷 (폴링용)
+     * 
+     * 미리 만들어진 불변 스냅샷을 그대로 돌려주며, If-None-Match 가 현재 ETag 와 같으면
+     * Spring 이 본문 직렬화 없이 304 로 응답한다.
+     */
+    @GetMapping("/dashboard/snapshot")
+    public ResponseEntity<PubSubMonitoringService.DashboardData> getDashboardSnapshot() {
+        try {
+            DashboardModel.Snapshot snapshot = monitoringService.getDashboardSnapshot();
+            return ResponseEntity.ok()
+                    .eTag(snapshot.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .body(snapshot.data());
+            
+        } catch (Exception e) {
+            log.error("대시보드 스냅샷 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     // === 시스템 상태 관리 ===
     
     /**
@@ -370,6 +439,500 @@ public class MonitoringDashboardController {
         }
     }
     
+    /**
+     * 유효 구독 / 로컬 라우팅 리포트 (중복 전달 카운터 포함)
+     */
+    @GetMapping("/subscriptions/routing")
+    public ResponseEntity<ChannelRouter.RoutingReport> getRoutingReport() {
+        try {
+            return ResponseEntity.ok(channelRouter.getReport());
+            
+        } catch (Exception e) {
+            log.error("라우팅 리포트 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Sharded Pub/Sub 구독 현황 (노드별 샤드 채널 수)
+     */
+    @GetMapping("/subscriptions/sharded")
+    public ResponseEntity<ShardedPubSubTransport.ShardedStats> getShardedStats() {
+        try {
+            return ResponseEntity.ok(shardedTransport.getStats());
+            
+        } catch (Exception e) {
+            log.error("샤드 구독 현황 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 중복 판별 필터 통계 (추정 거짓 양성률, 메모리 사용량)
+     */
+    @GetMapping("/dedup/stats")
+    public ResponseEntity<MessageDeduplicator.DedupStats> getDedupStats() {
+        try {
+            return ResponseEntity.ok(messageDeduplicator.getStats());
+            
+        } catch (Exception e) {
+            log.error("중복 판별 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 멱등 처리 게이트 통계 (빠른 경로 비율, 중복 폐기, 파이프라인 묶음 크기)
+     */
+    @GetMapping("/idempotency/stats")
+    public ResponseEntity<IdempotencyGate.IdempotencyStats> getIdempotencyStats() {
+        try {
+            return ResponseEntity.ok(idempotencyGate.getStats());
+            
+        } catch (Exception e) {
+            log.error("멱등 처리 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 지연 전달(예약 알림) 통계 - 대기/임대 건수, 휠 상태, claim/전달 수
+     */
+    @GetMapping("/delayed/stats")
+    public ResponseEntity<DelayedDeliveryEngine.DelayedStats> getDelayedStats() {
+        try {
+            return ResponseEntity.ok(delayedDeliveryEngine.getStats());
+            
+        } catch (Exception e) {
+            log.error("지연 전달 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 채팅방 팬아웃 통계 - push/pull 건수, 방 크기 구간별 지연시간, 멤버십 인덱스 메모리
+     */
+    @GetMapping("/fanout/stats")
+    public ResponseEntity<RoomFanoutEngine.FanoutStats> getFanoutStats() {
+        try {
+            return ResponseEntity.ok(fanoutEngine.getStats());
+            
+        } catch (Exception e) {
+            log.error("팬아웃 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 사용자 세션화 통계 - 활성 세션/사용자, 샤드 분포, 종료 사유별 건수
+     */
+    @GetMapping("/sessions/stats")
+    public ResponseEntity<SessionizationEngine.SessionStats> getSessionStats() {
+        try {
+            return ResponseEntity.ok(sessionizationEngine.getStats());
+            
+        } catch (Exception e) {
+            log.error("세션화 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 고유 사용자 수 (DAU, 시간대별 HAU, 이벤트 타입별) - 전체 노드 합산 HyperLogLog
+     */
+    @GetMapping("/analytics/unique-users")
+    public ResponseEntity<UniqueUserCounter.UniqueUsersReport> getUniqueUsers(
+            @RequestParam(required = false) String date) {
+        try {
+            LocalDate target = date != null ? LocalDate.parse(date) : LocalDate.now();
+            return ResponseEntity.ok(uniqueUserCounter.getReport(target));
+            
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("고유 사용자 수 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 고유 사용자 로컬 스케치 통계 (스케치 수, 고정 메모리, flush 현황)
+     */
+    @GetMapping("/analytics/unique-users/local")
+    public ResponseEntity<UniqueUserCounter.CounterStats> getUniqueUserCounterStats() {
+        try {
+            return ResponseEntity.ok(uniqueUserCounter.getStats());
+            
+        } catch (Exception e) {
+            log.error("고유 사용자 집계 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 최근 윈도우 상위 에러 시그니처 (건수, 초당 비율, 최대 과대추정치)
+     */
+    @GetMapping("/errors/top")
+    public ResponseEntity<List<SlidingTopK.Entry>> getTopErrors(
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(defaultValue = "300") int windowSeconds) {
+        try {
+            if (k <= 0 || windowSeconds <= 0) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(errorSignatureTracker.topErrors(k, windowSeconds));
+            
+        } catch (Exception e) {
+            log.error("상위 에러 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 메트릭 사전 집계 통계 (초당 처리량, 시리즈당 메모리, 윈도우 배출 수)
+     */
+    @GetMapping("/metrics/aggregation/stats")
+    public ResponseEntity<MetricsPreAggregator.AggregationStats> getMetricsAggregationStats() {
+        try {
+            return ResponseEntity.ok(metricsPreAggregator.getStats());
+            
+        } catch (Exception e) {
+            log.error("메트릭 사전 집계 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 재시도 통계 (대기/실행 중, 복구, DLQ 적재, 타입별 정책)
+     */
+    @GetMapping("/retry/stats")
+    public ResponseEntity<RetryScheduler.RetryStats> getRetryStats() {
+        try {
+            return ResponseEntity.ok(retryScheduler.getStats());
+            
+        } catch (Exception e) {
+            log.error("재시도 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Dead-letter 목록 (최근 적재 순)
+     */
+    @GetMapping("/dlq")
+    public ResponseEntity<Map<String, Object>> getDeadLetters(@RequestParam(defaultValue = "50") int limit) {
+        try {
+            if (limit <= 0) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(Map.of(
+                "total", deadLetterStore.size(),
+                "entries", deadLetterStore.list(limit)
+            ));
+            
+        } catch (Exception e) {
+            log.error("Dead-letter 목록 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Dead-letter 상세 (페이로드 미리보기 포함)
+     */
+    @GetMapping("/dlq/{id}")
+    public ResponseEntity<DeadLetterStore.DeadLetterEntry> getDeadLetter(@PathVariable String id) {
+        try {
+            DeadLetterStore.DeadLetterEntry entry = deadLetterStore.get(id);
+            return entry != null ? ResponseEntity.ok(entry) : ResponseEntity.notFound().build();
+            
+        } catch (Exception e) {
+            log.error("Dead-letter 조회 실패: {}", id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Dead-letter 재처리 (이 노드의 핸들러로 즉시 실행, 성공 시 삭제)
+     */
+    @PostMapping("/dlq/{id}/redrive")
+    public ResponseEntity<Map<String, Object>> redriveDeadLetter(@PathVariable String id) {
+        try {
+            RetryScheduler.RedriveResult result = retryScheduler.redrive(id);
+            if (result == RetryScheduler.RedriveResult.NOT_FOUND) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(Map.of(
+                "success", result == RetryScheduler.RedriveResult.REDRIVEN,
+                "result", result
+            ));
+            
+        } catch (Exception e) {
+            log.error("Dead-letter 재처리 실패: {}", id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Dead-letter 삭제
+     */
+    @DeleteMapping("/dlq/{id}")
+    public ResponseEntity<Map<String, Object>> deleteDeadLetter(@PathVariable String id) {
+        try {
+            return deadLetterStore.remove(id)
+                    ? ResponseEntity.ok(Map.of("success", true))
+                    : ResponseEntity.notFound().build();
+            
+        } catch (Exception e) {
+            log.error("Dead-letter 삭제 실패: {}", id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 채널 재생 - 오프셋 fromOffset 이후 최근 메시지 (응답의 nextOffset 으로 이어서 요청)
+     */
+    @GetMapping("/replay")
+    public ResponseEntity<ReplayService.ReplayResult> replay(
+            @RequestParam String channel,
+            @RequestParam(defaultValue = "0") long fromOffset,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            if (limit <= 0) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(replayService.replay(channel, fromOffset, Math.min(limit, 1000)));
+            
+        } catch (Exception e) {
+            log.error("채널 재생 조회 실패: {}", channel, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 재생 버퍼 통계 (버퍼 채널 수, 시퀀스 누락/복구 건수, 미러 기록)
+     */
+    @GetMapping("/replay/stats")
+    public ResponseEntity<ReplayService.ReplayStats> getReplayStats() {
+        try {
+            return ResponseEntity.ok(replayService.getStats());
+            
+        } catch (Exception e) {
+            log.error("재생 버퍼 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 메시지 처리기 통계 (처리기별 호출/실패/동시 실행 상한 거부/실행 시간)
+     */
+    @GetMapping("/handlers/stats")
+    public ResponseEntity<HandlerRegistry.RegistryStats> getHandlerStats() {
+        try {
+            return ResponseEntity.ok(handlerRegistry.getStats());
+            
+        } catch (Exception e) {
+            log.error("메시지 처리기 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 반응형 발행/구독 통계 (발행 버퍼·실패, 수신 폐기, 타입별 동시 처리 현황)
+     */
+    @GetMapping("/reactive/stats")
+    public ResponseEntity<Map<String, Object>> getReactiveStats() {
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("publisher", reactiveMessagePublisher.getStats());
+            stats.put("subscriber", reactiveMessageSubscriber.getStats());
+            return ResponseEntity.ok(stats);
+            
+        } catch (Exception e) {
+            log.error("반응형 발행/구독 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 비동기 PUBLISH 통계 (진행 중/상한, 거부, 평균 응답 시간)
+     */
+    @GetMapping("/publisher/async/stats")
+    public ResponseEntity<AsyncPublishTransport.AsyncPublishStats> getAsyncPublishStats() {
+        try {
+            return ResponseEntity.ok(asyncPublishTransport.getStats());
+            
+        } catch (Exception e) {
+            log.error("비동기 PUBLISH 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 발행 → 처리 완료 종단 지연 (패밀리 × LOCAL/REMOTE × 구간별 히스토그램, 발행 노드별 시계 오차 추정치)
+     */
+    @GetMapping("/latency/end-to-end")
+    public ResponseEntity<EndToEndLatencyMonitor.EndToEndLatencyReport> getEndToEndLatency() {
+        try {
+            return ResponseEntity.ok(endToEndLatencyMonitor.getReport());
+            
+        } catch (Exception e) {
+            log.error("종단 지연 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 종단 지연 히스토그램 초기화
+     */
+    @PostMapping("/latency/end-to-end/reset")
+    public ResponseEntity<Map<String, Object>> resetEndToEndLatency() {
+        try {
+            endToEndLatencyMonitor.reset();
+            return ResponseEntity.ok(Map.of("reset", true, "timestamp", LocalDateTime.now()));
+            
+        } catch (Exception e) {
+            log.error("종단 지연 초기화 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 접속 상태 통계 (온라인 수, 하트비트/만료, 전이 합치기·억제, 재동기화)
+     */
+    @GetMapping("/presence/stats")
+    public ResponseEntity<PresenceService.PresenceStats> getPresenceStats() {
+        try {
+            return ResponseEntity.ok(presenceService.getStats());
+            
+        } catch (Exception e) {
+            log.error("접속 상태 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 사용자 온라인 여부
+     */
+    @GetMapping("/presence/users/{userId}")
+    public ResponseEntity<Map<String, Object>> getUserPresence(@PathVariable String userId) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "userId", userId,
+                "online", presenceService.isOnline(userId),
+                "onlineCount", presenceService.onlineCount()
+            ));
+            
+        } catch (Exception e) {
+            log.error("사용자 접속 상태 조회 실패: {}", userId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 채팅방 온라인 멤버 (방 비트맵 AND 온라인 비트맵)
+     */
+    @GetMapping("/presence/rooms/{roomId}/online")
+    public ResponseEntity<Map<String, Object>> getRoomOnlineMembers(@PathVariable String roomId) {
+        try {
+            List<String> members = presenceService.onlineMembers(roomId);
+            return ResponseEntity.ok(Map.of(
+                "roomId", roomId,
+                "onlineCount", members.size(),
+                "members", members
+            ));
+            
+        } catch (Exception e) {
+            log.error("채팅방 온라인 멤버 조회 실패: {}", roomId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 채팅 이력 저장소 통계 (열린 방/세그먼트, 기록·조회 건수, 압축 결과)
+     */
+    @GetMapping("/history/stats")
+    public ResponseEntity<ChatHistoryStore.HistoryStats> getHistoryStats() {
+        try {
+            return ResponseEntity.ok(chatHistoryStore.getStats());
+            
+        } catch (Exception e) {
+            log.error("채팅 이력 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 알림 묶음 전달 통계 (대기 버퍼, 묶음 비율, 버퍼 상한 폐기, 전달 상한 지연)
+     */
+    @GetMapping("/digest/stats")
+    public ResponseEntity<NotificationDigestService.DigestStats> getDigestStats() {
+        try {
+            return ResponseEntity.ok(notificationDigestService.getStats());
+            
+        } catch (Exception e) {
+            log.error("알림 묶음 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 세그먼트 브로드캐스트 엔진 통계 (공유 큐/임대 청크, 이 노드의 처리·재개·임대 상실)
+     */
+    @GetMapping("/broadcast/stats")
+    public ResponseEntity<SegmentedBroadcastEngine.BroadcastStats> getBroadcastStats() {
+        try {
+            return ResponseEntity.ok(broadcastEngine.getStats());
+            
+        } catch (Exception e) {
+            log.error("브로드캐스트 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 최근 브로드캐스트 진행률 목록
+     */
+    @GetMapping("/broadcast/recent")
+    public ResponseEntity<List<SegmentedBroadcastEngine.BroadcastProgress>> getRecentBroadcasts(
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(broadcastEngine.recent(limit));
+            
+        } catch (Exception e) {
+            log.error("최근 브로드캐스트 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 브로드캐스트 진행률/처리율
+     */
+    @GetMapping("/broadcast/{broadcastId}")
+    public ResponseEntity<SegmentedBroadcastEngine.BroadcastProgress> getBroadcastProgress(@PathVariable String broadcastId) {
+        try {
+            SegmentedBroadcastEngine.BroadcastProgress progress = broadcastEngine.getProgress(broadcastId);
+            return progress != null ? ResponseEntity.ok(progress) : ResponseEntity.notFound().build();
+            
+        } catch (Exception e) {
+            log.error("브로드캐스트 진행률 조회 실패: {}", broadcastId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 헬스 프로브 스케줄러 통계 (프로브별 상태, 현재 주기, flapping 여부, 타임아웃/전이 수)
+     */
+    @GetMapping("/health-probes")
+    public ResponseEntity<HealthProbeScheduler.ProbeSchedulerStats> getHealthProbeStats() {
+        try {
+            return ResponseEntity.ok(probeScheduler.getStats());
+            
+        } catch (Exception e) {
+            log.error("헬스 프로브 통계 조회 실패", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     // === 실시간 데이터 ===
     
     /**
@@ -0,0 +1,131 @@
+package com.ocean.scdemo.redispubsub.monitoring;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 헬스 프로브 하나의 상태와 적응형 주기
+ *
+ * 규칙:
+ * - 상태가 바뀌면 주기를 최소로 줄여 바뀐 상태를 빨리 확인
+ * - 같은 상태가 stableThreshold 번 이어지면 주기를 두 배로 (최대 maxInterval)
+ * - 최근 flapWindow 번 결과 중 상태 변경이 flapThreshold 번 이상이면 flapping 으로 보고 최소 주기 유지
+ * - UP 이 아닌 상태는 복구를 놓치지 않도록 baseInterval 보다 늘리지 않음
+ *
+ * 동기화하지 않으므로 호출 측에서 프로브 단위로 직렬화한다.
+ */
+final class ProbeSchedule {
+
+    static final String UNKNOWN = "UNKNOWN";
+
+    private final long baseInterval;
+    private final long minInterval;
+    private final long maxInterval;
+    private final int stableThreshold;
+    private final int flapWindow;
+    private final int flapThreshold;
+
+    private final Deque<Boolean> recentChanges = new ArrayDeque<>();
+    private int changesInWindow;
+
+    private String status = UNKNOWN;
+    private String previousStatus = UNKNOWN;
+    private long interval;
+    private int stableStreak;
+    private long nextDueAt;
+    private long lastCheckedAt;
+    private long lastChangedAt;
+    private long totalChecks;
+    private long totalChanges;
+
+    ProbeSchedule(long baseInterval, long minInterval, long maxInterval,
+                  int stableThreshold, int flapWindow, int flapThreshold, long now) {
+        this.baseInterval = baseInterval;
+        this.minInterval = minInterval;
+        this.maxInterval = Math.max(baseInterval, maxInterval);
+        this.stableThreshold = Math.max(1, stableThreshold);
+        this.flapWindow = Math.max(1, flapWindow);
+        this.flapThreshold = Math.max(2, flapThreshold);
+        this.interval = baseInterval;
+        this.nextDueAt = now;
+    }
+
+    /**
+     * 결과 기록 후 다음 실행 시각 계산, 상태가 바뀌었으면 true (첫 결과 포함)
+     */
+    boolean record(String newStatus, long now) {
+        totalChecks++;
+        lastCheckedAt = now;
+        boolean changed = !newStatus.equals(status);
+
+        recentChanges.addLast(changed);
+        if (changed) {
+            changesInWindow++;
+        }
+        if (recentChanges.size() > flapWindow && recentChanges.removeFirst()) {
+            changesInWindow--;
+        }
+
+        if (changed) {
+            previousStatus = status;
+            status = newStatus;
+            lastChangedAt = now;
+            totalChanges++;
+            stableStreak = 0;
+            interval = minInterval;
+        } else if (isFlapping()) {
+            stableStreak = 0;
+            interval = minInterval;
+        } else if (++stableStreak >= stableThreshold) {
+            stableStreak = 0;
+            interval = Math.min(interval * 2, "UP".equals(status) ? maxInterval : baseInterval);
+        }
+
+        nextDueAt = now + interval;
+        return changed;
+    }
+
+    boolean isDue(long now) {
+        return now >= nextDueAt;
+    }
+
+    boolean isFlapping() {
+        return changesInWindow >= flapThreshold;
+    }
+
+    boolean hasResult() {
+        return totalChecks > 0;
+    }
+
+    String getStatus() {
+        return status;
+    }
+
+    String getPreviousStatus() {
+        return previousStatus;
+    }
+
+    long getInterval() {
+        return interval;
+    }
+
+    long getNextDueAt() {
+        return nextDueAt;
+    }
+
+    long getLastCheckedAt() {
+        return lastCheckedAt;
+    }
+
+    long getLastChangedAt() {
+        return lastChangedAt;
+    }
+
+    long getTotalChecks() {
+        return totalChecks;
+    }
+
+    long getTotalChanges() {
+        return totalChanges;
+    }
+}
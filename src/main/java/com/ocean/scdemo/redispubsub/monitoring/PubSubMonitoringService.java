@@ -5,6 +5,7 @@ import com.ocean.scdemo.redispubsub.publisher.MessagePublisher;
 import com.ocean.scdemo.redispubsub.subscriber.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
@@ -12,10 +13,13 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 
 /**
  * Redis Pub/Sub 시스템 모니터링 서비스
@@ -27,6 +31,10 @@ import java.util.concurrent.atomic.AtomicLong;
  * - 대시보드 데이터 제공
  * - 자동 복구 지원
  * - SLA 모니터링
+ *
+ * 컴포넌트 체크는 HealthProbeScheduler 에 프로브로 등록되어 가상 스레드에서 병렬로 실행되고,
+ * 여기서는 프로브의 최근 결과만 모아 전체 상태를 계산한다.
+ * 대시보드 데이터는 DashboardModel 에 주기적으로 증분 반영되고, 조회는 모델의 현재 스냅샷을 그대로 돌려준다.
  */
 @Slf4j
 @Service
@@ -47,6 +55,14 @@ public class PubSubMonitoringService {
     private final UserEventMessageHandler userEventMessageHandler;
     private final MetricsMessageHandler metricsMessageHandler;
     private final HealthCheckMessageHandler healthCheckMessageHandler;
+    private final HealthProbeScheduler probeScheduler;
+    private final DashboardModel dashboardModel;
+    
+    @Value("${pubsub.dashboard.refresh-ms:1000}")
+    private long dashboardRefreshMillis;
+    
+    private volatile boolean running;
+    private Thread dashboardRefresher;
     
     // 모니터링 지표
     private final AtomicLong totalSystemMessages = new AtomicLong(0);
@@ -54,6 +70,17 @@ public class PubSubMonitoringService {
     private final AtomicLong totalSystemWarnings = new AtomicLong(0);
     private final AtomicLong uptimeSeconds = new AtomicLong(0);
     
+    // 헬스 프로브 이름
+    private static final String PROBE_REDIS = "redis-connection";
+    private static final String PROBE_LISTENER = "listener-container";
+    private static final String PROBE_SUBSCRIPTIONS = "subscriptions";
+    private static final String PROBE_PUBLISHERS = "publishers";
+    private static final String PROBE_HANDLERS = "handlers";
+    // 프로브 비활성화 시 대시보드 갱신이 직접 체크를 다시 돌리는 최소 간격 (정기 헬스체크 주기와 동일)
+    private static final long DIRECT_HEALTH_CHECK_INTERVAL_SECONDS = 30;
+    // 힙 사용량은 GC 주기마다 흔들리므로 이 단위로 내림해 반영 (매 갱신마다 revision/ETag 가 바뀌지 않도록)
+    private static final long HEAP_GAUGE_STEP_MB = 64;
+    
     private LocalDateTime systemStartTime;
     private LocalDateTime lastHealthCheck;
     private SystemHealthStatus currentHealthStatus;
@@ -66,8 +93,23 @@ public class PubSubMonitoringService {
         
         log.info("🚀 Redis Pub/Sub 모니터링 서비스 시작");
         
-        // 초기 헬스체크
-        performHealthCheck();
+        // 컴포넌트 체크를 프로브로 등록 (첫 결과가 모두 나오기 전까지는 STARTING)
+        probeScheduler.register(PROBE_REDIS, this::checkRedisConnection);
+        probeScheduler.register(PROBE_LISTENER, this::checkListenerContainer);
+        probeScheduler.register(PROBE_SUBSCRIPTIONS, this::checkSubscriptions);
+        probeScheduler.register(PROBE_PUBLISHERS, this::checkPublishers);
+        probeScheduler.register(PROBE_HANDLERS, this::checkHandlers);
+        
+        running = true;
+        dashboardRefresher = Thread.ofVirtual().name("dashboard-refresher").start(this::dashboardRefreshLoop);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (dashboardRefresher != null) {
+            dashboardRefresher.interrupt();
+        }
     }
     
     /**
@@ -93,26 +135,21 @@ public class PubSubMonitoringService {
     }
     
     /**
-     * 실시간 대시보드 데이터
+     * 실시간 대시보드 데이터 (대시보드 모델의 현재 불변 스냅샷, O(1))
      */
     public DashboardData getDashboardData() {
-        SystemStatus systemStatus = getSystemStatus();
-        
-        return DashboardData.builder()
-                .timestamp(LocalDateTime.now())
-                .overallHealth(calculateOverallHealth())
-                .keyMetrics(getKeyMetrics())
-                .recentAlerts(getRecentAlerts())
-                .performanceTrends(getPerformanceTrends())
-                .handlerPerformance(getHandlerPerformance())
-                .systemResources(getSystemResources())
-                .connectionHealth(getConnectionHealth())
-                .throughputMetrics(getThroughputMetrics())
-                .build();
+        return dashboardModel.current().data();
+    }
+    
+    /**
+     * 대시보드 스냅샷 (ETag 포함)
+     */
+    public DashboardModel.Snapshot getDashboardSnapshot() {
+        return dashboardModel.current();
     }
     
     /**
-     * 정기적인 헬스체크 (매 30초)
+     * 정기적인 상태 집계 (매 30초, 프로브 실행은 HealthProbeScheduler 가 담당하므로 I/O 없음)
      */
     @Scheduled(fixedRate = 30000)
     public void scheduledHealthCheck() {
@@ -128,7 +165,7 @@ public class PubSubMonitoringService {
     }
     
     /**
-     * 시스템 헬스체크 수행
+     * 시스템 헬스체크 수행 (프로브 최근 결과 집계)
      */
     public HealthCheckResult performHealthCheck() {
         lastHealthCheck = LocalDateTime.now();
@@ -136,16 +173,18 @@ public class PubSubMonitoringService {
         try {
             HealthCheckResult result = HealthCheckResult.builder()
                     .timestamp(LocalDateTime.now())
-                    .redisConnection(checkRedisConnection())
-                    .listenerContainer(checkListenerContainer())
-                    .subscriptions(checkSubscriptions())
-                    .publishers(checkPublishers())
-                    .handlers(checkHandlers())
+                    .redisConnection(probe(PROBE_REDIS, this::checkRedisConnection))
+                    .listenerContainer(probe(PROBE_LISTENER, this::checkListenerContainer))
+                    .subscriptions(probe(PROBE_SUBSCRIPTIONS, this::checkSubscriptions))
+                    .publishers(probe(PROBE_PUBLISHERS, this::checkPublishers))
+                    .handlers(probe(PROBE_HANDLERS, this::checkHandlers))
                     .overallHealth(SystemHealthStatus.HEALTHY)
                     .build();
             
-            // 전체 상태 계산
-            result.setOverallHealth(calculateOverallHealth(result));
+            // 전체 상태 계산 (모든 프로브의 첫 결과 전에는 STARTING 유지)
+            result.setOverallHealth(probeScheduler.isEnabled() && !probeScheduler.isReady()
+                    ? SystemHealthStatus.STARTING
+                    : calculateOverallHealth(result));
             currentHealthStatus = result.getOverallHealth();
             
             log.debug("🏥 헬스체크 완료: {}", currentHealthStatus);
@@ -210,16 +249,6 @@ public class PubSubMonitoringService {
     /**
      * 전체 상태 계산
      */
-    private SystemHealthStatus calculateOverallHealth() {
-        try {
-            HealthCheckResult healthCheck = performHealthCheck();
-            return healthCheck.getOverallHealth();
-            
-        } catch (Exception e) {
-            return SystemHealthStatus.DEGRADED;
-        }
-    }
-    
     private SystemHealthStatus calculateOverallHealth(HealthCheckResult result) {
         int healthScore = 0;
         int totalChecks = 0;
@@ -242,6 +271,13 @@ public class PubSubMonitoringService {
     
     // === 헬스체크 세부 메서드들 ===
     
+    /**
+     * 프로브 최근 결과 (스케줄러 비활성화 시에는 직접 체크)
+     */
+    private boolean probe(String name, BooleanSupplier check) {
+        return probeScheduler.isEnabled() ? probeScheduler.isPassing(name) : check.getAsBoolean();
+    }
+    
     private boolean checkRedisConnection() {
         try {
             redisTemplate.opsForValue().get("health-check");
@@ -373,14 +409,83 @@ public class PubSubMonitoringService {
         return uptimeSeconds.get();
     }
     
-    // 임시 구현 - 실제로는 더 복잡한 로직 필요
-    private Map<String, Object> getKeyMetrics() { return new HashMap<>(); }
-    private java.util.List<Object> getRecentAlerts() { return new java.util.ArrayList<>(); }
-    private Map<String, Object> getPerformanceTrends() { return new HashMap<>(); }
-    private Map<String, Object> getHandlerPerformance() { return new HashMap<>(); }
-    private Map<String, Object> getSystemResources() { return new HashMap<>(); }
-    private Map<String, Object> getConnectionHealth() { return new HashMap<>(); }
-    private Map<String, Object> getThroughputMetrics() { return new HashMap<>(); }
+    // === 대시보드 모델 갱신 ===
+    
+    private void dashboardRefreshLoop() {
+        while (running) {
+            try {
+                Thread.sleep(dashboardRefreshMillis);
+                refreshDashboardModel();
+                
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("대시보드 모델 갱신 실패", e);
+            }
+        }
+    }
+    
+    /**
+     * 누적 카운터/핸들러/자원/프로브 상태를 모델에 반영하고 변경이 있으면 스냅샷 교체
+     * (메트릭과 알림은 도착 시점에 MetricsMessageHandler, AlertingService 가 직접 반영)
+     */
+    private void refreshDashboardModel() {
+        MessagePublisher.PublishStats publishStats = messagePublisher.getPublishStats();
+        MessageSubscriber.SubscriptionStats subscriberStats = messageSubscriber.getSubscriptionStats();
+        dashboardModel.recordCounters(publishStats.getTotalPublished(), subscriberStats.getTotalReceived(),
+                subscriberStats.getTotalFailed(), System.currentTimeMillis());
+        
+        dashboardModel.recordHandler("chat", chatMessageHandler.getStats().getTotalProcessed(),
+                chatMessageHandler.getStats().getSuccessRate());
+        dashboardModel.recordHandler("notification", notificationMessageHandler.getStats().getTotalProcessed(),
+                notificationMessageHandler.getStats().getSuccessRate());
+        dashboardModel.recordHandler("systemEvent", systemEventMessageHandler.getStats().getTotalProcessed(),
+                systemEventMessageHandler.getStats().getSuccessRate());
+        dashboardModel.recordHandler("userEvent", userEventMessageHandler.getStats().getTotalProcessed(),
+                userEventMessageHandler.getStats().getSuccessRate());
+        
+        // 힙 사용량은 MB 단위로도 매초 바뀌므로 HEAP_GAUGE_STEP_MB 단위로 내림해 반영
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsedMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        dashboardModel.recordResource("heapUsedMb", heapUsedMb / HEAP_GAUGE_STEP_MB * HEAP_GAUGE_STEP_MB);
+        dashboardModel.recordResource("heapMaxMb", runtime.maxMemory() / (1024 * 1024));
+        dashboardModel.recordResource("availableProcessors", runtime.availableProcessors());
+        
+        Map<String, String> components = new LinkedHashMap<>();
+        probeScheduler.getProbeStatuses().forEach(probe -> components.put(probe.getName(), probe.getStatus()));
+        dashboardModel.recordHealth(aggregateHealth(components), components);
+        
+        dashboardModel.publish(LocalDateTime.now());
+    }
+    
+    /**
+     * 대시보드용 전체 상태 - 이미 모은 프로브 상태로 계산하여 갱신 주기마다 체크를 실행하지 않음
+     * 프로브 비활성화 시에는 마지막 헬스체크 결과를 쓰고, 30초 이상 지났을 때만 직접 체크를 다시 수행
+     */
+    private SystemHealthStatus aggregateHealth(Map<String, String> components) {
+        if (!probeScheduler.isEnabled()) {
+            boolean stale = lastHealthCheck.isBefore(LocalDateTime.now().minusSeconds(DIRECT_HEALTH_CHECK_INTERVAL_SECONDS));
+            return stale ? performHealthCheck().getOverallHealth() : currentHealthStatus;
+        }
+        if (!probeScheduler.isReady()) {
+            return SystemHealthStatus.STARTING;
+        }
+        return calculateOverallHealth(HealthCheckResult.builder()
+                .redisConnection(isPassing(components, PROBE_REDIS))
+                .listenerContainer(isPassing(components, PROBE_LISTENER))
+                .subscriptions(isPassing(components, PROBE_SUBSCRIPTIONS))
+                .publishers(isPassing(components, PROBE_PUBLISHERS))
+                .handlers(isPassing(components, PROBE_HANDLERS))
+                .build());
+    }
+    
+    /**
+     * 프로브 상태 문자열 기준 통과 여부 (HealthProbeScheduler.isPassing 과 동일 - DOWN 만 실패)
+     */
+    private static boolean isPassing(Map<String, String> components, String name) {
+        return !"DOWN".equals(components.get(name));
+    }
     
     // === DTO 클래스들 ===
     
@@ -456,17 +561,20 @@ public class PubSubMonitoringService {
         private String connectionHealth;
     }
     
+    /**
+     * 대시보드 데이터 (DashboardModel 스냅샷, 읽기 전용)
+     */
     @lombok.Builder
     @lombok.Data
     public static class DashboardData {
-        private LocalDateTime timestamp;
-        private SystemHealthStatus overallHealth;
-        private Map<String, Object> keyMetrics;
-        private java.util.List<Object> recentAlerts;
-        private Map<String, Object> performanceTrends;
-        private Map<String, Object> handlerPerformance;
-        private Map<String, Object> systemResources;
-        private Map<String, Object> connectionHealth;
-        private Map<String, Object> throughputMetrics;
+        private final LocalDateTime timestamp;
+        private final SystemHealthStatus overallHealth;
+        private final Map<String, Object> keyMetrics;
+        private final java.util.List<Object> recentAlerts;
+        private final Map<String, Object> performanceTrends;
+        private final Map<String, Object> handlerPerformance;
+        private final Map<String, Object> systemResources;
+        private final Map<String, Object> connectionHealth;
+        private final Map<String, Object> throughputMetrics;
     }
 }
\ No newline at end of file
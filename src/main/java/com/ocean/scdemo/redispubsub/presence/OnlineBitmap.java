@@ -0,0 +1,107 @@
+package com.ocean.scdemo.redispubsub.presence;
+
+import java.util.Arrays;
+
+/**
+ * 온라인 사용자 로컬 비트맵 (전역 조밀 ID 당 1비트)
+ *
+ * - 조회(get)와 온라인 수(count)는 O(1), 잠금 없이 읽는다 (쓰기와 겹치면 직전/직후 값 중 하나)
+ * - 쓰기는 상태가 실제로 바뀐 경우에만 count 를 갱신
+ * - Redis 비트맵(GET 결과)을 그대로 적재하거나 해석할 수 있다
+ *   (Redis 는 바이트 안에서 최상위 비트가 오프셋 0)
+ */
+public final class OnlineBitmap {
+
+    private volatile long[] words = new long[16];
+    private volatile int count;
+
+    public boolean get(int id) {
+        if (id < 0) {
+            return false;
+        }
+        long[] current = words;
+        int word = id >>> 6;
+        return word < current.length && (current[word] & (1L << id)) != 0;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * 상태 변경 (바뀌었으면 true)
+     */
+    public synchronized boolean set(int id, boolean online) {
+        if (id < 0) {
+            throw new IllegalArgumentException("음수 ID 는 저장할 수 없습니다: " + id);
+        }
+        long[] current = words;
+        int word = id >>> 6;
+        if (word >= current.length) {
+            if (!online) {
+                return false;
+            }
+            current = Arrays.copyOf(current, Math.max(word + 1, current.length * 2));
+        }
+        long bit = 1L << id;
+        boolean wasOnline = (current[word] & bit) != 0;
+        if (wasOnline == online) {
+            return false;
+        }
+        current[word] = online ? current[word] | bit : current[word] & ~bit;
+        words = current;
+        count += online ? 1 : -1;
+        return true;
+    }
+
+    /**
+     * Redis 비트맵 전체로 교체 (주기적 재동기화)
+     */
+    public synchronized void load(byte[] redisBitmap) {
+        long[] loaded = new long[Math.max(16, (redisBitmap.length + 7) / 8)];
+        int loadedCount = 0;
+        for (int i = 0; i < redisBitmap.length; i++) {
+            int value = redisBitmap[i] & 0xFF;
+            if (value == 0) {
+                continue;
+            }
+            loadedCount += Integer.bitCount(value);
+            for (int bit = 0; bit < 8; bit++) {
+                if ((value & (0x80 >>> bit)) != 0) {
+                    int id = i * 8 + bit;
+                    loaded[id >>> 6] |= 1L << id;
+                }
+            }
+        }
+        words = loaded;
+        count = loadedCount;
+    }
+
+    /**
+     * Redis 비트맵에서 켜진 오프셋 목록 (오름차순)
+     */
+    public static int[] decode(byte[] redisBitmap) {
+        if (redisBitmap == null) {
+            return new int[0];
+        }
+        int total = 0;
+        for (byte b : redisBitmap) {
+            total += Integer.bitCount(b & 0xFF);
+        }
+        int[] ids = new int[total];
+        int index = 0;
+        for (int i = 0; i < redisBitmap.length && index < total; i++) {
+            int value = redisBitmap[i] & 0xFF;
+            for (int bit = 0; bit < 8 && value != 0; bit++) {
+                if ((value & (0x80 >>> bit)) != 0) {
+                    ids[index++] = i * 8 + bit;
+                }
+            }
+        }
+        return ids;
+    }
+
+    public long memoryBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+}
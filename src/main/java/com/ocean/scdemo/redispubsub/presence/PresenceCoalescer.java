@@ -0,0 +1,81 @@
+package com.ocean.scdemo.redispubsub.presence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사용자별 온라인/오프라인 전이 합치기
+ *
+ * 처음 전이가 들어온 시점부터 창(window) 동안 같은 사용자의 전이를 마지막 상태 하나로 덮어쓰고,
+ * 창이 지나면 최종 상태만 내보낸다. 재연결처럼 창 안에서 OFFLINE → ONLINE 으로 되돌아오면
+ * 적용 측(SETBIT 이전 값 비교)에서 변화 없음으로 걸러져 상태 이벤트가 나가지 않는다.
+ *
+ * 동기화는 이 클래스가 담당한다.
+ */
+public class PresenceCoalescer {
+
+    private final long windowMillis;
+    private final Map<String, Pending> pending = new HashMap<>();
+
+    private long totalOffered;
+    private long totalCoalesced;
+
+    public PresenceCoalescer(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public synchronized void offer(String userId, boolean online, long nowMillis) {
+        totalOffered++;
+        Pending existing = pending.get(userId);
+        if (existing == null) {
+            pending.put(userId, new Pending(online, nowMillis));
+            return;
+        }
+        existing.online = online;
+        totalCoalesced++;
+    }
+
+    /**
+     * 창이 지난 사용자들의 최종 상태
+     */
+    public synchronized List<Transition> drain(long nowMillis) {
+        List<Transition> due = new ArrayList<>();
+        Iterator<Map.Entry<String, Pending>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Pending> entry = iterator.next();
+            if (nowMillis - entry.getValue().firstMillis >= windowMillis) {
+                due.add(new Transition(entry.getKey(), entry.getValue().online));
+                iterator.remove();
+            }
+        }
+        return due;
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    public synchronized long getTotalOffered() {
+        return totalOffered;
+    }
+
+    public synchronized long getTotalCoalesced() {
+        return totalCoalesced;
+    }
+
+    public record Transition(String userId, boolean online) {
+    }
+
+    private static final class Pending {
+        private boolean online;
+        private final long firstMillis;
+
+        private Pending(boolean online, long firstMillis) {
+            this.online = online;
+            this.firstMillis = firstMillis;
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package com.ocean.scdemo.redispubsub.presence;
+
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig;
+import com.ocean.scdemo.redispubsub.message.UserEventMessage;
+import com.ocean.scdemo.redispubsub.publisher.MessagePublisher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 사용자 접속 상태(presence) 서비스
+ *
+ * 핵심 기능:
+ * - TTL 하트비트: ZSET(score = 만료 epoch millis), 만료 항목은 Lua 로 원자적으로 꺼내 노드 간 중복 없이 오프라인 처리
+ * - 전이 합치기: 사용자별 짧은 창 안의 온라인/오프라인 반복을 최종 상태 하나로 (PresenceCoalescer)
+ * - Redis 온라인 비트맵: 전역 조밀 ID(Lua 로 원자적 부여) 위치에 SETBIT, 이전 값으로 실제 변화만 status:online/offline 발행
+ * - 로컬 스냅샷(OnlineBitmap): 상태 이벤트로 증분 갱신, 유실 대비 주기적으로 Redis 비트맵 전체 재동기화
+ * - 조회: isOnline / onlineCount 는 로컬 스냅샷에서 O(1), 방 온라인 멤버는 방 비트맵 AND 온라인 비트맵 (Redis BITOP)
+ * - ID 캐시: 사용자 ID ↔ 전역 ID 는 id-cache-size 개까지 LRU 로 캐시하고, ID 가 없는 사용자는 negative-ttl-ms 동안
+ *   "없음" 으로 기억해 처음 보는 사용자의 isOnline 이 매번 HGET 을 보내지 않게 한다
+ * - 활동 갱신(touch): 채팅/사용자 이벤트 발생 시 하트비트 연장, 사용자별로 TTL 의 1/3 주기 이내 반복은 로컬에서 생략
+ *
+ * 모든 키는 같은 해시 태그를 써서 클러스터에서도 BITOP/스크립트가 한 슬롯에서 실행된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PresenceService {
+
+    public static final String ONLINE_KEY = "{pubsub:presence}:online";
+    static final String HEARTBEAT_KEY = "{pubsub:presence}:heartbeats";
+    static final String IDS_KEY = "{pubsub:presence}:ids";
+    public static final String NAMES_KEY = "{pubsub:presence}:names";
+    static final String NEXT_ID_KEY = "{pubsub:presence}:next-id";
+    public static final String ROOM_KEY_PREFIX = "{pubsub:presence}:room:";
+
+    static final String PRESENCE_ID_PROPERTY = "presenceId";
+
+    /**
+     * 사용자 ID → 전역 조밀 ID (없으면 부여)
+     */
+    private static final byte[] ASSIGN_ID_SCRIPT = """
+            local id = redis.call('HGET', KEYS[1], ARGV[1])
+            if id then return tonumber(id) end
+            id = redis.call('INCR', KEYS[2]) - 1
+            redis.call('HSET', KEYS[1], ARGV[1], id)
+            redis.call('HSET', KEYS[3], id, ARGV[1])
+            return id
+            """.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 만료된 하트비트를 최대 n 개 꺼내 반환 (꺼낸 노드만 오프라인 처리)
+     */
+    private static final byte[] SWEEP_SCRIPT = """
+            local ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            if #ids > 0 then redis.call('ZREM', KEYS[1], unpack(ids)) end
+            return ids
+            """.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 방 비트맵 AND 온라인 비트맵 (임시 키는 같은 스크립트 안에서 삭제)
+     */
+    private static final byte[] ROOM_ONLINE_SCRIPT = """
+            redis.call('BITOP', 'AND', KEYS[3], KEYS[1], KEYS[2])
+            local result = redis.call('GET', KEYS[3])
+            redis.call('DEL', KEYS[3])
+            return result
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisPubSubTemplate;
+    private final MessagePublisher messagePublisher;
+
+    @Value("${pubsub.presence.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pubsub.presence.heartbeat-ttl-ms:30000}")
+    private long heartbeatTtlMillis;
+
+    @Value("${pubsub.presence.coalesce-window-ms:2000}")
+    private long coalesceWindowMillis;
+
+    @Value("${pubsub.presence.sweep-interval-ms:500}")
+    private long sweepIntervalMillis;
+
+    @Value("${pubsub.presence.sweep-batch-size:1000}")
+    private int sweepBatchSize;
+
+    @Value("${pubsub.presence.resync-interval-ms:60000}")
+    private long resyncIntervalMillis;
+
+    @Value("${pubsub.presence.id-cache-size:100000}")
+    private int idCacheSize;
+
+    @Value("${pubsub.presence.negative-ttl-ms:5000}")
+    private long negativeTtlMillis;
+
+    private final OnlineBitmap snapshot = new OnlineBitmap();
+
+    // 사용자 ID ↔ 전역 ID 캐시 (id-cache-size 개까지, 가장 오래 쓰지 않은 항목부터 제거 - 필요하면 Redis 에서 다시 읽음)
+    private final Map<String, Integer> ids = lruCache();
+    private final Map<Integer, String> names = lruCache();
+
+    // ID 가 없는 사용자 → "없음" 만료 시각 (negative-ttl-ms 동안 HGET 생략)
+    private final Map<String, Long> unknownUntil = lruCache();
+    private PresenceCoalescer coalescer;
+
+    // 사용자별 마지막 활동 갱신 시각 (touch 생략 판단용, 갱신 주기가 지난 항목은 tick 에서 제거)
+    private final ConcurrentHashMap<String, Long> lastTouched = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread ticker;
+
+    // 통계
+    private final AtomicLong totalHeartbeats = new AtomicLong(0);
+    private final AtomicLong totalTouchesSkipped = new AtomicLong(0);
+    private final AtomicLong totalExpired = new AtomicLong(0);
+    private final AtomicLong totalTransitions = new AtomicLong(0);
+    private final AtomicLong totalSuppressed = new AtomicLong(0);
+    private final AtomicLong totalRemoteUpdates = new AtomicLong(0);
+    private final AtomicLong totalResyncs = new AtomicLong(0);
+    private final AtomicLong totalNegativeHits = new AtomicLong(0);
+    private volatile long lastResyncMillis;
+
+    @PostConstruct
+    public void init() {
+        coalescer = new PresenceCoalescer(coalesceWindowMillis);
+        if (!enabled) {
+            log.info("접속 상태 서비스 비활성화 (설정)");
+            return;
+        }
+
+        running = true;
+        ticker = Thread.ofVirtual().name("presence-ticker").start(this::tickLoop);
+
+        log.info("접속 상태 서비스 시작 - heartbeatTtl={}ms, coalesceWindow={}ms, sweep={}ms, resync={}ms",
+                heartbeatTtlMillis, coalesceWindowMillis, sweepIntervalMillis, resyncIntervalMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+    }
+
+    /**
+     * 하트비트 - 만료 시각 연장 후 온라인 전이 예약
+     *
+     * 스냅샷이 온라인이어도 항상 예약한다. 합치기 창 안에 대기 중인 오프라인 전이(재연결 직전 disconnect)가 있으면
+     * 온라인으로 덮어써야 하고, 이미 온라인이면 적용 시 SETBIT 이전 값 비교로 이벤트 없이 걸러진다.
+     */
+    public void heartbeat(String userId) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        redisPubSubTemplate.execute((RedisCallback<Object>) connection ->
+                connection.zSetCommands().zAdd(bytes(HEARTBEAT_KEY), now + heartbeatTtlMillis, bytes(userId)));
+        totalHeartbeats.incrementAndGet();
+        lastTouched.put(userId, now);
+
+        coalescer.offer(userId, true, now);
+    }
+
+    /**
+     * 사용자 활동에 의한 하트비트 (채팅 발신, 사용자 이벤트)
+     * 최근 touchInterval 안에 갱신했고 온라인으로 알고 있으면 Redis 호출 없이 생략한다.
+     */
+    public void touch(String userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        Long last = lastTouched.get(userId);
+        if (last != null && System.currentTimeMillis() - last < touchIntervalMillis() && isOnline(userId)) {
+            totalTouchesSkipped.incrementAndGet();
+            return;
+        }
+        heartbeat(userId);
+    }
+
+    private long touchIntervalMillis() {
+        return heartbeatTtlMillis / 3;
+    }
+
+    /**
+     * 명시적 종료 (로그아웃/연결 해제) - 하트비트 제거 후 오프라인 전이 예약
+     */
+    public void disconnect(String userId) {
+        if (!enabled) {
+            return;
+        }
+        redisPubSubTemplate.execute((RedisCallback<Object>) connection ->
+                connection.zSetCommands().zRem(bytes(HEARTBEAT_KEY), bytes(userId)));
+        lastTouched.remove(userId);
+        coalescer.offer(userId, false, System.currentTimeMillis());
+    }
+
+    /**
+     * 방 멤버 비트맵 갱신
+     */
+    public void joinRoom(String roomId, String userId) {
+        setRoomBit(roomId, userId, true);
+    }
+
+    public void leaveRoom(String roomId, String userId) {
+        setRoomBit(roomId, userId, false);
+    }
+
+    private void setRoomBit(String roomId, String userId, boolean member) {
+        if (!enabled) {
+            return;
+        }
+        int id = ensureId(userId);
+        redisPubSubTemplate.execute((RedisCallback<Object>) connection ->
+                connection.stringCommands().setBit(bytes(ROOM_KEY_PREFIX + roomId), id, member));
+    }
+
+    /**
+     * 온라인 여부 (로컬 스냅샷, O(1) - 처음 보는 사용자만 ID 를 한 번 조회해 캐시)
+     */
+    public boolean isOnline(String userId) {
+        int id = findId(userId);
+        return id >= 0 && snapshot.get(id);
+    }
+
+    /**
+     * 온라인 사용자 수 (로컬 스냅샷, O(1))
+     */
+    public int onlineCount() {
+        return snapshot.count();
+    }
+
+    /**
+     * 방의 온라인 멤버 (방 비트맵 AND 온라인 비트맵)
+     */
+    public List<String> onlineMembers(String roomId) {
+        byte[][] keys = {
+                bytes(ROOM_KEY_PREFIX + roomId), bytes(ONLINE_KEY),
+                bytes(ROOM_KEY_PREFIX + roomId + ":online-tmp")
+        };
+        byte[] bitmap = redisPubSubTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.scriptingCommands().eval(ROOM_ONLINE_SCRIPT, ReturnType.VALUE, 3, keys));
+        return userIdsOf(OnlineBitmap.decode(bitmap));
+    }
+
+    /**
+     * 다른 노드(또는 자신)가 발행한 상태 이벤트로 로컬 스냅샷 증분 갱신
+     */
+    public void applyStatusEvent(UserEventMessage message) {
+        Object presenceId = message.getEventProperties() != null
+                ? message.getEventProperties().get(PRESENCE_ID_PROPERTY)
+                : null;
+        if (!(presenceId instanceof Number number) || message.getUserId() == null) {
+            return;
+        }
+        int id = number.intValue();
+        remember(message.getUserId(), id);
+        if (snapshot.set(id, "ONLINE".equals(message.getEventType()))) {
+            totalRemoteUpdates.incrementAndGet();
+        }
+    }
+
+    private void tickLoop() {
+        long nextResync = 0;
+
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+
+                sweepExpired(now);
+                flush(now);
+                lastTouched.values().removeIf(touchedAt -> now - touchedAt >= touchIntervalMillis());
+                if (now >= nextResync) {
+                    resync();
+                    nextResync = now + resyncIntervalMillis;
+                }
+
+                Thread.sleep(sweepIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("접속 상태 tick 처리 실패", e);
+            }
+        }
+    }
+
+    /**
+     * 만료 하트비트를 배치로 꺼내 오프라인 전이 예약
+     */
+    @SuppressWarnings("unchecked")
+    int sweepExpired(long now) {
+        byte[][] keysAndArgs = {
+                bytes(HEARTBEAT_KEY), bytes(Long.toString(now)), bytes(Integer.toString(sweepBatchSize))
+        };
+        int expiredTotal = 0;
+        List<byte[]> expired;
+        do {
+            expired = redisPubSubTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.scriptingCommands().eval(SWEEP_SCRIPT, ReturnType.MULTI, 1, keysAndArgs));
+            if (expired == null) {
+                break;
+            }
+            for (byte[] userId : expired) {
+                coalescer.offer(new String(userId, StandardCharsets.UTF_8), false, now);
+            }
+            expiredTotal += expired.size();
+        } while (expired.size() >= sweepBatchSize && running);
+
+        totalExpired.addAndGet(expiredTotal);
+        return expiredTotal;
+    }
+
+    /**
+     * 합치기 창이 지난 전이를 온라인 비트맵에 반영하고, 실제로 바뀐 사용자만 상태 이벤트 발행
+     */
+    void flush(long now) {
+        List<PresenceCoalescer.Transition> due = coalescer.drain(now);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        int[] dueIds = new int[due.size()];
+        for (int i = 0; i < dueIds.length; i++) {
+            dueIds[i] = ensureId(due.get(i).userId());
+        }
+        List<Object> previous = redisPubSubTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < dueIds.length; i++) {
+                connection.stringCommands().setBit(bytes(ONLINE_KEY), dueIds[i], due.get(i).online());
+            }
+            return null;
+        });
+
+        for (int i = 0; i < dueIds.length; i++) {
+            PresenceCoalescer.Transition transition = due.get(i);
+            boolean wasOnline = Boolean.TRUE.equals(previous.get(i));
+            snapshot.set(dueIds[i], transition.online());
+            if (wasOnline == transition.online()) {
+                totalSuppressed.incrementAndGet();
+                continue;
+            }
+            totalTransitions.incrementAndGet();
+            publishStatus(transition.userId(), dueIds[i], transition.online());
+        }
+    }
+
+    private void publishStatus(String userId, int id, boolean online) {
+        UserEventMessage event = UserEventMessage.createPresenceEvent(userId, online);
+        event.addEventProperty(PRESENCE_ID_PROPERTY, id);
+        messagePublisher.publishTo(online
+                ? RedisPubSubConfig.Channels.STATUS_ONLINE
+                : RedisPubSubConfig.Channels.STATUS_OFFLINE, event);
+    }
+
+    /**
+     * Redis 온라인 비트맵 전체로 로컬 스냅샷 교체 (유실된 상태 이벤트 복구)
+     */
+    void resync() {
+        byte[] bitmap = redisPubSubTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(bytes(ONLINE_KEY)));
+        snapshot.load(bitmap != null ? bitmap : new byte[0]);
+        totalResyncs.incrementAndGet();
+        lastResyncMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * 전역 조밀 ID (로컬 캐시 → Redis 원자적 부여)
+     */
+    public int ensureId(String userId) {
+        Integer cached = ids.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        byte[][] keysAndArgs = {bytes(IDS_KEY), bytes(NEXT_ID_KEY), bytes(NAMES_KEY), bytes(userId)};
+        Long assigned = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.scriptingCommands().eval(ASSIGN_ID_SCRIPT, ReturnType.INTEGER, 3, keysAndArgs));
+        if (assigned == null) {
+            throw new IllegalStateException("접속 상태 ID 부여 실패: " + userId);
+        }
+        int id = Math.toIntExact(assigned);
+        remember(userId, id);
+        return id;
+    }
+
+    /**
+     * 전역 조밀 ID 조회 (없으면 -1, 새로 부여하지 않음 - "없음" 은 negative-ttl-ms 동안 캐시)
+     */
+    private int findId(String userId) {
+        Integer cached = ids.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long now = System.currentTimeMillis();
+        Long until = unknownUntil.get(userId);
+        if (until != null) {
+            if (until > now) {
+                totalNegativeHits.incrementAndGet();
+                return -1;
+            }
+            unknownUntil.remove(userId);
+        }
+        byte[] value = redisPubSubTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.hashCommands().hGet(bytes(IDS_KEY), bytes(userId)));
+        if (value == null) {
+            unknownUntil.put(userId, now + negativeTtlMillis);
+            return -1;
+        }
+        int id = Integer.parseInt(new String(value, StandardCharsets.UTF_8));
+        remember(userId, id);
+        return id;
+    }
+
+    private void remember(String userId, int id) {
+        ids.putIfAbsent(userId, id);
+        names.putIfAbsent(id, userId);
+        unknownUntil.remove(userId);
+    }
+
+    /**
+     * 크기 제한 LRU 캐시 (접근 순서, id-cache-size 초과 시 가장 오래 쓰지 않은 항목 제거)
+     */
+    private <K, V> Map<K, V> lruCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > Math.max(1, idCacheSize);
+            }
+        });
+    }
+
+    /**
+     * 전역 ID 목록 → 사용자 ID (로컬 캐시에 없는 ID 는 HMGET 한 번으로 채움)
+     */
+    private List<String> userIdsOf(int[] memberIds) {
+        if (memberIds.length == 0) {
+            return Collections.emptyList();
+        }
+        // 캐시는 크기 제한이 있어 조회 도중 제거될 수 있으므로 이번 호출의 결과는 따로 모은다
+        String[] resolved = new String[memberIds.length];
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < memberIds.length; i++) {
+            resolved[i] = names.get(memberIds[i]);
+            if (resolved[i] == null) {
+                missing.add(i);
+            }
+        }
+        if (!missing.isEmpty()) {
+            byte[][] fields = missing.stream()
+                    .map(i -> bytes(Integer.toString(memberIds[i])))
+                    .toArray(byte[][]::new);
+            List<byte[]> values = redisPubSubTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.hashCommands().hMGet(bytes(NAMES_KEY), fields));
+            for (int i = 0; values != null && i < values.size(); i++) {
+                if (values.get(i) != null) {
+                    int index = missing.get(i);
+                    resolved[index] = new String(values.get(i), StandardCharsets.UTF_8);
+                    remember(resolved[index], memberIds[index]);
+                }
+            }
+        }
+
+        List<String> userIds = new ArrayList<>(memberIds.length);
+        for (String userId : resolved) {
+            if (userId != null) {
+                userIds.add(userId);
+            }
+        }
+        return userIds;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 접속 상태 통계
+     */
+    public PresenceStats getStats() {
+        Long heartbeats = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.zSetCommands().zCard(bytes(HEARTBEAT_KEY)));
+
+        return PresenceStats.builder()
+                .enabled(enabled)
+                .onlineCount(snapshot.count())
+                .liveHeartbeats(heartbeats != null ? heartbeats : 0)
+                .knownUsers(ids.size())
+                .negativeCached(unknownUntil.size())
+                .snapshotBytes(snapshot.memoryBytes())
+                .pendingTransitions(coalescer.pendingCount())
+                .totalHeartbeats(totalHeartbeats.get())
+                .totalTouchesSkipped(totalTouchesSkipped.get())
+                .totalExpired(totalExpired.get())
+                .totalOffered(coalescer.getTotalOffered())
+                .totalCoalesced(coalescer.getTotalCoalesced())
+                .totalTransitions(totalTransitions.get())
+                .totalSuppressed(totalSuppressed.get())
+                .totalRemoteUpdates(totalRemoteUpdates.get())
+                .totalResyncs(totalResyncs.get())
+                .totalNegativeHits(totalNegativeHits.get())
+                .lastResyncMillis(lastResyncMillis)
+                .build();
+    }
+
+    /**
+     * 접속 상태 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class PresenceStats {
+        private final boolean enabled;
+        private final int onlineCount;
+        private final long liveHeartbeats;
+        private final int knownUsers;
+        private final int negativeCached;
+        private final long snapshotBytes;
+        private final int pendingTransitions;
+        private final long totalHeartbeats;
+        private final long totalTouchesSkipped;
+        private final long totalExpired;
+        private final long totalOffered;
+        private final long totalCoalesced;
+        private final long totalTransitions;
+        private final long totalSuppressed;
+        private final long totalRemoteUpdates;
+        private final long totalResyncs;
+        private final long totalNegativeHits;
+        private final long lastResyncMillis;
+    }
+}
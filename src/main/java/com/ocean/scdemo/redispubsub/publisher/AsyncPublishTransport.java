@@ -0,0 +1,196 @@
+package com.ocean.scdemo.redispubsub.publisher;
+
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.BaseRedisAsyncCommands;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lettuce 비동기 PUBLISH 전송
+ *
+ * 핵심 기능:
+ * - 발행 전용 공유 연결(byte[] 코덱) 하나에 비동기 PUBLISH 를 파이프라이닝 (메시지마다 스레드를 점유하지 않음)
+ * - RedisFuture 를 그대로 CompletableFuture 로 반환 (완료 콜백은 Lettuce I/O 스레드에서 실행되므로 가볍게 유지)
+ * - Semaphore 로 진행 중 PUBLISH 수 상한, 자리가 없으면 대기하지 않고 즉시 거부
+ * - 명령 타임아웃으로 응답이 없는 발행도 자리를 반납
+ *
+ * 값 직렬화는 redisPubSubTemplate 과 같아 기존 구독자가 그대로 받는다.
+ * Lettuce 가 아닌 연결 팩토리이거나 비활성화되어 있으면 isAvailable() 이 false 이며 호출 측이 블로킹 경로를 사용한다.
+ */
+@Slf4j
+@Component
+public class AsyncPublishTransport {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisSerializer<Object> valueSerializer;
+
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final long timeoutMillis;
+    private final Semaphore permits;
+
+    private volatile StatefulConnection<byte[], byte[]> connection;
+    private volatile BaseRedisAsyncCommands<byte[], byte[]> commands;
+
+    // 전송 통계
+    private final LongAdder totalSent = new LongAdder();
+    private final LongAdder totalCompleted = new LongAdder();
+    private final LongAdder totalFailed = new LongAdder();
+    private final LongAdder totalRejected = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxInFlightObserved = new AtomicLong(0);
+
+    @SuppressWarnings("unchecked")
+    public AsyncPublishTransport(RedisConnectionFactory connectionFactory,
+                                 @Qualifier("redisPubSubTemplate") RedisTemplate<String, Object> redisPubSubTemplate,
+                                 @Value("${pubsub.async-publish.enabled:true}") boolean enabled,
+                                 @Value("${pubsub.async-publish.max-in-flight:1024}") int maxInFlight,
+                                 @Value("${pubsub.async-publish.timeout-ms:2000}") long timeoutMillis) {
+        this.connectionFactory = connectionFactory;
+        this.valueSerializer = (RedisSerializer<Object>) redisPubSubTemplate.getValueSerializer();
+        this.enabled = enabled && connectionFactory instanceof LettuceConnectionFactory;
+        this.maxInFlight = maxInFlight;
+        this.timeoutMillis = timeoutMillis;
+        this.permits = new Semaphore(maxInFlight);
+
+        if (enabled && !this.enabled) {
+            log.warn("Lettuce 연결 팩토리가 아니어서 비동기 PUBLISH 를 사용하지 않습니다: {}",
+                    connectionFactory.getClass().getSimpleName());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        StatefulConnection<byte[], byte[]> current = connection;
+        if (current != null) {
+            current.closeAsync();
+        }
+    }
+
+    public boolean isAvailable() {
+        return enabled;
+    }
+
+    /**
+     * 비동기 PUBLISH (수신자 수로 완료, 자리가 없으면 RejectedExecutionException 으로 즉시 실패)
+     */
+    public CompletableFuture<Long> publish(String channel, Object message) {
+        if (!permits.tryAcquire()) {
+            totalRejected.increment();
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("진행 중 비동기 발행이 상한(" + maxInFlight + ")에 도달했습니다"));
+        }
+
+        long start = System.nanoTime();
+        try {
+            maxInFlightObserved.accumulateAndGet(maxInFlight - permits.availablePermits(), Math::max);
+
+            CompletableFuture<Long> future = commands()
+                    .publish(channel.getBytes(StandardCharsets.UTF_8), valueSerializer.serialize(message))
+                    .toCompletableFuture()
+                    .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+            totalSent.increment();
+
+            return future.whenComplete((receivers, error) -> {
+                permits.release();
+                totalLatencyNanos.add(System.nanoTime() - start);
+                if (error != null) {
+                    totalFailed.increment();
+                } else {
+                    totalCompleted.increment();
+                }
+            });
+
+        } catch (RuntimeException e) {
+            permits.release();
+            totalFailed.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 발행 전용 연결 (첫 사용 시 생성, 연결이 끊기면 Lettuce 가 자동 재연결)
+     */
+    private BaseRedisAsyncCommands<byte[], byte[]> commands() {
+        BaseRedisAsyncCommands<byte[], byte[]> current = commands;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (commands == null) {
+                AbstractRedisClient client = ((LettuceConnectionFactory) connectionFactory).getRequiredNativeClient();
+                if (client instanceof RedisClusterClient clusterClient) {
+                    StatefulRedisClusterConnection<byte[], byte[]> clusterConnection = clusterClient.connect(ByteArrayCodec.INSTANCE);
+                    connection = clusterConnection;
+                    commands = clusterConnection.async();
+                } else {
+                    StatefulRedisConnection<byte[], byte[]> standalone = ((RedisClient) client).connect(ByteArrayCodec.INSTANCE);
+                    connection = standalone;
+                    commands = standalone.async();
+                }
+                connection.setTimeout(Duration.ofMillis(timeoutMillis));
+                log.info("비동기 PUBLISH 연결 생성 - maxInFlight={}, timeout={}ms", maxInFlight, timeoutMillis);
+            }
+            return commands;
+        }
+    }
+
+    /**
+     * 비동기 전송 통계
+     */
+    public AsyncPublishStats getStats() {
+        long completed = totalCompleted.sum() + totalFailed.sum();
+        return AsyncPublishStats.builder()
+                .enabled(enabled)
+                .connected(connection != null && connection.isOpen())
+                .maxInFlight(maxInFlight)
+                .inFlight(maxInFlight - permits.availablePermits())
+                .maxInFlightObserved(maxInFlightObserved.get())
+                .totalSent(totalSent.sum())
+                .totalCompleted(totalCompleted.sum())
+                .totalFailed(totalFailed.sum())
+                .totalRejected(totalRejected.sum())
+                .averageLatencyMillis(completed == 0 ? 0.0 : totalLatencyNanos.sum() / (double) completed / 1_000_000.0)
+                .build();
+    }
+
+    /**
+     * 비동기 전송 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class AsyncPublishStats {
+        private final boolean enabled;
+        private final boolean connected;
+        private final int maxInFlight;
+        private final int inFlight;
+        private final long maxInFlightObserved;
+        private final long totalSent;
+        private final long totalCompleted;
+        private final long totalFailed;
+        private final long totalRejected;
+        private final double averageLatencyMillis;
+    }
+}
@@ -1,9 +1,18 @@
 package com.ocean.scdemo.redispubsub.publisher;
 
+import com.ocean.scdemo.redispubsub.broadcast.SegmentedBroadcastEngine;
 import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig;
 import com.ocean.scdemo.redispubsub.message.*;
+import com.ocean.scdemo.redispubsub.monitoring.EnvelopeClock;
+import com.ocean.scdemo.redispubsub.replay.ReplayService;
+import com.ocean.scdemo.redispubsub.routing.ChannelRouter;
+import com.ocean.scdemo.redispubsub.subscriber.MessageSubscriber;
+import com.ocean.scdemo.redispubsub.transport.RedisStreamTransport;
+import com.ocean.scdemo.redispubsub.transport.ShardedPubSubTransport;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -11,6 +20,8 @@ import org.springframework.util.StringUtils;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -18,9 +29,11 @@ import java.util.concurrent.atomic.AtomicLong;
  * 
  * 핵심 기능:
  * - 타입별 메시지 발행 (채팅, 알림, 이벤트, 메트릭스, 헬스체크)
- * - 비동기/동기 발행 지원
+ * - 비동기/동기 발행 지원 (비동기는 Lettuce 비동기 PUBLISH + 진행 중 발행 상한)
  * - 배치 발행 최적화
  * - 자동 채널 라우팅
+ * - 같은 노드 구독자에게 원본 객체 직접 전달 (선택적 루프백)
+ * - 채널별 봉투 시퀀스 부여 및 재생 미러 기록 (ReplayService)
  * - 메시지 검증 및 에러 핸들링
  * - 발행 메트릭스 수집
  */
@@ -30,6 +43,18 @@ import java.util.concurrent.atomic.AtomicLong;
 public class MessagePublisher {
 
     private final RedisTemplate<String, Object> redisPubSubTemplate;
+    private final RedisStreamTransport streamTransport;
+    private final ShardedPubSubTransport shardedTransport;
+    private final LocalLoopback localLoopback;
+    private final MessageSubscriber messageSubscriber;
+    private final ChannelRouter channelRouter;
+    private final ReplayService replayService;
+    private final AsyncPublishTransport asyncPublishTransport;
+    // 브로드캐스트 엔진은 대상자 전달에 이 발행기를 쓰므로 순환 의존을 피해 사용 시점에 조회
+    private final ObjectProvider<SegmentedBroadcastEngine> broadcastEngine;
+    
+    // 비동기 전송을 쓸 수 없는 채널의 동기 발행용 (공용 ForkJoinPool 대신 가상 스레드)
+    private final ExecutorService asyncFallbackExecutor = Executors.newVirtualThreadPerTaskExecutor();
     
     // 발행 통계
     private final AtomicLong totalPublished = new AtomicLong(0);
@@ -51,7 +76,7 @@ public class MessagePublisher {
             String channel = determineChatChannel(message);
             message.setChannel(channel);
             
-            Long result = redisPubSubTemplate.convertAndSend(channel, message);
+            Long result = send(channel, message);
             
             if (result != null && result > 0) {
                 chatMessagesPublished.incrementAndGet();
@@ -80,9 +105,13 @@ public class MessagePublisher {
             enrichNotificationMessage(message);
             
             String channel = determineNotificationChannel(message);
+            if (RedisPubSubConfig.Channels.NOTIFICATION_BROADCAST.equals(channel) && startSegmentedBroadcast(message)) {
+                notificationMessagesPublished.incrementAndGet();
+                return true;
+            }
             message.setChannel(channel);
             
-            Long result = redisPubSubTemplate.convertAndSend(channel, message);
+            Long result = send(channel, message);
             
             if (result != null && result > 0) {
                 notificationMessagesPublished.incrementAndGet();
@@ -113,7 +142,7 @@ public class MessagePublisher {
             String channel = determineSystemEventChannel(message);
             message.setChannel(channel);
             
-            Long result = redisPubSubTemplate.convertAndSend(channel, message);
+            Long result = send(channel, message);
             
             if (result != null && result > 0) {
                 eventMessagesPublished.incrementAndGet();
@@ -144,7 +173,7 @@ public class MessagePublisher {
             String channel = determineUserEventChannel(message);
             message.setChannel(channel);
             
-            Long result = redisPubSubTemplate.convertAndSend(channel, message);
+            Long result = send(channel, message);
             
             if (result != null && result > 0) {
                 eventMessagesPublished.incrementAndGet();
@@ -175,7 +204,7 @@ public class MessagePublisher {
             String channel = determineMetricsChannel(message);
             message.setChannel(channel);
             
-            Long result = redisPubSubTemplate.convertAndSend(channel, message);
+            Long result = send(channel, message);
             
             if (result != null && result > 0) {
                 metricsMessagesPublished.incrementAndGet();
@@ -206,7 +235,7 @@ public class MessagePublisher {
             String channel = determineHealthCheckChannel(message);
             message.setChannel(channel);
             
-            Long result = redisPubSubTemplate.convertAndSend(channel, message);
+            Long result = send(channel, message);
             
             if (result != null && result > 0) {
                 healthCheckMessagesPublished.incrementAndGet();
@@ -228,26 +257,53 @@ public class MessagePublisher {
     
     /**
      * 비동기 메시지 발행
+     * 
+     * 일반 Pub/Sub 채널은 AsyncPublishTransport 의 Lettuce 비동기 PUBLISH 로 보내 메시지마다 스레드를 점유하지 않는다.
+     * Streams/샤드 발행/루프백 대상 채널(또는 비동기 전송 미사용)은 동기 발행을 가상 스레드에서 실행한다.
+     * 진행 중 발행이 상한이면 대기하지 않고 false 로 완료된다.
      */
     public CompletableFuture<Boolean> publishAsync(BaseMessage message) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return switch (message) {
-                    case ChatMessage chatMsg -> publishChatMessage(chatMsg);
-                    case NotificationMessage notificationMsg -> publishNotification(notificationMsg);
-                    case SystemEventMessage systemEventMsg -> publishSystemEvent(systemEventMsg);
-                    case UserEventMessage userEventMsg -> publishUserEvent(userEventMsg);
-                    case MetricsMessage metricsMsg -> publishMetrics(metricsMsg);
-                    case HealthCheckMessage healthMsg -> publishHealthCheck(healthMsg);
-                    default -> {
-                        log.warn("지원하지 않는 메시지 타입: {}", message.getClass().getSimpleName());
-                        yield false;
-                    }
-                };
-            } catch (Exception e) {
-                log.error("비동기 메시지 발행 실패: {}", message.getMessageId(), e);
+        String channel;
+        try {
+            validateMessage(message);
+            enrichMessage(message);
+            channel = resolveChannel(message);
+        } catch (Exception e) {
+            totalFailed.incrementAndGet();
+            log.error("비동기 메시지 발행 실패: {}", message != null ? message.getMessageId() : null, e);
+            return CompletableFuture.completedFuture(false);
+        }
+        
+        if (!asyncPublishTransport.isAvailable() || !isDirectPubSub(channel)) {
+            return CompletableFuture.supplyAsync(() -> {
+                boolean published = publishTo(channel, message);
+                if (published) {
+                    countByType(message);
+                }
+                return published;
+            }, asyncFallbackExecutor);
+        }
+        
+        message.setChannel(channel);
+        message.setOriginNodeId(localLoopback.getNodeId());
+        message.setPublishedAtMicros(EnvelopeClock.nowMicros());
+        replayService.stamp(channel, message);
+        
+        return asyncPublishTransport.publish(channel, message).handle((receivers, error) -> {
+            if (error != null) {
+                totalFailed.incrementAndGet();
+                log.error("비동기 메시지 발행 실패: 채널={}, 메시지ID={}, 원인={}", 
+                         channel, message.getMessageId(), error.getMessage());
                 return false;
             }
+            replayService.mirror(channel, message);
+            if (receivers != null && receivers > 0) {
+                totalPublished.incrementAndGet();
+                countByType(message);
+                return true;
+            }
+            log.warn("비동기 메시지 발행 실패 - 수신자 없음: {}", channel);
+            return false;
         });
     }
     
@@ -268,7 +324,7 @@ public class MessagePublisher {
                 validateMessage(message);
                 message.setChannel(channel);
                 
-                Long result = redisPubSubTemplate.convertAndSend(channel, message);
+                Long result = send(channel, message);
                 
                 if (result != null && result > 0) {
                     successCount++;
@@ -291,15 +347,81 @@ public class MessagePublisher {
         return new BatchPublishResult(successCount, failureCount, errors.toString());
     }
     
+    /**
+     * 세그먼트 브로드캐스트 엔진으로 시작 (엔진이 없거나 비활성화면 false - 기존 브로드캐스트 채널로 발행)
+     */
+    private boolean startSegmentedBroadcast(NotificationMessage message) {
+        SegmentedBroadcastEngine engine = broadcastEngine.getIfAvailable();
+        if (engine == null || !engine.isEnabled()) {
+            return false;
+        }
+        String broadcastId = engine.start(message);
+        totalPublished.incrementAndGet();
+        log.info("브로드캐스트를 세그먼트 전달로 시작: 메시지ID={}, 세그먼트={}", broadcastId, message.getRecipientGroup());
+        return true;
+    }
+    
+    /**
+     * 지정 채널로 단건 발행 (채널 결정/보강 없이 그대로 전송)
+     */
+    public boolean publishTo(String channel, BaseMessage message) {
+        try {
+            validateMessage(message);
+            message.setChannel(channel);
+            
+            Long result = send(channel, message);
+            
+            if (result != null && result > 0) {
+                totalPublished.incrementAndGet();
+                return true;
+            }
+            log.warn("메시지 발행 실패 - 수신자 없음: {}", channel);
+            return false;
+            
+        } catch (Exception e) {
+            totalFailed.incrementAndGet();
+            log.error("메시지 발행 실패: 채널={}, 메시지ID={}", channel, message.getMessageId(), e);
+            return false;
+        }
+    }
+    
+    /**
+     * 메시지 타입별 기본 채널 결정
+     */
+    public String resolveChannel(BaseMessage message) {
+        return switch (message) {
+            case ChatMessage chatMsg -> determineChatChannel(chatMsg);
+            case NotificationMessage notificationMsg -> determineNotificationChannel(notificationMsg);
+            case SystemEventMessage systemEventMsg -> determineSystemEventChannel(systemEventMsg);
+            case UserEventMessage userEventMsg -> determineUserEventChannel(userEventMsg);
+            case MetricsMessage metricsMsg -> determineMetricsChannel(metricsMsg);
+            case HealthCheckMessage healthMsg -> determineHealthCheckChannel(healthMsg);
+            default -> throw new IllegalArgumentException("지원하지 않는 메시지 타입: " + message.getClass().getSimpleName());
+        };
+    }
+    
+    /**
+     * 일반 PUBLISH 만으로 전달되는 채널인지 (Streams/샤드 발행/루프백 대상이 아님)
+     */
+    public boolean isDirectPubSub(String channel) {
+        return !streamTransport.isDurable(channel)
+                && !shardedTransport.appliesTo(channel)
+                && !localLoopback.appliesTo(channel);
+    }
+    
     /**
      * 브로드캐스트 메시지 발행 (모든 구독자에게)
+     * 알림은 세그먼트 브로드캐스트 엔진이 활성화되어 있으면 기본 세그먼트 대상자별 전달로 시작한다.
      */
     public boolean publishBroadcast(BaseMessage message) {
         try {
             validateMessage(message);
+            if (message instanceof NotificationMessage notification && startSegmentedBroadcast(notification)) {
+                return true;
+            }
             message.setChannel(RedisPubSubConfig.Channels.NOTIFICATION_BROADCAST);
             
-            Long result = redisPubSubTemplate.convertAndSend(
+            Long result = send(
                 RedisPubSubConfig.Channels.NOTIFICATION_BROADCAST, 
                 message
             );
@@ -333,10 +455,16 @@ public class MessagePublisher {
                 .eventMessages(eventMessagesPublished.get())
                 .metricsMessages(metricsMessagesPublished.get())
                 .healthCheckMessages(healthCheckMessagesPublished.get())
+                .loopbackDeliveries(localLoopback.getStats().getLocalDeliveries())
                 .successRate(calculateSuccessRate())
                 .build();
     }
     
+    @PreDestroy
+    public void shutdown() {
+        asyncFallbackExecutor.shutdown();
+    }
+    
     /**
      * 통계 초기화
      */
@@ -353,10 +481,51 @@ public class MessagePublisher {
     
     // === 내부 메서드들 ===
     
+    /**
+     * 채널 패밀리의 전송 모드에 따라 발행
+     * - FIRE_AND_FORGET: Pub/Sub PUBLISH, 수신자 수 반환
+     * - DURABLE: Redis Streams XADD, 적재 성공 시 1 반환 (구독자 부재와 무관하게 보관됨)
+     * - 샤딩 채널(클러스터): SPUBLISH, 해시 슬롯 소유 노드의 샤드 구독자 수 반환
+     * 
+     * 루프백 대상 채널은 Redis 발행(직렬화) 이후 로컬 핸들러에 원본 객체를 직접 전달한다.
+     * Redis 로 돌아오는 자기 에코는 구독 측에서 originNodeId 로 폐기된다.
+     * 
+     * 발행 노드와 발행 시각(EnvelopeClock)을 봉투에 기록하여 수신 측이 종단 지연을 잴 수 있게 한다.
+     * Pub/Sub 경로는 발행 전에 (노드, 채널) 시퀀스 번호를 부여하고, 발행 후 재생 미러에 기록한다.
+     */
+    private Long send(String channel, BaseMessage message) {
+        message.setOriginNodeId(localLoopback.getNodeId());
+        message.setPublishedAtMicros(EnvelopeClock.nowMicros());
+        
+        if (streamTransport.isDurable(channel)) {
+            return streamTransport.append(channel, message) != null ? 1L : 0L;
+        }
+        
+        replayService.stamp(channel, message);
+        Long result = shardedTransport.appliesTo(channel)
+                ? shardedTransport.publish(channel, message)
+                : redisPubSubTemplate.convertAndSend(channel, message);
+        replayService.mirror(channel, message);
+        deliverLocally(channel, message);
+        return result;
+    }
+    
+    /**
+     * 로컬 구독이 있는 루프백 대상 채널이면 메시지 사본을 구독자 스레드 풀로 넘겨 처리
+     * 사본은 발행 스레드에서 만들어 발행자가 이후 원본을 바꿔도 로컬 핸들러에 번지지 않게 한다.
+     */
+    private void deliverLocally(String channel, BaseMessage message) {
+        if (!localLoopback.appliesTo(channel) || !channelRouter.route(channel).contains(messageSubscriber)) {
+            return;
+        }
+        messageSubscriber.submitLocal(channel, localLoopback.localCopy(message));
+        localLoopback.recordLocalDelivery();
+    }
+    
     /**
      * 메시지 검증
      */
-    private void validateMessage(BaseMessage message) {
+    public void validateMessage(BaseMessage message) {
         if (message == null) {
             throw new IllegalArgumentException("메시지가 null입니다");
         }
@@ -434,6 +603,36 @@ public class MessagePublisher {
         return RedisPubSubConfig.Channels.HEALTH_STATUS;
     }
     
+    /**
+     * 메시지 타입별 보강
+     */
+    private void enrichMessage(BaseMessage message) {
+        switch (message) {
+            case ChatMessage chatMsg -> enrichChatMessage(chatMsg);
+            case NotificationMessage notificationMsg -> enrichNotificationMessage(notificationMsg);
+            case SystemEventMessage systemEventMsg -> enrichSystemEventMessage(systemEventMsg);
+            case UserEventMessage userEventMsg -> enrichUserEventMessage(userEventMsg);
+            case MetricsMessage metricsMsg -> enrichMetricsMessage(metricsMsg);
+            case HealthCheckMessage healthMsg -> enrichHealthCheckMessage(healthMsg);
+            default -> { }
+        }
+    }
+    
+    /**
+     * 타입별 발행 건수 집계
+     */
+    private void countByType(BaseMessage message) {
+        switch (message) {
+            case ChatMessage chatMsg -> chatMessagesPublished.incrementAndGet();
+            case NotificationMessage notificationMsg -> notificationMessagesPublished.incrementAndGet();
+            case SystemEventMessage systemEventMsg -> eventMessagesPublished.incrementAndGet();
+            case UserEventMessage userEventMsg -> eventMessagesPublished.incrementAndGet();
+            case MetricsMessage metricsMsg -> metricsMessagesPublished.incrementAndGet();
+            case HealthCheckMessage healthMsg -> healthCheckMessagesPublished.incrementAndGet();
+            default -> { }
+        }
+    }
+    
     /**
      * 채팅 메시지 보강
      */
@@ -535,6 +734,7 @@ public class MessagePublisher {
         private final long eventMessages;
         private final long metricsMessages;
         private final long healthCheckMessages;
+        private final long loopbackDeliveries;
         private final double successRate;
         
         public long getTotalMessages() {
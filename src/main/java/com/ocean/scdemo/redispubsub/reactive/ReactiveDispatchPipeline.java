@@ -0,0 +1,276 @@
+package com.ocean.scdemo.redispubsub.reactive;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * 메시지 타입별 동시 처리 상한을 가진 반응형 디스패치 파이프라인
+ *
+ * source 를 구독하는 디스패처가 타입마다 독립된 레인(처리 중 + 대기열)으로 나눠 처리한다.
+ * - 처리기는 블로킹 코드이므로 전달받은 Scheduler 에서 실행한다
+ * - source 에는 prefetch 만큼만 요청하고, 한 건이 끝나거나 폐기될 때마다 한 건씩 더 요청한다
+ *   → 처리기 속도가 그대로 source(Redis 수신 버퍼)까지 전달되는 실제 배압
+ * - 레인은 상한만큼 처리 중이면 타입별 대기열(type-queue-capacity)에 쌓고, 대기열이 차면 그 타입만 폐기한다
+ *   → 느린 타입이 prefetch 를 모두 차지해 다른 타입까지 멈추게 하지 않음 (groupBy 공유 버퍼의 head-of-line blocking 제거)
+ * - 처리기 예외는 실패로 집계하고 스트림은 계속 흐른다
+ */
+public final class ReactiveDispatchPipeline<T, R> {
+
+    private final Function<T, String> typeOf;
+    private final ToIntFunction<String> concurrencyOf;
+    private final Function<T, R> handler;
+    private final Scheduler scheduler;
+    private final int prefetch;
+    private final int typeQueueCapacity;
+    private final Consumer<T> onOverflow;
+
+    private final Map<String, TypeCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 타입별 대기열을 prefetch 로 두는 구성 - 폐기 없이 source 배압만 사용
+     */
+    public ReactiveDispatchPipeline(Function<T, String> typeOf,
+                                    ToIntFunction<String> concurrencyOf,
+                                    Function<T, R> handler,
+                                    Scheduler scheduler,
+                                    int prefetch) {
+        this(typeOf, concurrencyOf, handler, scheduler, prefetch, prefetch, item -> {
+        });
+    }
+
+    /**
+     * @param typeQueueCapacity 타입별 대기열 상한 (prefetch 보다 작아야 다른 타입 몫이 남음)
+     * @param onOverflow        대기열이 차서 폐기되는 항목 통지
+     */
+    public ReactiveDispatchPipeline(Function<T, String> typeOf,
+                                    ToIntFunction<String> concurrencyOf,
+                                    Function<T, R> handler,
+                                    Scheduler scheduler,
+                                    int prefetch,
+                                    int typeQueueCapacity,
+                                    Consumer<T> onOverflow) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch 는 0보다 커야 합니다: " + prefetch);
+        }
+        if (typeQueueCapacity <= 0) {
+            throw new IllegalArgumentException("typeQueueCapacity 는 0보다 커야 합니다: " + typeQueueCapacity);
+        }
+        this.typeOf = typeOf;
+        this.concurrencyOf = concurrencyOf;
+        this.handler = handler;
+        this.scheduler = scheduler;
+        this.prefetch = prefetch;
+        this.typeQueueCapacity = typeQueueCapacity;
+        this.onOverflow = onOverflow;
+    }
+
+    /**
+     * source 에 파이프라인 적용 (처리 결과 스트림, 실패/폐기 건은 제외)
+     */
+    public Flux<R> apply(Flux<T> source) {
+        return Flux.create(sink -> {
+            Dispatcher dispatcher = new Dispatcher(sink);
+            sink.onDispose(dispatcher);
+            source.subscribe(dispatcher);
+        });
+    }
+
+    private Mono<R> handle(T item, TypeCounters typeCounters) {
+        return Mono.fromCallable(() -> {
+                    int now = typeCounters.inFlight.incrementAndGet();
+                    typeCounters.maxInFlight.accumulateAndGet(now, Math::max);
+                    try {
+                        return handler.apply(item);
+                    } finally {
+                        typeCounters.inFlight.decrementAndGet();
+                    }
+                })
+                .subscribeOn(scheduler)
+                .doOnNext(result -> typeCounters.completed.increment())
+                .onErrorResume(e -> {
+                    typeCounters.failed.increment();
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 타입별 통계 (타입 이름순)
+     */
+    public Map<String, TypeStats> getStats() {
+        Map<String, TypeStats> stats = new TreeMap<>();
+        counters.forEach((type, c) -> stats.put(type, TypeStats.builder()
+                .concurrency(c.limit)
+                .inFlight(c.inFlight.get())
+                .maxInFlight(c.maxInFlight.get())
+                .queued(c.queued.get())
+                .overflowed(c.overflowed.sum())
+                .completed(c.completed.sum())
+                .failed(c.failed.sum())
+                .build()));
+        return stats;
+    }
+
+    /**
+     * source 구독 하나에 대한 타입별 분배기
+     *
+     * 미처리(처리 중 + 대기) 건수는 prefetch 를 넘지 않고, 한 타입이 차지할 수 있는 몫은
+     * 동시 처리 상한 + 대기열 상한으로 제한된다.
+     */
+    private final class Dispatcher extends BaseSubscriber<T> {
+
+        private final FluxSink<R> sink;
+        private final Map<String, Lane> lanes = new HashMap<>();
+        private final AtomicInteger outstanding = new AtomicInteger(0);
+        private final AtomicBoolean terminated = new AtomicBoolean(false);
+        private volatile boolean upstreamDone;
+
+        private Dispatcher(FluxSink<R> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(prefetch);
+        }
+
+        @Override
+        protected void hookOnNext(T item) {
+            // onNext 는 직렬 호출이므로 lanes 자체는 동기화 불필요
+            Lane lane = lanes.computeIfAbsent(typeOf.apply(item), Lane::new);
+            outstanding.incrementAndGet();
+
+            boolean start = false;
+            boolean overflow = false;
+            synchronized (lane) {
+                if (lane.inFlight < lane.limit) {
+                    lane.inFlight++;
+                    start = true;
+                } else if (lane.waiting.size() < typeQueueCapacity) {
+                    lane.waiting.addLast(item);
+                    lane.counters.queued.incrementAndGet();
+                } else {
+                    overflow = true;
+                }
+            }
+
+            if (start) {
+                run(lane, item);
+            } else if (overflow) {
+                lane.counters.overflowed.increment();
+                onOverflow.accept(item);
+                release();
+            }
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            upstreamDone = true;
+            if (outstanding.get() == 0) {
+                complete();
+            }
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            if (terminated.compareAndSet(false, true)) {
+                sink.error(throwable);
+            }
+        }
+
+        private void run(Lane lane, T item) {
+            handle(item, lane.counters).subscribe(sink::next, error -> {
+            }, () -> onHandled(lane));
+        }
+
+        /**
+         * 한 건 처리 완료 - 같은 타입 대기 건이 있으면 이어서 처리하고 source 에 한 건 더 요청
+         */
+        private void onHandled(Lane lane) {
+            T next;
+            synchronized (lane) {
+                next = lane.waiting.pollFirst();
+                if (next == null) {
+                    lane.inFlight--;
+                } else {
+                    lane.counters.queued.decrementAndGet();
+                }
+            }
+            if (next != null) {
+                run(lane, next);
+            }
+            release();
+        }
+
+        private void release() {
+            int remaining = outstanding.decrementAndGet();
+            if (!upstreamDone) {
+                request(1);
+            } else if (remaining == 0) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            if (terminated.compareAndSet(false, true)) {
+                sink.complete();
+            }
+        }
+    }
+
+    /**
+     * 타입별 레인 - 처리 중 건수와 대기열 (레인 모니터로 보호)
+     */
+    private final class Lane {
+        private final TypeCounters counters;
+        private final int limit;
+        private final ArrayDeque<T> waiting = new ArrayDeque<>();
+        private int inFlight;
+
+        private Lane(String type) {
+            this.counters = ReactiveDispatchPipeline.this.counters.computeIfAbsent(type, key -> new TypeCounters());
+            this.limit = Math.max(1, concurrencyOf.applyAsInt(type));
+            this.counters.limit = limit;
+        }
+    }
+
+    private static final class TypeCounters {
+        private volatile int limit;
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+        private final AtomicInteger maxInFlight = new AtomicInteger(0);
+        private final AtomicInteger queued = new AtomicInteger(0);
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder overflowed = new LongAdder();
+    }
+
+    /**
+     * 타입별 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class TypeStats {
+        private final int concurrency;
+        private final int inFlight;
+        private final int maxInFlight;
+        private final int queued;
+        private final long completed;
+        private final long failed;
+        private final long overflowed;
+    }
+}
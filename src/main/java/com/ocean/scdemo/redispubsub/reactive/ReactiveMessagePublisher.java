@@ -0,0 +1,166 @@
+package com.ocean.scdemo.redispubsub.reactive;
+
+import com.ocean.scdemo.redispubsub.config.NodeIdentity;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import com.ocean.scdemo.redispubsub.monitoring.EnvelopeClock;
+import com.ocean.scdemo.redispubsub.publisher.MessagePublisher;
+import com.ocean.scdemo.redispubsub.replay.ReplayService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 반응형 메시지 발행자 (ReactiveRedisTemplate)
+ *
+ * 핵심 기능:
+ * - publish(Flux): 호출 측 Flux 를 flatMap(concurrency) 로 발행하며, 진행 중 PUBLISH 가 상한이면 더 요청하지 않음 (배압)
+ * - emit(message): 크기 제한 Sink 에 넣고 백그라운드 구독이 같은 경로로 발행, 버퍼가 차면 즉시 false
+ * - 일반 Pub/Sub 채널은 요청 스레드를 막지 않는 비동기 PUBLISH 로 전송
+ * - Streams/샤드 발행/루프백 대상 채널은 기존 MessagePublisher 경로를 boundedElastic 에서 실행
+ *
+ * 메시지 형식은 redisPubSubTemplate 과 같아 기존 구독자(블로킹/반응형)가 그대로 받는다.
+ * 반응형 경로는 타입별 보강(publishTime 메타데이터)을 생략한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReactiveMessagePublisher {
+
+    private final ReactiveRedisTemplate<String, Object> reactivePubSubTemplate;
+    private final MessagePublisher messagePublisher;
+    private final ReplayService replayService;
+    private final NodeIdentity nodeIdentity;
+
+    @Value("${pubsub.reactive.publisher.concurrency:64}")
+    private int concurrency;
+
+    @Value("${pubsub.reactive.publisher.buffer-size:4096}")
+    private int bufferSize;
+
+    private Sinks.Many<BaseMessage> sink;
+    private Disposable drain;
+
+    // 발행 통계
+    private final LongAdder totalPublished = new LongAdder();
+    private final LongAdder totalNoReceivers = new LongAdder();
+    private final LongAdder totalFailed = new LongAdder();
+    private final LongAdder totalRejected = new LongAdder();
+    private final LongAdder totalBlockingFallbacks = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<BaseMessage>get(bufferSize).get());
+        drain = publish(sink.asFlux()).subscribe();
+
+        log.info("반응형 발행자 시작 - concurrency={}, buffer={}", concurrency, bufferSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sink != null) {
+            sink.tryEmitComplete();
+        }
+        if (drain != null) {
+            drain.dispose();
+        }
+    }
+
+    /**
+     * 메시지 스트림 발행 (메시지마다 수신자가 있었는지 여부를 순서와 무관하게 반환)
+     */
+    public Flux<Boolean> publish(Flux<? extends BaseMessage> messages) {
+        return messages.flatMap(this::publishOne, concurrency);
+    }
+
+    /**
+     * 단건 발행
+     */
+    public Mono<Boolean> publishOne(BaseMessage message) {
+        return Mono.defer(() -> {
+                    messagePublisher.validateMessage(message);
+                    String channel = StringUtils.hasText(message.getChannel())
+                            ? message.getChannel()
+                            : messagePublisher.resolveChannel(message);
+
+                    if (!messagePublisher.isDirectPubSub(channel)) {
+                        totalBlockingFallbacks.increment();
+                        return Mono.fromCallable(() -> messagePublisher.publishTo(channel, message))
+                                .subscribeOn(Schedulers.boundedElastic());
+                    }
+
+                    message.setChannel(channel);
+                    message.setOriginNodeId(nodeIdentity.getNodeId());
+                    message.setPublishedAtMicros(EnvelopeClock.nowMicros());
+                    replayService.stamp(channel, message);
+                    return reactivePubSubTemplate.convertAndSend(channel, message)
+                            .map(receivers -> {
+                                replayService.mirror(channel, message);
+                                return receivers > 0;
+                            });
+                })
+                .doOnNext(delivered -> (delivered ? totalPublished : totalNoReceivers).increment())
+                .onErrorResume(e -> {
+                    totalFailed.increment();
+                    log.warn("반응형 발행 실패: 메시지ID={}, 원인={}", message.getMessageId(), e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * 발행 버퍼에 추가 (버퍼가 가득 찼으면 false)
+     */
+    public synchronized boolean emit(BaseMessage message) {
+        if (sink.tryEmitNext(message).isFailure()) {
+            totalRejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 반응형 발행 통계
+     */
+    public ReactivePublishStats getStats() {
+        Integer buffered = sink != null ? sink.scan(Scannable.Attr.BUFFERED) : null;
+        return ReactivePublishStats.builder()
+                .concurrency(concurrency)
+                .bufferSize(bufferSize)
+                .buffered(buffered != null ? buffered : 0)
+                .totalPublished(totalPublished.sum())
+                .totalNoReceivers(totalNoReceivers.sum())
+                .totalFailed(totalFailed.sum())
+                .totalRejected(totalRejected.sum())
+                .totalBlockingFallbacks(totalBlockingFallbacks.sum())
+                .build();
+    }
+
+    /**
+     * 반응형 발행 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class ReactivePublishStats {
+        private final int concurrency;
+        private final int bufferSize;
+        private final int buffered;
+        private final long totalPublished;
+        private final long totalNoReceivers;
+        private final long totalFailed;
+        private final long totalRejected;
+        private final long totalBlockingFallbacks;
+    }
+}
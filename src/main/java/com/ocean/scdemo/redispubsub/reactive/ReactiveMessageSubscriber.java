@@ -0,0 +1,225 @@
+package com.ocean.scdemo.redispubsub.reactive;
+
+import com.ocean.scdemo.redispubsub.codec.MessageCodec;
+import com.ocean.scdemo.redispubsub.subscriber.MessageSubscriber;
+import com.ocean.scdemo.redispubsub.subscriber.MessageSubscriber.DispatchResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 반응형 메시지 구독자 (ReactiveRedisMessageListenerContainer)
+ *
+ * 핵심 기능:
+ * - 설정한 패턴을 반응형 컨테이너로 구독하고 byte[] 본문을 그대로 MessageSubscriber.dispatch 로 전달
+ * - ReactiveDispatchPipeline 으로 메시지 타입별 동시 처리 상한 적용 (처리기는 가상 스레드에서 실행)
+ * - 처리기가 밀리면 요청이 멈추고 연결 앞단의 크기 제한 버퍼까지 배압이 전달됨
+ *
+ * Redis Pub/Sub 은 서버 측 흐름 제어가 없어 버퍼가 가득 차면 이후 메시지는 폐기하고 집계한다
+ * (유실이 허용되지 않는 패밀리는 Streams(DURABLE) 전송을 사용).
+ * 블로킹 리스너 컨테이너와 같은 패턴을 함께 구독하면 중복 수신되므로 겹치지 않게 설정한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReactiveMessageSubscriber {
+
+    private static final String UNKNOWN_TYPE = "unknown";
+
+    private final ReactiveRedisConnectionFactory reactiveRedisConnectionFactory;
+    private final MessageSubscriber messageSubscriber;
+    private final MessageCodec messageCodec;
+
+    @Value("${pubsub.reactive.subscriber.enabled:false}")
+    private boolean enabled;
+
+    @Value("${pubsub.reactive.subscriber.patterns:}")
+    private String patterns;
+
+    @Value("${pubsub.reactive.subscriber.buffer-size:1024}")
+    private int bufferSize;
+
+    @Value("${pubsub.reactive.subscriber.prefetch:256}")
+    private int prefetch;
+
+    @Value("${pubsub.reactive.subscriber.type-queue-capacity:64}")
+    private int typeQueueCapacity;
+
+    @Value("${pubsub.reactive.subscriber.default-concurrency:16}")
+    private int defaultConcurrency;
+
+    @Value("${pubsub.reactive.subscriber.type-concurrency:}")
+    private String typeConcurrency;
+
+    private ReactiveRedisMessageListenerContainer container;
+    private ExecutorService handlerExecutor;
+    private Scheduler handlerScheduler;
+    private ReactiveDispatchPipeline<ReactiveSubscription.Message<String, byte[]>, DispatchResult> pipeline;
+    private Disposable subscription;
+    private Map<String, Integer> concurrencyByType = Map.of();
+    private volatile boolean running;
+
+    // 수신 통계
+    private final LongAdder totalReceived = new LongAdder();
+    private final LongAdder totalDropped = new LongAdder();
+    private final Map<DispatchResult, LongAdder> results = new EnumMap<>(DispatchResult.class);
+
+    /**
+     * 디스패치 테이블이 준비된 뒤(SmartLifecycle) 구독 시작
+     */
+    @Override
+    public void start() {
+        List<String> topics = splitPatterns(patterns);
+        if (!enabled || topics.isEmpty()) {
+            log.info("반응형 구독자 비활성화 (pubsub.reactive.subscriber.enabled={}, patterns={})", enabled, topics);
+            return;
+        }
+
+        for (DispatchResult result : DispatchResult.values()) {
+            results.put(result, new LongAdder());
+        }
+        concurrencyByType = parseTypeConcurrency(typeConcurrency);
+        handlerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        handlerScheduler = Schedulers.fromExecutorService(handlerExecutor, "pubsub-reactive");
+        // 타입별 대기열이 차면 그 타입만 폐기 (수신 버퍼 폐기와 함께 totalDropped 로 집계, 타입별 건수는 types.overflowed)
+        pipeline = new ReactiveDispatchPipeline<>(this::typeOf, this::concurrencyFor, this::dispatch, handlerScheduler,
+                prefetch, typeQueueCapacity, dropped -> totalDropped.increment());
+        container = new ReactiveRedisMessageListenerContainer(reactiveRedisConnectionFactory);
+
+        subscription = container
+                .receive(topics.stream().map(PatternTopic::new).toList(),
+                        SerializationPair.fromSerializer(RedisSerializer.string()),
+                        SerializationPair.byteArray())
+                .doOnNext(message -> totalReceived.increment())
+                .onBackpressureBuffer(bufferSize, dropped -> totalDropped.increment(), BufferOverflowStrategy.DROP_LATEST)
+                .transform(pipeline::apply)
+                .subscribe(result -> results.get(result).increment(),
+                        error -> log.error("반응형 구독 종료 - 오류", error));
+
+        running = true;
+        log.info("반응형 구독자 시작 - patterns={}, buffer={}, prefetch={}, typeQueue={}, defaultConcurrency={}, typeConcurrency={}",
+                topics, bufferSize, prefetch, typeQueueCapacity, defaultConcurrency, concurrencyByType);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        if (container != null) {
+            container.destroyLater().subscribe();
+        }
+        if (handlerScheduler != null) {
+            handlerScheduler.dispose();
+        }
+        if (handlerExecutor != null) {
+            handlerExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private DispatchResult dispatch(ReactiveSubscription.Message<String, byte[]> message) {
+        return messageSubscriber.dispatch(message.getChannel(), message.getMessage(), true);
+    }
+
+    /**
+     * 헤더의 @type 으로 그룹 키 결정 (알 수 없는 타입은 하나로 묶어 그룹 수를 제한)
+     */
+    private String typeOf(ReactiveSubscription.Message<String, byte[]> message) {
+        try {
+            String type = messageCodec.peekHeader(message.getMessage()).getType();
+            return messageCodec.isKnownType(type) ? type : UNKNOWN_TYPE;
+        } catch (Exception e) {
+            return UNKNOWN_TYPE;
+        }
+    }
+
+    private int concurrencyFor(String type) {
+        return concurrencyByType.getOrDefault(type, defaultConcurrency);
+    }
+
+    private static List<String> splitPatterns(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(pattern -> !pattern.isEmpty())
+                .toList();
+    }
+
+    /**
+     * "ChatMessage=32,MetricsMessage=8" 형식 파싱
+     */
+    static Map<String, Integer> parseTypeConcurrency(String value) {
+        Map<String, Integer> parsed = new HashMap<>();
+        for (String entry : splitPatterns(value)) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("pubsub.reactive.subscriber.type-concurrency 형식 오류: " + entry);
+            }
+            parsed.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return Map.copyOf(parsed);
+    }
+
+    /**
+     * 반응형 구독 통계
+     */
+    public ReactiveSubscribeStats getStats() {
+        Map<String, Long> resultCounts = new HashMap<>();
+        results.forEach((result, count) -> resultCounts.put(result.name(), count.sum()));
+
+        return ReactiveSubscribeStats.builder()
+                .enabled(subscription != null && !subscription.isDisposed())
+                .patterns(splitPatterns(patterns))
+                .bufferSize(bufferSize)
+                .prefetch(prefetch)
+                .typeQueueCapacity(typeQueueCapacity)
+                .totalReceived(totalReceived.sum())
+                .totalDropped(totalDropped.sum())
+                .results(resultCounts)
+                .types(pipeline != null ? pipeline.getStats() : Map.of())
+                .build();
+    }
+
+    /**
+     * 반응형 구독 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class ReactiveSubscribeStats {
+        private final boolean enabled;
+        private final List<String> patterns;
+        private final int bufferSize;
+        private final int prefetch;
+        private final int typeQueueCapacity;
+        private final long totalReceived;
+        private final long totalDropped;
+        private final Map<String, Long> results;
+        private final Map<String, ReactiveDispatchPipeline.TypeStats> types;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ocean.scdemo.redispubsub.replay;
+
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 채널 하나의 최근 메시지 링 버퍼
+ *
+ * 도착 순서대로 0 부터 증가하는 오프셋을 붙여 보관하며, 용량을 넘으면 가장 오래된 항목을 덮어쓴다.
+ * 구독자는 마지막으로 받은 오프셋 다음부터 요청하고, 응답의 nextOffset 을 다음 요청에 쓴다.
+ * 요청 오프셋이 이미 덮어써진 구간이면 truncated 로 알려 준다.
+ */
+public class ReplayRing {
+
+    private final Entry[] ring;
+    private long nextOffset;
+    private volatile long lastAppendMillis;
+
+    public ReplayRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity 는 0보다 커야 합니다: " + capacity);
+        }
+        this.ring = new Entry[capacity];
+    }
+
+    /**
+     * 메시지 추가 (부여된 오프셋 반환)
+     */
+    public synchronized long append(BaseMessage message, long nowMillis) {
+        long offset = nextOffset++;
+        ring[(int) (offset % ring.length)] = new Entry(offset, nowMillis, message);
+        lastAppendMillis = nowMillis;
+        return offset;
+    }
+
+    /**
+     * fromOffset 이상인 항목을 최대 limit 개 조회
+     */
+    public synchronized Slice since(long fromOffset, int limit) {
+        long oldest = oldestOffset();
+        long start = Math.max(fromOffset, oldest);
+        List<Entry> entries = new ArrayList<>((int) Math.min(Math.max(limit, 0), nextOffset - start));
+        long offset = start;
+        for (; offset < nextOffset && entries.size() < limit; offset++) {
+            entries.add(ring[(int) (offset % ring.length)]);
+        }
+        return new Slice(entries, offset, fromOffset < oldest);
+    }
+
+    public synchronized long oldestOffset() {
+        return Math.max(0, nextOffset - ring.length);
+    }
+
+    public synchronized long nextOffset() {
+        return nextOffset;
+    }
+
+    public synchronized int size() {
+        return (int) Math.min(nextOffset, ring.length);
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    public long getLastAppendMillis() {
+        return lastAppendMillis;
+    }
+
+    /**
+     * 보관 항목 (offset: 링 내 순번, receivedAtMillis: 버퍼 적재 시각)
+     */
+    public record Entry(long offset, long receivedAtMillis, BaseMessage message) {
+    }
+
+    /**
+     * 조회 결과 (truncated: 요청 구간 일부가 이미 덮어써져 누락됨)
+     */
+    public record Slice(List<Entry> entries, long nextOffset, boolean truncated) {
+    }
+}
@@ -0,0 +1,589 @@
+package com.ocean.scdemo.redispubsub.replay;
+
+import com.ocean.scdemo.redispubsub.codec.MessageCodec;
+import com.ocean.scdemo.redispubsub.config.NodeIdentity;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import com.ocean.scdemo.redispubsub.routing.TopicPattern;
+import com.ocean.scdemo.redispubsub.transport.RedisStreamTransport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * 채널별 재생(replay) 버퍼와 시퀀스 누락 복구
+ *
+ * 핵심 기능:
+ * - 발행 시 (이 노드, 채널) 단위 연속 시퀀스 번호를 봉투(sequenceNumber)에 기록
+ * - 수신/로컬 전달된 메시지를 채널별 링 버퍼(ReplayRing)에 보관 → 늦게 붙은 구독자(대시보드 등)가 오프셋 N 이후를 요청
+ * - 수신 시 발행 노드별 시퀀스를 확인하여 누락 구간 탐지 (리스너 컨테이너 재연결 동안 놓친 메시지 등)
+ * - 선택적으로 채널별 길이 제한 Redis 리스트(pubsub:replay:{채널})에 미러링하여
+ *   누락 구간 복구와 재시작 직후 버퍼 채우기에 사용
+ *
+ * 같은 노드의 동시 발행은 번호 순서와 전송 순서가 어긋날 수 있으므로, 누락 구간은 recovery-delay 만큼 기다렸다가
+ * 그 사이 늦게 도착한 번호를 빼고 복구한다.
+ *
+ * DURABLE(Streams) 패밀리는 자체 재전달이 있으므로 대상에서 제외한다.
+ * 누락은 다음 메시지가 도착해야 드러나므로, 재연결 후 해당 채널에 새 발행이 없으면 탐지되지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReplayService {
+
+    private static final String MIRROR_KEY_PREFIX = "pubsub:replay:";
+
+    private final RedisTemplate<String, Object> redisPubSubTemplate;
+    private final MessageCodec messageCodec;
+    private final NodeIdentity nodeIdentity;
+    private final RedisStreamTransport streamTransport;
+
+    @Value("${pubsub.replay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pubsub.replay.channels:*}")
+    private String channelSpec;
+
+    @Value("${pubsub.replay.capacity-per-channel:500}")
+    private int capacityPerChannel;
+
+    @Value("${pubsub.replay.max-channels:1024}")
+    private int maxChannels;
+
+    @Value("${pubsub.replay.max-tracked-streams:10000}")
+    private int maxTrackedStreams;
+
+    @Value("${pubsub.replay.recovery-delay-ms:500}")
+    private long recoveryDelayMillis;
+
+    @Value("${pubsub.replay.recovery-concurrency:4}")
+    private int recoveryConcurrency;
+
+    @Value("${pubsub.replay.mirror.enabled:false}")
+    private boolean mirrorEnabled;
+
+    @Value("${pubsub.replay.mirror.channels:*}")
+    private String mirrorChannelSpec;
+
+    @Value("${pubsub.replay.mirror.max-length:1000}")
+    private int mirrorMaxLength;
+
+    @Value("${pubsub.replay.mirror.ttl-seconds:3600}")
+    private long mirrorTtlSeconds;
+
+    @Value("${pubsub.replay.mirror.batch-size:256}")
+    private int mirrorBatchSize;
+
+    private List<String> channelPatterns;
+    private List<String> mirrorPatterns;
+
+    private final Map<String, ReplayRing> rings = new ConcurrentHashMap<>();
+    private final Map<String, ChannelSequence> sequences = new ConcurrentHashMap<>();
+    private SequenceGapDetector gapDetector;
+
+    // (발행 노드|채널) → 복구 대기 중인 누락 구간
+    private final Map<String, ConcurrentLinkedQueue<PendingGap>> pendingGaps = new ConcurrentHashMap<>();
+
+    private final LinkedBlockingQueue<MirrorWrite> mirrorQueue = new LinkedBlockingQueue<>();
+    private ExecutorService recoveryExecutor;
+    private Semaphore recoveryPermits;
+    private volatile BiConsumer<String, BaseMessage> recoveryHandler;
+
+    private volatile boolean running;
+    private Thread mirrorWriter;
+
+    // 통계
+    private final AtomicLong totalBuffered = new AtomicLong(0);
+    private final AtomicLong totalReplayRequests = new AtomicLong(0);
+    private final AtomicLong totalRingsEvicted = new AtomicLong(0);
+    private final AtomicLong totalGaps = new AtomicLong(0);
+    private final AtomicLong totalMissing = new AtomicLong(0);
+    private final AtomicLong totalLateArrivals = new AtomicLong(0);
+    private final AtomicLong totalRecovered = new AtomicLong(0);
+    private final AtomicLong totalUnrecovered = new AtomicLong(0);
+    private final AtomicLong totalMirrored = new AtomicLong(0);
+    private final AtomicLong totalMirrorFailures = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        channelPatterns = parsePatterns(channelSpec);
+        mirrorPatterns = parsePatterns(mirrorChannelSpec);
+        gapDetector = new SequenceGapDetector(maxTrackedStreams);
+        recoveryExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("replay-recovery-", 0).factory());
+        recoveryPermits = new Semaphore(recoveryConcurrency);
+
+        running = true;
+        if (mirrorEnabled) {
+            mirrorWriter = Thread.ofVirtual().name("replay-mirror").start(this::mirrorLoop);
+        }
+        log.info("재생 버퍼 시작 - 활성={}, 대상={}, 채널당={}건, 최대 채널={}, 미러={} ({}, 최대 {}건)",
+                enabled, channelPatterns, capacityPerChannel, maxChannels, mirrorEnabled, mirrorPatterns, mirrorMaxLength);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (mirrorWriter != null) {
+            mirrorWriter.interrupt();
+        }
+        if (recoveryExecutor != null) {
+            recoveryExecutor.shutdownNow();
+        }
+        if (mirrorEnabled) {
+            try {
+                flushMirror(drainMirror());
+            } catch (Exception e) {
+                log.warn("종료 전 재생 미러 기록 실패", e);
+            }
+        }
+    }
+
+    /**
+     * 누락 메시지 복구 시 호출할 처리기 등록 (구독자가 로컬 전달 경로로 처리)
+     */
+    public void setRecoveryHandler(BiConsumer<String, BaseMessage> recoveryHandler) {
+        this.recoveryHandler = recoveryHandler;
+    }
+
+    public boolean appliesTo(String channel) {
+        return enabled && channel != null && !streamTransport.isDurable(channel) && matchesAny(channelPatterns, channel);
+    }
+
+    private boolean mirrors(String channel) {
+        return mirrorEnabled && appliesTo(channel) && matchesAny(mirrorPatterns, channel);
+    }
+
+    // === 발행 측 ===
+
+    /**
+     * 발행 직전 시퀀스 번호 부여 (이 노드 기준 채널별 1, 2, 3 ...)
+     */
+    public void stamp(String channel, BaseMessage message) {
+        if (!appliesTo(channel)) {
+            return;
+        }
+        ChannelSequence sequence = sequences.computeIfAbsent(channel, c -> new ChannelSequence());
+        if (sequences.size() > maxChannels) {
+            evictOldest(sequences, ChannelSequence::lastUsedMillis, channel);
+        }
+        message.setSequenceNumber(sequence.next());
+    }
+
+    /**
+     * 발행 완료 메시지를 Redis 리스트에 미러링 (묶어서 뒤에서 기록)
+     */
+    @SuppressWarnings("unchecked")
+    public void mirror(String channel, BaseMessage message) {
+        if (!mirrors(channel)) {
+            return;
+        }
+        byte[] payload = ((RedisSerializer<Object>) redisPubSubTemplate.getValueSerializer()).serialize(message);
+        mirrorQueue.add(new MirrorWrite(mirrorKey(channel), payload));
+    }
+
+    // === 수신 측 ===
+
+    /**
+     * 수신한 시퀀스 번호 확인 (누락 탐지)
+     *
+     * 멱등 게이트/유효성 필터보다 먼저 호출한다. 중복이나 만료로 걸러지는 메시지도 발행 노드가 보낸 번호이므로,
+     * 걸러진 뒤에 확인하면 실제로는 도착한 번호가 누락으로 잡힌다.
+     */
+    public void observe(String channel, String originNodeId, Long sequence) {
+        if (sequence == null || originNodeId == null || !appliesTo(channel)) {
+            return;
+        }
+        String streamKey = originNodeId + "|" + channel;
+        if (!pendingGaps.isEmpty()) {
+            markArrived(streamKey, sequence);
+        }
+
+        SequenceGapDetector.Gap gap = gapDetector.observe(originNodeId, channel, sequence);
+        if (gap != null) {
+            totalGaps.incrementAndGet();
+            totalMissing.addAndGet(gap.size());
+            log.warn("시퀀스 누락 탐지: 채널={}, 발행 노드={}, 구간=[{}, {}] ({}건)",
+                    channel, gap.originNodeId(), gap.fromSequence(), gap.toSequence(), gap.size());
+
+            PendingGap pending = new PendingGap(gap);
+            pendingGaps.computeIfAbsent(streamKey, k -> new ConcurrentLinkedQueue<>()).add(pending);
+            recoveryExecutor.submit(() -> resolve(streamKey, pending));
+        }
+    }
+
+    /**
+     * 핸들러로 전달된 메시지를 링에 적재
+     */
+    public void onDelivered(String channel, BaseMessage message) {
+        if (!appliesTo(channel)) {
+            return;
+        }
+        ring(channel).append(message, System.currentTimeMillis());
+        totalBuffered.incrementAndGet();
+    }
+
+    /**
+     * 복구 대기 구간에 늦게 도착한 번호 표시
+     */
+    private void markArrived(String streamKey, long sequence) {
+        ConcurrentLinkedQueue<PendingGap> gaps = pendingGaps.get(streamKey);
+        if (gaps == null) {
+            return;
+        }
+        for (PendingGap pending : gaps) {
+            if (pending.markArrived(sequence)) {
+                totalLateArrivals.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 오프셋 fromOffset 이후 메시지 조회 (버퍼가 없으면 미러에서 읽은 임시 링으로 조회)
+     *
+     * 조회는 링을 만들지 않는다. 임의 채널 조회가 링을 만들면 max-channels 상한 때문에 실제 수신 중인 채널의 링이 밀려난다.
+     */
+    public ReplayResult replay(String channel, long fromOffset, int limit) {
+        totalReplayRequests.incrementAndGet();
+        if (!appliesTo(channel)) {
+            return ReplayResult.builder().channel(channel).entries(List.of()).build();
+        }
+
+        ReplayRing ring = rings.get(channel);
+        if (ring == null) {
+            if (!mirrors(channel)) {
+                return ReplayResult.builder().channel(channel).entries(List.of()).build();
+            }
+            ring = new ReplayRing(capacityPerChannel);
+            seedFromMirror(channel, ring);
+        }
+
+        ReplayRing.Slice slice = ring.since(Math.max(0, fromOffset), limit);
+        return ReplayResult.builder()
+                .channel(channel)
+                .entries(slice.entries())
+                .nextOffset(slice.nextOffset())
+                .oldestOffset(ring.oldestOffset())
+                .truncated(slice.truncated())
+                .build();
+    }
+
+    // === 내부 메서드들 ===
+
+    private ReplayRing ring(String channel) {
+        ReplayRing ring = rings.get(channel);
+        if (ring != null) {
+            return ring;
+        }
+        ring = rings.computeIfAbsent(channel, c -> new ReplayRing(capacityPerChannel));
+        if (rings.size() > maxChannels && evictOldest(rings, ReplayRing::getLastAppendMillis, channel)) {
+            totalRingsEvicted.incrementAndGet();
+        }
+        return ring;
+    }
+
+    /**
+     * 가장 오래 쓰이지 않은 채널 제거 (상한 초과 시 새 채널 생성 때만 호출)
+     */
+    private static <T> boolean evictOldest(Map<String, T> map, ToLongFunction<T> lastUsed, String keep) {
+        String oldest = null;
+        long oldestMillis = Long.MAX_VALUE;
+        for (Map.Entry<String, T> entry : map.entrySet()) {
+            long used = lastUsed.applyAsLong(entry.getValue());
+            if (!entry.getKey().equals(keep) && used < oldestMillis) {
+                oldest = entry.getKey();
+                oldestMillis = used;
+            }
+        }
+        return oldest != null && map.remove(oldest) != null;
+    }
+
+    /**
+     * 유예 시간 후 누락 구간 정리 - 늦게 도착한 번호를 빼고 미러에서 찾아 재처리
+     */
+    private void resolve(String streamKey, PendingGap pending) {
+        SequenceGapDetector.Gap gap = pending.gap;
+        long recovered = 0;
+        try {
+            Thread.sleep(recoveryDelayMillis);
+            pendingGaps.computeIfPresent(streamKey, (k, gaps) -> {
+                gaps.remove(pending);
+                return gaps.isEmpty() ? null : gaps;
+            });
+
+            if (pending.missing() > 0 && mirrors(gap.channel()) && recoveryHandler != null) {
+                recoveryPermits.acquire();
+                try {
+                    for (BaseMessage message : readMirror(gap.channel())) {
+                        Long sequence = message.getSequenceNumber();
+                        if (gap.originNodeId().equals(message.getOriginNodeId()) && sequence != null
+                                && gap.contains(sequence) && !pending.hasArrived(sequence)) {
+                            recoveryHandler.accept(gap.channel(), message);
+                            recovered++;
+                        }
+                    }
+                } finally {
+                    recoveryPermits.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            log.warn("누락 구간 복구 실패: 채널={}, 구간=[{}, {}]", gap.channel(), gap.fromSequence(), gap.toSequence(), e);
+        }
+
+        long missing = pending.missing();
+        totalRecovered.addAndGet(recovered);
+        totalUnrecovered.addAndGet(Math.max(0, missing - recovered));
+        if (missing > 0) {
+            log.info("누락 구간 정리: 채널={}, 발행 노드={}, 누락={}건, 복구={}건",
+                    gap.channel(), gap.originNodeId(), missing, recovered);
+        }
+    }
+
+    private void seedFromMirror(String channel, ReplayRing ring) {
+        try {
+            long now = System.currentTimeMillis();
+            for (BaseMessage message : readMirror(channel)) {
+                ring.append(message, now);
+            }
+        } catch (Exception e) {
+            log.warn("재생 미러 읽기 실패: 채널={}", channel, e);
+        }
+    }
+
+    private List<BaseMessage> readMirror(String channel) {
+        List<byte[]> payloads = redisPubSubTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.listCommands().lRange(mirrorKey(channel), 0, -1));
+        List<BaseMessage> messages = new ArrayList<>();
+        if (payloads == null) {
+            return messages;
+        }
+        for (byte[] payload : payloads) {
+            try {
+                messages.add(messageCodec.decode(payload));
+            } catch (Exception e) {
+                log.debug("재생 미러 항목 역직렬화 실패: 채널={}", channel, e);
+            }
+        }
+        return messages;
+    }
+
+    private void mirrorLoop() {
+        while (running) {
+            try {
+                MirrorWrite first = mirrorQueue.take();
+                List<MirrorWrite> batch = new ArrayList<>(mirrorBatchSize);
+                batch.add(first);
+                mirrorQueue.drainTo(batch, mirrorBatchSize - 1);
+                flushMirror(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("재생 미러 기록 실패", e);
+            }
+        }
+    }
+
+    private List<MirrorWrite> drainMirror() {
+        List<MirrorWrite> remaining = new ArrayList<>();
+        mirrorQueue.drainTo(remaining);
+        return remaining;
+    }
+
+    /**
+     * RPUSH + LTRIM + EXPIRE 를 파이프라인 한 번으로 기록
+     */
+    private void flushMirror(List<MirrorWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            redisPubSubTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (MirrorWrite write : batch) {
+                    connection.listCommands().rPush(write.key(), write.payload());
+                    connection.listCommands().lTrim(write.key(), -mirrorMaxLength, -1);
+                    connection.keyCommands().expire(write.key(), mirrorTtlSeconds);
+                }
+                return null;
+            });
+            totalMirrored.addAndGet(batch.size());
+        } catch (Exception e) {
+            totalMirrorFailures.addAndGet(batch.size());
+            throw e;
+        }
+    }
+
+    private static byte[] mirrorKey(String channel) {
+        return (MIRROR_KEY_PREFIX + channel).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean matchesAny(List<String> patterns, String channel) {
+        for (String pattern : patterns) {
+            if (TopicPattern.matches(pattern, channel)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> parsePatterns(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(spec.split(","))
+                .map(String::trim)
+                .filter(pattern -> !pattern.isEmpty())
+                .toList();
+    }
+
+    /**
+     * 재생 버퍼 통계
+     */
+    public ReplayStats getStats() {
+        long buffered = 0;
+        for (ReplayRing ring : rings.values()) {
+            buffered += ring.size();
+        }
+
+        return ReplayStats.builder()
+                .enabled(enabled)
+                .nodeId(nodeIdentity.getNodeId())
+                .channels(rings.size())
+                .bufferedMessages(buffered)
+                .capacityPerChannel(capacityPerChannel)
+                .sequencedChannels(sequences.size())
+                .trackedStreams(gapDetector.trackedStreams())
+                .totalBuffered(totalBuffered.get())
+                .totalReplayRequests(totalReplayRequests.get())
+                .totalRingsEvicted(totalRingsEvicted.get())
+                .totalGaps(totalGaps.get())
+                .totalMissing(totalMissing.get())
+                .totalLateArrivals(totalLateArrivals.get())
+                .pendingGaps(pendingGaps.size())
+                .totalRecovered(totalRecovered.get())
+                .totalUnrecovered(totalUnrecovered.get())
+                .mirrorEnabled(mirrorEnabled)
+                .mirrorPending(mirrorQueue.size())
+                .totalMirrored(totalMirrored.get())
+                .totalMirrorFailures(totalMirrorFailures.get())
+                .build();
+    }
+
+    private record MirrorWrite(byte[] key, byte[] payload) {
+    }
+
+    /**
+     * 복구 대기 중인 누락 구간 (arrived: 유예 시간 동안 늦게 도착한 번호)
+     */
+    private static final class PendingGap {
+
+        private final SequenceGapDetector.Gap gap;
+        private final BitSet arrived = new BitSet();
+
+        PendingGap(SequenceGapDetector.Gap gap) {
+            this.gap = gap;
+        }
+
+        synchronized boolean markArrived(long sequence) {
+            if (!gap.contains(sequence)) {
+                return false;
+            }
+            int index = (int) (sequence - gap.fromSequence());
+            if (arrived.get(index)) {
+                return false;
+            }
+            arrived.set(index);
+            return true;
+        }
+
+        synchronized boolean hasArrived(long sequence) {
+            return arrived.get((int) (sequence - gap.fromSequence()));
+        }
+
+        synchronized long missing() {
+            return gap.size() - arrived.cardinality();
+        }
+    }
+
+    /**
+     * 발행 채널별 시퀀스 카운터
+     */
+    private static final class ChannelSequence {
+
+        private final AtomicLong last = new AtomicLong(0);
+        private volatile long lastUsedMillis = System.currentTimeMillis();
+
+        long next() {
+            lastUsedMillis = System.currentTimeMillis();
+            return last.incrementAndGet();
+        }
+
+        long lastUsedMillis() {
+            return lastUsedMillis;
+        }
+    }
+
+    /**
+     * 재생 조회 결과 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class ReplayResult {
+        private final String channel;
+        private final List<ReplayRing.Entry> entries;
+        private final long nextOffset;
+        private final long oldestOffset;
+        private final boolean truncated;
+    }
+
+    /**
+     * 재생 버퍼 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class ReplayStats {
+        private final boolean enabled;
+        private final String nodeId;
+        private final int channels;
+        private final long bufferedMessages;
+        private final int capacityPerChannel;
+        private final int sequencedChannels;
+        private final int trackedStreams;
+        private final long totalBuffered;
+        private final long totalReplayRequests;
+        private final long totalRingsEvicted;
+        private final long totalGaps;
+        private final long totalMissing;
+        private final long totalLateArrivals;
+        private final int pendingGaps;
+        private final long totalRecovered;
+        private final long totalUnrecovered;
+        private final boolean mirrorEnabled;
+        private final int mirrorPending;
+        private final long totalMirrored;
+        private final long totalMirrorFailures;
+    }
+}
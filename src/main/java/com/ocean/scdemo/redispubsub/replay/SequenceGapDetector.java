@@ -0,0 +1,70 @@
+package com.ocean.scdemo.redispubsub.replay;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 발행 노드 × 채널별 봉투 시퀀스 번호로 누락 구간 탐지
+ *
+ * 발행 노드는 채널마다 1 부터 연속 번호를 붙인다. 수신 측은 (발행 노드, 채널) 별로 마지막 번호만 기억하며
+ * - 다음 번호면 정상, 건너뛰면 누락 구간(Gap) 반환
+ * - 같거나 작은 번호는 중복/지연 도착으로 보고 무시 (복구로 채워진 메시지도 여기에 해당)
+ * - 1 이 다시 오면 발행 측 재시작(또는 카운터 축출)으로 보고 기준을 초기화
+ * - 처음 보는 발행 노드/채널은 기준만 잡는다 (이전 구간은 알 수 없음)
+ *
+ * 추적 대상 수는 maxStreams 로 제한하며 가장 오래 쓰이지 않은 항목부터 버린다.
+ */
+public class SequenceGapDetector {
+
+    private final Map<String, long[]> lastSeen;
+
+    public SequenceGapDetector(int maxStreams) {
+        if (maxStreams <= 0) {
+            throw new IllegalArgumentException("maxStreams 는 0보다 커야 합니다: " + maxStreams);
+        }
+        this.lastSeen = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+                return size() > maxStreams;
+            }
+        };
+    }
+
+    /**
+     * 시퀀스 관측 (누락이 있으면 Gap, 없으면 null)
+     */
+    public synchronized Gap observe(String originNodeId, String channel, long sequence) {
+        String key = originNodeId + "|" + channel;
+        long[] last = lastSeen.get(key);
+
+        if (last == null || sequence == 1) {
+            lastSeen.put(key, new long[]{sequence});
+            return null;
+        }
+        if (sequence <= last[0]) {
+            return null;
+        }
+
+        long expected = last[0] + 1;
+        last[0] = sequence;
+        return sequence > expected ? new Gap(originNodeId, channel, expected, sequence - 1) : null;
+    }
+
+    public synchronized int trackedStreams() {
+        return lastSeen.size();
+    }
+
+    /**
+     * 누락 구간 [fromSequence, toSequence]
+     */
+    public record Gap(String originNodeId, String channel, long fromSequence, long toSequence) {
+
+        public long size() {
+            return toSequence - fromSequence + 1;
+        }
+
+        public boolean contains(long sequence) {
+            return sequence >= fromSequence && sequence <= toSequence;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.ocean.scdemo.redispubsub.retry;
+
+import com.ocean.scdemo.redispubsub.codec.MessageCodec;
+import com.ocean.scdemo.redispubsub.config.NodeIdentity;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis 기반 Dead-Letter 저장소
+ *
+ * 구조:
+ * - pubsub:dlq:index       ZSET (score = 적재 epoch millis, member = 엔트리 ID)
+ * - pubsub:dlq:entry:{ID}  HASH (메타데이터 + 직렬화된 페이로드), 보관 기간 TTL
+ *
+ * 엔트리 ID 는 "노드ID:messageId" 이므로 같은 메시지가 여러 노드에서 실패해도 각각 남는다.
+ * 적재 시 보관 기간이 지난 인덱스와 max-entries 초과분(오래된 순)을 함께 정리하고,
+ * 인덱스에서 빠진 엔트리 HASH 는 TTL 로 사라진다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeadLetterStore {
+
+    private static final String INDEX_KEY = "pubsub:dlq:index";
+    private static final String ENTRY_KEY_PREFIX = "pubsub:dlq:entry:";
+
+    private static final String FIELD_MESSAGE_ID = "messageId";
+    private static final String FIELD_MESSAGE_TYPE = "messageType";
+    private static final String FIELD_CHANNEL = "channel";
+    private static final String FIELD_NODE_ID = "nodeId";
+    private static final String FIELD_ATTEMPTS = "attempts";
+    private static final String FIELD_ERROR = "error";
+    private static final String FIELD_FAILED_AT = "failedAt";
+    private static final String FIELD_PAYLOAD = "payload";
+
+    private static final int PREVIEW_BYTES = 500;
+
+    private final RedisTemplate<String, Object> redisPubSubTemplate;
+    private final MessageCodec messageCodec;
+    private final NodeIdentity nodeIdentity;
+
+    @Value("${pubsub.retry.dlq.retention-days:7}")
+    private long retentionDays;
+
+    @Value("${pubsub.retry.dlq.max-entries:100000}")
+    private long maxEntries;
+
+    /**
+     * 재시도가 소진된 메시지 적재
+     *
+     * @return 엔트리 ID
+     */
+    @SuppressWarnings("unchecked")
+    public String add(BaseMessage message, int attempts, String error) {
+        String id = nodeIdentity.getNodeId() + ":" + message.getMessageId();
+        long now = System.currentTimeMillis();
+        byte[] payload = ((RedisSerializer<Object>) redisPubSubTemplate.getValueSerializer()).serialize(message);
+
+        Map<byte[], byte[]> fields = new HashMap<>();
+        fields.put(bytes(FIELD_MESSAGE_ID), bytes(message.getMessageId()));
+        fields.put(bytes(FIELD_MESSAGE_TYPE), bytes(String.valueOf(message.getMessageType())));
+        fields.put(bytes(FIELD_CHANNEL), bytes(String.valueOf(message.getChannel())));
+        fields.put(bytes(FIELD_NODE_ID), bytes(nodeIdentity.getNodeId()));
+        fields.put(bytes(FIELD_ATTEMPTS), bytes(Integer.toString(attempts)));
+        fields.put(bytes(FIELD_ERROR), bytes(error != null ? error : ""));
+        fields.put(bytes(FIELD_FAILED_AT), bytes(Long.toString(now)));
+        fields.put(bytes(FIELD_PAYLOAD), payload);
+
+        byte[] entryKey = bytes(ENTRY_KEY_PREFIX + id);
+        byte[] index = bytes(INDEX_KEY);
+        long retentionMillis = retentionDays * 86_400_000L;
+
+        redisPubSubTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hashCommands().hMSet(entryKey, fields);
+            connection.keyCommands().pExpire(entryKey, retentionMillis);
+            connection.zSetCommands().zAdd(index, now, bytes(id));
+            connection.zSetCommands().zRemRangeByScore(index, Double.NEGATIVE_INFINITY, now - retentionMillis);
+            connection.zSetCommands().zRemRange(index, 0, -(maxEntries + 1));
+            return null;
+        });
+
+        log.warn("Dead-letter 적재: ID={}, 타입={}, 시도={}회, 사유={}", id, message.getMessageType(), attempts, error);
+        return id;
+    }
+
+    /**
+     * 최근 적재 순 목록 (페이로드 제외)
+     */
+    public List<DeadLetterEntry> list(int limit) {
+        Set<byte[]> ids = redisPubSubTemplate.execute((RedisCallback<Set<byte[]>>) connection ->
+                connection.zSetCommands().zRevRange(bytes(INDEX_KEY), 0, limit - 1));
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<byte[]> idList = new ArrayList<>(ids);
+        byte[][] metaFields = {
+                bytes(FIELD_MESSAGE_ID), bytes(FIELD_MESSAGE_TYPE), bytes(FIELD_CHANNEL), bytes(FIELD_NODE_ID),
+                bytes(FIELD_ATTEMPTS), bytes(FIELD_ERROR), bytes(FIELD_FAILED_AT)
+        };
+        List<Object> rows = redisPubSubTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] id : idList) {
+                connection.hashCommands().hMGet(entryKey(id), metaFields);
+            }
+            return null;
+        }, RedisSerializer.byteArray());
+
+        List<DeadLetterEntry> entries = new ArrayList<>(idList.size());
+        for (int i = 0; i < idList.size(); i++) {
+            @SuppressWarnings("unchecked")
+            List<byte[]> values = (List<byte[]>) rows.get(i);
+            if (values == null || values.get(0) == null) {
+                continue; // TTL 로 사라진 엔트리
+            }
+            entries.add(toEntry(string(idList.get(i)), values.get(0), values.get(1), values.get(2), values.get(3),
+                    values.get(4), values.get(5), values.get(6), null));
+        }
+        return entries;
+    }
+
+    /**
+     * 엔트리 상세 조회 (페이로드 미리보기 포함, 없으면 null)
+     */
+    public DeadLetterEntry get(String id) {
+        Map<String, byte[]> hash = entryHash(id);
+        if (hash == null) {
+            return null;
+        }
+        return toEntry(id, hash.get(FIELD_MESSAGE_ID), hash.get(FIELD_MESSAGE_TYPE), hash.get(FIELD_CHANNEL),
+                hash.get(FIELD_NODE_ID), hash.get(FIELD_ATTEMPTS), hash.get(FIELD_ERROR), hash.get(FIELD_FAILED_AT),
+                MessageCodec.preview(hash.get(FIELD_PAYLOAD), PREVIEW_BYTES));
+    }
+
+    /**
+     * 재처리용 메시지 복원 (없으면 null)
+     */
+    public BaseMessage load(String id) throws IOException {
+        byte[] payload = redisPubSubTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.hashCommands().hGet(bytes(ENTRY_KEY_PREFIX + id), bytes(FIELD_PAYLOAD)));
+        return payload != null ? messageCodec.decode(payload) : null;
+    }
+
+    /**
+     * 재처리 실패 시 시도 횟수/사유 갱신
+     */
+    public void recordFailedRedrive(String id, int attempts, String error) {
+        byte[] entryKey = bytes(ENTRY_KEY_PREFIX + id);
+        redisPubSubTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.hashCommands().hSet(entryKey, bytes(FIELD_ATTEMPTS), bytes(Integer.toString(attempts)));
+            connection.hashCommands().hSet(entryKey, bytes(FIELD_ERROR), bytes(error != null ? error : ""));
+            return null;
+        });
+    }
+
+    public boolean remove(String id) {
+        Long removed = redisPubSubTemplate.execute((RedisCallback<Long>) connection -> {
+            connection.keyCommands().del(bytes(ENTRY_KEY_PREFIX + id));
+            return connection.zSetCommands().zRem(bytes(INDEX_KEY), bytes(id));
+        });
+        return removed != null && removed > 0;
+    }
+
+    public long size() {
+        Long size = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.zSetCommands().zCard(bytes(INDEX_KEY)));
+        return size != null ? size : 0;
+    }
+
+    private Map<String, byte[]> entryHash(String id) {
+        Map<byte[], byte[]> raw = redisPubSubTemplate.execute((RedisCallback<Map<byte[], byte[]>>) connection ->
+                connection.hashCommands().hGetAll(bytes(ENTRY_KEY_PREFIX + id)));
+        if (raw == null || raw.isEmpty()) {
+            return null;
+        }
+        // byte[] 키는 equals 가 동작하지 않으므로 문자열 키 맵으로 다시 담음
+        Map<String, byte[]> byName = new HashMap<>();
+        raw.forEach((field, value) -> byName.put(string(field), value));
+        return byName;
+    }
+
+    private static DeadLetterEntry toEntry(String id, byte[] messageId, byte[] messageType, byte[] channel,
+                                           byte[] nodeId, byte[] attempts, byte[] error, byte[] failedAt,
+                                           String payloadPreview) {
+        return DeadLetterEntry.builder()
+                .id(id)
+                .messageId(string(messageId))
+                .messageType(string(messageType))
+                .channel(string(channel))
+                .nodeId(string(nodeId))
+                .attempts(attempts != null ? Integer.parseInt(string(attempts)) : 0)
+                .lastError(string(error))
+                .failedAt(failedAt != null
+                        ? LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(string(failedAt))), ZoneId.systemDefault())
+                        : null)
+                .payloadPreview(payloadPreview)
+                .build();
+    }
+
+    private static byte[] entryKey(byte[] id) {
+        byte[] prefix = bytes(ENTRY_KEY_PREFIX);
+        byte[] key = new byte[prefix.length + id.length];
+        System.arraycopy(prefix, 0, key, 0, prefix.length);
+        System.arraycopy(id, 0, key, prefix.length, id.length);
+        return key;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Dead-letter 엔트리 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class DeadLetterEntry {
+        private final String id;
+        private final String messageId;
+        private final String messageType;
+        private final String channel;
+        private final String nodeId;
+        private final int attempts;
+        private final String lastError;
+        private final LocalDateTime failedAt;
+        private final String payloadPreview;
+    }
+}
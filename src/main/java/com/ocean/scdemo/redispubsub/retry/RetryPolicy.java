@@ -0,0 +1,61 @@
+package com.ocean.scdemo.redispubsub.retry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 메시지 타입별 재시도 정책 (지수 백오프 + equal jitter)
+ *
+ * n 번째 재시도 지연 = d/2 + random(0, d/2), d = min(maxBackoff, initialBackoff × multiplier^(n-1))
+ * 절반은 보장하고 절반만 흔들어 같은 시각에 실패한 메시지들이 한꺼번에 다시 몰리지 않게 한다.
+ *
+ * @param maxRetries 최초 처리 이후 최대 재시도 횟수 (0 이면 바로 DLQ)
+ */
+public record RetryPolicy(int maxRetries, long initialBackoffMillis, long maxBackoffMillis, double multiplier) {
+
+    public RetryPolicy {
+        if (maxRetries < 0 || initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis || multiplier < 1.0) {
+            throw new IllegalArgumentException("잘못된 재시도 정책: maxRetries=" + maxRetries
+                    + ", initial=" + initialBackoffMillis + ", max=" + maxBackoffMillis + ", multiplier=" + multiplier);
+        }
+    }
+
+    /**
+     * retry 번째(1부터) 재시도까지의 지연
+     *
+     * @param random 0 이상 1 미만 난수
+     */
+    public long backoffMillis(int retry, double random) {
+        double exponential = initialBackoffMillis * Math.pow(multiplier, Math.max(0, retry - 1));
+        long capped = (long) Math.min(maxBackoffMillis, exponential);
+        long half = capped / 2;
+        return capped - half + (long) (half * random);
+    }
+
+    /**
+     * "TYPE=최대재시도:초기지연ms:최대지연ms,..." 형식의 타입별 정책 파싱 (배수는 공통값 사용)
+     */
+    public static Map<String, RetryPolicy> parse(String spec, double multiplier) {
+        Map<String, RetryPolicy> policies = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return policies;
+        }
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] typeAndValues = trimmed.split("=", 2);
+            String[] values = typeAndValues.length == 2 ? typeAndValues[1].split(":") : new String[0];
+            if (values.length != 3) {
+                throw new IllegalArgumentException("재시도 정책 형식 오류 (TYPE=재시도:초기ms:최대ms): " + trimmed);
+            }
+            policies.put(typeAndValues[0].trim(), new RetryPolicy(
+                    Integer.parseInt(values[0].trim()),
+                    Long.parseLong(values[1].trim()),
+                    Long.parseLong(values[2].trim()),
+                    multiplier));
+        }
+        return policies;
+    }
+}
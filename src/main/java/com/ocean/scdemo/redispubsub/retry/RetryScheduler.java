@@ -0,0 +1,345 @@
+package com.ocean.scdemo.redispubsub.retry;
+
+import com.ocean.scdemo.redispubsub.delay.HierarchicalTimingWheel;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 핸들러 처리 실패 메시지 재시도 스케줄러
+ *
+ * 핵심 기능:
+ * - 메시지 타입별 정책(최대 재시도, 지수 백오프 + jitter)으로 다음 시도 시각 결정
+ * - 대기 중인 재시도는 계층형 타이밍 휠에 올리고 tick 스레드 하나가 깨움 (잠자는 스레드 없음)
+ * - 재시도 실행은 가상 스레드에서 하며 동시 실행 수를 max-concurrent 로 제한
+ *   (자리가 없으면 다음 tick 으로 미룸) → 수신/디스패치 스레드는 재시도를 기다리지 않는다
+ * - 재시도 소진, 대기열 초과, 종료 시 남은 재시도는 DeadLetterStore 로 적재
+ *
+ * 재시도 횟수는 BaseMessage.retryCount 로 센다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RetryScheduler {
+
+    private final DeadLetterStore deadLetterStore;
+
+    @Value("${pubsub.retry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pubsub.retry.tick-ms:50}")
+    private long tickMillis;
+
+    @Value("${pubsub.retry.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${pubsub.retry.max-concurrent:64}")
+    private int maxConcurrent;
+
+    @Value("${pubsub.retry.multiplier:2.0}")
+    private double multiplier;
+
+    @Value("${pubsub.retry.default.max-retries:3}")
+    private int defaultMaxRetries;
+
+    @Value("${pubsub.retry.default.initial-backoff-ms:200}")
+    private long defaultInitialBackoffMillis;
+
+    @Value("${pubsub.retry.default.max-backoff-ms:30000}")
+    private long defaultMaxBackoffMillis;
+
+    @Value("${pubsub.retry.policies:}")
+    private String policySpec;
+
+    private RetryPolicy defaultPolicy;
+    private Map<String, RetryPolicy> policies;
+
+    private HierarchicalTimingWheel<RetryTask> wheel;
+    private ExecutorService retryExecutor;
+    private Semaphore inFlight;
+
+    private volatile Predicate<BaseMessage> retryHandler;
+
+    private volatile boolean running;
+    private Thread ticker;
+
+    private final AtomicInteger pending = new AtomicInteger(0);
+
+    // 통계
+    private final AtomicLong totalScheduled = new AtomicLong(0);
+    private final AtomicLong totalAttempts = new AtomicLong(0);
+    private final AtomicLong totalRecovered = new AtomicLong(0);
+    private final AtomicLong totalDeadLettered = new AtomicLong(0);
+    private final AtomicLong totalDeadLetterFailures = new AtomicLong(0);
+    private final AtomicLong totalDeferred = new AtomicLong(0);
+    private final AtomicLong totalRedriven = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        defaultPolicy = new RetryPolicy(defaultMaxRetries, defaultInitialBackoffMillis, defaultMaxBackoffMillis, multiplier);
+        policies = RetryPolicy.parse(policySpec, multiplier);
+        wheel = new HierarchicalTimingWheel<>(tickMillis, 64, 3, System.currentTimeMillis());
+        retryExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("message-retry-", 0).factory());
+        inFlight = new Semaphore(maxConcurrent);
+
+        if (!enabled) {
+            log.info("메시지 재시도 비활성화 (설정) - 실패 메시지는 바로 DLQ 로 적재");
+            return;
+        }
+        running = true;
+        ticker = Thread.ofVirtual().name("message-retry-ticker").start(this::tickLoop);
+        log.info("메시지 재시도 시작 - 기본 정책={}, 타입별 정책={}, 휠 범위={}s",
+                defaultPolicy, policies, wheel.spanMillis() / 1000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+            try {
+                ticker.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        retryExecutor.shutdown();
+
+        // 휠에 남은 재시도는 잃지 않도록 DLQ 로 옮김
+        int drained = wheel.advance(System.currentTimeMillis() + wheel.spanMillis(),
+                task -> deadLetter(task.message(), "노드 종료로 재시도 중단 (마지막 오류: " + task.lastError() + ")"));
+        if (drained > 0) {
+            log.info("종료 전 대기 중인 재시도 {}건을 DLQ 로 적재", drained);
+        }
+    }
+
+    /**
+     * 재시도 실행 핸들러 등록 (true 반환 시 성공, 예외는 실패로 간주)
+     */
+    public void setRetryHandler(Predicate<BaseMessage> retryHandler) {
+        this.retryHandler = retryHandler;
+    }
+
+    /**
+     * 처리 실패 메시지 재시도 예약 (정책상 더 재시도할 수 없으면 DLQ 적재)
+     *
+     * @return 재시도가 예약되었으면 true, DLQ 로 보냈으면 false
+     */
+    public boolean submit(BaseMessage message, String error) {
+        RetryPolicy policy = policyFor(message.getMessageType());
+        int retries = retriesOf(message);
+
+        if (!running || retryHandler == null) {
+            deadLetter(message, error);
+            return false;
+        }
+        if (retries >= policy.maxRetries()) {
+            deadLetter(message, error);
+            return false;
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            deadLetter(message, "재시도 대기열 초과 (마지막 오류: " + error + ")");
+            return false;
+        }
+
+        long delay = policy.backoffMillis(retries + 1, ThreadLocalRandom.current().nextDouble());
+        if (!wheel.schedule(System.currentTimeMillis() + delay, new RetryTask(message, error))) {
+            pending.decrementAndGet();
+            deadLetter(message, "재시도 지연이 타이밍 휠 범위를 벗어남 (마지막 오류: " + error + ")");
+            return false;
+        }
+
+        totalScheduled.incrementAndGet();
+        log.debug("재시도 예약: ID={}, 타입={}, {}번째, {}ms 후", message.getMessageId(), message.getMessageType(),
+                retries + 1, delay);
+        return true;
+    }
+
+    /**
+     * DLQ 엔트리 재처리 (호출 스레드에서 즉시 실행, 성공 시 엔트리 삭제)
+     */
+    public RedriveResult redrive(String id) {
+        Predicate<BaseMessage> handler = this.retryHandler;
+        if (handler == null) {
+            return RedriveResult.HANDLER_UNAVAILABLE;
+        }
+
+        BaseMessage message;
+        try {
+            message = deadLetterStore.load(id);
+        } catch (Exception e) {
+            log.error("DLQ 메시지 복원 실패: ID={}", id, e);
+            return RedriveResult.UNREADABLE;
+        }
+        if (message == null) {
+            return RedriveResult.NOT_FOUND;
+        }
+
+        message.incrementRetryCount();
+        String error = attempt(handler, message);
+        if (error == null) {
+            deadLetterStore.remove(id);
+            totalRedriven.incrementAndGet();
+            log.info("DLQ 재처리 성공: ID={}", id);
+            return RedriveResult.REDRIVEN;
+        }
+        deadLetterStore.recordFailedRedrive(id, retriesOf(message) + 1, error);
+        return RedriveResult.FAILED;
+    }
+
+    public RetryPolicy policyFor(String messageType) {
+        return messageType != null ? policies.getOrDefault(messageType, defaultPolicy) : defaultPolicy;
+    }
+
+    private void tickLoop() {
+        while (running) {
+            try {
+                wheel.advance(System.currentTimeMillis(), this::launch);
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("재시도 tick 처리 실패", e);
+            }
+        }
+    }
+
+    /**
+     * 만료된 재시도를 가상 스레드로 실행 (동시 실행 상한이면 다음 tick 으로 미룸)
+     */
+    private void launch(RetryTask task) {
+        if (!inFlight.tryAcquire()) {
+            totalDeferred.incrementAndGet();
+            wheel.schedule(System.currentTimeMillis() + tickMillis, task);
+            return;
+        }
+        try {
+            retryExecutor.execute(() -> {
+                try {
+                    run(task);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (Exception e) {
+            inFlight.release();
+            pending.decrementAndGet();
+            deadLetter(task.message(), "재시도 실행 불가: " + e.getMessage());
+        }
+    }
+
+    private void run(RetryTask task) {
+        BaseMessage message = task.message();
+        pending.decrementAndGet();
+        message.incrementRetryCount();
+        totalAttempts.incrementAndGet();
+
+        String error = attempt(retryHandler, message);
+        if (error == null) {
+            totalRecovered.incrementAndGet();
+            log.info("재시도 성공: ID={}, 타입={}, {}번째", message.getMessageId(), message.getMessageType(),
+                    retriesOf(message));
+            return;
+        }
+        submit(message, error);
+    }
+
+    /**
+     * 핸들러 실행
+     *
+     * @return 실패 사유 (성공 시 null)
+     */
+    private String attempt(Predicate<BaseMessage> handler, BaseMessage message) {
+        try {
+            return handler.test(message) ? null : "핸들러 처리 실패";
+        } catch (Exception e) {
+            log.debug("재시도 중 예외: ID={}", message.getMessageId(), e);
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+    private void deadLetter(BaseMessage message, String error) {
+        try {
+            deadLetterStore.add(message, retriesOf(message) + 1, error);
+            totalDeadLettered.incrementAndGet();
+        } catch (Exception e) {
+            totalDeadLetterFailures.incrementAndGet();
+            log.error("DLQ 적재 실패 - 메시지 유실: ID={}, 타입={}", message.getMessageId(), message.getMessageType(), e);
+        }
+    }
+
+    private static int retriesOf(BaseMessage message) {
+        return message.getRetryCount() != null ? message.getRetryCount() : 0;
+    }
+
+    /**
+     * 재시도 통계
+     */
+    public RetryStats getStats() {
+        Map<String, RetryPolicy> effective = new TreeMap<>(policies);
+        effective.put("default", defaultPolicy);
+
+        return RetryStats.builder()
+                .enabled(running)
+                .pending(pending.get())
+                .inFlight(maxConcurrent - inFlight.availablePermits())
+                .totalScheduled(totalScheduled.get())
+                .totalAttempts(totalAttempts.get())
+                .totalRecovered(totalRecovered.get())
+                .totalDeferred(totalDeferred.get())
+                .totalDeadLettered(totalDeadLettered.get())
+                .totalDeadLetterFailures(totalDeadLetterFailures.get())
+                .totalRedriven(totalRedriven.get())
+                .policies(effective)
+                .build();
+    }
+
+    private record RetryTask(BaseMessage message, String lastError) {
+    }
+
+    /**
+     * DLQ 재처리 결과
+     */
+    public enum RedriveResult {
+        REDRIVEN,            // 처리 성공, 엔트리 삭제
+        FAILED,              // 처리 실패, 엔트리 유지 (시도 횟수/사유 갱신)
+        NOT_FOUND,           // 엔트리 없음 (만료 또는 삭제됨)
+        UNREADABLE,          // 페이로드 역직렬화 실패
+        HANDLER_UNAVAILABLE  // 재처리 핸들러 미등록
+    }
+
+    /**
+     * 재시도 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class RetryStats {
+        private final boolean enabled;
+        private final int pending;
+        private final int inFlight;
+        private final long totalScheduled;
+        private final long totalAttempts;
+        private final long totalRecovered;
+        private final long totalDeferred;
+        private final long totalDeadLettered;
+        private final long totalDeadLetterFailures;
+        private final long totalRedriven;
+        private final Map<String, RetryPolicy> policies;
+    }
+}
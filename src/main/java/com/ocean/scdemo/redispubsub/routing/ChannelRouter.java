@@ -0,0 +1,295 @@
+package com.ocean.scdemo.redispubsub.routing;
+
+import com.ocean.scdemo.redispubsub.routing.SubscriptionCompiler.CompiledSubscriptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 로컬 채널 라우터
+ *
+ * 핵심 기능:
+ * - 선언된 토픽(핸들러별 관심 채널)은 로컬 트라이 라우팅 테이블에만 등록
+ * - Redis 에는 SubscriptionCompiler 가 만든 겹치지 않는 최소 구독 집합만 구독
+ * - 수신 채널 → 핸들러 집합을 트라이로 한 번에 찾아 핸들러별로 정확히 한 번 전달
+ * - 겹치는 구독으로 같은 publish 가 여러 번 도착하면 정규 구독 외의 전달은 버리고 카운트
+ *
+ * 라우팅 테이블은 변경 시 새로 만들어 volatile 참조로 교체하므로 수신 경로에는 락이 없다.
+ * 샤드 Pub/Sub 이 활성화되면 샤딩 패밀리 안쪽 토픽은 로컬 라우팅에만 두고 Redis 구독 집합에서 뺀다.
+ */
+@Slf4j
+@Component
+public class ChannelRouter implements MessageListener {
+
+    // 토픽 → 관심 핸들러 (선언 순서 유지)
+    private final Map<String, Set<MessageListener>> declaredRoutes = new LinkedHashMap<>();
+
+    // 현재 Redis 에 실제로 구독 중인 토픽
+    private final Set<Topic> subscribedTopics = new LinkedHashSet<>();
+
+    // SSUBSCRIBE 로만 받는 채널 패밀리 prefix (샤드 Pub/Sub 활성화 시)
+    private List<String> shardedPrefixes = List.of();
+
+    private volatile RoutingTable table = RoutingTable.empty();
+
+    // 라우팅 통계
+    private final AtomicLong totalRouted = new AtomicLong(0);
+    private final AtomicLong totalDuplicateDeliveries = new AtomicLong(0);
+    private final AtomicLong totalUnrouted = new AtomicLong(0);
+
+    /**
+     * 토픽에 핸들러 등록 (Redis 구독 반영은 apply 호출 시)
+     */
+    public synchronized void register(String topic, MessageListener listener) {
+        declaredRoutes.computeIfAbsent(topic, t -> new LinkedHashSet<>()).add(listener);
+        rebuild();
+    }
+
+    /**
+     * 토픽에서 핸들러 제거
+     */
+    public synchronized boolean unregister(String topic, MessageListener listener) {
+        Set<MessageListener> listeners = declaredRoutes.get(topic);
+        if (listeners == null || !listeners.remove(listener)) {
+            return false;
+        }
+        if (listeners.isEmpty()) {
+            declaredRoutes.remove(topic);
+        }
+        rebuild();
+        return true;
+    }
+
+    /**
+     * 핸들러의 모든 토픽 등록 제거
+     */
+    public synchronized void unregisterAll(MessageListener listener) {
+        declaredRoutes.values().removeIf(listeners -> listeners.remove(listener) && listeners.isEmpty());
+        rebuild();
+    }
+
+    /**
+     * 샤드 Pub/Sub 으로 받는 채널 패밀리 지정
+     * SPUBLISH 는 PSUBSCRIBE/SUBSCRIBE 구독자에게 전달되지 않으므로 이 안쪽 토픽은 Redis 에 구독하지 않는다.
+     */
+    public synchronized void setShardedPrefixes(List<String> prefixes) {
+        this.shardedPrefixes = List.copyOf(prefixes);
+        rebuild();
+    }
+
+    private boolean isSharded(String topic) {
+        String literal = TopicPattern.literalPrefix(topic);
+        for (String prefix : shardedPrefixes) {
+            if (literal.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 컴파일된 최소 구독 집합을 컨테이너에 반영 (이전 구독과의 차이만 추가/제거)
+     */
+    public synchronized CompiledSubscriptions apply(RedisMessageListenerContainer container) {
+        CompiledSubscriptions compiled = table.compiled;
+
+        Set<Topic> target = new LinkedHashSet<>();
+        compiled.effectivePatterns().forEach(pattern -> target.add(new PatternTopic(pattern)));
+        compiled.effectiveChannels().forEach(channel -> target.add(new ChannelTopic(channel)));
+
+        List<Topic> toRemove = new ArrayList<>();
+        for (Topic topic : subscribedTopics) {
+            if (!target.contains(topic)) {
+                toRemove.add(topic);
+            }
+        }
+        List<Topic> toAdd = new ArrayList<>();
+        for (Topic topic : target) {
+            if (!subscribedTopics.contains(topic)) {
+                toAdd.add(topic);
+            }
+        }
+
+        if (!toAdd.isEmpty()) {
+            container.addMessageListener(this, toAdd);
+            subscribedTopics.addAll(toAdd);
+        }
+        if (!toRemove.isEmpty()) {
+            container.removeMessageListener(this, toRemove);
+            toRemove.forEach(subscribedTopics::remove);
+        }
+
+        if (!toAdd.isEmpty() || !toRemove.isEmpty()) {
+            log.info("구독 집합 반영: 추가={}, 제거={}, 유효 구독={}개",
+                    toTopicNames(toAdd), toTopicNames(toRemove), compiled.effectiveCount());
+        }
+        return compiled;
+    }
+
+    /**
+     * 컨테이너에서 라우터 구독 전체 해제
+     */
+    public synchronized void detach(RedisMessageListenerContainer container) {
+        container.removeMessageListener(this);
+        subscribedTopics.clear();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        RoutingTable current = this.table;
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+
+        // 같은 채널을 덮는 구독이 여럿이면 정규 구독으로 도착한 전달만 처리
+        Subscription canonical = current.subscriptions.first(channel);
+        if (canonical != null && !canonical.isDeliveredBy(pattern, message.getChannel())) {
+            totalDuplicateDeliveries.incrementAndGet();
+            log.debug("중복 전달 무시: channel={}, 정규 구독={}", channel, canonical.topic());
+            return;
+        }
+
+        deliver(current, channel, message, pattern);
+    }
+
+    /**
+     * 샤드 채널(SSUBSCRIBE) 수신 메시지 라우팅
+     * SPUBLISH 는 PUBLISH/PSUBSCRIBE 와 전달 공간이 분리되어 있어 중복 판별 없이 바로 전달한다.
+     */
+    public void onShardMessage(Message message) {
+        deliver(this.table, new String(message.getChannel(), StandardCharsets.UTF_8), message, null);
+    }
+
+    private void deliver(RoutingTable current, String channel, Message message, byte[] pattern) {
+        List<MessageListener> handlers = current.routes.match(channel);
+        if (handlers.isEmpty()) {
+            totalUnrouted.incrementAndGet();
+            log.debug("라우팅 대상 없음: channel={}", channel);
+            return;
+        }
+
+        totalRouted.incrementAndGet();
+        for (MessageListener handler : handlers) {
+            handler.onMessage(message, pattern);
+        }
+    }
+
+    /**
+     * 채널에 매칭되는 핸들러 목록 조회
+     */
+    public List<MessageListener> route(String channel) {
+        return table.routes.match(channel);
+    }
+
+    public CompiledSubscriptions getCompiledSubscriptions() {
+        return table.compiled;
+    }
+
+    /**
+     * 유효 구독/라우팅 리포트
+     */
+    public RoutingReport getReport() {
+        RoutingTable current = this.table;
+        return RoutingReport.builder()
+                .declaredTopics(current.compiled.declared())
+                .effectivePatterns(current.compiled.effectivePatterns())
+                .effectiveChannels(current.compiled.effectiveChannels())
+                .subsumedTopics(current.compiled.subsumedBy())
+                .shardedTopics(current.shardedTopics)
+                .routeCount(current.routes.size())
+                .totalRouted(totalRouted.get())
+                .totalDuplicateDeliveries(totalDuplicateDeliveries.get())
+                .totalUnrouted(totalUnrouted.get())
+                .build();
+    }
+
+    public long getDuplicateDeliveries() {
+        return totalDuplicateDeliveries.get();
+    }
+
+    private void rebuild() {
+        List<String> shardedTopics = new ArrayList<>();
+        List<String> redisTopics = new ArrayList<>();
+        for (String topic : declaredRoutes.keySet()) {
+            (isSharded(topic) ? shardedTopics : redisTopics).add(topic);
+        }
+        CompiledSubscriptions compiled = SubscriptionCompiler.compile(redisTopics);
+
+        ChannelTrie<MessageListener> routes = new ChannelTrie<>();
+        declaredRoutes.forEach((topic, listeners) -> listeners.forEach(listener -> routes.add(topic, listener)));
+
+        ChannelTrie<Subscription> subscriptions = new ChannelTrie<>();
+        compiled.effectivePatterns().forEach(pattern -> subscriptions.add(pattern, Subscription.of(pattern)));
+        compiled.effectiveChannels().forEach(channel -> subscriptions.add(channel, Subscription.of(channel)));
+
+        this.table = new RoutingTable(routes, subscriptions, compiled, List.copyOf(shardedTopics));
+    }
+
+    private static List<String> toTopicNames(List<Topic> topics) {
+        return topics.stream().map(Topic::getTopic).toList();
+    }
+
+    private record RoutingTable(
+            ChannelTrie<MessageListener> routes,
+            ChannelTrie<Subscription> subscriptions,
+            CompiledSubscriptions compiled,
+            List<String> shardedTopics) {
+
+        static RoutingTable empty() {
+            return new RoutingTable(new ChannelTrie<>(), new ChannelTrie<>(),
+                    SubscriptionCompiler.compile(List.of()), List.of());
+        }
+    }
+
+    /**
+     * Redis 에 실제 구독한 토픽
+     */
+    private record Subscription(String topic, boolean pattern, byte[] topicBytes) {
+
+        static Subscription of(String topic) {
+            return new Subscription(topic, TopicPattern.kindOf(topic) != TopicPattern.Kind.EXACT,
+                    topic.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * 이 구독을 통해 도착한 전달인지 확인
+         * 채널 구독 전달은 pattern 이 null 이거나 채널명으로 온다.
+         */
+        boolean isDeliveredBy(byte[] deliveredPattern, byte[] channel) {
+            if (pattern) {
+                return Arrays.equals(topicBytes, deliveredPattern);
+            }
+            return deliveredPattern == null || Arrays.equals(deliveredPattern, channel);
+        }
+    }
+
+    /**
+     * 라우팅 리포트 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class RoutingReport {
+        private final List<String> declaredTopics;
+        private final List<String> effectivePatterns;
+        private final List<String> effectiveChannels;
+        private final Map<String, String> subsumedTopics;
+        private final List<String> shardedTopics;
+        private final int routeCount;
+        private final long totalRouted;
+        private final long totalDuplicateDeliveries;
+        private final long totalUnrouted;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ocean.scdemo.redispubsub.routing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 채널명 문자 단위 트라이
+ *
+ * - EXACT 토픽: 채널명 끝 노드의 exact 값
+ * - PREFIX 토픽(xxx*): 리터럴 prefix 끝 노드의 prefix 값 (탐색 경로에서 모두 수집)
+ * - GLOB 토픽: 리터럴 prefix 노드에 매달아 두고 해당 경로를 지날 때만 glob 매칭
+ *
+ * 조회는 채널 길이에 비례하며 같은 값이 여러 토픽에 매칭되어도 결과에는 한 번만 담긴다.
+ * 구축 후에는 읽기 전용으로 사용한다 (변경 시 새로 만들어 교체).
+ */
+public final class ChannelTrie<T> {
+
+    private final Node<T> root = new Node<>();
+    private int size;
+
+    public void add(String topic, T value) {
+        TopicPattern.Kind kind = TopicPattern.kindOf(topic);
+        Node<T> node = descend(TopicPattern.literalPrefix(topic));
+
+        switch (kind) {
+            case EXACT -> node.exactValues.add(value);
+            case PREFIX -> node.prefixValues.add(value);
+            case GLOB -> node.globs.add(new GlobEntry<>(topic, value));
+        }
+        size++;
+    }
+
+    /**
+     * 채널에 매칭되는 값 목록 (중복 제거, 짧은 prefix → exact → glob 순)
+     */
+    public List<T> match(String channel) {
+        List<T> result = new ArrayList<>(2);
+        Node<T> node = root;
+        int index = 0;
+
+        while (node != null) {
+            collect(node.prefixValues, result);
+            for (GlobEntry<T> glob : node.globs) {
+                if (TopicPattern.matches(glob.topic, channel)) {
+                    addDistinct(glob.value, result);
+                }
+            }
+            if (index == channel.length()) {
+                collect(node.exactValues, result);
+                break;
+            }
+            node = node.children.get(channel.charAt(index++));
+        }
+        return result;
+    }
+
+    /**
+     * 채널에 매칭되는 첫 값 (가장 짧은 prefix 우선)
+     */
+    public T first(String channel) {
+        List<T> matched = match(channel);
+        return matched.isEmpty() ? null : matched.get(0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private Node<T> descend(String literal) {
+        Node<T> node = root;
+        for (int i = 0; i < literal.length(); i++) {
+            node = node.children.computeIfAbsent(literal.charAt(i), c -> new Node<>());
+        }
+        return node;
+    }
+
+    private static <T> void collect(List<T> values, List<T> result) {
+        for (T value : values) {
+            addDistinct(value, result);
+        }
+    }
+
+    private static <T> void addDistinct(T value, List<T> result) {
+        for (T existing : result) {
+            if (existing == value) {
+                return;
+            }
+        }
+        result.add(value);
+    }
+
+    private static final class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>(4);
+        private final List<T> exactValues = new ArrayList<>(1);
+        private final List<T> prefixValues = new ArrayList<>(1);
+        private final List<GlobEntry<T>> globs = new ArrayList<>(0);
+    }
+
+    private record GlobEntry<T>(String topic, T value) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.ocean.scdemo.redispubsub.routing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 선언된 구독 토픽을 서로 겹치지 않는 최소 구독 집합으로 컴파일
+ *
+ * 규칙:
+ * - PREFIX 패턴 P 가 다른 PREFIX 패턴 Q 의 리터럴로 시작하면 Q 에 포함 (chat:room:* ⊂ chat:*)
+ * - EXACT 채널이 PREFIX 패턴의 리터럴로 시작하면 포함
+ * - GLOB 패턴의 리터럴 prefix 가 PREFIX 패턴의 리터럴로 시작하면 포함
+ * - 와일드카드가 없는 패턴 토픽은 EXACT 채널(SUBSCRIBE)로 내린다
+ *
+ * 포함 관계는 보수적으로만 판단하므로 GLOB 끼리의 중첩은 남을 수 있으며,
+ * 그 경우 ChannelRouter 가 정규(canonical) 구독 하나로만 처리한다.
+ */
+public final class SubscriptionCompiler {
+
+    private SubscriptionCompiler() {
+    }
+
+    public static CompiledSubscriptions compile(Collection<String> declaredTopics) {
+        Set<String> declared = new LinkedHashSet<>(declaredTopics);
+
+        List<String> prefixes = new ArrayList<>();
+        List<String> exacts = new ArrayList<>();
+        List<String> globs = new ArrayList<>();
+        for (String topic : declared) {
+            switch (TopicPattern.kindOf(topic)) {
+                case PREFIX -> prefixes.add(topic);
+                case EXACT -> exacts.add(topic);
+                case GLOB -> globs.add(topic);
+            }
+        }
+
+        // 짧은 prefix 부터 채택해야 포함 관계 판단이 한 번에 끝난다
+        prefixes.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+
+        Map<String, String> subsumedBy = new LinkedHashMap<>();
+        List<String> effectivePatterns = new ArrayList<>();
+
+        for (String prefix : prefixes) {
+            String cover = findCover(effectivePatterns, TopicPattern.literalPrefix(prefix));
+            if (cover != null) {
+                subsumedBy.put(prefix, cover);
+            } else {
+                effectivePatterns.add(prefix);
+            }
+        }
+
+        List<String> prefixCovers = List.copyOf(effectivePatterns);
+
+        for (String glob : globs) {
+            String cover = findCover(prefixCovers, TopicPattern.literalPrefix(glob));
+            if (cover != null) {
+                subsumedBy.put(glob, cover);
+            } else {
+                effectivePatterns.add(glob);
+            }
+        }
+
+        List<String> effectiveChannels = new ArrayList<>();
+        for (String exact : exacts) {
+            String cover = findCover(prefixCovers, exact);
+            if (cover != null) {
+                subsumedBy.put(exact, cover);
+            } else {
+                effectiveChannels.add(exact);
+            }
+        }
+
+        return new CompiledSubscriptions(
+                List.copyOf(declared),
+                Collections.unmodifiableList(effectivePatterns),
+                Collections.unmodifiableList(effectiveChannels),
+                Collections.unmodifiableMap(subsumedBy));
+    }
+
+    private static String findCover(List<String> prefixPatterns, String literal) {
+        for (String pattern : prefixPatterns) {
+            if (literal.startsWith(TopicPattern.literalPrefix(pattern))) {
+                return pattern;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 컴파일 결과
+     *
+     * @param declared          선언된 토픽 (중복 제거, 선언 순서)
+     * @param effectivePatterns 실제 PSUBSCRIBE 할 패턴
+     * @param effectiveChannels 실제 SUBSCRIBE 할 채널
+     * @param subsumedBy        다른 구독에 포함되어 제외된 토픽 → 포함하는 패턴
+     */
+    public record CompiledSubscriptions(
+            List<String> declared,
+            List<String> effectivePatterns,
+            List<String> effectiveChannels,
+            Map<String, String> subsumedBy) {
+
+        public int effectiveCount() {
+            return effectivePatterns.size() + effectiveChannels.size();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.ocean.scdemo.redispubsub.routing;
+
+/**
+ * Redis 구독 패턴(glob) 유틸리티
+ *
+ * 패턴 분류:
+ * - EXACT: 특수 문자가 없는 채널명 (SUBSCRIBE 대상)
+ * - PREFIX: 마지막 글자만 '*' 인 패턴 (예: chat:room:*) - 트라이 prefix 노드로 처리
+ * - GLOB: 그 밖의 패턴 (중간 '*', '?', '[...]', 이스케이프) - glob 매칭으로 처리
+ */
+public final class TopicPattern {
+
+    public enum Kind {
+        EXACT,
+        PREFIX,
+        GLOB
+    }
+
+    private TopicPattern() {
+    }
+
+    public static Kind kindOf(String topic) {
+        int firstSpecial = indexOfSpecial(topic);
+        if (firstSpecial < 0) {
+            return Kind.EXACT;
+        }
+        if (firstSpecial == topic.length() - 1 && topic.charAt(firstSpecial) == '*') {
+            return Kind.PREFIX;
+        }
+        return Kind.GLOB;
+    }
+
+    /**
+     * 첫 특수 문자 이전까지의 리터럴 prefix
+     * 패턴과 매칭되는 모든 채널은 이 prefix 로 시작한다.
+     */
+    public static String literalPrefix(String topic) {
+        int firstSpecial = indexOfSpecial(topic);
+        return firstSpecial < 0 ? topic : topic.substring(0, firstSpecial);
+    }
+
+    /**
+     * Redis glob 매칭 (*, ?, [abc], [^a], [a-z], \x)
+     */
+    public static boolean matches(String pattern, String channel) {
+        return matches(pattern, 0, channel, 0);
+    }
+
+    private static boolean matches(String pattern, int p, String channel, int c) {
+        while (p < pattern.length()) {
+            char pc = pattern.charAt(p);
+            switch (pc) {
+                case '*' -> {
+                    while (p + 1 < pattern.length() && pattern.charAt(p + 1) == '*') {
+                        p++;
+                    }
+                    if (p + 1 == pattern.length()) {
+                        return true;
+                    }
+                    for (int i = c; i <= channel.length(); i++) {
+                        if (matches(pattern, p + 1, channel, i)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                case '?' -> {
+                    if (c >= channel.length()) {
+                        return false;
+                    }
+                    p++;
+                    c++;
+                }
+                case '[' -> {
+                    if (c >= channel.length()) {
+                        return false;
+                    }
+                    int end = pattern.indexOf(']', p + 1);
+                    if (end < 0) {
+                        // 닫히지 않은 '[' 는 리터럴로 취급
+                        if (channel.charAt(c) != '[') {
+                            return false;
+                        }
+                        p++;
+                        c++;
+                        continue;
+                    }
+                    if (!matchesClass(pattern, p + 1, end, channel.charAt(c))) {
+                        return false;
+                    }
+                    p = end + 1;
+                    c++;
+                }
+                case '\\' -> {
+                    if (p + 1 < pattern.length()) {
+                        p++;
+                    }
+                    if (c >= channel.length() || pattern.charAt(p) != channel.charAt(c)) {
+                        return false;
+                    }
+                    p++;
+                    c++;
+                }
+                default -> {
+                    if (c >= channel.length() || pc != channel.charAt(c)) {
+                        return false;
+                    }
+                    p++;
+                    c++;
+                }
+            }
+        }
+        return c == channel.length();
+    }
+
+    private static boolean matchesClass(String pattern, int from, int to, char ch) {
+        boolean negate = from < to && pattern.charAt(from) == '^';
+        int i = negate ? from + 1 : from;
+        boolean matched = false;
+
+        while (i < to) {
+            char start = pattern.charAt(i);
+            if (start == '\\' && i + 1 < to) {
+                start = pattern.charAt(++i);
+            }
+            if (i + 2 < to && pattern.charAt(i + 1) == '-') {
+                char end = pattern.charAt(i + 2);
+                char low = (char) Math.min(start, end);
+                char high = (char) Math.max(start, end);
+                if (ch >= low && ch <= high) {
+                    matched = true;
+                }
+                i += 3;
+            } else {
+                if (ch == start) {
+                    matched = true;
+                }
+                i++;
+            }
+        }
+        return negate != matched;
+    }
+
+    private static int indexOfSpecial(String topic) {
+        for (int i = 0; i < topic.length(); i++) {
+            char ch = topic.charAt(i);
+            if (ch == '*' || ch == '?' || ch == '[' || ch == '\\') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
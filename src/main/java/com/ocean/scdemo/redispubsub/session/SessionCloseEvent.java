@@ -0,0 +1,30 @@
+package com.ocean.scdemo.redispubsub.session;
+
+/**
+ * 세션 종료 이벤트
+ *
+ * @param userId         사용자 ID
+ * @param sessionId      세션 ID
+ * @param startedAt      첫 이벤트 시각 (epoch millis)
+ * @param endedAt        종료 시각 (로그아웃은 로그아웃 시각, 그 외는 마지막 활동 시각)
+ * @param eventCount     세션 동안 받은 이벤트 수
+ * @param reason         종료 사유
+ */
+public record SessionCloseEvent(
+        String userId,
+        String sessionId,
+        long startedAt,
+        long endedAt,
+        long eventCount,
+        Reason reason) {
+
+    public long durationMillis() {
+        return Math.max(0, endedAt - startedAt);
+    }
+
+    public enum Reason {
+        LOGOUT,        // 명시적 로그아웃
+        IDLE_TIMEOUT,  // 유휴 시간 초과
+        CAPACITY       // 메모리 상한으로 가장 오래 쉬고 있던 세션 축출
+    }
+}
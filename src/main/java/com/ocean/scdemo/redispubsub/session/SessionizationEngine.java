@@ -0,0 +1,178 @@
+package com.ocean.scdemo.redispubsub.session;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 사용자 이벤트 세션화 엔진
+ *
+ * 핵심 기능:
+ * - userId 샤딩된 Sessionizer 로 세션 시작/갱신/로그아웃 처리
+ * - 가상 스레드 ticker 가 샤드별 타이밍 휠을 진행하여 유휴 세션 종료
+ * - 세션 수 상한(max-sessions) 초과 시 가장 오래 쉰 세션 축출
+ * - 종료 이벤트(지속 시간, 이벤트 수, 사유)를 등록된 리스너에 전달하고 사유별 통계 집계
+ */
+@Slf4j
+@Component
+public class SessionizationEngine {
+
+    @Value("${pubsub.session.shards:0}")
+    private int shardsProperty;
+
+    @Value("${pubsub.session.max-sessions:100000}")
+    private int maxSessions;
+
+    @Value("${pubsub.session.idle-timeout-seconds:1800}")
+    private long idleTimeoutSeconds;
+
+    @Value("${pubsub.session.tick-ms:1000}")
+    private long tickMillis;
+
+    private Sessionizer sessionizer;
+
+    private final List<Consumer<SessionCloseEvent>> closeListeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread ticker;
+
+    // 종료 통계
+    private final Map<SessionCloseEvent.Reason, LongAdder> closedByReason = new EnumMap<>(SessionCloseEvent.Reason.class);
+    private final LongAdder totalClosedDurationMillis = new LongAdder();
+    private final LongAdder totalClosedEvents = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        for (SessionCloseEvent.Reason reason : SessionCloseEvent.Reason.values()) {
+            closedByReason.put(reason, new LongAdder());
+        }
+
+        int shards = shardsProperty > 0 ? shardsProperty : Runtime.getRuntime().availableProcessors();
+        shards = shards <= 1 ? 1 : Integer.highestOneBit(shards - 1) << 1; // 2의 거듭제곱으로 올림
+
+        this.sessionizer = new Sessionizer(shards, maxSessions, idleTimeoutSeconds * 1000, tickMillis,
+                System.currentTimeMillis(), this::emit);
+
+        running = true;
+        ticker = Thread.ofVirtual().name("sessionization-ticker").start(this::tickLoop);
+
+        log.info("세션화 엔진 시작 - 샤드={}, 최대 세션={}, 유휴 만료={}s", shards, maxSessions, idleTimeoutSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+    }
+
+    /**
+     * 세션 종료 이벤트 리스너 등록
+     */
+    public void addCloseListener(Consumer<SessionCloseEvent> listener) {
+        closeListeners.add(listener);
+    }
+
+    /**
+     * 사용자 이벤트 기록 (세션 시작 또는 활동 갱신)
+     */
+    public void record(String userId, String sessionId) {
+        sessionizer.record(userId, sessionId, System.currentTimeMillis());
+    }
+
+    /**
+     * 로그아웃으로 세션 종료
+     */
+    public boolean close(String userId, String sessionId) {
+        return sessionizer.close(userId, sessionId, System.currentTimeMillis());
+    }
+
+    public int activeSessions() {
+        return sessionizer.activeSessions();
+    }
+
+    public int activeUsers() {
+        return sessionizer.activeUsers();
+    }
+
+    private void tickLoop() {
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+                int expired = sessionizer.expire(System.currentTimeMillis());
+                if (expired > 0) {
+                    log.debug("유휴 세션 만료: {}건", expired);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("세션 만료 처리 실패", e);
+            }
+        }
+    }
+
+    private void emit(SessionCloseEvent event) {
+        closedByReason.get(event.reason()).increment();
+        totalClosedDurationMillis.add(event.durationMillis());
+        totalClosedEvents.add(event.eventCount());
+
+        for (Consumer<SessionCloseEvent> listener : closeListeners) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                log.warn("세션 종료 리스너 처리 실패: 사용자={}", event.userId(), e);
+            }
+        }
+    }
+
+    /**
+     * 세션화 통계
+     */
+    public SessionStats getStats() {
+        Map<SessionCloseEvent.Reason, Long> closed = new EnumMap<>(SessionCloseEvent.Reason.class);
+        closedByReason.forEach((reason, count) -> closed.put(reason, count.sum()));
+        long totalClosed = closed.values().stream().mapToLong(Long::longValue).sum();
+
+        return SessionStats.builder()
+                .shards(sessionizer.shardCount())
+                .maxSessions(maxSessions)
+                .idleTimeoutSeconds(idleTimeoutSeconds)
+                .activeSessions(sessionizer.activeSessions())
+                .activeUsers(sessionizer.activeUsers())
+                .pendingTimers(sessionizer.pendingTimers())
+                .sessionsPerShard(sessionizer.sessionsPerShard())
+                .closedByReason(closed)
+                .avgSessionDurationMillis(totalClosed > 0 ? (double) totalClosedDurationMillis.sum() / totalClosed : 0.0)
+                .avgEventsPerSession(totalClosed > 0 ? (double) totalClosedEvents.sum() / totalClosed : 0.0)
+                .build();
+    }
+
+    /**
+     * 세션화 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class SessionStats {
+        private final int shards;
+        private final int maxSessions;
+        private final long idleTimeoutSeconds;
+        private final int activeSessions;
+        private final int activeUsers;
+        private final int pendingTimers;
+        private final int[] sessionsPerShard;
+        private final Map<SessionCloseEvent.Reason, Long> closedByReason;
+        private final double avgSessionDurationMillis;
+        private final double avgEventsPerSession;
+    }
+}
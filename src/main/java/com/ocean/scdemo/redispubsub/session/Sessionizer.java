@@ -0,0 +1,248 @@
+package com.ocean.scdemo.redispubsub.session;
+
+import com.ocean.scdemo.redispubsub.delay.HierarchicalTimingWheel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 유휴 만료 + 메모리 상한이 있는 세션화기
+ *
+ * - userId 해시로 샤드를 고르고 샤드마다 잠금/세션 맵/타이밍 휠을 따로 둬 전역 맵 경합이 없음
+ * - 세션 맵은 접근 순서 LinkedHashMap 이라 상한 도달 시 가장 오래 쉰 세션을 O(1) 로 축출
+ * - 유휴 만료는 세션당 타이머 하나만 둔다: 타이머가 울렸을 때 그 사이 활동이 있었으면
+ *   (마지막 활동 + 유휴 시간) 으로 다시 등록하므로 이벤트마다 타이머를 옮기지 않는다
+ * - 축출/로그아웃으로 닫힌 세션은 타이머를 취소하므로 휠 항목 수도 세션 상한을 넘지 않음
+ * - 종료 이벤트는 샤드 잠금을 푼 뒤 콜백으로 전달
+ *
+ * 시각은 모두 호출 측이 넘겨 주므로(epoch millis) 테스트에서 시간을 직접 진행할 수 있다.
+ */
+public class Sessionizer {
+
+    private static final String NO_SESSION = "-";
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final long idleTimeoutMillis;
+    private final Consumer<SessionCloseEvent> onClose;
+
+    public Sessionizer(int shardCount, int maxSessions, long idleTimeoutMillis, long tickMillis,
+                       long startMillis, Consumer<SessionCloseEvent> onClose) {
+        if (Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("샤드 수는 2의 거듭제곱이어야 합니다: " + shardCount);
+        }
+        if (maxSessions < shardCount) {
+            throw new IllegalArgumentException("최대 세션 수는 샤드 수 이상이어야 합니다: " + maxSessions);
+        }
+
+        this.shardMask = shardCount - 1;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.onClose = onClose;
+        this.shards = new Shard[shardCount];
+
+        int capacity = maxSessions / shardCount;
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(capacity, new HierarchicalTimingWheel<>(tickMillis, 64, 3, startMillis));
+        }
+        if (idleTimeoutMillis >= shards[0].wheel.spanMillis()) {
+            throw new IllegalArgumentException("유휴 시간이 타이밍 휠 범위를 넘습니다: " + idleTimeoutMillis + "ms");
+        }
+    }
+
+    /**
+     * 이벤트 기록 - 세션이 없으면 시작, 있으면 마지막 활동 시각/이벤트 수 갱신
+     */
+    public void record(String userId, String sessionId, long now) {
+        Shard shard = shardOf(userId);
+        String key = key(userId, sessionId);
+        SessionCloseEvent evicted = null;
+
+        synchronized (shard) {
+            ActiveSession session = shard.sessions.get(key);
+            if (session == null) {
+                if (shard.sessions.size() >= shard.capacity) {
+                    evicted = shard.evictEldest();
+                }
+                session = new ActiveSession(userId, sessionId != null ? sessionId : NO_SESSION, key, now);
+                shard.open(session);
+                session.timer = shard.wheel.scheduleTimer(now + idleTimeoutMillis, session);
+            }
+            session.lastActivity = Math.max(session.lastActivity, now);
+            session.eventCount++;
+        }
+
+        if (evicted != null) {
+            onClose.accept(evicted);
+        }
+    }
+
+    /**
+     * 명시적 종료 (로그아웃)
+     *
+     * @return 열려 있던 세션이 있었으면 true
+     */
+    public boolean close(String userId, String sessionId, long now) {
+        Shard shard = shardOf(userId);
+        SessionCloseEvent event;
+
+        synchronized (shard) {
+            ActiveSession session = shard.sessions.get(key(userId, sessionId));
+            if (session == null) {
+                return false;
+            }
+            event = shard.close(session, now, SessionCloseEvent.Reason.LOGOUT);
+        }
+
+        onClose.accept(event);
+        return true;
+    }
+
+    /**
+     * 모든 샤드의 타이머를 현재 시각까지 진행하며 유휴 세션 종료
+     *
+     * @return 유휴 만료로 종료된 세션 수
+     */
+    public int expire(long now) {
+        int expired = 0;
+        for (Shard shard : shards) {
+            List<SessionCloseEvent> events = new ArrayList<>();
+            synchronized (shard) {
+                shard.wheel.advance(now, session -> {
+                    if (session.closed) {
+                        return;
+                    }
+                    long deadline = session.lastActivity + idleTimeoutMillis;
+                    if (deadline <= now) {
+                        events.add(shard.close(session, session.lastActivity, SessionCloseEvent.Reason.IDLE_TIMEOUT));
+                    } else {
+                        session.timer = shard.wheel.scheduleTimer(deadline, session);
+                    }
+                });
+            }
+            events.forEach(onClose);
+            expired += events.size();
+        }
+        return expired;
+    }
+
+    public int activeSessions() {
+        int total = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                total += shard.sessions.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 휠에 남아 있는 유휴 타이머 수 (세션당 하나, 활성 세션 수를 넘지 않아야 함)
+     */
+    public int pendingTimers() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.wheel.size();
+        }
+        return total;
+    }
+
+    public int activeUsers() {
+        int total = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                total += shard.sessionsPerUser.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 샤드별 활성 세션 수 (쏠림 확인용)
+     */
+    public int[] sessionsPerShard() {
+        int[] result = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            synchronized (shards[i]) {
+                result[i] = shards[i].sessions.size();
+            }
+        }
+        return result;
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    private Shard shardOf(String userId) {
+        int h = userId.hashCode() * 0x9E3779B9;
+        return shards[(h ^ (h >>> 16)) & shardMask];
+    }
+
+    private static String key(String userId, String sessionId) {
+        return userId + '\u0000' + (sessionId != null ? sessionId : NO_SESSION);
+    }
+
+    private static final class Shard {
+
+        final int capacity;
+        final HierarchicalTimingWheel<ActiveSession> wheel;
+
+        // 접근 순서 - 첫 항목이 가장 오래 쉰 세션
+        final LinkedHashMap<String, ActiveSession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+        final Map<String, Integer> sessionsPerUser = new HashMap<>();
+
+        Shard(int capacity, HierarchicalTimingWheel<ActiveSession> wheel) {
+            this.capacity = capacity;
+            this.wheel = wheel;
+        }
+
+        void open(ActiveSession session) {
+            sessions.put(session.key, session);
+            sessionsPerUser.merge(session.userId, 1, Integer::sum);
+        }
+
+        SessionCloseEvent close(ActiveSession session, long endedAt, SessionCloseEvent.Reason reason) {
+            sessions.remove(session.key);
+            sessionsPerUser.computeIfPresent(session.userId, (user, count) -> count > 1 ? count - 1 : null);
+            // 아직 울리지 않은 타이머는 휠에서 제거 (유휴 만료로 닫히는 경우는 이미 울린 타이머라 무시됨)
+            if (session.timer != null) {
+                session.timer.cancel();
+                session.timer = null;
+            }
+            session.closed = true;
+            return new SessionCloseEvent(session.userId, session.sessionId, session.startedAt,
+                    endedAt, session.eventCount, reason);
+        }
+
+        SessionCloseEvent evictEldest() {
+            Iterator<ActiveSession> eldest = sessions.values().iterator();
+            ActiveSession session = eldest.next();
+            return close(session, session.lastActivity, SessionCloseEvent.Reason.CAPACITY);
+        }
+    }
+
+    private static final class ActiveSession {
+
+        final String userId;
+        final String sessionId;
+        final String key;
+        final long startedAt;
+        long lastActivity;
+        long eventCount;
+        boolean closed;
+        HierarchicalTimingWheel.Timer<ActiveSession> timer;
+
+        ActiveSession(String userId, String sessionId, String key, long startedAt) {
+            this.userId = userId;
+            this.sessionId = sessionId;
+            this.key = key;
+            this.startedAt = startedAt;
+            this.lastActivity = startedAt;
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.ocean.scdemo.redispubsub.subscriber;
 
+import com.ocean.scdemo.redispubsub.config.NodeIdentity;
+import com.ocean.scdemo.redispubsub.dispatch.HandlerChain;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubAround;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubHandler;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubValidator;
+import com.ocean.scdemo.redispubsub.fanout.RoomFanoutEngine;
+import com.ocean.scdemo.redispubsub.history.ChatHistoryStore;
+import com.ocean.scdemo.redispubsub.fanout.RoomMembershipIndex;
 import com.ocean.scdemo.redispubsub.message.ChatMessage;
+import com.ocean.scdemo.redispubsub.presence.PresenceService;
+import com.ocean.scdemo.redispubsub.retry.RetryScheduler;
+import com.ocean.scdemo.redispubsub.transport.RedisStreamTransport;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -20,31 +29,42 @@ import java.util.concurrent.atomic.AtomicLong;
  * - 채팅방별 메시지 라우팅
  * - 읽음 확인 처리
  * - 메시지 필터링 및 검열
+ * 
+ * 멤버 전달(팬아웃)은 메시지당 한 노드가 맡는다.
+ * - Streams(내구) 패밀리: 컨슈머 그룹에서 엔트리를 받은 노드 (XCLAIM 으로 회수한 노드 포함)
+ * - Pub/Sub: 모든 노드가 받으므로 발행 노드만
+ * 팬아웃은 청크를 넘긴 뒤 기다리지 않고 반환하며, 일부 멤버 전달이 실패하면 완료 시점에 RetryScheduler 로 넘긴다.
+ * 재시도에서는 후처리를 반복하지 않고 실패한 멤버에게만 다시 전달한다.
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class ChatMessageHandler {
 
+    private final RoomMembershipIndex membershipIndex;
+    private final RoomFanoutEngine fanoutEngine;
+    private final PresenceService presenceService;
+    private final ChatHistoryStore chatHistoryStore;
+    private final NodeIdentity nodeIdentity;
+    private final RedisStreamTransport streamTransport;
+    private final RetryScheduler retryScheduler;
+
     // 처리 통계
     private final AtomicLong totalProcessed = new AtomicLong(0);
     private final AtomicLong textMessages = new AtomicLong(0);
     private final AtomicLong fileMessages = new AtomicLong(0);
     private final AtomicLong mentionMessages = new AtomicLong(0);
     private final AtomicLong replyMessages = new AtomicLong(0);
+    private final AtomicLong incompleteFanouts = new AtomicLong(0);
     
-    // 채팅방별 활성 사용자 추적
-    private final Map<String, Set<String>> activeUsersInRoom = new ConcurrentHashMap<>();
-    
-    // 최근 처리된 메시지 (중복 방지용)
-    private final Map<String, LocalDateTime> recentMessages = new ConcurrentHashMap<>();
-    
-    public boolean handleMessage(ChatMessage message) {
+    @PubSubAround(ChatMessage.class)
+    public boolean handleMessage(ChatMessage message, HandlerChain chain) {
         try {
             totalProcessed.incrementAndGet();
             
-            // 중복 메시지 체크
-            if (isDuplicateMessage(message)) {
-                log.debug("중복 메시지 무시: ID={}", message.getMessageId());
+            // 팬아웃 일부 실패로 재시도된 메시지 - 후처리는 이미 끝났으므로 실패한 멤버에게만 다시 전달
+            if (fanoutEngine.isTracked(message.getMessageId())) {
+                broadcastToRoomMembers(message);
                 return true;
             }
             
@@ -56,21 +76,19 @@ public class ChatMessageHandler {
             }
             
             // 메시지 타입별 처리
-            boolean processed = switch (message.getContentType()) {
-                case "TEXT" -> handleTextMessage(message);
-                case "FILE" -> handleFileMessage(message);
-                case "IMAGE" -> handleImageMessage(message);
-                case "AUDIO" -> handleAudioMessage(message);
-                case "VIDEO" -> handleVideoMessage(message);
-                default -> handleGenericMessage(message);
-            };
+            boolean processed = chain.proceed();
             
             if (processed) {
                 // 후처리 작업
                 postProcessMessage(message);
                 
-                // 최근 메시지로 기록
-                recordRecentMessage(message);
+                // 발신자 접속 상태 유지와 멤버 전달은 메시지당 한 노드에서만
+                if (isDeliveringNode(message)) {
+                    presenceService.touch(message.getSenderId());
+                    broadcastToRoomMembers(message);
+                } else {
+                    fanoutEngine.mirror(message);
+                }
                 
                 log.debug("채팅 메시지 처리 완료: 방ID={}, 발신자={}, 타입={}", 
                          message.getRoomId(), message.getSenderId(), message.getContentType());
@@ -84,9 +102,18 @@ public class ChatMessageHandler {
         }
     }
     
+    /**
+     * 메시지 검증 (내용 필수)
+     */
+    @PubSubValidator(ChatMessage.class)
+    private boolean validate(ChatMessage message) {
+        return message.getContent() != null && !message.getContent().trim().isEmpty();
+    }
+    
     /**
      * 텍스트 메시지 처리
      */
+    @PubSubHandler(type = ChatMessage.class, subtype = "TEXT")
     private boolean handleTextMessage(ChatMessage message) {
         textMessages.incrementAndGet();
         
@@ -114,6 +141,7 @@ public class ChatMessageHandler {
     /**
      * 파일 메시지 처리
      */
+    @PubSubHandler(type = ChatMessage.class, subtype = "FILE")
     private boolean handleFileMessage(ChatMessage message) {
         fileMessages.incrementAndGet();
         
@@ -143,6 +171,7 @@ public class ChatMessageHandler {
     /**
      * 이미지 메시지 처리
      */
+    @PubSubHandler(type = ChatMessage.class, subtype = "IMAGE")
     private boolean handleImageMessage(ChatMessage message) {
         log.info("🖼️ 이미지 메시지: 방ID={}, 발신자={}", 
                 message.getRoomId(), message.getSenderName());
@@ -154,6 +183,7 @@ public class ChatMessageHandler {
     /**
      * 오디오 메시지 처리
      */
+    @PubSubHandler(type = ChatMessage.class, subtype = "AUDIO")
     private boolean handleAudioMessage(ChatMessage message) {
         log.info("🎵 오디오 메시지: 방ID={}, 발신자={}", 
                 message.getRoomId(), message.getSenderName());
@@ -165,6 +195,7 @@ public class ChatMessageHandler {
     /**
      * 비디오 메시지 처리
      */
+    @PubSubHandler(type = ChatMessage.class, subtype = "VIDEO")
     private boolean handleVideoMessage(ChatMessage message) {
         log.info("🎬 비디오 메시지: 방ID={}, 발신자={}", 
                 message.getRoomId(), message.getSenderName());
@@ -176,6 +207,7 @@ public class ChatMessageHandler {
     /**
      * 일반 메시지 처리
      */
+    @PubSubHandler(type = ChatMessage.class)
     private boolean handleGenericMessage(ChatMessage message) {
         log.info("💬 일반 메시지: 방ID={}, 타입={}, 발신자={}", 
                 message.getRoomId(), message.getContentType(), message.getSenderName());
@@ -223,19 +255,20 @@ public class ChatMessageHandler {
         // 채팅방 마지막 활동 시간 업데이트
         updateRoomActivity(message.getRoomId());
         
+        // 방 이력 기록 (페이지 조회용 추가 전용 로그, Streams 채팅은 이력 저장소가 스트림에서 직접 기록)
+        chatHistoryStore.append(message);
+        
         // 읽지 않은 메시지 카운트 증가
         incrementUnreadCount(message.getRoomId(), message.getSenderId());
-        
-        // 실시간 알림 처리 (웹소켓, SSE 등)
-        broadcastToRoomMembers(message);
     }
     
     /**
-     * 사용자 활동 업데이트
+     * 사용자 활동 업데이트 (발신자를 방 멤버십 인덱스에 등록, 처음 입장이면 접속 상태 방 비트맵에도 반영)
      */
     private void updateUserActivity(String roomId, String userId) {
-        activeUsersInRoom.computeIfAbsent(roomId, k -> ConcurrentHashMap.newKeySet())
-                         .add(userId);
+        if (membershipIndex.join(roomId, userId)) {
+            presenceService.joinRoom(roomId, userId);
+        }
         
         // 일정 시간 후 자동 제거하는 로직 추가 가능
         // scheduleUserActivityCleanup(roomId, userId);
@@ -253,62 +286,54 @@ public class ChatMessageHandler {
      * 읽지 않은 메시지 카운트 증가
      */
     private void incrementUnreadCount(String roomId, String senderId) {
-        Set<String> activeUsers = activeUsersInRoom.get(roomId);
-        if (activeUsers != null) {
-            // 발신자를 제외한 다른 사용자들의 읽지 않은 메시지 카운트 증가
-            activeUsers.stream()
-                     .filter(userId -> !userId.equals(senderId))
-                     .forEach(userId -> {
-                         // unreadMessageService.increment(userId, roomId);
-                         log.debug("읽지 않은 메시지 증가: 사용자={}, 방ID={}", userId, roomId);
-                     });
+        // Pull 모델 방은 타임라인 시퀀스 차이로 읽지 않은 수를 계산하므로 멤버별 증가 없음
+        if (fanoutEngine.isPullRoom(roomId)) {
+            return;
         }
-    }
-    
-    /**
-     * 채팅방 멤버들에게 실시간 브로드캐스트
-     */
-    private void broadcastToRoomMembers(ChatMessage message) {
-        // WebSocket이나 Server-Sent Events를 통한 실시간 전송
-        log.debug("실시간 브로드캐스트: 방ID={}, 메시지ID={}", 
-                 message.getRoomId(), message.getMessageId());
-        
-        // webSocketService.broadcastToRoom(message.getRoomId(), message);
-    }
-    
-    /**
-     * 중복 메시지 체크
-     */
-    private boolean isDuplicateMessage(ChatMessage message) {
-        String messageId = message.getMessageId();
-        LocalDateTime lastSeen = recentMessages.get(messageId);
         
-        if (lastSeen != null) {
-            // 5분 이내에 같은 메시지 ID를 본 경우 중복으로 간주
-            return lastSeen.isAfter(LocalDateTime.now().minusMinutes(5));
+        // 발신자를 제외한 다른 사용자들의 읽지 않은 메시지 카운트 증가
+        int sender = membershipIndex.findUserId(senderId);
+        for (int member : membershipIndex.members(roomId)) {
+            if (member != sender) {
+                // unreadMessageService.increment(userId, roomId);
+                log.debug("읽지 않은 메시지 증가: 사용자={}, 방ID={}", membershipIndex.userIdOf(member), roomId);
+            }
         }
-        
-        return false;
     }
     
     /**
-     * 최근 메시지 기록
+     * 이 노드가 멤버 전달을 맡는지 (Streams 패밀리는 엔트리를 받은 노드, Pub/Sub 은 발행 노드)
      */
-    private void recordRecentMessage(ChatMessage message) {
-        recentMessages.put(message.getMessageId(), LocalDateTime.now());
-        
-        // 메모리 누수 방지를 위해 오래된 항목 정리 (별도 스케줄러에서 수행)
-        cleanupOldMessages();
+    private boolean isDeliveringNode(ChatMessage message) {
+        return streamTransport.isDurable(message.getChannel())
+                || message.getOriginNodeId() == null
+                || nodeIdentity.isSelf(message.getOriginNodeId());
     }
     
     /**
-     * 오래된 메시지 기록 정리
+     * 채팅방 멤버들에게 실시간 브로드캐스트 (청크 병렬 push, 대형 방은 pull 타임라인)
+     * 
+     * 청크를 넘기면 바로 반환하고, 전달이 끝났을 때 실패 멤버가 있으면 RetryScheduler 로 넘긴다.
+     * (재시도는 같은 messageId 의 직전 결과를 보고 실패 멤버에게만 재전달한다)
      */
-    private void cleanupOldMessages() {
-        if (recentMessages.size() > 1000) { // 임계치 초과시 정리
-            LocalDateTime cutoff = LocalDateTime.now().minusHours(1);
-            recentMessages.entrySet().removeIf(entry -> entry.getValue().isBefore(cutoff));
-        }
+    private void broadcastToRoomMembers(ChatMessage message) {
+        log.debug("실시간 브로드캐스트: 방ID={}, 메시지ID={}, 멤버={}", 
+                 message.getRoomId(), message.getMessageId(), membershipIndex.memberCount(message.getRoomId()));
+        
+        fanoutEngine.fanout(message).whenComplete((result, error) -> {
+            if (error == null && result.isComplete()) {
+                return;
+            }
+            incompleteFanouts.incrementAndGet();
+            if (error != null) {
+                log.warn("멤버 전달 실패 - 재시도 예약: 방ID={}, 메시지ID={}", 
+                        message.getRoomId(), message.getMessageId(), error);
+            } else {
+                log.warn("멤버 전달 일부 실패 - 재시도 예약: 방ID={}, 메시지ID={}, 전달={}, 실패={}", 
+                        message.getRoomId(), message.getMessageId(), result.delivered(), result.failedUserIds().size());
+            }
+            retryScheduler.submit(message, "멤버 전달 일부 실패");
+        });
     }
     
     /**
@@ -383,7 +408,8 @@ public class ChatMessageHandler {
                 .fileMessages(fileMessages.get())
                 .mentionMessages(mentionMessages.get())
                 .replyMessages(replyMessages.get())
-                .activeRooms(activeUsersInRoom.size())
+                .incompleteFanouts(incompleteFanouts.get())
+                .activeRooms(membershipIndex.roomCount())
                 .build();
     }
     
@@ -398,6 +424,7 @@ public class ChatMessageHandler {
         private final long fileMessages;
         private final long mentionMessages;
         private final long replyMessages;
+        private final long incompleteFanouts;
         private final int activeRooms;
         
         public double getSuccessRate() {
@@ -1,5 +1,9 @@
 package com.ocean.scdemo.redispubsub.subscriber;
 
+import com.ocean.scdemo.redispubsub.dispatch.HandlerChain;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubAround;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubHandler;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubValidator;
 import com.ocean.scdemo.redispubsub.message.HealthCheckMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -19,6 +23,9 @@ import java.util.concurrent.atomic.AtomicLong;
  * - 자동 복구 및 재시작
  * - 서비스 의존성 추적
  * - 헬스체크 실패 알림
+ *
+ * 상태 변경만 처리: 같은 서비스/체크 타입의 직전 상태와 같은 메시지는 상태 갱신·알림 없이
+ * 실패 추적만 반영하고 넘긴다 (HealthProbeScheduler 는 변경 시에만 발행).
  */
 @Slf4j
 @Component
@@ -32,6 +39,7 @@ public class HealthCheckMessageHandler {
     private final AtomicLong databaseChecks = new AtomicLong(0);
     private final AtomicLong externalApiChecks = new AtomicLong(0);
     private final AtomicLong autoRecoveries = new AtomicLong(0);
+    private final AtomicLong repeatedSuppressed = new AtomicLong(0);
     
     // 서비스 상태 추적
     private final Map<String, ServiceHealthStatus> serviceStatuses = new ConcurrentHashMap<>();
@@ -39,20 +47,23 @@ public class HealthCheckMessageHandler {
     // 실패 빈도 추적
     private final Map<String, HealthFailureTracker> failureTrackers = new ConcurrentHashMap<>();
     
-    public boolean handleMessage(HealthCheckMessage message) {
+    // 인스턴스:서비스:체크타입별 마지막 상태 (반복 상태 판별)
+    private final Map<String, String> lastStatuses = new ConcurrentHashMap<>();
+    
+    @PubSubAround(HealthCheckMessage.class)
+    public boolean handleMessage(HealthCheckMessage message, HandlerChain chain) {
         try {
             totalProcessed.incrementAndGet();
             
+            // 직전과 같은 상태면 실패 추적만 반영
+            if (isRepeatedStatus(message)) {
+                repeatedSuppressed.incrementAndGet();
+                handleFailureTracking(message);
+                return true;
+            }
+            
             // 체크 타입별 처리
-            boolean processed = switch (message.getCheckType()) {
-                case "SERVICE" -> handleServiceHealthCheck(message);
-                case "DATABASE" -> handleDatabaseHealthCheck(message);
-                case "CACHE" -> handleCacheHealthCheck(message);
-                case "EXTERNAL_API" -> handleExternalApiHealthCheck(message);
-                case "DISK" -> handleDiskHealthCheck(message);
-                case "MEMORY" -> handleMemoryHealthCheck(message);
-                default -> handleGenericHealthCheck(message);
-            };
+            boolean processed = chain.proceed();
             
             if (processed) {
                 // 서비스 상태 업데이트
@@ -76,9 +87,18 @@ public class HealthCheckMessageHandler {
         }
     }
     
+    /**
+     * 메시지 검증 (상태/서비스명 필수)
+     */
+    @PubSubValidator(HealthCheckMessage.class)
+    private boolean validate(HealthCheckMessage message) {
+        return message.getStatus() != null && message.getServiceName() != null;
+    }
+    
     /**
      * 서비스 헬스체크 처리
      */
+    @PubSubHandler(type = HealthCheckMessage.class, subtype = "SERVICE")
     private boolean handleServiceHealthCheck(HealthCheckMessage message) {
         String statusIcon = getStatusIcon(message.getStatus());
         
@@ -104,6 +124,7 @@ public class HealthCheckMessageHandler {
     /**
      * 데이터베이스 헬스체크 처리
      */
+    @PubSubHandler(type = HealthCheckMessage.class, subtype = "DATABASE")
     private boolean handleDatabaseHealthCheck(HealthCheckMessage message) {
         databaseChecks.incrementAndGet();
         
@@ -131,6 +152,7 @@ public class HealthCheckMessageHandler {
     /**
      * 캐시 헬스체크 처리
      */
+    @PubSubHandler(type = HealthCheckMessage.class, subtype = "CACHE")
     private boolean handleCacheHealthCheck(HealthCheckMessage message) {
         HealthCheckMessage.CacheHealth cacheHealth = message.getCacheHealth();
         if (cacheHealth != null) {
@@ -151,6 +173,7 @@ public class HealthCheckMessageHandler {
     /**
      * 외부 API 헬스체크 처리
      */
+    @PubSubHandler(type = HealthCheckMessage.class, subtype = "EXTERNAL_API")
     private boolean handleExternalApiHealthCheck(HealthCheckMessage message) {
         externalApiChecks.incrementAndGet();
         
@@ -175,6 +198,7 @@ public class HealthCheckMessageHandler {
     /**
      * 디스크 헬스체크 처리
      */
+    @PubSubHandler(type = HealthCheckMessage.class, subtype = "DISK")
     private boolean handleDiskHealthCheck(HealthCheckMessage message) {
         log.info("💾 디스크 체크: 호스트={}, 사용량={}%, 여유공간={} GB", 
                 message.getHostName(), 
@@ -193,6 +217,7 @@ public class HealthCheckMessageHandler {
     /**
      * 메모리 헬스체크 처리
      */
+    @PubSubHandler(type = HealthCheckMessage.class, subtype = "MEMORY")
     private boolean handleMemoryHealthCheck(HealthCheckMessage message) {
         log.info("💾 메모리 체크: 호스트={}, 사용량={}%, 여유메모리={} MB", 
                 message.getHostName(),
@@ -211,6 +236,7 @@ public class HealthCheckMessageHandler {
     /**
      * 일반 헬스체크 처리
      */
+    @PubSubHandler(type = HealthCheckMessage.class)
     private boolean handleGenericHealthCheck(HealthCheckMessage message) {
         log.debug("🩺 일반 헬스체크: 타입={}, 서비스={}, 상태={}", 
                  message.getCheckType(), message.getServiceName(), message.getStatus());
@@ -253,6 +279,18 @@ public class HealthCheckMessageHandler {
         triggerPerformanceImprovement(message);
     }
     
+    /**
+     * 같은 인스턴스/서비스/체크 타입의 직전 상태와 같은지 (처음이거나 상태가 없으면 false)
+     * 노드마다 같은 서비스명으로 발행하므로 instanceId(노드 ID)까지 키에 포함해야 다른 노드의 전이를 반복으로 오판하지 않는다.
+     */
+    private boolean isRepeatedStatus(HealthCheckMessage message) {
+        if (message.getStatus() == null || message.getServiceName() == null) {
+            return false;
+        }
+        String serviceKey = message.getInstanceId() + ":" + message.getServiceName() + ":" + message.getCheckType();
+        return message.getStatus().equals(lastStatuses.put(serviceKey, message.getStatus()));
+    }
+    
     // === 실패 처리 및 복구 ===
     
     private void handleFailureTracking(HealthCheckMessage message) {
@@ -433,6 +471,7 @@ public class HealthCheckMessageHandler {
                 .databaseChecks(databaseChecks.get())
                 .externalApiChecks(externalApiChecks.get())
                 .autoRecoveries(autoRecoveries.get())
+                .repeatedSuppressed(repeatedSuppressed.get())
                 .activeServices(serviceStatuses.size())
                 .failureTrackers(failureTrackers.size())
                 .build();
@@ -487,6 +526,7 @@ public class HealthCheckMessageHandler {
         private final long databaseChecks;
         private final long externalApiChecks;
         private final long autoRecoveries;
+        private final long repeatedSuppressed;
         private final int activeServices;
         private final int failureTrackers;
         
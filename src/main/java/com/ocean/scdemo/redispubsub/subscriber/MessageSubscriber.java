@@ -1,13 +1,23 @@
 package com.ocean.scdemo.redispubsub.subscriber;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.ocean.scdemo.redispubsub.message.*;
+import com.ocean.scdemo.redispubsub.codec.MessageCodec;
+import com.ocean.scdemo.redispubsub.dedup.IdempotencyGate;
+import com.ocean.scdemo.redispubsub.dispatch.HandlerRegistry;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import com.ocean.scdemo.redispubsub.monitoring.EndToEndLatencyMonitor;
+import com.ocean.scdemo.redispubsub.monitoring.EnvelopeClock;
+import com.ocean.scdemo.redispubsub.publisher.LocalLoopback;
+import com.ocean.scdemo.redispubsub.replay.ReplayService;
+import com.ocean.scdemo.redispubsub.retry.RetryScheduler;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -15,9 +25,15 @@ import java.util.concurrent.atomic.AtomicLong;
  * 
  * 핵심 기능:
  * - 모든 채널의 메시지 통합 처리
- * - 메시지 타입별 자동 라우팅
+ * - 메시지 타입별 자동 라우팅 (HandlerRegistry 의 사전 컴파일된 (클래스, 서브타입) 디스패치 테이블)
+ * - byte[] 직접 파싱 및 헤더 선조회로 만료/미지원 메시지 조기 거부
  * - JSON 역직렬화 및 타입 안전성 보장
- * - 에러 핸들링 및 복구
+ * - 루프백으로 이미 로컬 처리된 자기 노드 에코 조기 폐기 (수신 집계 전에 걸러냄)
+ * - 루프백 로컬 전달은 발행 스레드가 아닌 리스너 스레드 풀(pubSubTaskExecutor)에서 실행
+ * - 핸들러 호출 전 IdempotencyGate 로 messageId 중복 폐기 (핸들러별 개별 중복 체크를 대체)
+ * - 전달 메시지를 ReplayService 채널 버퍼에 기록하고 봉투 시퀀스로 누락 탐지 (복구분은 로컬 전달 경로로 재처리)
+ * - 봉투의 발행 시각으로 큐잉/역직렬화/핸들러/전체 지연을 EndToEndLatencyMonitor 에 기록
+ * - 에러 핸들링 및 복구 (Pub/Sub 경로의 핸들러 실패는 RetryScheduler 로 재시도 후 DLQ)
  * - 처리 통계 수집
  */
 @Slf4j
@@ -25,45 +41,100 @@ import java.util.concurrent.atomic.AtomicLong;
 @RequiredArgsConstructor
 public class MessageSubscriber implements MessageListener {
 
-    private final ChatMessageHandler chatMessageHandler;
-    private final NotificationMessageHandler notificationMessageHandler;
-    private final SystemEventMessageHandler systemEventMessageHandler;
-    private final UserEventMessageHandler userEventMessageHandler;
-    private final MetricsMessageHandler metricsMessageHandler;
-    private final HealthCheckMessageHandler healthCheckMessageHandler;
-    private final ObjectMapper objectMapper;
+    private final HandlerRegistry handlerRegistry;
+    private final MessageCodec messageCodec;
+    private final LocalLoopback localLoopback;
+    private final RetryScheduler retryScheduler;
+    private final IdempotencyGate idempotencyGate;
+    private final ReplayService replayService;
+    private final EndToEndLatencyMonitor latencyMonitor;
+    private final Executor pubSubTaskExecutor;
     
     // 처리 통계
     private final AtomicLong totalReceived = new AtomicLong(0);
     private final AtomicLong totalProcessed = new AtomicLong(0);
     private final AtomicLong totalFailed = new AtomicLong(0);
     private final AtomicLong totalIgnored = new AtomicLong(0);
+    private final AtomicLong totalRejectedBeforeBind = new AtomicLong(0);
+    private final AtomicLong totalLoopbackEchoes = new AtomicLong(0);
+    private final AtomicLong totalRetryScheduled = new AtomicLong(0);
+    private final AtomicLong totalDuplicates = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        retryScheduler.setRetryHandler(this::invokeHandler);
+        replayService.setRecoveryHandler(this::dispatchLocal);
+    }
 
     @Override
     public void onMessage(Message message, byte[] pattern) {
+        dispatch(new String(message.getChannel(), StandardCharsets.UTF_8), message.getBody(), true);
+    }
+    
+    /**
+     * 채널/본문 단위 메시지 처리
+     * Pub/Sub 리스너와 Redis Streams 컨슈머가 공통으로 사용
+     * 
+     * 스트림 전송은 자체 재전달(pending/XCLAIM)이 있으므로 여기서는 재시도를 예약하지 않는다.
+     * 
+     * @return 처리 결과 (FAILED 인 경우 스트림 전송에서는 ACK 하지 않고 재시도 대상이 됨)
+     */
+    public DispatchResult dispatch(String channel, byte[] payload) {
+        return dispatch(channel, payload, false);
+    }
+    
+    /**
+     * 채널/본문 단위 메시지 처리 (retryOnFailure 면 핸들러 실패 시 RetryScheduler 로 재시도 예약)
+     * Pub/Sub 리스너와 반응형 구독자(ReactiveMessageSubscriber)가 사용
+     */
+    public DispatchResult dispatch(String channel, byte[] payload, boolean retryOnFailure) {
+        long receivedAtMicros = EnvelopeClock.nowMicros();
+        
+        // 헤더 선조회 - 루프백 에코는 이미 로컬 전달에서 수신으로 집계되었으므로 집계 전에 폐기
+        boolean blank = MessageCodec.isBlank(payload);
+        MessageCodec.MessageHeader header = blank ? null : peekHeader(payload);
+        if (header != null && localLoopback.isOwnEcho(channel, header.getOriginNodeId())) {
+            log.debug("루프백 에코 폐기: 채널={}, ID={}", channel, header.getMessageId());
+            totalLoopbackEchoes.incrementAndGet();
+            return DispatchResult.IGNORED;
+        }
+        
         totalReceived.incrementAndGet();
+        BaseMessage claimed = null;
         
         try {
-            String channel = new String(message.getChannel());
-            String body = new String(message.getBody());
+            log.debug("메시지 수신: 채널={}, 크기={}bytes", channel, payload != null ? payload.length : 0);
             
-            log.debug("메시지 수신: 채널={}, 크기={}bytes", channel, body.length());
-            
-            // 메시지가 비어있는지 확인
-            if (body == null || body.trim().isEmpty()) {
+            // 메시지가 비어있는지 확인 (복사 없이 바이트 스캔)
+            if (blank) {
                 log.warn("빈 메시지 수신: 채널={}", channel);
                 totalIgnored.incrementAndGet();
-                return;
+                return DispatchResult.IGNORED;
             }
             
-            // JSON을 BaseMessage로 역직렬화
-            BaseMessage baseMessage = deserializeMessage(body);
+            // 시퀀스 누락 확인은 필터/멱등 게이트 전에 - 걸러지는 메시지도 도착한 번호로 반영
+            // 이후 헤더 기반 조기 검증 - 전체 바인딩 전에 만료/미지원 타입 거부
+            if (header != null) {
+                replayService.observe(channel, header.getOriginNodeId(), header.getSequenceNumber());
+            }
+            if (header != null && !isAcceptableHeader(channel, header)) {
+                totalRejectedBeforeBind.incrementAndGet();
+                totalIgnored.incrementAndGet();
+                return DispatchResult.IGNORED;
+            }
+            
+            // byte[] 를 BaseMessage로 역직렬화
+            long deserializeStart = System.nanoTime();
+            BaseMessage baseMessage = deserializeMessage(payload, header);
+            long deserializeNanos = System.nanoTime() - deserializeStart;
             
             if (baseMessage == null) {
-                log.warn("메시지 역직렬화 실패: 채널={}, 내용={}", channel, 
-                        body.length() > 200 ? body.substring(0, 200) + "..." : body);
+                log.warn("메시지 역직렬화 실패: 채널={}, 내용={}", channel, MessageCodec.preview(payload, 200));
                 totalFailed.incrementAndGet();
-                return;
+                return DispatchResult.FAILED;
+            }
+            if (header == null) {
+                replayService.observe(channel, baseMessage.getOriginNodeId(), baseMessage.getSequenceNumber());
             }
             
             // 메시지 검증
@@ -71,70 +142,132 @@ public class MessageSubscriber implements MessageListener {
                 log.warn("유효하지 않은 메시지: ID={}, 타입={}", 
                         baseMessage.getMessageId(), baseMessage.getMessageType());
                 totalIgnored.incrementAndGet();
-                return;
+                return DispatchResult.IGNORED;
             }
             
             // 채널 정보 설정
             baseMessage.setChannel(channel);
             
+            // 멱등 처리 - 이미 처리된 messageId 는 핸들러에 넘기지 않음
+            if (!idempotencyGate.tryClaim(baseMessage)) {
+                totalDuplicates.incrementAndGet();
+                return DispatchResult.DUPLICATE;
+            }
+            claimed = baseMessage;
+            replayService.onDelivered(channel, baseMessage);
+            
             // 메시지 타입에 따라 적절한 핸들러로 라우팅
+            long handlerStart = System.nanoTime();
             boolean processed = routeMessage(baseMessage);
+            latencyMonitor.record(channel, baseMessage, receivedAtMicros, deserializeNanos, System.nanoTime() - handlerStart);
             
             if (processed) {
                 totalProcessed.incrementAndGet();
                 log.debug("메시지 처리 완료: ID={}, 타입={}, 채널={}", 
                          baseMessage.getMessageId(), baseMessage.getMessageType(), channel);
+                return DispatchResult.PROCESSED;
             } else {
                 totalFailed.incrementAndGet();
                 log.warn("메시지 처리 실패: ID={}, 타입={}", 
                         baseMessage.getMessageId(), baseMessage.getMessageType());
+                return retryOnFailure ? scheduleRetry(baseMessage) : releaseFailed(baseMessage);
             }
             
         } catch (Exception e) {
             totalFailed.incrementAndGet();
-            log.error("메시지 처리 중 예외 발생: 채널={}", 
-                     message.getChannel() != null ? new String(message.getChannel()) : "unknown", e);
+            log.error("메시지 처리 중 예외 발생: 채널={}", channel != null ? channel : "unknown", e);
+            return claimed != null ? releaseFailed(claimed) : DispatchResult.FAILED;
         }
     }
     
+    /**
+     * 루프백 로컬 전달을 리스너 스레드 풀에 넘김 (발행 스레드에서 핸들러를 실행하지 않음)
+     * 풀이 가득 차면 CallerRuns 정책으로 발행 스레드에서 실행되어 발행 속도를 자연스럽게 늦춘다.
+     */
+    public void submitLocal(String channel, BaseMessage message) {
+        pubSubTaskExecutor.execute(() -> dispatchLocal(channel, message));
+    }
+    
+    /**
+     * 같은 노드에서 발행한 메시지 객체를 역직렬화 없이 처리 (루프백, 발행 측에서 만든 사본을 받음)
+     * 
+     * 발행 직후 호출되며 Redis 로 돌아오는 에코는 dispatch 에서 폐기된다.
+     */
+    public DispatchResult dispatchLocal(String channel, BaseMessage message) {
+        totalReceived.incrementAndGet();
+        long receivedAtMicros = EnvelopeClock.nowMicros();
+        boolean claimed = false;
+        
+        try {
+            replayService.observe(channel, message.getOriginNodeId(), message.getSequenceNumber());
+            if (!isValidMessage(message)) {
+                totalIgnored.incrementAndGet();
+                return DispatchResult.IGNORED;
+            }
+            
+            message.setChannel(channel);
+            
+            if (!idempotencyGate.tryClaim(message)) {
+                totalDuplicates.incrementAndGet();
+                return DispatchResult.DUPLICATE;
+            }
+            claimed = true;
+            replayService.onDelivered(channel, message);
+            
+            long handlerStart = System.nanoTime();
+            boolean processed = routeMessage(message);
+            latencyMonitor.record(channel, message, receivedAtMicros, -1, System.nanoTime() - handlerStart);
+            
+            if (processed) {
+                totalProcessed.incrementAndGet();
+                return DispatchResult.PROCESSED;
+            }
+            totalFailed.incrementAndGet();
+            return scheduleRetry(message);
+            
+        } catch (Exception e) {
+            totalFailed.incrementAndGet();
+            log.error("루프백 메시지 처리 중 예외 발생: 채널={}, ID={}", channel, message.getMessageId(), e);
+            return claimed ? releaseFailed(message) : DispatchResult.FAILED;
+        }
+    }
+    
+    /**
+     * 핸들러 실패 메시지 재시도 예약 (정책상 재시도 불가면 DLQ 적재)
+     * 
+     * 재시도는 게이트를 거치지 않고 핸들러를 직접 호출하므로 예약된 동안은 선점을 유지한다.
+     */
+    private DispatchResult scheduleRetry(BaseMessage message) {
+        try {
+            if (retryScheduler.submit(message, "핸들러 처리 실패")) {
+                totalRetryScheduled.incrementAndGet();
+                return DispatchResult.RETRY_SCHEDULED;
+            }
+        } catch (Exception e) {
+            log.error("재시도 예약 실패: ID={}", message.getMessageId(), e);
+        }
+        return releaseFailed(message);
+    }
+    
+    /**
+     * 최종 실패 처리 - 멱등 선점을 해제하여 재전달(스트림 pending/XCLAIM 등)이 다시 처리될 수 있게 함
+     * 선점 후 예외로 빠져나온 경우에도 호출된다.
+     */
+    private DispatchResult releaseFailed(BaseMessage message) {
+        try {
+            idempotencyGate.release(message);
+        } catch (Exception e) {
+            log.warn("멱등 선점 해제 실패: ID={}", message.getMessageId(), e);
+        }
+        return DispatchResult.FAILED;
+    }
+    
     /**
      * 메시지 타입별 라우팅
      */
     private boolean routeMessage(BaseMessage message) {
         try {
-            return switch (message) {
-                case ChatMessage chatMsg -> {
-                    log.debug("채팅 메시지 처리: ID={}, 방ID={}", chatMsg.getMessageId(), chatMsg.getRoomId());
-                    yield chatMessageHandler.handleMessage(chatMsg);
-                }
-                case NotificationMessage notificationMsg -> {
-                    log.debug("알림 메시지 처리: ID={}, 타입={}", notificationMsg.getMessageId(), notificationMsg.getNotificationType());
-                    yield notificationMessageHandler.handleMessage(notificationMsg);
-                }
-                case SystemEventMessage systemEventMsg -> {
-                    log.debug("시스템 이벤트 처리: ID={}, 이벤트={}", systemEventMsg.getMessageId(), systemEventMsg.getEventType());
-                    yield systemEventMessageHandler.handleMessage(systemEventMsg);
-                }
-                case UserEventMessage userEventMsg -> {
-                    log.debug("사용자 이벤트 처리: ID={}, 사용자={}, 이벤트={}", 
-                             userEventMsg.getMessageId(), userEventMsg.getUserId(), userEventMsg.getEventType());
-                    yield userEventMessageHandler.handleMessage(userEventMsg);
-                }
-                case MetricsMessage metricsMsg -> {
-                    log.debug("메트릭스 처리: ID={}, 메트릭={}", metricsMsg.getMessageId(), metricsMsg.getMetricName());
-                    yield metricsMessageHandler.handleMessage(metricsMsg);
-                }
-                case HealthCheckMessage healthMsg -> {
-                    log.debug("헬스체크 처리: ID={}, 서비스={}, 상태={}", 
-                             healthMsg.getMessageId(), healthMsg.getServiceName(), healthMsg.getStatus());
-                    yield healthCheckMessageHandler.handleMessage(healthMsg);
-                }
-                default -> {
-                    log.warn("지원하지 않는 메시지 타입: {}, ID={}", 
-                            message.getClass().getSimpleName(), message.getMessageId());
-                    yield false;
-                }
-            };
+            return invokeHandler(message);
         } catch (Exception e) {
             log.error("메시지 라우팅 중 오류 발생: ID={}, 타입={}", 
                      message.getMessageId(), message.getMessageType(), e);
@@ -143,15 +276,55 @@ public class MessageSubscriber implements MessageListener {
     }
     
     /**
-     * JSON 문자열을 BaseMessage 객체로 역직렬화
+     * 메시지 타입별 핸들러 호출 (예외는 호출 측에서 처리, 재시도 시에도 사용)
+     */
+    private boolean invokeHandler(BaseMessage message) {
+        log.debug("메시지 처리: ID={}, 타입={}, 서브타입={}",
+                 message.getMessageId(), message.getMessageType(), message.subtype());
+        return handlerRegistry.dispatch(message);
+    }
+    
+    /**
+     * 헤더 스트리밍 조회 (파싱 실패 시 null 을 반환하여 전체 역직렬화 경로로 넘김)
+     */
+    private MessageCodec.MessageHeader peekHeader(byte[] payload) {
+        try {
+            return messageCodec.peekHeader(payload);
+        } catch (Exception e) {
+            log.debug("메시지 헤더 조회 실패 - 전체 역직렬화로 진행", e);
+            return null;
+        }
+    }
+    
+    /**
+     * 헤더 기반 조기 검증 (ID/타입/TTL)
+     */
+    private boolean isAcceptableHeader(String channel, MessageCodec.MessageHeader header) {
+        if (!messageCodec.isKnownType(header.getType())) {
+            log.warn("지원하지 않는 메시지 타입: 채널={}, 타입={}", channel, header.getType());
+            return false;
+        }
+        if (!header.hasMessageId()) {
+            log.warn("메시지 ID가 없음: 채널={}", channel);
+            return false;
+        }
+        if (header.isExpired()) {
+            log.warn("만료된 메시지: ID={}, TTL={}, 생성시간={}", 
+                    header.getMessageId(), header.getTtl(), header.getTimestamp());
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * byte[] 를 BaseMessage 객체로 역직렬화
      */
-    private BaseMessage deserializeMessage(String jsonMessage) {
+    private BaseMessage deserializeMessage(byte[] payload, MessageCodec.MessageHeader header) {
         try {
-            // Jackson의 다형성 역직렬화를 사용하여 자동으로 올바른 타입으로 변환
-            return objectMapper.readValue(jsonMessage, BaseMessage.class);
+            // 헤더에서 확인한 구체 타입 reader 사용 (없으면 다형성 역직렬화)
+            return messageCodec.decode(payload, header);
         } catch (Exception e) {
-            log.error("메시지 역직렬화 실패: {}", jsonMessage.length() > 500 ? 
-                     jsonMessage.substring(0, 500) + "..." : jsonMessage, e);
+            log.error("메시지 역직렬화 실패: {}", MessageCodec.preview(payload, 500), e);
             return null;
         }
     }
@@ -187,49 +360,17 @@ public class MessageSubscriber implements MessageListener {
     }
     
     /**
-     * 메시지 타입별 상세 검증
+     * 메시지 타입별 상세 검증 (처리기 빈의 @PubSubValidator, 없으면 통과)
      */
     private boolean isValidSpecificMessage(BaseMessage message) {
         try {
-            return switch (message) {
-                case ChatMessage chatMsg -> validateChatMessage(chatMsg);
-                case NotificationMessage notificationMsg -> validateNotificationMessage(notificationMsg);
-                case SystemEventMessage systemEventMsg -> validateSystemEventMessage(systemEventMsg);
-                case UserEventMessage userEventMsg -> validateUserEventMessage(userEventMsg);
-                case MetricsMessage metricsMsg -> validateMetricsMessage(metricsMsg);
-                case HealthCheckMessage healthMsg -> validateHealthCheckMessage(healthMsg);
-                default -> true; // 알 수 없는 타입은 통과
-            };
+            return handlerRegistry.validate(message);
         } catch (Exception e) {
             log.error("메시지 검증 중 오류: ID={}", message.getMessageId(), e);
             return false;
         }
     }
     
-    private boolean validateChatMessage(ChatMessage message) {
-        return message.getContent() != null && !message.getContent().trim().isEmpty();
-    }
-    
-    private boolean validateNotificationMessage(NotificationMessage message) {
-        return message.getTitle() != null && message.getMessage() != null;
-    }
-    
-    private boolean validateSystemEventMessage(SystemEventMessage message) {
-        return message.getEventType() != null && message.getServiceName() != null;
-    }
-    
-    private boolean validateUserEventMessage(UserEventMessage message) {
-        return message.getEventType() != null && message.getUserId() != null;
-    }
-    
-    private boolean validateMetricsMessage(MetricsMessage message) {
-        return message.getMetricName() != null && message.getValue() != null;
-    }
-    
-    private boolean validateHealthCheckMessage(HealthCheckMessage message) {
-        return message.getStatus() != null && message.getServiceName() != null;
-    }
-    
     /**
      * 구독 통계 조회
      */
@@ -239,6 +380,10 @@ public class MessageSubscriber implements MessageListener {
                 .totalProcessed(totalProcessed.get())
                 .totalFailed(totalFailed.get())
                 .totalIgnored(totalIgnored.get())
+                .totalRejectedBeforeBind(totalRejectedBeforeBind.get())
+                .totalLoopbackEchoes(totalLoopbackEchoes.get())
+                .totalRetryScheduled(totalRetryScheduled.get())
+                .totalDuplicates(totalDuplicates.get())
                 .successRate(calculateSuccessRate())
                 .build();
     }
@@ -251,6 +396,10 @@ public class MessageSubscriber implements MessageListener {
         totalProcessed.set(0);
         totalFailed.set(0);
         totalIgnored.set(0);
+        totalRejectedBeforeBind.set(0);
+        totalLoopbackEchoes.set(0);
+        totalRetryScheduled.set(0);
+        totalDuplicates.set(0);
         log.info("구독 통계가 초기화되었습니다");
     }
     
@@ -263,6 +412,17 @@ public class MessageSubscriber implements MessageListener {
         return ((double) totalProcessed.get() / total) * 100.0;
     }
     
+    /**
+     * 메시지 처리 결과
+     */
+    public enum DispatchResult {
+        PROCESSED,        // 핸들러 처리 완료
+        IGNORED,          // 빈 메시지/유효하지 않은 메시지 (재시도 불필요)
+        RETRY_SCHEDULED,  // 핸들러 처리 실패, RetryScheduler 가 재시도/DLQ 를 책임짐
+        DUPLICATE,        // 이미 처리된 messageId (IdempotencyGate 에서 폐기, 재시도 불필요)
+        FAILED            // 역직렬화 또는 핸들러 처리 실패 (재시도 대상)
+    }
+    
     /**
      * 구독 통계 DTO
      */
@@ -273,6 +433,10 @@ public class MessageSubscriber implements MessageListener {
         private final long totalProcessed;
         private final long totalFailed;
         private final long totalIgnored;
+        private final long totalRejectedBeforeBind;
+        private final long totalLoopbackEchoes;
+        private final long totalRetryScheduled;
+        private final long totalDuplicates;
         private final double successRate;
         
         public long getTotalAttempted() {
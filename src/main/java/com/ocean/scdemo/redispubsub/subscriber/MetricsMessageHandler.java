@@ -1,6 +1,15 @@
 package com.ocean.scdemo.redispubsub.subscriber;
 
+import com.ocean.scdemo.redispubsub.aggregation.MetricsPreAggregator;
+import com.ocean.scdemo.redispubsub.aggregation.WindowResult;
+import com.ocean.scdemo.redispubsub.dispatch.HandlerChain;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubAround;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubHandler;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubValidator;
 import com.ocean.scdemo.redispubsub.message.MetricsMessage;
+import com.ocean.scdemo.redispubsub.monitoring.DashboardModel;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -22,8 +31,12 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class MetricsMessageHandler {
 
+    private final MetricsPreAggregator metricsPreAggregator;
+    private final DashboardModel dashboardModel;
+
     // 처리 통계
     private final AtomicLong totalProcessed = new AtomicLong(0);
     private final AtomicLong performanceMetrics = new AtomicLong(0);
@@ -32,31 +45,26 @@ public class MetricsMessageHandler {
     private final AtomicLong customMetrics = new AtomicLong(0);
     private final AtomicLong alertTriggered = new AtomicLong(0);
     
-    // 메트릭 데이터 저장소 (실제로는 시계열 DB 사용)
-    private final Map<String, MetricDataPoint> latestMetrics = new ConcurrentHashMap<>();
-    
-    // 알림 임계치 위반 추적
+    // 알림 임계치 위반 추적 (시리즈 키 기준, 윈도우 단위로 갱신, 시리즈가 유휴 축출되면 함께 제거)
     private final Map<String, ThresholdViolation> thresholdViolations = new ConcurrentHashMap<>();
     
-    public boolean handleMessage(MetricsMessage message) {
+    @PostConstruct
+    public void init() {
+        metricsPreAggregator.addAlertListener(this::onThresholdViolated);
+        metricsPreAggregator.addEvictionListener(thresholdViolations::remove);
+    }
+    
+    @PubSubAround(MetricsMessage.class)
+    public boolean handleMessage(MetricsMessage message, HandlerChain chain) {
         try {
             totalProcessed.incrementAndGet();
             
             // 메트릭 타입별 처리
-            boolean processed = switch (message.getMetricType()) {
-                case "PERFORMANCE" -> handlePerformanceMetric(message);
-                case "BUSINESS" -> handleBusinessMetric(message);
-                case "SYSTEM" -> handleSystemMetric(message);
-                case "CUSTOM" -> handleCustomMetric(message);
-                default -> handleGenericMetric(message);
-            };
+            boolean processed = chain.proceed();
             
             if (processed) {
-                // 메트릭 데이터 저장
-                storeMetricData(message);
-                
-                // 알림 임계치 체크
-                checkAlertThresholds(message);
+                // 윈도우 사전 집계 (임계치는 윈도우가 닫힐 때 평가)
+                metricsPreAggregator.record(message);
                 
                 // 대시보드 데이터 업데이트
                 updateDashboardData(message);
@@ -73,9 +81,18 @@ public class MetricsMessageHandler {
         }
     }
     
+    /**
+     * 메시지 검증 (메트릭 이름/값 필수)
+     */
+    @PubSubValidator(MetricsMessage.class)
+    private boolean validate(MetricsMessage message) {
+        return message.getMetricName() != null && message.getValue() != null;
+    }
+    
     /**
      * 성능 메트릭 처리
      */
+    @PubSubHandler(type = MetricsMessage.class, subtype = "PERFORMANCE")
     private boolean handlePerformanceMetric(MetricsMessage message) {
         performanceMetrics.incrementAndGet();
         
@@ -96,6 +113,7 @@ public class MetricsMessageHandler {
     /**
      * 비즈니스 메트릭 처리
      */
+    @PubSubHandler(type = MetricsMessage.class, subtype = "BUSINESS")
     private boolean handleBusinessMetric(MetricsMessage message) {
         businessMetrics.incrementAndGet();
         
@@ -115,6 +133,7 @@ public class MetricsMessageHandler {
     /**
      * 시스템 메트릭 처리
      */
+    @PubSubHandler(type = MetricsMessage.class, subtype = "SYSTEM")
     private boolean handleSystemMetric(MetricsMessage message) {
         systemMetrics.incrementAndGet();
         
@@ -133,6 +152,7 @@ public class MetricsMessageHandler {
     /**
      * 커스텀 메트릭 처리
      */
+    @PubSubHandler(type = MetricsMessage.class, subtype = "CUSTOM")
     private boolean handleCustomMetric(MetricsMessage message) {
         customMetrics.incrementAndGet();
         
@@ -152,6 +172,7 @@ public class MetricsMessageHandler {
     /**
      * 일반 메트릭 처리
      */
+    @PubSubHandler(type = MetricsMessage.class)
     private boolean handleGenericMetric(MetricsMessage message) {
         log.debug("📉 일반 메트릭: 타입={}, 메트릭={}, 값={}", 
                  message.getMetricType(), message.getMetricName(), message.getValue());
@@ -270,63 +291,43 @@ public class MetricsMessageHandler {
     
     // === 메트릭 데이터 처리 ===
     
-    private void storeMetricData(MetricsMessage message) {
-        String metricKey = buildMetricKey(message);
+    /**
+     * 임계치 위반 윈도우 처리 (시리즈당 윈도우마다 최대 한 번)
+     */
+    private void onThresholdViolated(WindowResult window) {
+        alertTriggered.incrementAndGet();
         
-        MetricDataPoint dataPoint = MetricDataPoint.builder()
-                .metricName(message.getMetricName())
-                .value(message.getValue())
-                .timestamp(message.getMeasurementTime())
-                .source(message.getSource())
-                .unit(message.getUnit())
-                .dimensions(message.getDimensions())
-                .build();
+        ThresholdViolation violation = thresholdViolations.computeIfAbsent(window.seriesKey(), 
+            k -> new ThresholdViolation());
         
-        latestMetrics.put(metricKey, dataPoint);
+        violation.incrementCount();
+        violation.setLastViolation(LocalDateTime.now());
         
-        // 실제로는 시계열 DB나 메트릭 저장소에 저장
-        // timeSeriesDB.store(dataPoint);
-    }
-    
-    private void checkAlertThresholds(MetricsMessage message) {
-        if (message.exceedsThreshold()) {
-            alertTriggered.incrementAndGet();
-            
-            String alertKey = message.getMetricName() + ":" + message.getSource();
-            ThresholdViolation violation = thresholdViolations.computeIfAbsent(alertKey, 
-                k -> new ThresholdViolation());
-            
-            violation.incrementCount();
-            violation.setLastViolation(LocalDateTime.now());
-            
-            log.warn("🚨 메트릭 임계치 위반: 메트릭={}, 값={}, 임계치={}, 연산자={}", 
-                    message.getMetricName(), message.getValue(), 
-                    message.getAlertThreshold(), message.getAlertOperator());
-            
-            // 알림 전송
-            sendAlert(message, violation);
-        }
+        log.warn("🚨 메트릭 임계치 위반: 시리즈={}, 윈도우={}, 값={}, 임계치={}, 연산자={}, 샘플={}", 
+                window.seriesKey(), window.resolution().label(), window.alertRule().observed(window),
+                window.alertRule().threshold(), window.alertRule().operator(), window.count());
+        
+        // 알림 전송
+        sendAlert(window, violation);
     }
     
     private void updateDashboardData(MetricsMessage message) {
+        if (message.getMetricName() == null || message.getValue() == null) {
+            return;
+        }
+        
+        // 대시보드 모델에 최신값만 반영 (스냅샷은 모델의 publish 주기에 교체)
+        String key = message.getMetricName();
         if (message.isDashboardMetric()) {
+            key = message.getDashboardName() + "." + key;
             log.debug("📈 대시보드 데이터 업데이트: 대시보드={}, 차트타입={}", 
                      message.getDashboardName(), message.getChartType());
-            
-            // 실시간 대시보드 데이터 업데이트
-            // dashboardService.updateChart(message.getDashboardName(), message);
         }
+        dashboardModel.recordMetric(key, message.getValue(), message.getUnit());
     }
     
     // === 유틸리티 메서드들 ===
     
-    private String buildMetricKey(MetricsMessage message) {
-        return String.format("%s:%s:%s", 
-                           message.getMetricName(), 
-                           message.getSource() != null ? message.getSource() : "unknown",
-                           message.getHostName() != null ? message.getHostName() : "unknown");
-    }
-    
     private void checkRevenueTarget(MetricsMessage message) {
         // 매출 목표 대비 달성률 확인
         Double currentRevenue = message.getValue();
@@ -337,10 +338,10 @@ public class MetricsMessageHandler {
         // }
     }
     
-    private void sendAlert(MetricsMessage message, ThresholdViolation violation) {
+    private void sendAlert(WindowResult window, ThresholdViolation violation) {
         // 알림 전송 로직 (이메일, 슬랙, SMS 등)
         log.info("알림 전송: 메트릭={}, 위반횟수={}", 
-                message.getMetricName(), violation.getCount());
+                window.metricName(), violation.getCount());
     }
     
     /**
@@ -354,24 +355,13 @@ public class MetricsMessageHandler {
                 .systemMetrics(systemMetrics.get())
                 .customMetrics(customMetrics.get())
                 .alertTriggered(alertTriggered.get())
-                .activeMetrics(latestMetrics.size())
+                .activeMetrics(metricsPreAggregator.seriesCount())
                 .thresholdViolations(thresholdViolations.size())
                 .build();
     }
     
     // === DTO 클래스들 ===
     
-    @lombok.Builder
-    @lombok.Data
-    public static class MetricDataPoint {
-        private String metricName;
-        private Double value;
-        private LocalDateTime timestamp;
-        private String source;
-        private String unit;
-        private Map<String, String> dimensions;
-    }
-    
     @lombok.Data
     public static class ThresholdViolation {
         private int count = 0;
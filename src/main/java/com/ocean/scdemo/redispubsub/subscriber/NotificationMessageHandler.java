@@ -1,5 +1,15 @@
 package com.ocean.scdemo.redispubsub.subscriber;
+import com.ocean.scdemo.redispubsub.delay.DelayedDeliveryEngine;
+import com.ocean.scdemo.redispubsub.digest.NotificationDigestService;
+import com.ocean.scdemo.redispubsub.dispatch.HandlerChain;
+import com.ocean.scdemo.redispubsub.dispatch.HandlerRegistry;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubAround;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubHandler;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubValidator;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
 import com.ocean.scdemo.redispubsub.message.NotificationMessage;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
@@ -18,7 +28,13 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class NotificationMessageHandler {
+
+    private final DelayedDeliveryEngine delayedDeliveryEngine;
+    private final HandlerRegistry handlerRegistry;
+    private final NotificationDigestService digestService;
+
     // 처리 통계
     private final AtomicLong totalProcessed = new AtomicLong(0);
     private final AtomicLong pushNotifications = new AtomicLong(0);
@@ -28,32 +44,39 @@ public class NotificationMessageHandler {
     private final AtomicLong systemNotifications = new AtomicLong(0);
     private final AtomicLong highPriorityNotifications = new AtomicLong(0);
     private final AtomicLong scheduledNotifications = new AtomicLong(0);
+    private final AtomicLong scheduledDeliveries = new AtomicLong(0);
+    private final AtomicLong batchedNotifications = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        delayedDeliveryEngine.setDeliveryHandler(this::deliverScheduled);
+        digestService.setDeliveryHandler(handlerRegistry::dispatch);
+    }
     
-    public boolean handleMessage(NotificationMessage message) {
+    @PubSubAround(NotificationMessage.class)
+    public boolean handleMessage(NotificationMessage message, HandlerChain chain) {
         try {
             totalProcessed.incrementAndGet();
             
             // 예약된 알림인지 확인
-            if (message.isScheduled()) {
-                return handleScheduledNotification(message);
+            if (message.isScheduled() && deferScheduledNotification(message)) {
+                return true;
             }
             
-            // 우선순위 체크
+            // 우선순위 체크 (높은 우선순위는 묶음 창을 우회)
             if (isHighPriority(message)) {
                 highPriorityNotifications.incrementAndGet();
+                digestService.recordBypass(message);
                 log.info("🚨 높은 우선순위 알림: ID={}, 제목={}, 수신자={}", 
                         message.getMessageId(), message.getTitle(), message.getRecipientId());
+            } else if (digestService.tryBatch(message)) {
+                // 수신자별 묶음 버퍼에 보관 (창이 지나거나 가득 차면 묶음 알림으로 다시 전달됨)
+                batchedNotifications.incrementAndGet();
+                return true;
             }
             
             // 알림 타입별 처리
-            boolean processed = switch (message.getNotificationType()) {
-                case "PUSH" -> handlePushNotification(message);
-                case "EMAIL" -> handleEmailNotification(message);
-                case "SMS" -> handleSmsNotification(message);
-                case "IN_APP" -> handleInAppNotification(message);
-                case "SYSTEM" -> handleSystemNotification(message);
-                default -> handleGenericNotification(message);
-            };
+            boolean processed = chain.proceed();
             
             if (processed) {
                 // 전송 완료 처리
@@ -72,9 +95,18 @@ public class NotificationMessageHandler {
         }
     }
     
+    /**
+     * 메시지 검증 (제목/본문 필수)
+     */
+    @PubSubValidator(NotificationMessage.class)
+    private boolean validate(NotificationMessage message) {
+        return message.getTitle() != null && message.getMessage() != null;
+    }
+    
     /**
      * 푸시 알림 처리
      */
+    @PubSubHandler(type = NotificationMessage.class, subtype = "PUSH", maxConcurrency = 64)
     private boolean handlePushNotification(NotificationMessage message) {
         pushNotifications.incrementAndGet();
         
@@ -107,6 +139,7 @@ public class NotificationMessageHandler {
     /**
      * 이메일 알림 처리
      */
+    @PubSubHandler(type = NotificationMessage.class, subtype = "EMAIL", maxConcurrency = 32)
     private boolean handleEmailNotification(NotificationMessage message) {
         emailNotifications.incrementAndGet();
         
@@ -138,6 +171,7 @@ public class NotificationMessageHandler {
     /**
      * SMS 알림 처리
      */
+    @PubSubHandler(type = NotificationMessage.class, subtype = "SMS", maxConcurrency = 16)
     private boolean handleSmsNotification(NotificationMessage message) {
         smsNotifications.incrementAndGet();
         
@@ -161,6 +195,7 @@ public class NotificationMessageHandler {
     /**
      * 인앱 알림 처리
      */
+    @PubSubHandler(type = NotificationMessage.class, subtype = "IN_APP")
     private boolean handleInAppNotification(NotificationMessage message) {
         inAppNotifications.incrementAndGet();
         
@@ -174,6 +209,7 @@ public class NotificationMessageHandler {
     /**
      * 시스템 알림 처리
      */
+    @PubSubHandler(type = NotificationMessage.class, subtype = "SYSTEM")
     private boolean handleSystemNotification(NotificationMessage message) {
         systemNotifications.incrementAndGet();
         
@@ -192,6 +228,7 @@ public class NotificationMessageHandler {
     /**
      * 일반 알림 처리
      */
+    @PubSubHandler(type = NotificationMessage.class)
     private boolean handleGenericNotification(NotificationMessage message) {
         log.info("🔔 일반 알림: 타입={}, 수신자={}, 제목='{}'", 
                 message.getNotificationType(), message.getRecipientId(), message.getTitle());
@@ -200,24 +237,39 @@ public class NotificationMessageHandler {
     }
     
     /**
-     * 예약된 알림 처리
+     * 예약된 알림 처리 (지연 전달 엔진에 등록했으면 true, 예약 시간이 지났으면 false 로 일반 처리 진행)
      */
-    private boolean handleScheduledNotification(NotificationMessage message) {
+    private boolean deferScheduledNotification(NotificationMessage message) {
         scheduledNotifications.incrementAndGet();
         
         log.info("⏰ 예약 알림: ID={}, 예약시간={}, 현재시간={}", 
                 message.getMessageId(), message.getScheduledAt(), LocalDateTime.now());
         
-        // 예약 시간이 아직 되지 않았으면 대기
+        // 예약 시간이 아직 되지 않았으면 지연 전달 엔진에 등록 (만료 시 deliverScheduled 로 돌아옴)
         if (message.getScheduledAt().isAfter(LocalDateTime.now())) {
-            log.debug("예약 시간 미도래, 처리 지연: ID={}", message.getMessageId());
-            // 실제로는 스케줄러에 다시 등록하거나 지연 처리
-            return false;
+            delayedDeliveryEngine.schedule(message, message.getScheduledAt());
+            message.setStatus("SCHEDULED");
+            log.debug("예약 시간 미도래, 지연 전달 등록: ID={}", message.getMessageId());
+            return true;
         }
         
         // 예약 시간이 된 경우 일반 처리 진행
         message.setScheduledAt(null); // 예약 플래그 제거
-        return handleMessage(message); // 재귀 호출로 일반 처리
+        return false;
+    }
+    
+    /**
+     * 지연 전달 엔진에서 만료된 예약 알림 처리
+     */
+    private boolean deliverScheduled(BaseMessage message) {
+        if (!(message instanceof NotificationMessage notification)) {
+            log.warn("알림이 아닌 지연 전달 메시지 무시: ID={}, 타입={}",
+                    message.getMessageId(), message.getClass().getSimpleName());
+            return true;
+        }
+        scheduledDeliveries.incrementAndGet();
+        notification.setScheduledAt(null); // 노드 간 시계 차이로 다시 예약되지 않도록 제거
+        return handlerRegistry.dispatch(notification);
     }
     
     // === 실제 전송 메서드들 (모의 구현) ===
@@ -268,7 +320,9 @@ public class NotificationMessageHandler {
     
     private boolean sendInAppNotification(NotificationMessage message) {
         // WebSocket이나 SSE를 통한 실시간 인앱 알림
-        log.debug("인앱 알림 전송: {}", message.getMessageId());
+        // (수신자 목록이 있는 묶음 알림은 모든 노드가 받으므로 이 노드에 연결된 수신자에게만 전송)
+        log.debug("인앱 알림 전송: {}, 수신자 목록={}", message.getMessageId(),
+                message.getRecipientIds() != null ? message.getRecipientIds().size() : 0);
         return true;
     }
     
@@ -333,6 +387,8 @@ public class NotificationMessageHandler {
                 .systemNotifications(systemNotifications.get())
                 .highPriorityNotifications(highPriorityNotifications.get())
                 .scheduledNotifications(scheduledNotifications.get())
+                .scheduledDeliveries(scheduledDeliveries.get())
+                .batchedNotifications(batchedNotifications.get())
                 .build();
     }
     
@@ -350,6 +406,8 @@ public class NotificationMessageHandler {
         private final long systemNotifications;
         private final long highPriorityNotifications;
         private final long scheduledNotifications;
+        private final long scheduledDeliveries;
+        private final long batchedNotifications;
         
         public double getHighPriorityRate() {
             return totalProcessed > 0 ? 
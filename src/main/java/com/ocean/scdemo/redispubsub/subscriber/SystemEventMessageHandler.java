@@ -1,6 +1,12 @@
 package com.ocean.scdemo.redispubsub.subscriber;
 
+import com.ocean.scdemo.redispubsub.analytics.ErrorSignatureTracker;
+import com.ocean.scdemo.redispubsub.dispatch.HandlerChain;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubAround;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubHandler;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubValidator;
 import com.ocean.scdemo.redispubsub.message.SystemEventMessage;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -22,8 +28,11 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class SystemEventMessageHandler {
 
+    private final ErrorSignatureTracker errorSignatureTracker;
+
     // 처리 통계
     private final AtomicLong totalProcessed = new AtomicLong(0);
     private final AtomicLong serverEvents = new AtomicLong(0);
@@ -36,23 +45,13 @@ public class SystemEventMessageHandler {
     // 서비스 상태 추적
     private final Map<String, ServiceStatus> serviceStatuses = new ConcurrentHashMap<>();
     
-    // 에러 빈도 추적 (last 5 minutes)
-    private final Map<String, ErrorFrequency> errorFrequencies = new ConcurrentHashMap<>();
-    
-    public boolean handleMessage(SystemEventMessage message) {
+    @PubSubAround(SystemEventMessage.class)
+    public boolean handleMessage(SystemEventMessage message, HandlerChain chain) {
         try {
             totalProcessed.incrementAndGet();
             
             // 이벤트 타입별 처리
-            boolean processed = switch (message.getEventType()) {
-                case "SERVER_START" -> handleServerStartEvent(message);
-                case "SERVER_STOP" -> handleServerStopEvent(message);
-                case "ERROR" -> handleErrorEvent(message);
-                case "PERFORMANCE_ALERT" -> handlePerformanceAlert(message);
-                case "DEPLOYMENT" -> handleDeploymentEvent(message);
-                case "HEALTH_CHECK_FAILED" -> handleHealthCheckFailed(message);
-                default -> handleGenericSystemEvent(message);
-            };
+            boolean processed = chain.proceed();
             
             if (processed) {
                 // 서비스 상태 업데이트
@@ -76,9 +75,18 @@ public class SystemEventMessageHandler {
         }
     }
     
+    /**
+     * 메시지 검증 (이벤트 타입/서비스명 필수)
+     */
+    @PubSubValidator(SystemEventMessage.class)
+    private boolean validate(SystemEventMessage message) {
+        return message.getEventType() != null && message.getServiceName() != null;
+    }
+    
     /**
      * 서뺄 시작 이벤트 처리
      */
+    @PubSubHandler(type = SystemEventMessage.class, subtype = "SERVER_START")
     private boolean handleServerStartEvent(SystemEventMessage message) {
         serverEvents.incrementAndGet();
         
@@ -100,6 +108,7 @@ public class SystemEventMessageHandler {
     /**
      * 서뺄 종료 이벤트 처리
      */
+    @PubSubHandler(type = SystemEventMessage.class, subtype = "SERVER_STOP")
     private boolean handleServerStopEvent(SystemEventMessage message) {
         serverEvents.incrementAndGet();
         
@@ -123,14 +132,16 @@ public class SystemEventMessageHandler {
     /**
      * 에러 이벤트 처리
      */
+    @PubSubHandler(type = SystemEventMessage.class, subtype = "ERROR")
     private boolean handleErrorEvent(SystemEventMessage message) {
         errorEvents.incrementAndGet();
         
         log.error("❌ 시스템 에러: 서비스={}, 코드={}, 메시지='{}'", 
                  message.getServiceName(), message.getErrorCode(), message.getErrorMessage());
         
-        // 에러 빈도 추적
-        trackErrorFrequency(message.getServiceName(), message.getErrorCode());
+        // 에러 시그니처별 최근 빈도 추적
+        String signature = errorSignatureTracker.record(
+                message.getServiceName(), message.getErrorCode(), message.getErrorMessage());
         
         // 심각한 에러인지 판단
         if (isCriticalError(message)) {
@@ -139,7 +150,7 @@ public class SystemEventMessageHandler {
         }
         
         // 자동 복구 시도
-        if (shouldAttemptAutoRecovery(message)) {
+        if (shouldAttemptAutoRecovery(signature)) {
             scheduleAutoRecovery(message);
         }
         
@@ -152,6 +163,7 @@ public class SystemEventMessageHandler {
     /**
      * 성능 알림 처리
      */
+    @PubSubHandler(type = SystemEventMessage.class, subtype = "PERFORMANCE_ALERT")
     private boolean handlePerformanceAlert(SystemEventMessage message) {
         performanceEvents.incrementAndGet();
         
@@ -179,6 +191,7 @@ public class SystemEventMessageHandler {
     /**
      * 배포 이벤트 처리
      */
+    @PubSubHandler(type = SystemEventMessage.class, subtype = "DEPLOYMENT")
     private boolean handleDeploymentEvent(SystemEventMessage message) {
         deploymentEvents.incrementAndGet();
         
@@ -198,6 +211,7 @@ public class SystemEventMessageHandler {
     /**
      * 헬스체크 실패 이벤트 처리
      */
+    @PubSubHandler(type = SystemEventMessage.class, subtype = "HEALTH_CHECK_FAILED")
     private boolean handleHealthCheckFailed(SystemEventMessage message) {
         log.error("🌡️ 헬스체크 실패: 서비스={}, 상세={}", 
                  message.getServiceName(), message.getDetails());
@@ -214,6 +228,7 @@ public class SystemEventMessageHandler {
     /**
      * 일반 시스템 이벤트 처리
      */
+    @PubSubHandler(type = SystemEventMessage.class)
     private boolean handleGenericSystemEvent(SystemEventMessage message) {
         log.info("🔧 시스템 이벤트: 서비스={}, 이벤트={}, 레벨={}", 
                 message.getServiceName(), message.getEventType(), message.getEventLevel());
@@ -244,11 +259,6 @@ public class SystemEventMessageHandler {
     
     // === 에러 처리 ===
     
-    private void trackErrorFrequency(String serviceName, String errorCode) {
-        String key = serviceName + ":" + errorCode;
-        errorFrequencies.computeIfAbsent(key, k -> new ErrorFrequency()).increment();
-    }
-    
     private boolean isCriticalError(SystemEventMessage message) {
         // 심각한 에러 판단 로직
         return "FATAL".equals(message.getEventLevel()) || 
@@ -265,12 +275,10 @@ public class SystemEventMessageHandler {
         isolateService(message.getServiceName());
     }
     
-    private boolean shouldAttemptAutoRecovery(SystemEventMessage message) {
-        // 자동 복구 시도 여부 결정
-        ErrorFrequency frequency = errorFrequencies.get(
-            message.getServiceName() + ":" + message.getErrorCode());
-        
-        return frequency != null && frequency.getCount() < 3; // 3회 미만
+    private boolean shouldAttemptAutoRecovery(String signature) {
+        // 자동 복구 시도 여부 결정 (추적 윈도우 내 같은 에러 3회 미만)
+        long recent = errorSignatureTracker.countInWindow(signature, errorSignatureTracker.getWindowSeconds());
+        return recent > 0 && recent < 3;
     }
     
     private void scheduleAutoRecovery(SystemEventMessage message) {
@@ -431,18 +439,6 @@ public class SystemEventMessageHandler {
         private String lastEventType;
     }
     
-    @lombok.Data
-    public static class ErrorFrequency {
-        private int count = 0;
-        private LocalDateTime firstOccurrence = LocalDateTime.now();
-        private LocalDateTime lastOccurrence;
-        
-        public void increment() {
-            count++;
-            lastOccurrence = LocalDateTime.now();
-        }
-    }
-    
     @lombok.Builder
     @lombok.Data
     public static class SystemEventHandlerStats {
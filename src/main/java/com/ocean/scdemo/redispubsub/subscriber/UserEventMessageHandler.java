@@ -1,19 +1,28 @@
 package com.ocean.scdemo.redispubsub.subscriber;
 
+import com.ocean.scdemo.redispubsub.analytics.UniqueUserCounter;
+import com.ocean.scdemo.redispubsub.config.NodeIdentity;
+import com.ocean.scdemo.redispubsub.dispatch.HandlerChain;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubAround;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubHandler;
+import com.ocean.scdemo.redispubsub.dispatch.PubSubValidator;
 import com.ocean.scdemo.redispubsub.message.UserEventMessage;
+import com.ocean.scdemo.redispubsub.presence.PresenceService;
+import com.ocean.scdemo.redispubsub.session.SessionCloseEvent;
+import com.ocean.scdemo.redispubsub.session.SessionizationEngine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 사용자 이벤트 메시지 처리 핸들러
  * 
  * 기능:
- * - 사용자 로그인/로그아웃 처리
+ * - 사용자 로그인/로그아웃 처리 (발행 노드에서 접속 상태 하트비트/종료 반영)
+ * - 접속 상태 이벤트(ONLINE/OFFLINE)로 로컬 온라인 스냅샷 증분 갱신
  * - 사용자 행동 분석 및 추적
  * - 비즈니스 이벤트 처리 (구매, 클릭 등)
  * - 개인화 데이터 수집
@@ -22,8 +31,14 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class UserEventMessageHandler {
 
+    private final SessionizationEngine sessionizationEngine;
+    private final UniqueUserCounter uniqueUserCounter;
+    private final PresenceService presenceService;
+    private final NodeIdentity nodeIdentity;
+
     // 처리 통계
     private final AtomicLong totalProcessed = new AtomicLong(0);
     private final AtomicLong loginEvents = new AtomicLong(0);
@@ -32,30 +47,24 @@ public class UserEventMessageHandler {
     private final AtomicLong pageViewEvents = new AtomicLong(0);
     private final AtomicLong clickEvents = new AtomicLong(0);
     private final AtomicLong businessEvents = new AtomicLong(0);
+    private final AtomicLong sessionsClosed = new AtomicLong(0);
     
-    // 활성 사용자 세션 추적
-    private final Map<String, UserSession> activeSessions = new ConcurrentHashMap<>();
-    
-    // 사용자별 이벤트 카운트 (일일 기준)
-    private final Map<String, UserDailyStats> dailyUserStats = new ConcurrentHashMap<>();
+    @PostConstruct
+    public void init() {
+        // 세션 추적은 세션화 엔진이 담당 (유휴 만료/메모리 상한), 종료 이벤트만 받아 통계 반영
+        sessionizationEngine.addCloseListener(this::updateSessionStats);
+    }
     
-    public boolean handleMessage(UserEventMessage message) {
+    @PubSubAround(UserEventMessage.class)
+    public boolean handleMessage(UserEventMessage message, HandlerChain chain) {
         try {
             totalProcessed.incrementAndGet();
             
             // 이벤트 타입별 처리
-            boolean processed = switch (message.getEventType()) {
-                case "LOGIN" -> handleLoginEvent(message);
-                case "LOGOUT" -> handleLogoutEvent(message);
-                case "PURCHASE" -> handlePurchaseEvent(message);
-                case "PAGE_VIEW" -> handlePageViewEvent(message);
-                case "CLICK" -> handleClickEvent(message);
-                case "REGISTER" -> handleRegisterEvent(message);
-                case "PROFILE_UPDATE" -> handleProfileUpdateEvent(message);
-                default -> handleGenericUserEvent(message);
-            };
+            boolean processed = chain.proceed();
             
-            if (processed) {
+            // 접속 상태 이벤트는 스냅샷 갱신만 하고 활동/분석 집계에서 제외
+            if (processed && !isPresenceEvent(message)) {
                 // 사용자 활동 추적
                 updateUserActivity(message);
                 
@@ -77,9 +86,18 @@ public class UserEventMessageHandler {
         }
     }
     
+    /**
+     * 메시지 검증 (이벤트 타입/사용자 필수)
+     */
+    @PubSubValidator(UserEventMessage.class)
+    private boolean validate(UserEventMessage message) {
+        return message.getEventType() != null && message.getUserId() != null;
+    }
+    
     /**
      * 로그인 이벤트 처리
      */
+    @PubSubHandler(type = UserEventMessage.class, subtype = "LOGIN")
     private boolean handleLoginEvent(UserEventMessage message) {
         loginEvents.incrementAndGet();
         
@@ -87,17 +105,12 @@ public class UserEventMessageHandler {
                 message.getUserId(), message.getDeviceType(), 
                 message.getLocation() != null ? message.getLocation().getCity() : "unknown");
         
-        // 세션 시작
-        UserSession session = UserSession.builder()
-                .userId(message.getUserId())
-                .sessionId(message.getSessionId())
-                .loginTime(LocalDateTime.now())
-                .deviceType(message.getDeviceType())
-                .ipAddress(message.getIpAddress())
-                .userAgent(message.getUserAgent())
-                .build();
+        // 세션 시작은 updateUserActivity 에서 세션화 엔진에 기록
         
-        activeSessions.put(message.getSessionId(), session);
+        // 접속 상태 하트비트 (모든 노드가 받으므로 발행 노드에서만)
+        if (isOwnEvent(message)) {
+            presenceService.heartbeat(message.getUserId());
+        }
         
         // 로그인 기록 및 분석
         recordLoginAttempt(message);
@@ -111,6 +124,7 @@ public class UserEventMessageHandler {
     /**
      * 로그아웃 이벤트 처리
      */
+    @PubSubHandler(type = UserEventMessage.class, subtype = "LOGOUT")
     private boolean handleLogoutEvent(UserEventMessage message) {
         logoutEvents.incrementAndGet();
         
@@ -118,12 +132,14 @@ public class UserEventMessageHandler {
                 message.getUserId(), 
                 message.getSessionDuration() != null ? message.getSessionDuration() / 1000 + "초" : "unknown");
         
-        // 세션 종료
-        UserSession session = activeSessions.remove(message.getSessionId());
-        if (session != null) {
-            session.setLogoutTime(LocalDateTime.now());
-            // 세션 통계 업데이트
-            updateSessionStats(session, message);
+        if (isOwnEvent(message)) {
+            presenceService.disconnect(message.getUserId());
+        }
+        
+        // 세션 종료 (종료 이벤트는 updateSessionStats 로 전달됨)
+        if (!sessionizationEngine.close(message.getUserId(), message.getSessionId())) {
+            log.debug("종료할 세션 없음 (이미 만료/축출): 사용자={}, 세션={}", 
+                     message.getUserId(), message.getSessionId());
         }
         
         return true;
@@ -132,6 +148,7 @@ public class UserEventMessageHandler {
     /**
      * 구매 이벤트 처리
      */
+    @PubSubHandler(type = UserEventMessage.class, subtype = "PURCHASE")
     private boolean handlePurchaseEvent(UserEventMessage message) {
         purchaseEvents.incrementAndGet();
         businessEvents.incrementAndGet();
@@ -155,6 +172,7 @@ public class UserEventMessageHandler {
     /**
      * 페이지 조회 이벤트 처리
      */
+    @PubSubHandler(type = UserEventMessage.class, subtype = "PAGE_VIEW")
     private boolean handlePageViewEvent(UserEventMessage message) {
         pageViewEvents.incrementAndGet();
         
@@ -173,6 +191,7 @@ public class UserEventMessageHandler {
     /**
      * 클릭 이벤트 처리
      */
+    @PubSubHandler(type = UserEventMessage.class, subtype = "CLICK")
     private boolean handleClickEvent(UserEventMessage message) {
         clickEvents.incrementAndGet();
         
@@ -192,6 +211,7 @@ public class UserEventMessageHandler {
     /**
      * 회원가입 이벤트 처리
      */
+    @PubSubHandler(type = UserEventMessage.class, subtype = "REGISTER")
     private boolean handleRegisterEvent(UserEventMessage message) {
         log.info("🎉 신규 회원가입: 사용자={}, 이메일={}, 소스={}", 
                 message.getUserId(), message.getUserEmail(), message.getSource());
@@ -208,6 +228,7 @@ public class UserEventMessageHandler {
     /**
      * 프로필 업데이트 이벤트 처리
      */
+    @PubSubHandler(type = UserEventMessage.class, subtype = "PROFILE_UPDATE")
     private boolean handleProfileUpdateEvent(UserEventMessage message) {
         log.info("✏️ 프로필 업데이트: 사용자={}", message.getUserId());
         
@@ -217,9 +238,25 @@ public class UserEventMessageHandler {
         return true;
     }
     
+    /**
+     * 접속 상태 이벤트 처리 (status:online / status:offline)
+     */
+    @PubSubHandler(type = UserEventMessage.class, subtype = "ONLINE")
+    private boolean handleOnlineEvent(UserEventMessage message) {
+        presenceService.applyStatusEvent(message);
+        return true;
+    }
+    
+    @PubSubHandler(type = UserEventMessage.class, subtype = "OFFLINE")
+    private boolean handleOfflineEvent(UserEventMessage message) {
+        presenceService.applyStatusEvent(message);
+        return true;
+    }
+    
     /**
      * 일반 사용자 이벤트 처리
      */
+    @PubSubHandler(type = UserEventMessage.class)
     private boolean handleGenericUserEvent(UserEventMessage message) {
         log.debug("📊 사용자 이벤트: 사용자={}, 이벤트={}, 카테고리={}", 
                  message.getUserId(), message.getEventType(), message.getCategory());
@@ -229,11 +266,28 @@ public class UserEventMessageHandler {
     
     // === 데이터 분석 및 업데이트 메서드들 ===
     
+    private boolean isPresenceEvent(UserEventMessage message) {
+        return "ONLINE".equals(message.getEventType()) || "OFFLINE".equals(message.getEventType());
+    }
+    
+    private boolean isOwnEvent(UserEventMessage message) {
+        return message.getOriginNodeId() == null || nodeIdentity.isSelf(message.getOriginNodeId());
+    }
+    
     private void updateUserActivity(UserEventMessage message) {
-        String userId = message.getUserId();
-        UserDailyStats stats = dailyUserStats.computeIfAbsent(userId, k -> new UserDailyStats());
-        stats.incrementEventCount();
-        stats.setLastActivityTime(LocalDateTime.now());
+        // 일/시간/이벤트 타입별 고유 사용자 (HyperLogLog, 사용자 수와 무관한 고정 메모리)
+        uniqueUserCounter.record(message.getUserId(), message.getEventType());
+        
+        // 로그아웃은 이미 세션을 닫았으므로 다시 열지 않음
+        if ("LOGOUT".equals(message.getEventType())) {
+            return;
+        }
+        sessionizationEngine.record(message.getUserId(), message.getSessionId());
+        
+        // 활동이 있는 동안 접속 상태 유지 (발행 노드에서만)
+        if (isOwnEvent(message)) {
+            presenceService.touch(message.getUserId());
+        }
     }
     
     private void updatePersonalizationData(UserEventMessage message) {
@@ -263,8 +317,12 @@ public class UserEventMessageHandler {
         }
     }
     
-    private void updateSessionStats(UserSession session, UserEventMessage message) {
-        // 세션 통계 업데이트 (세션 시간, 페이지뷰 수 등)
+    private void updateSessionStats(SessionCloseEvent event) {
+        // 세션 통계 업데이트 (세션 시간, 이벤트 수 등)
+        sessionsClosed.incrementAndGet();
+        log.debug("세션 종료: 사용자={}, 세션={}, 사유={}, 지속={}초, 이벤트={}건", 
+                 event.userId(), event.sessionId(), event.reason(), 
+                 event.durationMillis() / 1000, event.eventCount());
     }
     
     private void updatePurchaseStats(UserEventMessage message) {
@@ -319,46 +377,14 @@ public class UserEventMessageHandler {
                 .pageViewEvents(pageViewEvents.get())
                 .clickEvents(clickEvents.get())
                 .businessEvents(businessEvents.get())
-                .activeSessions(activeSessions.size())
-                .activeUsers(dailyUserStats.size())
+                .activeSessions(sessionizationEngine.activeSessions())
+                .activeUsers(sessionizationEngine.activeUsers())
+                .sessionsClosed(sessionsClosed.get())
                 .build();
     }
     
     // === DTO 클래스들 ===
     
-    @lombok.Builder
-    @lombok.Data
-    public static class UserSession {
-        private String userId;
-        private String sessionId;
-        private LocalDateTime loginTime;
-        private LocalDateTime logoutTime;
-        private String deviceType;
-        private String ipAddress;
-        private String userAgent;
-        
-        public long getSessionDurationMinutes() {
-            if (logoutTime == null) return 0;
-            return java.time.Duration.between(loginTime, logoutTime).toMinutes();
-        }
-    }
-    
-    @lombok.Data
-    public static class UserDailyStats {
-        private int eventCount = 0;
-        private LocalDateTime lastActivityTime;
-        private LocalDateTime firstActivityTime = LocalDateTime.now();
-        
-        public void incrementEventCount() {
-            eventCount++;
-        }
-        
-        public boolean isActiveToday() {
-            return lastActivityTime != null && 
-                   lastActivityTime.toLocalDate().equals(LocalDateTime.now().toLocalDate());
-        }
-    }
-    
     @lombok.Builder
     @lombok.Data
     public static class UserEventHandlerStats {
@@ -371,6 +397,7 @@ public class UserEventMessageHandler {
         private final long businessEvents;
         private final int activeSessions;
         private final int activeUsers;
+        private final long sessionsClosed;
         
         public double getBusinessEventRate() {
             return totalProcessed > 0 ? 
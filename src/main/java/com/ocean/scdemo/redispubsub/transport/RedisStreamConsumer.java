@@ -0,0 +1,245 @@
+package com.ocean.scdemo.redispubsub.transport;
+
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig.ChannelFamily;
+import com.ocean.scdemo.redispubsub.subscriber.MessageSubscriber;
+import com.ocean.scdemo.redispubsub.subscriber.MessageSubscriber.DispatchResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis Streams 컨슈머 그룹 기반 메시지 수신기
+ *
+ * 핵심 기능:
+ * - XREADGROUP COUNT 배치 읽기 후 MessageSubscriber 로 디스패치
+ * - 처리 결과에 따라 스트림별 배치 XACK (FAILED 는 pending 으로 남겨 재시도)
+ * - 주기적으로 죽은 컨슈머의 pending 엔트리 XCLAIM 회수
+ * - 최대 전달 횟수 초과 엔트리는 데드레터 스트림으로 옮긴 뒤 ACK
+ * - 주기적 MINID 트리밍
+ *
+ * 폴링은 SmartLifecycle 로 시작하므로 HandlerRegistry 가 디스패치 테이블을 컴파일한 뒤(싱글톤 생성 완료 후)에 첫 엔트리를 읽는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisStreamConsumer implements SmartLifecycle {
+
+    private final RedisStreamTransport streamTransport;
+    private final MessageSubscriber messageSubscriber;
+
+    @Value("${pubsub.stream.batch-size:100}")
+    private int batchSize;
+
+    @Value("${pubsub.stream.block-ms:2000}")
+    private long blockMillis;
+
+    @Value("${pubsub.stream.claim-idle-ms:30000}")
+    private long claimIdleMillis;
+
+    @Value("${pubsub.stream.max-deliveries:5}")
+    private long maxDeliveries;
+
+    @Value("${pubsub.stream.maintenance-interval-ms:10000}")
+    private long maintenanceIntervalMillis;
+
+    private final String consumerName = ManagementFactory.getRuntimeMXBean().getName();
+
+    // 처리 통계
+    private final AtomicLong totalRead = new AtomicLong(0);
+    private final AtomicLong totalAcked = new AtomicLong(0);
+    private final AtomicLong totalClaimed = new AtomicLong(0);
+    private final AtomicLong totalDeadLettered = new AtomicLong(0);
+    private final AtomicLong totalDropped = new AtomicLong(0);
+
+    private volatile boolean running;
+    private volatile boolean groupsReady;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        if (streamTransport.getDurableFamilies().isEmpty()) {
+            log.info("DURABLE 패밀리가 없어 Redis Streams 컨슈머를 시작하지 않습니다");
+            return;
+        }
+
+        running = true;
+        worker = Thread.ofVirtual().name("redis-stream-consumer").start(this::pollLoop);
+
+        log.info("Redis Streams 컨슈머 시작 - consumer={}, batch={}, block={}ms, claimIdle={}ms",
+                consumerName, batchSize, blockMillis, claimIdleMillis);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void pollLoop() {
+        long nextMaintenance = 0;
+
+        while (running) {
+            try {
+                if (!groupsReady) {
+                    streamTransport.ensureGroups();
+                    groupsReady = true;
+                }
+
+                List<ByteRecord> records = streamTransport.readNew(consumerName, batchSize, Duration.ofMillis(blockMillis));
+                if (!records.isEmpty()) {
+                    totalRead.addAndGet(records.size());
+                    processBatch(records);
+                }
+
+                long now = System.currentTimeMillis();
+                if (now >= nextMaintenance) {
+                    claimStalePending();
+                    streamTransport.trimByRetention();
+                    nextMaintenance = now + maintenanceIntervalMillis;
+                }
+
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.error("Redis Streams 폴링 실패 - {}ms 후 재시도", blockMillis, e);
+                sleepQuietly(blockMillis);
+            }
+        }
+
+        log.info("Redis Streams 컨슈머 종료: consumer={}", consumerName);
+    }
+
+    /**
+     * 배치 디스패치 후 스트림별 배치 ACK
+     */
+    void processBatch(List<ByteRecord> records) {
+        Map<String, List<RecordId>> toAck = new HashMap<>();
+
+        for (ByteRecord record : records) {
+            Map<byte[], byte[]> fields = record.getValue();
+            String channel = null;
+            byte[] payload = null;
+            for (Map.Entry<byte[], byte[]> field : fields.entrySet()) {
+                if (Arrays.equals(field.getKey(), RedisStreamTransport.FIELD_CHANNEL)) {
+                    channel = new String(field.getValue(), StandardCharsets.UTF_8);
+                } else if (Arrays.equals(field.getKey(), RedisStreamTransport.FIELD_PAYLOAD)) {
+                    payload = field.getValue();
+                }
+            }
+
+            DispatchResult result = messageSubscriber.dispatch(channel, payload);
+            if (result != DispatchResult.FAILED) {
+                String streamKey = new String(record.getStream(), StandardCharsets.UTF_8);
+                toAck.computeIfAbsent(streamKey, k -> new ArrayList<>()).add(record.getId());
+            }
+        }
+
+        toAck.forEach((streamKey, ids) -> totalAcked.addAndGet(streamTransport.ack(streamKey, ids)));
+    }
+
+    /**
+     * 유휴 시간이 claimIdle 을 넘은 pending 엔트리 회수
+     * 최대 전달 횟수를 초과한 엔트리는 데드레터 스트림으로 옮긴 뒤 ACK (이미 트리밍된 엔트리는 폐기로 집계)
+     */
+    void claimStalePending() {
+        Duration minIdle = Duration.ofMillis(claimIdleMillis);
+
+        for (ChannelFamily family : streamTransport.getDurableFamilies()) {
+            PendingMessages pending = streamTransport.pending(family, batchSize);
+            if (pending == null || pending.isEmpty()) {
+                continue;
+            }
+
+            List<RecordId> claimable = new ArrayList<>();
+            List<PendingMessage> exhausted = new ArrayList<>();
+
+            for (PendingMessage message : pending) {
+                if (message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) < 0) {
+                    continue;
+                }
+                if (message.getTotalDeliveryCount() >= maxDeliveries) {
+                    exhausted.add(message);
+                } else {
+                    claimable.add(message.getId());
+                }
+            }
+
+            if (!exhausted.isEmpty()) {
+                long moved = streamTransport.deadLetter(family, exhausted);
+                totalDeadLettered.addAndGet(moved);
+                totalDropped.addAndGet(exhausted.size() - moved);
+                log.warn("최대 전달 횟수 초과 엔트리 데드레터 이동: stream={}, dlq={}, 이동={}, 폐기={}",
+                        family.getStreamKey(), RedisStreamTransport.deadLetterKeyOf(family), moved, exhausted.size() - moved);
+            }
+
+            List<ByteRecord> claimed = streamTransport.claim(family, consumerName, minIdle, claimable);
+            if (!claimed.isEmpty()) {
+                totalClaimed.addAndGet(claimed.size());
+                log.info("pending 엔트리 회수: stream={}, 건수={}", family.getStreamKey(), claimed.size());
+                processBatch(claimed);
+            }
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 컨슈머 통계 조회
+     */
+    public StreamConsumerStats getStats() {
+        return StreamConsumerStats.builder()
+                .consumerName(consumerName)
+                .running(running)
+                .totalRead(totalRead.get())
+                .totalAcked(totalAcked.get())
+                .totalClaimed(totalClaimed.get())
+                .totalDeadLettered(totalDeadLettered.get())
+                .totalDropped(totalDropped.get())
+                .build();
+    }
+
+    /**
+     * 스트림 컨슈머 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class StreamConsumerStats {
+        private final String consumerName;
+        private final boolean running;
+        private final long totalRead;
+        private final long totalAcked;
+        private final long totalClaimed;
+        private final long totalDeadLettered;
+        private final long totalDropped;
+    }
+}
@@ -0,0 +1,352 @@
+package com.ocean.scdemo.redispubsub.transport;
+
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig.ChannelFamily;
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig.DeliveryMode;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.RedisStreamCommands.XClaimOptions;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis Streams 기반 내구성(DURABLE) 전송 계층
+ *
+ * 핵심 기능:
+ * - 채널 패밀리별 전송 모드 선택 (chat: DURABLE, metrics: FIRE_AND_FORGET 등)
+ * - XADD 발행 + MAXLEN(~) 트리밍
+ * - XREADGROUP COUNT 배치 읽기 / XACK 배치 확인
+ * - XPENDING + XCLAIM 으로 죽은 컨슈머의 미처리 메시지 회수
+ * - XTRIM MINID(~) 로 보관 기간 초과 엔트리 정리
+ * - 최대 전달 횟수를 넘긴 엔트리는 데드레터 스트림(<스트림 키>:dlq)으로 옮긴 뒤 XACK
+ *
+ * 스트림은 패밀리 단위로 하나씩 두고 원래 채널명은 필드로 보관한다.
+ * (chat:room:* 처럼 채널 수가 많은 패밀리도 XREADGROUP 키 수가 고정됨)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisStreamTransport {
+
+    public static final byte[] FIELD_CHANNEL = "channel".getBytes(StandardCharsets.UTF_8);
+    public static final byte[] FIELD_PAYLOAD = "payload".getBytes(StandardCharsets.UTF_8);
+    public static final byte[] FIELD_SOURCE_ID = "sourceId".getBytes(StandardCharsets.UTF_8);
+    public static final byte[] FIELD_DELIVERIES = "deliveries".getBytes(StandardCharsets.UTF_8);
+    public static final byte[] FIELD_DEAD_LETTERED_AT = "deadLetteredAt".getBytes(StandardCharsets.UTF_8);
+
+    private static final String DEAD_LETTER_SUFFIX = ":dlq";
+
+    private final RedisTemplate<String, Object> redisPubSubTemplate;
+
+    @Value("${pubsub.stream.durable-families:CHAT}")
+    private String durableFamiliesProperty;
+
+    @Value("${pubsub.stream.group:pubsub-group}")
+    private String groupName;
+
+    @Value("${pubsub.stream.max-len:100000}")
+    private long maxLen;
+
+    @Value("${pubsub.stream.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${pubsub.stream.dead-letter-max-len:10000}")
+    private long deadLetterMaxLen;
+
+    private Set<ChannelFamily> durableFamilies = Collections.emptySet();
+
+    // 발행 통계
+    private final AtomicLong totalAppended = new AtomicLong(0);
+    private final AtomicLong totalAppendFailed = new AtomicLong(0);
+    private final AtomicLong totalDeadLettered = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        Set<ChannelFamily> families = EnumSet.noneOf(ChannelFamily.class);
+        for (String name : durableFamiliesProperty.split(",")) {
+            if (!name.isBlank()) {
+                families.add(ChannelFamily.valueOf(name.trim().toUpperCase()));
+            }
+        }
+        this.durableFamilies = Collections.unmodifiableSet(families);
+
+        log.info("Redis Streams 전송 계층 초기화 - DURABLE 패밀리: {}, MAXLEN~{}, 보관 {}분",
+                durableFamilies, maxLen, retentionMinutes);
+    }
+
+    /**
+     * 채널의 전송 모드 조회
+     */
+    public DeliveryMode modeOf(String channel) {
+        ChannelFamily family = ChannelFamily.of(channel);
+        return family != null && durableFamilies.contains(family)
+                ? DeliveryMode.DURABLE
+                : DeliveryMode.FIRE_AND_FORGET;
+    }
+
+    public boolean isDurable(String channel) {
+        return modeOf(channel) == DeliveryMode.DURABLE;
+    }
+
+    public Set<ChannelFamily> getDurableFamilies() {
+        return durableFamilies;
+    }
+
+    public String getGroupName() {
+        return groupName;
+    }
+
+    /**
+     * 메시지를 패밀리 스트림에 적재 (XADD ... MAXLEN ~ n)
+     *
+     * Pub/Sub 과 동일한 값 직렬화기를 사용하므로 구독 측은 전송 모드와 무관하게 같은 방식으로 역직렬화한다.
+     */
+    @SuppressWarnings("unchecked")
+    public RecordId append(String channel, BaseMessage message) {
+        ChannelFamily family = ChannelFamily.of(channel);
+        if (family == null) {
+            throw new IllegalArgumentException("스트림 패밀리를 알 수 없는 채널입니다: " + channel);
+        }
+
+        byte[] payload = ((RedisSerializer<Object>) redisPubSubTemplate.getValueSerializer()).serialize(message);
+
+        Map<byte[], byte[]> fields = new LinkedHashMap<>();
+        fields.put(FIELD_CHANNEL, bytes(channel));
+        fields.put(FIELD_PAYLOAD, payload);
+
+        ByteRecord record = StreamRecords.rawBytes(fields).withStreamKey(bytes(family.getStreamKey()));
+        XAddOptions options = XAddOptions.maxlen(maxLen).approximateTrimming(true);
+
+        try {
+            RecordId recordId = redisPubSubTemplate.execute(
+                    (RedisCallback<RecordId>) connection -> connection.streamCommands().xAdd(record, options));
+            totalAppended.incrementAndGet();
+            return recordId;
+        } catch (Exception e) {
+            totalAppendFailed.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * DURABLE 패밀리 스트림에 컨슈머 그룹 생성 (이미 존재하면 무시)
+     */
+    public void ensureGroups() {
+        for (ChannelFamily family : durableFamilies) {
+            byte[] key = bytes(family.getStreamKey());
+            try {
+                redisPubSubTemplate.execute((RedisCallback<String>) connection ->
+                        connection.streamCommands().xGroupCreate(key, groupName, ReadOffset.from("0"), true));
+                log.info("스트림 컨슈머 그룹 생성: stream={}, group={}", family.getStreamKey(), groupName);
+            } catch (Exception e) {
+                if (isBusyGroup(e)) {
+                    log.debug("스트림 컨슈머 그룹 이미 존재: stream={}, group={}", family.getStreamKey(), groupName);
+                } else {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * 신규 엔트리 배치 읽기 (XREADGROUP COUNT n BLOCK ms ... >)
+     */
+    @SuppressWarnings("unchecked")
+    public List<ByteRecord> readNew(String consumerName, int count, Duration block) {
+        StreamOffset<byte[]>[] offsets = durableFamilies.stream()
+                .map(family -> StreamOffset.create(bytes(family.getStreamKey()), ReadOffset.lastConsumed()))
+                .toArray(StreamOffset[]::new);
+        if (offsets.length == 0) {
+            return Collections.emptyList();
+        }
+
+        StreamReadOptions options = StreamReadOptions.empty().count(count).block(block);
+        List<ByteRecord> records = redisPubSubTemplate.execute((RedisCallback<List<ByteRecord>>) connection ->
+                connection.streamCommands().xReadGroup(Consumer.from(groupName, consumerName), options, offsets));
+        return records != null ? records : Collections.emptyList();
+    }
+
+    /**
+     * 컨슈머 그룹과 무관하게 afterId 이후 엔트리 읽기 (XREAD COUNT n BLOCK ms STREAMS key afterId)
+     *
+     * 그룹 읽기는 엔트리마다 한 컨슈머에만 전달되므로, 모든 노드가 모든 엔트리를 봐야 하는 곳(채팅 이력)에서 사용한다.
+     */
+    @SuppressWarnings("unchecked")
+    public List<ByteRecord> readFrom(ChannelFamily family, String afterId, int count, Duration block) {
+        StreamOffset<byte[]> offset = StreamOffset.create(bytes(family.getStreamKey()), ReadOffset.from(afterId));
+        StreamReadOptions options = StreamReadOptions.empty().count(count).block(block);
+        List<ByteRecord> records = redisPubSubTemplate.execute((RedisCallback<List<ByteRecord>>) connection ->
+                connection.streamCommands().xRead(options, offset));
+        return records != null ? records : Collections.emptyList();
+    }
+
+    /**
+     * 배치 ACK (XACK key group id1 id2 ...)
+     */
+    public long ack(String streamKey, List<RecordId> recordIds) {
+        if (recordIds.isEmpty()) {
+            return 0;
+        }
+        RecordId[] ids = recordIds.toArray(new RecordId[0]);
+        Long acked = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                connection.streamCommands().xAck(bytes(streamKey), groupName, ids));
+        return acked != null ? acked : 0;
+    }
+
+    /**
+     * 미확인(pending) 엔트리 조회
+     */
+    public PendingMessages pending(ChannelFamily family, int count) {
+        return redisPubSubTemplate.execute((RedisCallback<PendingMessages>) connection ->
+                connection.streamCommands().xPending(bytes(family.getStreamKey()), groupName,
+                        Range.unbounded(), (long) count));
+    }
+
+    /**
+     * 유휴 시간이 지난 pending 엔트리를 현재 컨슈머로 회수 (XCLAIM)
+     */
+    public List<ByteRecord> claim(ChannelFamily family, String consumerName, Duration minIdle, List<RecordId> recordIds) {
+        if (recordIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        XClaimOptions options = XClaimOptions.minIdle(minIdle).ids(recordIds.toArray(new RecordId[0]));
+        List<ByteRecord> claimed = redisPubSubTemplate.execute((RedisCallback<List<ByteRecord>>) connection ->
+                connection.streamCommands().xClaim(bytes(family.getStreamKey()), groupName, consumerName, options));
+        return claimed != null ? claimed : Collections.emptyList();
+    }
+
+    /**
+     * 전달 횟수를 소진한 pending 엔트리를 데드레터 스트림으로 옮긴 뒤 ACK
+     *
+     * 원본 필드를 그대로 복사하고 원본 ID/전달 횟수/이동 시각을 덧붙인다.
+     * 복사(XADD)가 끝난 뒤에만 XACK 하므로 도중에 실패하면 pending 에 남아 다음 점검에서 다시 옮긴다.
+     * 이미 트리밍되어 본문이 없는 엔트리는 복사 없이 ACK 만 한다.
+     *
+     * @return 데드레터 스트림으로 옮긴 건수
+     */
+    public long deadLetter(ChannelFamily family, List<PendingMessage> exhausted) {
+        if (exhausted.isEmpty()) {
+            return 0;
+        }
+        byte[] key = bytes(family.getStreamKey());
+        byte[] deadLetterKey = bytes(deadLetterKeyOf(family));
+        XAddOptions options = XAddOptions.maxlen(deadLetterMaxLen).approximateTrimming(true);
+
+        long moved = 0;
+        List<RecordId> ids = new ArrayList<>(exhausted.size());
+        for (PendingMessage message : exhausted) {
+            String id = message.getIdAsString();
+            List<ByteRecord> entries = redisPubSubTemplate.execute((RedisCallback<List<ByteRecord>>) connection ->
+                    connection.streamCommands().xRange(key, Range.closed(id, id)));
+            if (entries != null && !entries.isEmpty()) {
+                ByteRecord deadLetter = StreamRecords
+                        .rawBytes(deadLetterFields(entries.get(0), message.getTotalDeliveryCount(), System.currentTimeMillis()))
+                        .withStreamKey(deadLetterKey);
+                redisPubSubTemplate.execute((RedisCallback<RecordId>) connection ->
+                        connection.streamCommands().xAdd(deadLetter, options));
+                moved++;
+            }
+            ids.add(message.getId());
+        }
+
+        ack(family.getStreamKey(), ids);
+        totalDeadLettered.addAndGet(moved);
+        return moved;
+    }
+
+    /**
+     * 패밀리별 데드레터 스트림 키
+     */
+    public static String deadLetterKeyOf(ChannelFamily family) {
+        return family.getStreamKey() + DEAD_LETTER_SUFFIX;
+    }
+
+    /**
+     * 데드레터 엔트리 필드 - 원본 필드 + 원본 ID / 전달 횟수 / 이동 시각
+     */
+    static Map<byte[], byte[]> deadLetterFields(ByteRecord source, long deliveries, long deadLetteredAt) {
+        Map<byte[], byte[]> fields = new LinkedHashMap<>(source.getValue());
+        fields.put(FIELD_SOURCE_ID, bytes(source.getId().getValue()));
+        fields.put(FIELD_DELIVERIES, bytes(Long.toString(deliveries)));
+        fields.put(FIELD_DEAD_LETTERED_AT, bytes(Long.toString(deadLetteredAt)));
+        return fields;
+    }
+
+    /**
+     * 보관 기간 초과 엔트리 정리 (XTRIM key MINID ~ <now - retention>)
+     */
+    public void trimByRetention() {
+        long minTimestamp = System.currentTimeMillis() - Duration.ofMinutes(retentionMinutes).toMillis();
+        byte[] minId = bytes(minTimestamp + "-0");
+
+        for (ChannelFamily family : durableFamilies) {
+            byte[] key = bytes(family.getStreamKey());
+            Object trimmed = redisPubSubTemplate.execute((RedisCallback<Object>) connection ->
+                    connection.execute("XTRIM", key, bytes("MINID"), bytes("~"), minId));
+            log.debug("스트림 MINID 트리밍: stream={}, 제거={}", family.getStreamKey(), trimmed);
+        }
+    }
+
+    /**
+     * 스트림 전송 통계
+     */
+    public StreamTransportStats getStats() {
+        return StreamTransportStats.builder()
+                .durableFamilies(durableFamilies)
+                .totalAppended(totalAppended.get())
+                .totalAppendFailed(totalAppendFailed.get())
+                .totalDeadLettered(totalDeadLettered.get())
+                .build();
+    }
+
+    private static boolean isBusyGroup(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("BUSYGROUP")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 스트림 전송 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class StreamTransportStats {
+        private final Set<ChannelFamily> durableFamilies;
+        private final long totalAppended;
+        private final long totalAppendFailed;
+        private final long totalDeadLettered;
+    }
+}
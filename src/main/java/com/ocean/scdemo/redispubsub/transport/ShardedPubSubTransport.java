@@ -0,0 +1,311 @@
+package com.ocean.scdemo.redispubsub.transport;
+
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import com.ocean.scdemo.redispubsub.routing.ChannelRouter;
+import com.ocean.scdemo.redispubsub.routing.TopicPattern;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+import io.lettuce.core.cluster.pubsub.StatefulRedisClusterPubSubConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sharded Pub/Sub (SPUBLISH / SSUBSCRIBE) 전송 계층
+ *
+ * 핵심 기능:
+ * - 샤딩 가능 채널(Channels.SHARDABLE_PREFIXES)은 SPUBLISH 로 해시 슬롯 소유 노드에만 발행
+ * - 샤드 채널 구독은 해시 슬롯 → 소유 노드별 Pub/Sub 연결로 SSUBSCRIBE
+ * - 주기적으로 슬롯 소유 노드를 다시 확인하여 리샤딩 후 구독을 옮김
+ * - 수신 메시지는 Lettuce 이벤트 루프를 막지 않도록 pubSubTaskExecutor 에서 ChannelRouter 로 전달
+ *
+ * 단독(standalone) Redis 에서는 비활성화되며 발행/구독 모두 기존 Pub/Sub 경로를 그대로 사용한다.
+ *
+ * 활성화되면 샤딩 패밀리는 패턴 구독에서 빠진다:
+ * - 샤딩 패밀리 채널은 항상 SPUBLISH 로 발행 (PUBLISH 와 전달 공간이 분리되어 PSUBSCRIBE 로는 받지 않음)
+ * - ChannelRouter 는 샤딩 패밀리 안쪽 토픽(chat:room:*, notification:user:* 등)을 로컬 라우팅에만 두고 PSUBSCRIBE 하지 않음
+ *   (chat:* 처럼 더 넓은 패턴은 그대로 구독하며, 샤딩 패밀리 밖의 채널만 받게 됨)
+ * - 샤딩 패밀리 메시지는 그 채널을 SSUBSCRIBE 한 노드만 받는다. SSUBSCRIBE 는 패턴을 지원하지 않으므로
+ *   엔티티 채널(방/사용자)을 맡는 노드가 SubscriptionManager.addSubscription 으로 정확한 채널명을 구독한다.
+ * 발행 경로가 노드마다 달라지지 않도록 pubsub.sharded.enabled 는 클러스터 전체에서 같게 설정한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardedPubSubTransport {
+
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final RedisTemplate<String, Object> redisPubSubTemplate;
+    private final ChannelRouter channelRouter;
+    private final Executor pubSubTaskExecutor;
+
+    @Value("${pubsub.sharded.enabled:false}")
+    private boolean enabled;
+
+    @Value("${pubsub.sharded.refresh-interval-ms:30000}")
+    private long refreshIntervalMillis;
+
+
+    private volatile boolean active;
+    private RedisClusterClient clusterClient;
+    private StatefulRedisClusterPubSubConnection<byte[], byte[]> clusterPubSub;
+
+    // 샤드 채널 → 구독 중인 노드 ID
+    private final Map<String, String> channelOwners = new ConcurrentHashMap<>();
+
+    // 리스너를 이미 붙인 노드 연결
+    private final Set<String> listenedNodes = ConcurrentHashMap.newKeySet();
+
+    private final ShardListener shardListener = new ShardListener();
+
+    private volatile boolean running;
+    private Thread refresher;
+
+    // 통계
+    private final AtomicLong totalShardPublished = new AtomicLong(0);
+    private final AtomicLong totalShardReceived = new AtomicLong(0);
+    private final AtomicLong totalResubscribed = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("Sharded Pub/Sub 비활성화 (설정) - 기존 Pub/Sub 사용");
+            return;
+        }
+        if (!(redisConnectionFactory instanceof LettuceConnectionFactory lettuce) || !lettuce.isClusterAware()) {
+            log.info("단독 Redis 환경 - Sharded Pub/Sub 대신 기존 Pub/Sub 사용");
+            return;
+        }
+        if (!(lettuce.getNativeClient() instanceof RedisClusterClient client)) {
+            log.warn("Lettuce 클러스터 클라이언트를 찾을 수 없음 - 기존 Pub/Sub 사용");
+            return;
+        }
+
+        this.clusterClient = client;
+        this.clusterPubSub = client.connectPubSub(ByteArrayCodec.INSTANCE);
+        this.active = true;
+        // 샤딩 패밀리 토픽은 PSUBSCRIBE 에서 빼고 SSUBSCRIBE 로만 받음 (구독 초기화 전에 지정)
+        channelRouter.setShardedPrefixes(RedisPubSubConfig.Channels.SHARDABLE_PREFIXES);
+
+        running = true;
+        refresher = Thread.ofVirtual().name("sharded-pubsub-refresher").start(this::refreshLoop);
+
+        log.info("Sharded Pub/Sub 활성화 - 샤딩 패밀리: {}, 슬롯 재확인 주기: {}ms",
+                RedisPubSubConfig.Channels.SHARDABLE_PREFIXES, refreshIntervalMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (refresher != null) {
+            refresher.interrupt();
+        }
+        if (clusterPubSub != null) {
+            clusterPubSub.close();
+        }
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * SPUBLISH 로 발행할 채널인지 확인 (활성화되면 샤딩 패밀리 채널 전체)
+     */
+    public boolean appliesTo(String channel) {
+        return active && RedisPubSubConfig.Channels.isShardable(channel);
+    }
+
+    /**
+     * SPUBLISH - 채널 키의 해시 슬롯 소유 노드로 라우팅
+     *
+     * @return 샤드 구독자 수
+     */
+    @SuppressWarnings("unchecked")
+    public Long publish(String channel, BaseMessage message) {
+        byte[] key = channel.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = ((RedisSerializer<Object>) redisPubSubTemplate.getValueSerializer()).serialize(message);
+
+        Long receivers = redisPubSubTemplate.execute((RedisCallback<Long>) connection ->
+                ((RedisClusterConnection) connection).execute("SPUBLISH", key, List.of(payload)));
+        totalShardPublished.incrementAndGet();
+        return receivers;
+    }
+
+    /**
+     * 샤드 채널 구독 추가 (정확한 채널명만 가능, 샤딩 패밀리가 아니거나 비활성화면 false)
+     */
+    public synchronized boolean subscribe(String channel) {
+        if (!active || !RedisPubSubConfig.Channels.isShardable(channel)
+                || TopicPattern.kindOf(channel) != TopicPattern.Kind.EXACT) {
+            return false;
+        }
+        if (channelOwners.containsKey(channel)) {
+            return true;
+        }
+
+        RedisClusterNode owner = ownerOf(channel);
+        nodeConnection(owner).sync().ssubscribe(bytes(channel));
+        channelOwners.put(channel, owner.getNodeId());
+
+        log.debug("샤드 채널 구독: channel={}, slot={}, node={}", channel, SlotHash.getSlot(channel), owner.getUri());
+        return true;
+    }
+
+    /**
+     * 샤드 채널 구독 해제
+     */
+    public synchronized boolean unsubscribe(String channel) {
+        String nodeId = channelOwners.remove(channel);
+        if (nodeId == null) {
+            return false;
+        }
+        clusterPubSub.getConnection(nodeId).sync().sunsubscribe(bytes(channel));
+        return true;
+    }
+
+    /**
+     * 슬롯 소유 노드가 바뀐 채널을 새 노드로 다시 구독 (리샤딩/페일오버 대응)
+     */
+    public synchronized void refreshOwnership() {
+        if (!active || channelOwners.isEmpty()) {
+            return;
+        }
+        clusterClient.refreshPartitions();
+
+        Map<String, String> moved = new HashMap<>();
+        channelOwners.forEach((channel, nodeId) -> {
+            RedisClusterNode owner = ownerOf(channel);
+            if (!owner.getNodeId().equals(nodeId)) {
+                moved.put(channel, nodeId);
+            }
+        });
+
+        moved.forEach((channel, oldNodeId) -> {
+            try {
+                clusterPubSub.getConnection(oldNodeId).sync().sunsubscribe(bytes(channel));
+            } catch (Exception e) {
+                log.debug("이전 노드 샤드 구독 해제 실패 (노드 이탈 가능): channel={}", channel, e);
+            }
+            RedisClusterNode owner = ownerOf(channel);
+            nodeConnection(owner).sync().ssubscribe(bytes(channel));
+            channelOwners.put(channel, owner.getNodeId());
+            totalResubscribed.incrementAndGet();
+        });
+
+        if (!moved.isEmpty()) {
+            log.info("슬롯 소유 노드 변경으로 샤드 채널 재구독: {}건", moved.size());
+        }
+    }
+
+    private void refreshLoop() {
+        while (running) {
+            try {
+                Thread.sleep(refreshIntervalMillis);
+                refreshOwnership();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("샤드 구독 소유 노드 확인 실패", e);
+            }
+        }
+    }
+
+    private RedisClusterNode ownerOf(String channel) {
+        RedisClusterNode node = clusterClient.getPartitions().getPartitionBySlot(SlotHash.getSlot(channel));
+        if (node == null) {
+            throw new IllegalStateException("해시 슬롯 소유 노드를 찾을 수 없습니다: " + channel);
+        }
+        return node;
+    }
+
+    private StatefulRedisPubSubConnection<byte[], byte[]> nodeConnection(RedisClusterNode node) {
+        StatefulRedisPubSubConnection<byte[], byte[]> connection = clusterPubSub.getConnection(node.getNodeId());
+        if (listenedNodes.add(node.getNodeId())) {
+            connection.addListener(shardListener);
+        }
+        return connection;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 샤드 구독 통계
+     */
+    public ShardedStats getStats() {
+        Map<String, Integer> channelsPerNode = new TreeMap<>();
+        if (active) {
+            channelOwners.values().forEach(nodeId -> {
+                RedisClusterNode node = clusterClient.getPartitions().getPartitionByNodeId(nodeId);
+                RedisURI uri = node != null ? node.getUri() : null;
+                channelsPerNode.merge(uri != null ? uri.getHost() + ":" + uri.getPort() : nodeId, 1, Integer::sum);
+            });
+        }
+
+        return ShardedStats.builder()
+                .active(active)
+                .shardableFamilies(RedisPubSubConfig.Channels.SHARDABLE_PREFIXES)
+                .subscribedChannels(channelOwners.size())
+                .channelsPerNode(channelsPerNode)
+                .totalShardPublished(totalShardPublished.get())
+                .totalShardReceived(totalShardReceived.get())
+                .totalResubscribed(totalResubscribed.get())
+                .build();
+    }
+
+    /**
+     * 노드 연결 샤드 메시지 리스너 - 이벤트 루프 밖에서 라우터로 전달
+     */
+    private class ShardListener extends RedisPubSubAdapter<byte[], byte[]> {
+
+        @Override
+        public void smessage(byte[] shardChannel, byte[] message) {
+            totalShardReceived.incrementAndGet();
+            pubSubTaskExecutor.execute(() -> channelRouter.onShardMessage(new DefaultMessage(shardChannel, message)));
+        }
+    }
+
+    /**
+     * 샤드 Pub/Sub 통계 DTO
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class ShardedStats {
+        private final boolean active;
+        private final List<String> shardableFamilies;
+        private final int subscribedChannels;
+        private final Map<String, Integer> channelsPerNode;
+        private final long totalShardPublished;
+        private final long totalShardReceived;
+        private final long totalResubscribed;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ocean.scdemo.redispubsub.aggregation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Slf4j
+class TumblingWindowAggregatorTest {
+
+    private static final long START = 1_700_000_040_000L; // 1분 경계
+
+    @Test
+    @DisplayName("롤업 - 1초 윈도우가 10초/1분 윈도우로 병합되어 해상도마다 한 번씩 배출된다")
+    void shouldRollUpSecondsIntoTenSecondsAndMinute() {
+        // given
+        List<WindowResult> emitted = new ArrayList<>();
+        TumblingWindowAggregator aggregator = new TumblingWindowAggregator(100, 300_000, emitted::add);
+        Map<String, String> dimensions = Map.of("service", "api", "region", "kr");
+
+        // when - 60초 동안 초당 10개 (값 1..10)
+        for (int second = 0; second < 60; second++) {
+            for (int i = 1; i <= 10; i++) {
+                aggregator.record("response_time", dimensions, i, null, START + second * 1000L + i);
+            }
+        }
+        aggregator.roll(START + 60_000);
+
+        // then
+        assertThat(emitted).filteredOn(w -> w.resolution() == Resolution.ONE_SECOND).hasSize(60);
+        assertThat(emitted).filteredOn(w -> w.resolution() == Resolution.TEN_SECONDS).hasSize(6);
+
+        WindowResult minute = emitted.stream()
+                .filter(w -> w.resolution() == Resolution.ONE_MINUTE).findFirst().orElseThrow();
+        assertThat(minute.seriesKey()).isEqualTo("response_time{region=kr,service=api}");
+        assertThat(minute.count()).isEqualTo(600);
+        assertThat(minute.sum()).isEqualTo(3300.0);
+        assertThat(minute.min()).isEqualTo(1.0);
+        assertThat(minute.max()).isEqualTo(10.0);
+        assertThat(minute.startMillis()).isEqualTo(START);
+    }
+
+    @Test
+    @DisplayName("분위수 스케치 - 병합 후에도 상대 오차 1% 이내")
+    void shouldEstimateQuantilesWithinRelativeAccuracyAfterMerge() {
+        // given - 두 스케치에 1..100000 을 나눠 기록
+        QuantileSketch left = new QuantileSketch();
+        QuantileSketch right = new QuantileSketch();
+        for (int v = 1; v <= 100_000; v++) {
+            (v % 2 == 0 ? left : right).add(v);
+        }
+
+        // when
+        left.merge(right);
+
+        // then
+        log.info("p50={}, p95={}, p99={}, 메모리={}B", left.quantile(0.5), left.quantile(0.95),
+                left.quantile(0.99), left.memoryBytes());
+        assertThat(left.getCount()).isEqualTo(100_000);
+        assertThat(left.quantile(0.50)).isCloseTo(50_000, within(50_000 * 0.01));
+        assertThat(left.quantile(0.95)).isCloseTo(95_000, within(95_000 * 0.01));
+        assertThat(left.quantile(0.99)).isCloseTo(99_000, within(99_000 * 0.01));
+        assertThat(left.memoryBytes()).isLessThan(16_384 * 2);
+    }
+
+    @Test
+    @DisplayName("임계치 - 위반 여부는 윈도우 최댓값으로 한 번만 평가, 시리즈 상한 초과분은 버린다")
+    void shouldEvaluateAlertOncePerWindowAndCapSeries() {
+        // given
+        List<WindowResult> emitted = new ArrayList<>();
+        TumblingWindowAggregator aggregator = new TumblingWindowAggregator(1, 300_000, emitted::add);
+        AlertRule rule = new AlertRule(1000, "GT");
+
+        // when - 한 윈도우에 임계치 초과 샘플 여러 개
+        for (int i = 0; i < 100; i++) {
+            aggregator.record("response_time", null, i % 10 == 0 ? 1500 : 200, rule, START + i);
+        }
+        boolean accepted = aggregator.record("cpu_usage", null, 50, null, START + 100);
+        aggregator.roll(START + 1_000);
+
+        // then
+        List<WindowResult> violated = emitted.stream()
+                .filter(w -> w.alertRule() != null && w.alertRule().isViolatedBy(w)).toList();
+        assertThat(violated).hasSize(1);
+        assertThat(violated.get(0).max()).isEqualTo(1500.0);
+        assertThat(accepted).isFalse();
+        assertThat(aggregator.getDroppedSamples()).isEqualTo(1);
+        assertThat(aggregator.seriesCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ocean.scdemo.redispubsub.analytics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Slf4j
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("고유 수 추정 - 중복을 넣어도 오차 2% 이내, 메모리는 고정")
+    void shouldEstimateDistinctCountWithinTwoPercent() {
+        // given
+        HyperLogLog hll = new HyperLogLog();
+        int distinct = 500_000;
+
+        // when - 모든 사용자를 두 번씩 기록
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < distinct; i++) {
+                hll.add("user-" + i);
+            }
+        }
+
+        // then
+        long estimate = hll.estimate();
+        log.info("실제={}, 추정={}, 오차={}%", distinct, estimate, 100.0 * (estimate - distinct) / distinct);
+        assertThat((double) estimate).isCloseTo(distinct, within(distinct * 0.02));
+        assertThat(HyperLogLog.memoryBytes()).isEqualTo(16_384);
+    }
+
+    @Test
+    @DisplayName("노드 병합 - 겹치는 사용자 집합을 병합하면 합집합 크기를 추정한다")
+    void shouldMergeOverlappingSketches() {
+        // given - 노드 A: 0..59999, 노드 B: 40000..99999 (합집합 100000)
+        HyperLogLog nodeA = new HyperLogLog();
+        HyperLogLog nodeB = new HyperLogLog();
+        for (int i = 0; i < 60_000; i++) {
+            nodeA.add("user-" + i);
+        }
+        for (int i = 40_000; i < 100_000; i++) {
+            nodeB.add("user-" + i);
+        }
+
+        // when
+        nodeA.merge(nodeB);
+
+        // then
+        assertThat((double) nodeA.estimate()).isCloseTo(100_000, within(2_000.0));
+    }
+
+    @Test
+    @DisplayName("Redis dense 인코딩 - 헤더/크기가 맞고 복원하면 같은 추정치를 준다")
+    void shouldRoundTripRedisDenseEncoding() {
+        // given
+        HyperLogLog hll = new HyperLogLog();
+        for (int i = 0; i < 20_000; i++) {
+            hll.add("user-" + i);
+        }
+
+        // when
+        byte[] dense = hll.toRedisDense();
+        HyperLogLog restored = HyperLogLog.fromRedisDense(dense);
+
+        // then
+        assertThat(dense).hasSize(HyperLogLog.DENSE_SIZE).startsWith((byte) 'H', (byte) 'Y', (byte) 'L', (byte) 'L');
+        assertThat(dense.length).isEqualTo(16 + 12_288);
+        assertThat(restored.estimate()).isEqualTo(hll.estimate());
+        assertThat(restored.toRedisDense()).isEqualTo(dense);
+    }
+}
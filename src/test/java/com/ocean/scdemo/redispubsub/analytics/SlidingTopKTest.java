@@ -0,0 +1,84 @@
+package com.ocean.scdemo.redispubsub.analytics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class SlidingTopKTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("고유 키 폭주 - 추적 개수는 고정되고 빈번한 키는 상위에 남는다")
+    void shouldKeepHeavyHittersUnderUniqueKeyFlood() {
+        // given
+        SlidingTopK topK = new SlidingTopK(32, 300);
+
+        // when - 매 초 빈번한 키 3개 + 한 번만 나오는 고유 키 다수
+        for (int second = 0; second < 60; second++) {
+            long now = START + second * 1000L;
+            for (int i = 0; i < 20; i++) {
+                topK.record("db:TIMEOUT", now);
+                topK.record("api:HTTP_500", now);
+            }
+            for (int i = 0; i < 10; i++) {
+                topK.record("cache:MISS", now);
+            }
+            for (int i = 0; i < 50; i++) {
+                topK.record("noise-" + second + "-" + i, now);
+            }
+        }
+
+        // then
+        List<SlidingTopK.Entry> top = topK.top(3, 300, START + 59_000);
+        log.info("상위 3개: {}", top);
+        assertThat(topK.size()).isEqualTo(32);
+        assertThat(top).extracting(SlidingTopK.Entry::key)
+                .containsExactly("api:HTTP_500", "db:TIMEOUT", "cache:MISS");
+        assertThat(top.get(0).windowCount()).isEqualTo(1200);
+    }
+
+    @Test
+    @DisplayName("시간 경과 - 윈도우를 벗어난 과거 폭주는 순위에서 사라진다")
+    void shouldForgetBurstOutsideWindow() {
+        // given - 배포 직후 한 번의 폭주
+        SlidingTopK topK = new SlidingTopK(16, 300);
+        for (int i = 0; i < 10_000; i++) {
+            topK.record("deploy:BOOT_FAILURE", START);
+        }
+
+        // when - 10분 뒤 잔잔한 에러
+        long later = START + 600_000;
+        for (int second = 0; second < 10; second++) {
+            topK.record("api:HTTP_503", later + second * 1000L);
+        }
+
+        // then
+        List<SlidingTopK.Entry> top = topK.top(5, 300, later + 9_000);
+        assertThat(top).extracting(SlidingTopK.Entry::key).containsExactly("api:HTTP_503");
+        assertThat(topK.windowCount("deploy:BOOT_FAILURE", 300, later)).isZero();
+    }
+
+    @Test
+    @DisplayName("짧은 윈도우 조회 - 요청한 초 수만큼의 버킷만 합산한다")
+    void shouldCountOnlyRequestedWindow() {
+        // given
+        SlidingTopK topK = new SlidingTopK(8, 300);
+
+        // when - 100초 동안 초당 1건
+        for (int second = 0; second < 100; second++) {
+            topK.record("svc:E1", START + second * 1000L);
+        }
+
+        // then
+        long now = START + 99_000;
+        assertThat(topK.windowCount("svc:E1", 10, now)).isEqualTo(10);
+        assertThat(topK.windowCount("svc:E1", 300, now)).isEqualTo(100);
+        assertThat(topK.top(1, 60, now).get(0).ratePerSecond()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ocean.scdemo.redispubsub.broadcast;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class AudienceChunksTest {
+
+    /**
+     * 전역 ID 목록 → Redis 비트맵 바이트열 (최상위 비트가 오프셋 0)
+     */
+    private static byte[] redisBitmap(int... ids) {
+        int max = Arrays.stream(ids).max().orElse(0);
+        byte[] bitmap = new byte[max / 8 + 1];
+        for (int id : ids) {
+            bitmap[id / 8] |= (byte) (0x80 >>> (id % 8));
+        }
+        return bitmap;
+    }
+
+    @Test
+    @DisplayName("청크 구간 - 청크 수와 GETRANGE 바이트 구간이 ID 구간과 정확히 대응한다")
+    void shouldMapChunksToByteRanges() {
+        // given - 대상자 ID 최대 1_000_000 → 비트맵 125_001 바이트
+        int chunkSize = 65_536;
+        long bitmapBytes = 1_000_000 / 8 + 1;
+
+        // when
+        int chunks = AudienceChunks.chunkCount(bitmapBytes, chunkSize);
+
+        // then
+        assertThat(chunks).isEqualTo(16);
+        assertThat(AudienceChunks.startByte(0, chunkSize)).isZero();
+        assertThat(AudienceChunks.endByte(0, chunkSize)).isEqualTo(8_191);
+        assertThat(AudienceChunks.startByte(15, chunkSize)).isEqualTo(15L * 8_192);
+        assertThat(AudienceChunks.chunkCount(0, chunkSize)).isZero();
+        assertThat(AudienceChunks.chunkCount(1, chunkSize)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("대상자 추출 - 청크 바이트열에서 켜진 비트를 전역 ID 로 돌려준다")
+    void shouldDecodeMembersWithChunkBase() {
+        // given - 청크 크기 64, 두 번째 청크(ID 64~127)
+        byte[] bitmap = redisBitmap(3, 64, 65, 100, 127, 130);
+        int chunkSize = 64;
+        byte[] secondChunk = Arrays.copyOfRange(bitmap,
+                (int) AudienceChunks.startByte(1, chunkSize), (int) AudienceChunks.endByte(1, chunkSize) + 1);
+
+        // when
+        int[] members = AudienceChunks.members(secondChunk, chunkSize, -1);
+
+        // then
+        assertThat(members).containsExactly(64, 65, 100, 127);
+        assertThat(AudienceChunks.members(null, 0, -1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("체크포인트 재개 - 마지막 처리 ID 이후만 돌려주어 청크 전체 = 재개 전 + 재개 후가 된다")
+    void shouldResumeAfterCheckpoint() {
+        // given - 무작위 대상자 5_000 명 (ID 0~65_535)
+        BitSet audience = new BitSet();
+        new Random(42).ints(5_000, 0, 65_536).forEach(audience::set);
+        byte[] chunk = redisBitmap(audience.stream().toArray());
+        int[] all = AudienceChunks.members(chunk, 0, -1);
+        int checkpoint = all[all.length / 3];
+
+        // when
+        int[] resumed = AudienceChunks.members(chunk, 0, checkpoint);
+
+        // then
+        int[] beforeCheckpoint = IntStream.of(all).filter(id -> id <= checkpoint).toArray();
+        log.info("대상자={}, 체크포인트={}, 재개 후={}", all.length, checkpoint, resumed.length);
+        assertThat(all).containsExactly(audience.stream().toArray());
+        assertThat(resumed).doesNotContain(checkpoint);
+        assertThat(beforeCheckpoint.length + resumed.length).isEqualTo(all.length);
+        assertThat(resumed[0]).isGreaterThan(checkpoint);
+    }
+}
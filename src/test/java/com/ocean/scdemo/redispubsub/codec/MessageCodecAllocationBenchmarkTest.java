@@ -0,0 +1,156 @@
+package com.ocean.scdemo.redispubsub.codec;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import com.ocean.scdemo.redispubsub.message.ChatMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 메시지 역직렬화 메모리 할당 벤치마크
+ * <p>
+ * 변경 전후 메시지당 할당 바이트 비교:
+ * - 변경 전: new String(body) + trim() + readValue(String, BaseMessage.class)
+ * - 변경 후: byte[] 스트리밍 헤더 조회 + 타입별 reader 로 byte[] 바인딩
+ */
+@Slf4j
+class MessageCodecAllocationBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 50_000;
+
+    private ObjectMapper objectMapper;
+    private MessageCodec messageCodec;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        messageCodec = new MessageCodec(objectMapper);
+    }
+
+    @Test
+    @DisplayName("헤더 조회 - @type, messageId, ttl, timestamp, originNodeId 를 전체 바인딩 없이 읽는다")
+    void shouldPeekHeaderWithoutBinding() throws Exception {
+        // given
+        byte[] payload = objectMapper.writeValueAsBytes(chatMessage(null, LocalDateTime.now()));
+
+        // when
+        MessageCodec.MessageHeader header = messageCodec.peekHeader(payload);
+
+        // then
+        assertThat(header.getType()).isEqualTo("ChatMessage");
+        assertThat(header.hasMessageId()).isTrue();
+        assertThat(messageCodec.isKnownType(header.getType())).isTrue();
+        assertThat(header.isExpired()).isFalse();
+        assertThat(header.getOriginNodeId()).isEqualTo("node-1");
+        assertThat(messageCodec.decode(payload, header)).isInstanceOf(ChatMessage.class);
+    }
+
+    @Test
+    @DisplayName("만료 메시지 - 헤더 단계에서 거부되어 기존 경로보다 할당이 적다")
+    void expiredMessageShouldAllocateLessThanLegacyPath() throws Exception {
+        // given
+        byte[] payload = objectMapper.writeValueAsBytes(chatMessage(1L, LocalDateTime.now().minusHours(1)));
+
+        // when
+        long legacy = allocationPerMessage(() -> legacyPath(payload));
+        long codec = allocationPerMessage(() -> codecPath(payload));
+
+        // then
+        log.info("만료 메시지 메시지당 할당: 변경 전={}bytes, 변경 후={}bytes", legacy, codec);
+        assertThat(codec).isLessThan(legacy);
+    }
+
+    @Test
+    @DisplayName("정상 메시지 - 메시지당 할당 바이트 비교")
+    void reportAllocationForValidMessage() throws Exception {
+        // given
+        byte[] payload = objectMapper.writeValueAsBytes(chatMessage(60L, LocalDateTime.now()));
+
+        // when
+        long legacy = allocationPerMessage(() -> legacyPath(payload));
+        long codec = allocationPerMessage(() -> codecPath(payload));
+
+        // then
+        log.info("정상 메시지 메시지당 할당: 변경 전={}bytes, 변경 후={}bytes, 페이로드={}bytes",
+                legacy, codec, payload.length);
+        assertThat(codec).isPositive();
+    }
+
+    private BaseMessage legacyPath(byte[] payload) {
+        try {
+            String body = new String(payload);
+            if (body.trim().isEmpty()) {
+                return null;
+            }
+            BaseMessage message = objectMapper.readValue(body, BaseMessage.class);
+            return message.isExpired() ? null : message;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private BaseMessage codecPath(byte[] payload) {
+        try {
+            if (MessageCodec.isBlank(payload)) {
+                return null;
+            }
+            MessageCodec.MessageHeader header = messageCodec.peekHeader(payload);
+            if (header.isExpired() || !messageCodec.isKnownType(header.getType())) {
+                return null;
+            }
+            return messageCodec.decode(payload, header);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long allocationPerMessage(Runnable task) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP; i++) {
+            task.run();
+        }
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        long after = threadBean.getThreadAllocatedBytes(threadId);
+
+        return (after - before) / ITERATIONS;
+    }
+
+    private static ChatMessage chatMessage(Long ttl, LocalDateTime timestamp) {
+        return ChatMessage.builder()
+                .messageId(UUID.randomUUID().toString())
+                .messageType("CHAT")
+                .senderId("user-1")
+                .senderName("테스트 사용자")
+                .originNodeId("node-1")
+                .roomId("room-1")
+                .content("안녕하세요, 메모리 할당 벤치마크용 채팅 메시지입니다. ".repeat(4))
+                .contentType("TEXT")
+                .status("SENT")
+                .timestamp(timestamp)
+                .priority(2)
+                .ttl(ttl)
+                .build();
+    }
+}
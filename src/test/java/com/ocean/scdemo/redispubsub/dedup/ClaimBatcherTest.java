@@ -0,0 +1,186 @@
+package com.ocean.scdemo.redispubsub.dedup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class ClaimBatcherTest {
+
+    /**
+     * SET NX / DEL 을 흉내내는 메모리 저장소
+     */
+    private static ClaimBatcher.Flusher inMemoryStore(Set<String> keys, List<Integer> batchSizes) {
+        return ops -> {
+            batchSizes.add(ops.size());
+            List<Boolean> results = new ArrayList<>(ops.size());
+            for (ClaimBatcher.Op op : ops) {
+                if (op.type() == ClaimBatcher.OpType.CLAIM) {
+                    results.add(keys.add(op.key()));
+                } else {
+                    keys.remove(op.key());
+                    results.add(true);
+                }
+            }
+            return results;
+        };
+    }
+
+    @Test
+    @DisplayName("동시 선점 - 같은 키는 하나만 성공하고 요청은 묶음으로 전송된다")
+    void shouldGrantSingleClaimAndBatchConcurrentRequests() throws Exception {
+        // given
+        Set<String> keys = new HashSet<>();
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        ClaimBatcher batcher = new ClaimBatcher(64, 4_096, ops -> {
+            Thread.sleep(2); // 파이프라인 왕복 시간
+            return inMemoryStore(keys, batchSizes).flush(ops);
+        }, "test-flusher");
+        batcher.start();
+
+        int requests = 2_000;
+        List<CompletableFuture<Boolean>> results = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when - 1000개 ID 를 두 번씩 동시에 선점
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                String key = "msg-" + (i % 1_000);
+                executor.submit(() -> {
+                    start.await();
+                    results.add(batcher.claim(key));
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        long granted = 0;
+        for (CompletableFuture<Boolean> result : results) {
+            if (result.get(5, TimeUnit.SECONDS)) {
+                granted++;
+            }
+        }
+        batcher.stop();
+
+        // then
+        log.info("묶음 수={}, 평균 묶음 크기={}, 최대={}",
+                batcher.getTotalBatches(), batcher.averageBatchSize(), batcher.getLargestBatch());
+        assertThat(granted).isEqualTo(1_000);
+        assertThat(batcher.getTotalOps()).isEqualTo(requests);
+        assertThat(batcher.getTotalBatches()).isLessThan(requests);
+        assertThat(batchSizes).allMatch(size -> size <= 64);
+    }
+
+    @Test
+    @DisplayName("해제 후 재선점 - 큐 순서대로 적용되어 해제된 키는 다시 선점할 수 있다")
+    void shouldApplyReleaseBeforeLaterClaim() throws Exception {
+        // given
+        Set<String> keys = new HashSet<>();
+        ClaimBatcher batcher = new ClaimBatcher(16, 1_024, inMemoryStore(keys, new CopyOnWriteArrayList<>()), "test-flusher");
+        batcher.start();
+
+        // when
+        batcher.claimBehind("msg-1");
+        CompletableFuture<Boolean> duplicate = batcher.claim("msg-1");
+        batcher.release("msg-1");
+        CompletableFuture<Boolean> reclaimed = batcher.claim("msg-1");
+
+        // then
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(reclaimed.get(5, TimeUnit.SECONDS)).isTrue();
+        batcher.stop();
+    }
+
+    @Test
+    @DisplayName("전송 실패 - 묶음의 모든 대기 요청이 예외로 완료된다")
+    void shouldFailWholeBatchWhenFlushFails() {
+        // given
+        ClaimBatcher batcher = new ClaimBatcher(16, 1_024, ops -> {
+            throw new IllegalStateException("redis down");
+        }, "test-flusher");
+        batcher.start();
+
+        // when
+        CompletableFuture<Boolean> first = batcher.claim("msg-1");
+        CompletableFuture<Boolean> second = batcher.claim("msg-2");
+
+        // then
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(batcher.getTotalFailedBatches()).isGreaterThanOrEqualTo(1);
+        batcher.stop();
+    }
+
+    @Test
+    @DisplayName("write-behind 실패 집계 - 기다리는 쪽이 없는 요청도 전송 실패 건수가 남는다")
+    void shouldCountFailedWriteBehindOps() {
+        // given
+        ClaimBatcher batcher = new ClaimBatcher(16, 1_024, ops -> {
+            throw new IllegalStateException("redis down");
+        }, "test-flusher");
+        batcher.start();
+
+        // when
+        batcher.claimBehind("msg-1");
+        batcher.claimBehind("msg-2");
+        batcher.release("msg-3");
+        batcher.stop();
+
+        // then
+        assertThat(batcher.getTotalFailedWriteBehind()).isEqualTo(3);
+        assertThat(batcher.getTotalFailedBatches()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("큐 상한 - 가득 차면 호출 스레드에서 단건 전송하고 큐는 상한을 넘지 않는다")
+    void shouldFlushSynchronouslyWhenQueueIsFull() throws Exception {
+        // given - msg-block 묶음은 release 전까지 flush 스레드를 붙잡음
+        Set<String> keys = ConcurrentHashMap.newKeySet();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ClaimBatcher.Flusher store = inMemoryStore(keys, new CopyOnWriteArrayList<>());
+        ClaimBatcher batcher = new ClaimBatcher(16, 2, ops -> {
+            if (ops.stream().anyMatch(op -> op.key().equals("msg-block"))) {
+                entered.countDown();
+                release.await();
+            }
+            return store.flush(ops);
+        }, "test-flusher");
+        batcher.start();
+        CompletableFuture<Boolean> blocked = batcher.claim("msg-block");
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when - 큐 2칸을 채운 뒤 한 건 더
+        batcher.claimBehind("msg-1");
+        batcher.claimBehind("msg-2");
+        CompletableFuture<Boolean> overflow = batcher.claim("msg-3");
+
+        // then
+        assertThat(batcher.pending()).isEqualTo(2);
+        assertThat(overflow.isDone()).isTrue();
+        assertThat(overflow.get()).isTrue();
+        assertThat(batcher.getTotalSyncFlushes()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(blocked.get(5, TimeUnit.SECONDS)).isTrue();
+        batcher.stop();
+        assertThat(keys).containsExactlyInAnyOrder("msg-block", "msg-1", "msg-2", "msg-3");
+    }
+}
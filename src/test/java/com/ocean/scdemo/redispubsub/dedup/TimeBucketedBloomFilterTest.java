@@ -0,0 +1,111 @@
+package com.ocean.scdemo.redispubsub.dedup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class TimeBucketedBloomFilterTest {
+
+    private static final long HORIZON_MILLIS = 300_000;
+
+    @Test
+    @DisplayName("보존 구간 안의 키는 항상 중복으로 판별된다 (거짓 음성 없음)")
+    void shouldNeverMissRecordedKeysWithinHorizon() {
+        // given
+        AtomicLong clock = new AtomicLong(1_000_000);
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(HORIZON_MILLIS, 5, 10_000, 0.001, clock::get);
+        String[] keys = new String[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = UUID.randomUUID().toString();
+            filter.put(keys[i]);
+        }
+
+        // when - 보존 구간 직전까지 시간 경과
+        clock.addAndGet(HORIZON_MILLIS - 1);
+
+        // then
+        for (String key : keys) {
+            assertThat(filter.mightContain(key)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("보존 구간이 지난 키는 버킷 회전으로 잊힌다")
+    void shouldForgetKeysAfterHorizon() {
+        // given
+        AtomicLong clock = new AtomicLong(1_000_000);
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(HORIZON_MILLIS, 5, 10_000, 0.001, clock::get);
+        filter.put("message-1");
+
+        // when
+        clock.addAndGet(HORIZON_MILLIS + filter.getBucketMillis() + 1);
+
+        // then
+        assertThat(filter.mightContain("message-1")).isFalse();
+        assertThat(filter.liveCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("실측 거짓 양성률이 추정치와 목표치 범위 안에 있고 메모리는 고정이다")
+    void shouldKeepFalsePositiveRateNearTarget() {
+        // given - 버킷마다 예상 건수만큼 기록
+        AtomicLong clock = new AtomicLong(0);
+        int bucketCount = 5;
+        int perBucket = 20_000;
+        double target = 0.001;
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(HORIZON_MILLIS, bucketCount, perBucket, target, clock::get);
+        long memoryBefore = filter.memoryBytes();
+
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            for (int i = 0; i < perBucket; i++) {
+                filter.put(UUID.randomUUID().toString());
+            }
+            clock.addAndGet(filter.getBucketMillis());
+        }
+
+        // when
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / probes;
+        double estimated = filter.estimatedFalsePositiveRate();
+
+        // then
+        log.info("거짓 양성률: 실측={}, 추정={}, 목표={}, 메모리={}KB",
+                observed, estimated, target, filter.memoryBytes() / 1024);
+        assertThat(observed).isLessThan(target * 2);
+        assertThat(estimated).isLessThan(target * 2);
+        assertThat(filter.memoryBytes()).isEqualTo(memoryBefore);
+    }
+
+    @Test
+    @DisplayName("늦은 기록 - 회전 직전 구간을 계산한 기록이 이미 회전한 새 버킷을 지우지 않는다")
+    void shouldNotWipeNewerBucketOnLaggingPut() {
+        // given - 링 한 바퀴 뒤 같은 자리 버킷에 기록
+        AtomicLong clock = new AtomicLong(1_000_000);
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(HORIZON_MILLIS, 5, 10_000, 0.001, clock::get);
+        long lap = filter.getBucketMillis() * filter.getBucketCount();
+        clock.addAndGet(lap);
+        filter.put("message-new");
+
+        // when - 한 바퀴 전 구간을 읽은 스레드가 늦게 기록
+        clock.addAndGet(-lap);
+        filter.put("message-late");
+        clock.addAndGet(lap);
+
+        // then - 새 버킷은 그대로이고 늦은 기록도 새 버킷에 남음
+        assertThat(filter.mightContain("message-new")).isTrue();
+        assertThat(filter.mightContain("message-late")).isTrue();
+        assertThat(filter.liveCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,102 @@
+package com.ocean.scdemo.redispubsub.delay;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 100;
+
+    @Test
+    @DisplayName("타이밍 휠 - 항목은 만료 tick 에 정확히 한 번 만료된다 (상위 레벨 cascade 포함)")
+    void shouldExpireEachEntryAtItsTick() {
+        // given - 16 슬롯 x 3 레벨 (최대 4096 tick)
+        long start = 1_000_000;
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, 16, 3, start);
+        long[] delays = {1, 5, 15, 16, 17, 100, 255, 256, 257, 1000, 4000};
+        for (long delayTicks : delays) {
+            wheel.schedule(start + delayTicks * TICK, delayTicks);
+        }
+
+        // when - tick 단위로 진행하며 만료 시점 기록
+        List<Long> expiredAt = new ArrayList<>();
+        List<Long> expired = new ArrayList<>();
+        for (long tick = 1; tick <= 4096; tick++) {
+            long current = tick;
+            wheel.advance(start + tick * TICK, item -> {
+                expired.add(item);
+                expiredAt.add(current);
+            });
+        }
+
+        // then
+        assertThat(expired).containsExactly(1L, 5L, 15L, 16L, 17L, 100L, 255L, 256L, 257L, 1000L, 4000L);
+        assertThat(expiredAt).isEqualTo(expired);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("타이밍 휠 - 여러 tick 을 한 번에 건너뛰어도 지난 항목은 모두 만료된다")
+    void shouldExpireOverdueEntriesWhenAdvancingInBulk() {
+        // given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 64, 3, 0);
+        wheel.schedule(-500, "past");
+        wheel.schedule(250, "near");
+        wheel.schedule(90_000, "far");
+
+        // when
+        List<String> firstBatch = new ArrayList<>();
+        wheel.advance(1_000, firstBatch::add);
+        List<String> secondBatch = new ArrayList<>();
+        wheel.advance(100_000, secondBatch::add);
+
+        // then
+        assertThat(firstBatch).containsExactly("past", "near");
+        assertThat(secondBatch).containsExactly("far");
+    }
+
+    @Test
+    @DisplayName("타이밍 휠 - 전체 범위를 넘는 지연은 등록을 거절한다")
+    void shouldRejectEntriesBeyondSpan() {
+        // given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 16, 2, 0);
+
+        // when & then
+        assertThat(wheel.spanMillis()).isEqualTo(256 * TICK);
+        assertThat(wheel.schedule(255 * TICK, "edge")).isTrue();
+        assertThat(wheel.schedule(256 * TICK, "beyond")).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("타이밍 휠 - 취소한 타이머는 어느 레벨에 있든 즉시 빠지고 만료되지 않는다")
+    void shouldRemoveCancelledTimers() {
+        // given - 레벨 0 / 레벨 1 / 아직 inbox 에 있는 타이머
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 16, 2, 0);
+        HierarchicalTimingWheel.Timer<String> near = wheel.scheduleTimer(3 * TICK, "near");
+        HierarchicalTimingWheel.Timer<String> far = wheel.scheduleTimer(100 * TICK, "far");
+        wheel.schedule(5 * TICK, "kept");
+        wheel.advance(TICK, item -> { });
+        HierarchicalTimingWheel.Timer<String> queued = wheel.scheduleTimer(50 * TICK, "queued");
+
+        // when
+        boolean cancelled = near.cancel() && far.cancel() && queued.cancel();
+        int sizeAfterCancel = wheel.size();
+        List<String> expired = new ArrayList<>();
+        wheel.advance(200 * TICK, expired::add);
+
+        // then
+        assertThat(cancelled).isTrue();
+        assertThat(sizeAfterCancel).isEqualTo(1);
+        assertThat(expired).containsExactly("kept");
+        assertThat(near.cancel()).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,91 @@
+package com.ocean.scdemo.redispubsub.digest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class NotificationBatcherTest {
+
+    @Test
+    @DisplayName("창과 개수 - 창 안의 알림은 하나로 묶이고, max-batch-size 에 도달하면 창을 기다리지 않고 내보낸다")
+    void shouldCollapseWithinWindowAndReleaseWhenFull() {
+        // given - 창 1초, 묶음 최대 5개, 전달 상한 없음
+        NotificationBatcher<Integer> batcher = new NotificationBatcher<>(1_000, 5, 100, 0);
+
+        // when
+        NotificationBatcher.Batch<Integer> early = null;
+        for (int i = 0; i < 5; i++) {
+            early = batcher.offer("alice|PUSH", "alice", i, i * 10L);
+        }
+        batcher.offer("alice|PUSH", "alice", 5, 100);
+        batcher.offer("alice|PUSH", "alice", 6, 200);
+        batcher.offer("alice|EMAIL", "alice", 7, 300);
+        List<NotificationBatcher.Batch<Integer>> pushWindow = batcher.drain(1_100);
+        List<NotificationBatcher.Batch<Integer>> emailWindow = batcher.drain(1_300);
+
+        // then
+        log.info("묶음: 제출={}, 전달={}, 묶인 항목={}",
+                batcher.getTotalOffered(), batcher.getTotalBatches(), batcher.getTotalBatchedItems());
+        assertThat(early).isNotNull();
+        assertThat(early.items()).containsExactly(0, 1, 2, 3, 4);
+        assertThat(pushWindow).extracting(NotificationBatcher.Batch::items).containsExactly(List.of(5, 6));
+        assertThat(emailWindow).extracting(NotificationBatcher.Batch::key).containsExactly("alice|EMAIL");
+        assertThat(batcher.getTotalBatches()).isEqualTo(3);
+        assertThat(batcher.pendingKeys()).isZero();
+    }
+
+    @Test
+    @DisplayName("버퍼 상한 - 키마다 정해진 개수만 보관하고 오래된 항목은 버린 건수로만 남긴다")
+    void shouldBoundBufferAndCountDropped() {
+        // given - 묶음 최대 3개지만 전달 상한 1회/분으로 첫 묶음 뒤에는 버퍼에 계속 쌓임
+        NotificationBatcher<Integer> batcher = new NotificationBatcher<>(1_000, 3, 4, 1);
+        batcher.offer("bob|PUSH", "bob", 0, 0);
+        batcher.offer("bob|PUSH", "bob", 1, 0);
+        NotificationBatcher.Batch<Integer> first = batcher.offer("bob|PUSH", "bob", 2, 0);
+
+        // when
+        for (int i = 3; i < 10; i++) {
+            assertThat(batcher.offer("bob|PUSH", "bob", i, 10)).isNull();
+        }
+        List<NotificationBatcher.Batch<Integer>> limited = batcher.drain(2_000);
+        List<NotificationBatcher.Batch<Integer>> released = batcher.drain(61_000);
+
+        // then
+        assertThat(first.items()).containsExactly(0, 1, 2);
+        assertThat(limited).isEmpty();
+        assertThat(batcher.getTotalRateLimited()).isEqualTo(1);
+        assertThat(released).hasSize(1);
+        assertThat(released.get(0).items()).containsExactly(6, 7, 8, 9);
+        assertThat(released.get(0).dropped()).isEqualTo(3);
+        assertThat(released.get(0).totalCount()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("전달 상한 - 높은 우선순위 즉시 전송도 토큰을 소비하여 이후 묶음이 다음 토큰 시각까지 미뤄진다")
+    void shouldDeferBatchesWhenBypassExhaustsRate() {
+        // given - 분당 2회
+        NotificationBatcher<String> batcher = new NotificationBatcher<>(500, 10, 100, 2);
+        batcher.bypass("carol", 0);
+        batcher.bypass("carol", 0);
+        batcher.offer("carol|IN_APP", "carol", "a", 0);
+        batcher.offer("carol|IN_APP", "carol", "b", 100);
+
+        // when
+        List<NotificationBatcher.Batch<String>> atWindow = batcher.drain(500);
+        batcher.offer("carol|IN_APP", "carol", "c", 10_000);
+        List<NotificationBatcher.Batch<String>> beforeToken = batcher.drain(29_000);
+        List<NotificationBatcher.Batch<String>> afterToken = batcher.drain(31_000);
+
+        // then
+        assertThat(batcher.getTotalBypassed()).isEqualTo(2);
+        assertThat(atWindow).isEmpty();
+        assertThat(beforeToken).isEmpty();
+        assertThat(afterToken).hasSize(1);
+        assertThat(afterToken.get(0).items()).containsExactly("a", "b", "c");
+    }
+}
@@ -0,0 +1,140 @@
+package com.ocean.scdemo.redispubsub.dispatch;
+
+import com.ocean.scdemo.redispubsub.message.ChatMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class DispatchTableTest {
+
+    /**
+     * 서브타입 처리기 + 기본 처리기 + 전/후처리 + 검증기를 가진 테스트 빈
+     */
+    static class ChatHandlers {
+        final List<String> calls = new ArrayList<>();
+
+        @PubSubAround(ChatMessage.class)
+        boolean around(ChatMessage message, HandlerChain chain) {
+            calls.add("before");
+            boolean processed = chain.proceed();
+            calls.add("after:" + processed);
+            return processed;
+        }
+
+        @PubSubValidator(ChatMessage.class)
+        boolean validate(ChatMessage message) {
+            return message.getContent() != null;
+        }
+
+        @PubSubHandler(type = ChatMessage.class, subtype = "TEXT")
+        boolean text(ChatMessage message) {
+            calls.add("text");
+            return true;
+        }
+
+        @PubSubHandler(type = ChatMessage.class)
+        boolean generic(ChatMessage message) {
+            calls.add("generic");
+            return true;
+        }
+    }
+
+    static class DuplicateTextHandler {
+        @PubSubHandler(type = ChatMessage.class, subtype = "TEXT")
+        boolean anotherText(ChatMessage message) {
+            return true;
+        }
+    }
+
+    static class BlockingHandler {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @PubSubHandler(type = ChatMessage.class, maxConcurrency = 1)
+        boolean slow(ChatMessage message) throws InterruptedException {
+            entered.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static ChatMessage chat(String contentType, String content) {
+        return ChatMessage.builder()
+                .messageId("msg-" + contentType)
+                .contentType(contentType)
+                .content(content)
+                .build();
+    }
+
+    @Test
+    @DisplayName("서브타입 라우팅 - 일치하는 처리기, 없거나 null 이면 기본 처리기를 전/후처리로 감싸 호출한다")
+    void shouldRouteBySubtypeWithFallbackInsideAround() {
+        // given
+        ChatHandlers handlers = new ChatHandlers();
+        DispatchTable table = DispatchTable.compile(List.of(handlers));
+
+        // when
+        boolean text = table.dispatch(chat("TEXT", "안녕"), 0);
+        boolean emoji = table.dispatch(chat("EMOJI", "🙂"), 0);
+        boolean none = table.dispatch(chat(null, "내용"), 0);
+
+        // then
+        assertThat(text).isTrue();
+        assertThat(emoji).isTrue();
+        assertThat(none).isTrue();
+        assertThat(handlers.calls).containsExactly(
+                "before", "text", "after:true",
+                "before", "generic", "after:true",
+                "before", "generic", "after:true");
+        assertThat(table.validate(chat("TEXT", null))).isFalse();
+        assertThat(table.validate(chat("TEXT", "내용"))).isTrue();
+        assertThat(table.invokers()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("컴파일 - 같은 (타입, 서브타입) 처리기가 둘이면 시작 시 실패한다")
+    void shouldRejectDuplicateRoutes() {
+        // given
+        List<Object> beans = List.of(new ChatHandlers(), new DuplicateTextHandler());
+
+        // when / then
+        assertThatThrownBy(() -> DispatchTable.compile(beans))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("ChatMessage/TEXT");
+    }
+
+    @Test
+    @DisplayName("동시 실행 상한 - 자리가 찬 처리기는 대기 시간 후 거부되고 통계에 기록된다")
+    void shouldRejectWhenConcurrencyLimitReached() throws Exception {
+        // given
+        BlockingHandler handler = new BlockingHandler();
+        DispatchTable table = DispatchTable.compile(List.of(handler));
+        AtomicBoolean firstResult = new AtomicBoolean(false);
+        Thread first = new Thread(() -> firstResult.set(table.dispatch(chat("TEXT", "1"), 0)));
+        first.start();
+        assertThat(handler.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        boolean second = table.dispatch(chat("TEXT", "2"), 20);
+        handler.release.countDown();
+        first.join(5_000);
+
+        // then
+        assertThat(second).isFalse();
+        assertThat(firstResult).isTrue();
+        HandlerInvoker.HandlerStats stats = table.invokers().get(0).getStats();
+        log.info("처리기 통계: {}", stats);
+        assertThat(stats.getRejected()).isEqualTo(1);
+        assertThat(stats.getInvocations()).isEqualTo(1);
+        assertThat(stats.getMaxConcurrency()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ocean.scdemo.redispubsub.fanout;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class CompactIntSetTest {
+
+    @Test
+    @DisplayName("조밀한 대형 집합은 비트맵으로, 줄어들면 다시 정렬 배열로 전환된다")
+    void shouldSwitchRepresentationByDensity() {
+        // given
+        CompactIntSet set = new CompactIntSet();
+
+        // when - 0..9999 연속 번호 (비트맵이 배열보다 훨씬 작음)
+        for (int id = 0; id < 10_000; id++) {
+            set.add(id);
+        }
+
+        // then
+        log.info("비트맵 전환 후 메모리: {}bytes", set.memoryBytes());
+        assertThat(set.isBitmap()).isTrue();
+        assertThat(set.size()).isEqualTo(10_000);
+        assertThat(set.memoryBytes()).isLessThan(10_000L * Integer.BYTES / 2);
+
+        // when - 대부분 퇴장
+        for (int id = 100; id < 10_000; id++) {
+            set.remove(id);
+        }
+
+        // then
+        assertThat(set.isBitmap()).isFalse();
+        assertThat(set.toArray()).hasSize(100).startsWith(0, 1, 2).endsWith(99);
+    }
+
+    @Test
+    @DisplayName("희소한 집합은 배열을 유지하며 무작위 입퇴장 결과가 TreeSet 과 같다")
+    void shouldMatchReferenceSetUnderRandomChurn() {
+        // given
+        CompactIntSet set = new CompactIntSet();
+        TreeSet<Integer> reference = new TreeSet<>();
+        Random random = new Random(42);
+
+        // when - 좁은 범위(조밀)와 넓은 범위(희소)를 오가며 입퇴장
+        for (int i = 0; i < 200_000; i++) {
+            int bound = (i / 50_000) % 2 == 0 ? 8_000 : 5_000_000;
+            int id = random.nextInt(bound);
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(id)).isEqualTo(reference.remove(id));
+            } else {
+                assertThat(set.add(id)).isEqualTo(reference.add(id));
+            }
+        }
+
+        // then
+        assertThat(set.size()).isEqualTo(reference.size());
+        assertThat(set.toArray()).containsExactly(reference.stream().mapToInt(Integer::intValue).toArray());
+        assertThat(set.contains(reference.first())).isTrue();
+        assertThat(set.contains(-1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("멤버십 인덱스 - 마지막 멤버가 나가면 방이 제거된다")
+    void shouldDropRoomWhenLastMemberLeaves() {
+        // given
+        RoomMembershipIndex index = new RoomMembershipIndex();
+        index.join("room-1", "alice");
+        index.join("room-1", "bob");
+
+        // when
+        boolean duplicateJoin = index.join("room-1", "alice");
+        index.leave("room-1", "alice");
+        index.leave("room-1", "bob");
+
+        // then
+        assertThat(duplicateJoin).isFalse();
+        assertThat(index.memberCount("room-1")).isZero();
+        assertThat(index.roomCount()).isZero();
+        assertThat(index.findUserId("alice")).isGreaterThanOrEqualTo(0);
+    }
+}
@@ -0,0 +1,142 @@
+package com.ocean.scdemo.redispubsub.fanout;
+
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import com.ocean.scdemo.redispubsub.message.ChatMessage;
+import com.ocean.scdemo.redispubsub.message.NotificationMessage;
+import com.ocean.scdemo.redispubsub.publisher.MessagePublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+class RoomFanoutEngineTest {
+
+    private RoomMembershipIndex membershipIndex;
+    private MessagePublisher messagePublisher;
+    private RoomFanoutEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        membershipIndex = new RoomMembershipIndex();
+        messagePublisher = mock(MessagePublisher.class);
+        engine = new RoomFanoutEngine(membershipIndex, messagePublisher);
+        ReflectionTestUtils.setField(engine, "chunkSize", 4);
+        ReflectionTestUtils.setField(engine, "pullThreshold", 1_000);
+        ReflectionTestUtils.setField(engine, "pullTimelineSize", 10);
+        ReflectionTestUtils.setField(engine, "maxPullRooms", 100);
+        ReflectionTestUtils.setField(engine, "pullTimelineIdleMinutes", 60L);
+        ReflectionTestUtils.setField(engine, "trackedMessages", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    @DisplayName("재전달 - 일부 멤버 전달이 실패하면 결과에 담기고, 같은 메시지 재시도는 실패한 멤버에게만 전달한다")
+    void shouldRedeliverOnlyToFailedMembers() {
+        // given - 발신자 포함 10명 (청크 4명), user-3/user-7 은 첫 시도에 실패
+        for (int i = 0; i < 10; i++) {
+            membershipIndex.join("room-1", "user-" + i);
+        }
+        Set<String> failing = ConcurrentHashMap.newKeySet();
+        failing.addAll(List.of("user-3", "user-7"));
+        List<String> received = new CopyOnWriteArrayList<>();
+        engine.setMemberDelivery((userIds, message) -> {
+            received.addAll(userIds);
+            return userIds.stream().filter(failing::contains).toList();
+        });
+        ChatMessage message = ChatMessage.createTextMessage("user-0", "발신자", "room-1", "안녕하세요");
+        message.setMessageId("m-1");
+
+        // when
+        RoomFanoutEngine.FanoutResult first = engine.fanout(message).join();
+        failing.clear();
+        received.clear();
+        RoomFanoutEngine.FanoutResult retried = engine.fanout(message).join();
+
+        // then
+        log.info("첫 시도: {}, 재시도: {}", first, retried);
+        assertThat(first.delivered()).isEqualTo(7);
+        assertThat(first.failedUserIds()).containsExactlyInAnyOrder("user-3", "user-7");
+        assertThat(first.isComplete()).isFalse();
+        assertThat(engine.isTracked("m-1")).isTrue();
+        assertThat(received).containsExactlyInAnyOrder("user-3", "user-7");
+        assertThat(retried.isComplete()).isTrue();
+        assertThat(engine.getStats().getRedeliveries()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("타임라인 상한 - Pull 방 수가 상한에 닿으면 가장 오래 적재가 없던 방의 타임라인부터 제거한다")
+    void shouldBoundPullTimelines() {
+        // given - 멤버 1명 이상이면 Pull, 타임라인 최대 2개
+        ReflectionTestUtils.setField(engine, "pullThreshold", 1);
+        ReflectionTestUtils.setField(engine, "maxPullRooms", 2);
+        engine.setMemberDelivery((userIds, message) -> List.of());
+
+        // when
+        for (int room = 1; room <= 3; room++) {
+            membershipIndex.join("room-" + room, "user-1");
+            ChatMessage message = ChatMessage.createTextMessage("user-1", "발신자", "room-" + room, "메시지 " + room);
+            message.setMessageId("m-" + room);
+            assertThat(engine.fanout(message).join().isComplete()).isTrue();
+        }
+
+        // then
+        RoomFanoutEngine.FanoutStats stats = engine.getStats();
+        log.info("Pull 방: {}, 제거: {}", stats.getPullRooms(), stats.getTimelinesEvicted());
+        assertThat(stats.getPullRooms()).isEqualTo(2);
+        assertThat(stats.getTimelinesEvicted()).isEqualTo(1);
+        assertThat(engine.pull("room-1", 0, 10)).isEmpty();
+        assertThat(engine.pull("room-3", 0, 10)).extracting(RoomFanoutEngine.TimelineEntry::sequence).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("묶음 전달 - 기본 전달은 멤버마다 발행하지 않고 청크마다 수신자 목록을 담은 알림 한 건을 브로드캐스트 채널로 발행한다")
+    void shouldPublishOneNotificationPerChunk() {
+        // given - 발신자 포함 10명, 청크 4명 → 수신자 9명 = 청크 3개
+        for (int i = 0; i < 10; i++) {
+            membershipIndex.join("room-1", "user-" + i);
+        }
+        when(messagePublisher.publishTo(any(), any())).thenReturn(true);
+        ChatMessage message = ChatMessage.createTextMessage("user-0", "발신자", "room-1", "안녕하세요");
+        message.setMessageId("m-1");
+
+        // when
+        RoomFanoutEngine.FanoutResult result = engine.fanout(message).join();
+
+        // then
+        ArgumentCaptor<BaseMessage> published = ArgumentCaptor.forClass(BaseMessage.class);
+        verify(messagePublisher, times(3)).publishTo(eq(RedisPubSubConfig.Channels.NOTIFICATION_BROADCAST), published.capture());
+        List<String> recipients = new ArrayList<>();
+        published.getAllValues().forEach(notification -> {
+            NotificationMessage batch = (NotificationMessage) notification;
+            assertThat(batch.getMessageId()).startsWith("m-1:");
+            recipients.addAll(batch.getRecipientIds());
+        });
+        log.info("발행 {}건, 수신자 {}명", published.getAllValues().size(), recipients.size());
+        assertThat(result.delivered()).isEqualTo(9);
+        assertThat(result.isComplete()).isTrue();
+        assertThat(recipients).hasSize(9).doesNotContain("user-0");
+    }
+}
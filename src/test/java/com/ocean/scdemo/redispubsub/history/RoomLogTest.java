@@ -0,0 +1,179 @@
+package com.ocean.scdemo.redispubsub.history;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 방 이력 로그 (메모리 매핑 세그먼트) 동작 및 벤치마크
+ * <p>
+ * 벤치마크는 4MB 세그먼트(여러 번 roll)에 256B 메시지를 기록하며 추가 처리량과 "X 이전 최근 N 개" 페이지 조회 지연을 측정한다.
+ */
+@Slf4j
+class RoomLogTest {
+
+    private static final long NO_ROLL = Long.MAX_VALUE;
+
+    @TempDir
+    Path dir;
+
+    private static String text(HistoryRecord record) {
+        byte[] bytes = new byte[record.payload().remaining()];
+        record.payload().duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] payload(int sequence) {
+        return ("{\"content\":\"message-" + sequence + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("페이지 조회와 재시작 - 세그먼트 경계를 넘어 이전 N 개를 읽고, 다시 열어도 같은 내용과 다음 시퀀스를 이어간다")
+    void shouldPageAcrossSegmentsAndSurviveRestart() {
+        // given - 세그먼트당 약 20 개
+        RoomLog roomLog = RoomLog.open(dir, 1_024, 128, NO_ROLL);
+        for (int i = 1; i <= 200; i++) {
+            roomLog.append(i, payload(i));
+        }
+
+        // when
+        List<HistoryRecord> latest = roomLog.readBefore(0, 10);
+        List<HistoryRecord> middle = roomLog.readBefore(45, 20);
+        int segments = roomLog.segmentCount();
+        roomLog.close();
+        RoomLog reopened = RoomLog.open(dir, 1_024, 128, NO_ROLL);
+        long next = reopened.append(201, payload(201));
+
+        // then
+        log.info("세그먼트={}, 크기={}B", segments, reopened.sizeBytes());
+        assertThat(segments).isGreaterThan(1);
+        assertThat(latest).extracting(HistoryRecord::sequence).containsExactly(
+                191L, 192L, 193L, 194L, 195L, 196L, 197L, 198L, 199L, 200L);
+        assertThat(text(latest.get(9))).isEqualTo("{\"content\":\"message-200\"}");
+        assertThat(middle).hasSize(20);
+        assertThat(middle.get(0).sequence()).isEqualTo(25);
+        assertThat(middle.get(19).sequence()).isEqualTo(44);
+        assertThat(middle.get(0).timestampMillis()).isEqualTo(25);
+        assertThat(reopened.readBefore(0, 500)).hasSize(200 + 1);
+        assertThat(text(reopened.readBefore(101, 1).get(0))).isEqualTo("{\"content\":\"message-100\"}");
+        assertThat(next).isEqualTo(201);
+    }
+
+    @Test
+    @DisplayName("클러스터 공통 시퀀스 - 연속되지 않는 시퀀스로 세그먼트를 넘어 페이지를 잇고, 이미 기록한 시퀀스는 건너뛰며 재시작 후에도 유지된다")
+    void shouldPageSparseSequencesAndSkipDuplicates() {
+        // given - 스트림 엔트리 ID 처럼 밀리초 * 1000 + 순번 (세그먼트당 약 20 개)
+        long base = 1_700_000_000_000L * 1000;
+        RoomLog roomLog = RoomLog.open(dir, 1_024, 128, NO_ROLL);
+        for (int i = 1; i <= 100; i++) {
+            assertThat(roomLog.append(base + i * 7_000L + i % 3, true, i, payload(i))).isEqualTo(base + i * 7_000L + i % 3);
+        }
+
+        // when
+        long duplicate = roomLog.append(base + 50 * 7_000L + 50 % 3, true, 50, payload(50));
+        long late = roomLog.append(base, false, 101, payload(101));
+        List<HistoryRecord> latest = roomLog.readBefore(0, 10);
+        List<HistoryRecord> previous = roomLog.readBefore(latest.get(0).sequence(), 30);
+        roomLog.close();
+        RoomLog reopened = RoomLog.open(dir, 1_024, 128, NO_ROLL);
+
+        // then
+        log.info("세그먼트={}, 중복={}, 늦은 도착={}", reopened.segmentCount(), duplicate, late);
+        assertThat(duplicate).isZero();
+        assertThat(late).isEqualTo(base + 100 * 7_000L + 100 % 3 + 1);
+        assertThat(latest).hasSize(10);
+        assertThat(text(latest.get(8))).isEqualTo("{\"content\":\"message-100\"}");
+        assertThat(text(latest.get(9))).isEqualTo("{\"content\":\"message-101\"}");
+        assertThat(previous).hasSize(30);
+        assertThat(text(previous.get(0))).isEqualTo("{\"content\":\"message-62\"}");
+        assertThat(text(previous.get(29))).isEqualTo("{\"content\":\"message-91\"}");
+        assertThat(reopened.segmentCount()).isGreaterThan(1);
+        assertThat(reopened.firstSequence()).isEqualTo(base + 7_001L);
+        assertThat(reopened.readBefore(0, 500)).hasSize(101).extracting(HistoryRecord::sequence).isSorted();
+        assertThat(reopened.readBefore(base + 7_001L, 10)).isEmpty();
+        assertThat(reopened.append(late, true, 102, payload(102))).isZero();
+    }
+
+    @Test
+    @DisplayName("압축 - 작은 봉인 세그먼트는 하나로 병합되고, 용량을 넘은 오래된 세그먼트는 삭제되며 재시작 후에도 유지된다")
+    void shouldMergeSmallSegmentsAndApplyRetention() {
+        // given - 레코드마다 roll 되도록 시간 간격을 roll 주기보다 크게
+        long start = System.currentTimeMillis();
+        RoomLog roomLog = RoomLog.open(dir, 4_096, 64, 10);
+        for (int i = 1; i <= 60; i++) {
+            roomLog.append(start + i * 1_000L, payload(i));
+        }
+        int before = roomLog.segmentCount();
+
+        // when
+        RoomLog.CompactionResult merged = roomLog.compact(Long.MAX_VALUE, 0, 1_024, start);
+        List<HistoryRecord> afterMerge = roomLog.readBefore(0, 100);
+        RoomLog.CompactionResult retained = roomLog.compact(100, 0, 0, start);
+        roomLog.close();
+        RoomLog reopened = RoomLog.open(dir, 4_096, 64, 10);
+
+        // then
+        log.info("압축: 이전 세그먼트={}, 병합={}, 보존={}, 남은 세그먼트={}",
+                before, merged, retained, reopened.segmentCount());
+        assertThat(before).isEqualTo(60);
+        assertThat(merged.mergedSegments()).isEqualTo(59);
+        assertThat(afterMerge).hasSize(60);
+        assertThat(afterMerge).extracting(HistoryRecord::sequence).isSorted();
+        assertThat(retained.deletedSegments()).isEqualTo(1);
+        assertThat(reopened.segmentCount()).isEqualTo(1);
+        assertThat(reopened.firstSequence()).isEqualTo(60);
+        assertThat(reopened.readBefore(0, 100)).extracting(HistoryRecord::sequence).containsExactly(60L);
+    }
+
+    @Test
+    @DisplayName("벤치마크 - 추가 처리량과 페이지(최근 50 개) 조회 지연 p50/p99")
+    void benchmarkAppendAndPageRead() {
+        // given
+        int messages = 100_000;
+        int pageSize = 50;
+        int reads = 20_000;
+        byte[] body = new byte[256];
+        Arrays.fill(body, (byte) 'a');
+        RoomLog roomLog = RoomLog.open(dir, 4 * 1024 * 1024, 4_096, NO_ROLL);
+
+        // when - 추가
+        long appendStart = System.nanoTime();
+        for (int i = 1; i <= messages; i++) {
+            roomLog.append(i, body);
+        }
+        long appendNanos = System.nanoTime() - appendStart;
+
+        // when - 임의 위치 페이지 조회
+        long[] latencies = new long[reads];
+        long checksum = 0;
+        for (int i = 0; i < reads; i++) {
+            long before = ThreadLocalRandom.current().nextLong(pageSize + 1, messages + 1);
+            long readStart = System.nanoTime();
+            List<HistoryRecord> page = roomLog.readBefore(before, pageSize);
+            latencies[i] = System.nanoTime() - readStart;
+            checksum += page.size();
+        }
+        Arrays.sort(latencies);
+
+        // then
+        double throughput = messages / (appendNanos / 1_000_000_000.0);
+        log.info("추가: {}건, {}ms, {} msg/s, {} MB/s, 세그먼트={}",
+                messages, appendNanos / 1_000_000, (long) throughput,
+                String.format("%.1f", throughput * body.length / (1024 * 1024)), roomLog.segmentCount());
+        log.info("페이지 조회({}건): p50={}us, p99={}us, max={}us",
+                pageSize, latencies[reads / 2] / 1_000, latencies[reads * 99 / 100] / 1_000,
+                latencies[reads - 1] / 1_000);
+        assertThat(roomLog.lastSequence()).isEqualTo(messages);
+        assertThat(checksum).isEqualTo((long) reads * pageSize);
+        roomLog.close();
+    }
+}
@@ -0,0 +1,72 @@
+package com.ocean.scdemo.redispubsub.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class ClockSkewEstimatorTest {
+
+    private static final String LOCAL = "node-a";
+    private static final String REMOTE = "node-b";
+    private static final long WINDOW_MILLIS = 1_000;
+
+    @Test
+    @DisplayName("시계 오차 추정 - 다른 노드의 최소 오프셋에서 같은 노드 최소 전송 지연을 뺀다")
+    void shouldEstimateSkewAgainstLocalBaseline() {
+        // given
+        ClockSkewEstimator estimator = new ClockSkewEstimator(LOCAL, WINDOW_MILLIS, 16);
+        estimator.observe(LOCAL, 300, 0);
+        estimator.observe(LOCAL, 500, 10);
+
+        // when - 발행 노드 시계가 50ms 늦음 (실제 전송 300~900us)
+        estimator.observe(REMOTE, 50_000 + 900, 20);
+        long skew = estimator.observe(REMOTE, 50_000 + 300, 30);
+
+        // then
+        log.info("추정치: {}", estimator.estimates(30));
+        assertThat(skew).isEqualTo(50_000);
+        assertThat(estimator.observe(LOCAL, 400, 40)).isZero();
+        assertThat(estimator.observe(REMOTE, 50_000 + 2_000, 50)).isEqualTo(50_000);
+    }
+
+    @Test
+    @DisplayName("발행 노드 시계가 빠르면 - 음수 오프셋을 집계하고 음수 오차로 보정해 지연이 음수가 되지 않는다")
+    void shouldHandleRemoteClockAhead() {
+        // given
+        ClockSkewEstimator estimator = new ClockSkewEstimator(LOCAL, WINDOW_MILLIS, 16);
+        estimator.observe(LOCAL, 200, 0);
+
+        // when - 발행 노드 시계가 10ms 빠름
+        long skew = estimator.observe(REMOTE, -10_000 + 200, 10);
+        long corrected = Math.max(0, (-10_000 + 700) - estimator.observe(REMOTE, -10_000 + 700, 20));
+
+        // then
+        assertThat(skew).isEqualTo(-10_000);
+        assertThat(corrected).isEqualTo(700);
+        ClockSkewEstimator.SkewEstimate remote = estimator.estimates(20).stream()
+                .filter(estimate -> REMOTE.equals(estimate.getOriginNodeId()))
+                .findFirst().orElseThrow();
+        assertThat(remote.getNegativeOffsetSamples()).isEqualTo(2);
+        assertThat(remote.getSamples()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("시간 창 - 두 창이 지나면 오래된 최솟값을 잊어 시계 재조정을 따라간다")
+    void shouldForgetOldMinimumAfterTwoWindows() {
+        // given
+        ClockSkewEstimator estimator = new ClockSkewEstimator(LOCAL, WINDOW_MILLIS, 16);
+        estimator.observe(REMOTE, 5_000, 0);
+
+        // when - 발행 노드 시계가 재조정되어 오프셋이 커짐
+        long withinWindow = estimator.observe(REMOTE, 20_000, WINDOW_MILLIS + 10);
+        estimator.observe(REMOTE, 20_000, 2 * WINDOW_MILLIS + 20);
+        long afterWindows = estimator.observe(REMOTE, 20_000, 3 * WINDOW_MILLIS + 30);
+
+        // then - 같은 노드 기준이 없으면 최소 오프셋 자체가 오차
+        assertThat(withinWindow).isEqualTo(5_000);
+        assertThat(afterWindows).isEqualTo(20_000);
+    }
+}
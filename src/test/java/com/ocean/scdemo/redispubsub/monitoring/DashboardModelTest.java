@@ -0,0 +1,94 @@
+package com.ocean.scdemo.redispubsub.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class DashboardModelTest {
+
+    @Test
+    @DisplayName("변경 감지 - 값이 그대로면 publish 가 같은 스냅샷과 ETag 를 돌려주고, 바뀌면 새 스냅샷으로 교체한다")
+    void shouldSwapSnapshotOnlyWhenChanged() {
+        // given
+        DashboardModel model = new DashboardModel(10, 10, 5);
+        model.recordMetric("latency.p99", 12.5, "MILLISECONDS");
+        DashboardModel.Snapshot first = model.publish(LocalDateTime.now());
+
+        // when
+        model.recordMetric("latency.p99", 12.5, "MILLISECONDS");
+        model.recordHealth(PubSubMonitoringService.SystemHealthStatus.STARTING, Map.of());
+        DashboardModel.Snapshot unchanged = model.publish(LocalDateTime.now());
+        model.recordMetric("latency.p99", 30.0, "MILLISECONDS");
+        DashboardModel.Snapshot changed = model.publish(LocalDateTime.now());
+
+        // then
+        log.info("ETag: {} -> {}", first.etag(), changed.etag());
+        assertThat(unchanged).isSameAs(first);
+        assertThat(model.current()).isSameAs(changed);
+        assertThat(changed.etag()).isNotEqualTo(first.etag()).startsWith("\"").endsWith("\"");
+        assertThat(changed.data().getKeyMetrics())
+                .containsEntry("latency.p99", new DashboardModel.MetricValue(30.0, "MILLISECONDS"));
+    }
+
+    @Test
+    @DisplayName("처리량 - 누적 카운터 차이로 초당 처리량을 계산하고, 유휴 구간은 추이와 ETag 를 바꾸지 않는다")
+    void shouldDeriveRatesAndKeepIdleStable() {
+        // given - 추이 최대 3점
+        DashboardModel model = new DashboardModel(3, 10, 5);
+        model.recordCounters(0, 0, 0, 1_000);
+
+        // when - 1초마다 100건 발행 / 50건 수신(실패 5) 4회, 이후 유휴 3회
+        for (int i = 1; i <= 4; i++) {
+            model.recordCounters(100L * i, 50L * i, 5L * i, 1_000 + 1_000L * i);
+        }
+        DashboardModel.Snapshot busy = model.publish(LocalDateTime.now());
+        model.recordCounters(400, 200, 20, 6_000);
+        DashboardModel.Snapshot idleStart = model.publish(LocalDateTime.now());
+        model.recordCounters(400, 200, 20, 7_000);
+        model.recordCounters(400, 200, 20, 8_000);
+        DashboardModel.Snapshot idle = model.publish(LocalDateTime.now());
+
+        // then
+        Map<String, Object> throughput = busy.data().getThroughputMetrics();
+        assertThat(throughput).containsEntry(DashboardModel.TREND_PUBLISH_RATE, 100.0)
+                .containsEntry(DashboardModel.TREND_RECEIVE_RATE, 50.0)
+                .containsEntry(DashboardModel.TREND_ERROR_RATE, 10.0);
+        assertThat((List<?>) busy.data().getPerformanceTrends().get(DashboardModel.TREND_PUBLISH_RATE)).hasSize(3);
+        assertThat(idleStart).isNotSameAs(busy);
+        assertThat(idle).isSameAs(idleStart);
+        assertThat(idle.data().getThroughputMetrics()).containsEntry(DashboardModel.TREND_PUBLISH_RATE, 0.0);
+    }
+
+    @Test
+    @DisplayName("불변 스냅샷 - 발행된 스냅샷은 이후 갱신과 분리되고 수정할 수 없으며, 알림은 최신순으로 상한만큼 유지한다")
+    void shouldIsolatePublishedSnapshots() {
+        // given - 최근 알림 2건
+        DashboardModel model = new DashboardModel(10, 10, 2);
+        model.recordAlert("high_error_rate", "CRITICAL", "SENT", "오류율 12%", LocalDateTime.now());
+        DashboardModel.Snapshot before = model.publish(LocalDateTime.now());
+
+        // when
+        model.recordAlert("high_latency", "WARNING", "SENT", "지연 800ms", LocalDateTime.now());
+        model.recordAlert("high_error_rate", "INFO", "RESOLVED", "해결", LocalDateTime.now());
+        model.recordHandler("chat", 1_000, 99.5);
+        DashboardModel.Snapshot after = model.publish(LocalDateTime.now());
+
+        // then
+        assertThat(before.data().getRecentAlerts()).hasSize(1);
+        assertThat(before.data().getHandlerPerformance()).isEmpty();
+        assertThat(after.data().getRecentAlerts())
+                .extracting(alert -> ((DashboardModel.AlertEntry) alert).ruleName())
+                .containsExactly("high_error_rate", "high_latency");
+        assertThat(after.revision()).isGreaterThan(before.revision());
+        assertThatThrownBy(() -> after.data().getKeyMetrics().put("x", 1))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ocean.scdemo.redispubsub.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class ProbeScheduleTest {
+
+    /**
+     * 기본 30초, 5초~5분, 3회 안정 시 두 배, 최근 10회 중 4회 변경이면 flapping
+     */
+    private static ProbeSchedule newSchedule() {
+        return new ProbeSchedule(30_000, 5_000, 300_000, 3, 10, 4, 0);
+    }
+
+    @Test
+    @DisplayName("안정 백오프 - 같은 상태가 이어지면 주기가 두 배씩 늘어 최대 주기에서 멈춘다")
+    void shouldBackOffWhileStable() {
+        // given
+        ProbeSchedule schedule = newSchedule();
+        long now = 0;
+
+        // when - 첫 결과(UNKNOWN -> UP) 후 UP 반복
+        boolean first = schedule.record("UP", now);
+        int runs = 0;
+        while (schedule.getInterval() < 300_000 && runs < 100) {
+            now = schedule.getNextDueAt();
+            schedule.record("UP", now);
+            runs++;
+        }
+
+        // then
+        log.info("최대 주기 도달까지 실행 {}회, 경과 {}s", runs, now / 1000);
+        assertThat(first).isTrue();
+        assertThat(schedule.getPreviousStatus()).isEqualTo(ProbeSchedule.UNKNOWN);
+        assertThat(schedule.getInterval()).isEqualTo(300_000);
+        assertThat(schedule.getTotalChanges()).isEqualTo(1);
+        assertThat(runs).isLessThan(30);
+    }
+
+    @Test
+    @DisplayName("flapping - 상태가 자주 바뀌면 최소 주기를 유지하고, 창이 비워진 뒤에야 다시 늘린다")
+    void shouldStayFastWhileFlapping() {
+        // given
+        ProbeSchedule schedule = newSchedule();
+        long now = 0;
+
+        // when - UP/DOWN 번갈아 6회
+        for (int i = 0; i < 6; i++) {
+            schedule.record(i % 2 == 0 ? "UP" : "DOWN", now);
+            now = schedule.getNextDueAt();
+        }
+        boolean flappingAfterToggles = schedule.isFlapping();
+        long intervalWhileFlapping = schedule.getInterval();
+
+        for (int i = 0; i < 3; i++) {
+            schedule.record("DOWN", now);
+            now = schedule.getNextDueAt();
+        }
+        long intervalStillInWindow = schedule.getInterval();
+
+        for (int i = 0; i < 10; i++) {
+            schedule.record("DOWN", now);
+            now = schedule.getNextDueAt();
+        }
+
+        // then
+        assertThat(flappingAfterToggles).isTrue();
+        assertThat(intervalWhileFlapping).isEqualTo(5_000);
+        assertThat(intervalStillInWindow).isEqualTo(5_000);
+        assertThat(schedule.isFlapping()).isFalse();
+        assertThat(schedule.getInterval()).isGreaterThan(5_000);
+    }
+
+    @Test
+    @DisplayName("상태 전이 - 변경 시에만 true 를 돌려주고, 장애 상태는 기본 주기보다 늘리지 않는다")
+    void shouldReportOnlyTransitionsAndCapFailingInterval() {
+        // given
+        ProbeSchedule schedule = newSchedule();
+        long now = 0;
+        int transitions = 0;
+
+        // when - UP 5회, DOWN 20회
+        for (int i = 0; i < 25; i++) {
+            if (schedule.record(i < 5 ? "UP" : "DOWN", now)) {
+                transitions++;
+            }
+            now = schedule.getNextDueAt();
+        }
+
+        // then
+        assertThat(transitions).isEqualTo(2);
+        assertThat(schedule.getStatus()).isEqualTo("DOWN");
+        assertThat(schedule.getPreviousStatus()).isEqualTo("UP");
+        assertThat(schedule.getInterval()).isEqualTo(30_000);
+        assertThat(schedule.getTotalChecks()).isEqualTo(25);
+    }
+}
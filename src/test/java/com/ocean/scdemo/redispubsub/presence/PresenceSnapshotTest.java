@@ -0,0 +1,82 @@
+package com.ocean.scdemo.redispubsub.presence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class PresenceSnapshotTest {
+
+    @Test
+    @DisplayName("Redis 비트맵 적재 - 바이트의 최상위 비트가 오프셋 0 이며 온라인 수를 함께 계산한다")
+    void shouldLoadRedisBitOrder() {
+        // given - SETBIT 0, 7, 9, 100 결과와 같은 바이트열
+        byte[] redisBitmap = new byte[13];
+        redisBitmap[0] = (byte) 0b1000_0001;
+        redisBitmap[1] = (byte) 0b0100_0000;
+        redisBitmap[12] = (byte) 0b0000_1000;
+        OnlineBitmap snapshot = new OnlineBitmap();
+
+        // when
+        snapshot.load(redisBitmap);
+
+        // then
+        assertThat(OnlineBitmap.decode(redisBitmap)).containsExactly(0, 7, 9, 100);
+        assertThat(snapshot.count()).isEqualTo(4);
+        assertThat(snapshot.get(0)).isTrue();
+        assertThat(snapshot.get(100)).isTrue();
+        assertThat(snapshot.get(1)).isFalse();
+        assertThat(snapshot.get(1_000_000)).isFalse();
+    }
+
+    @Test
+    @DisplayName("증분 갱신 - 실제로 바뀐 경우에만 true 를 반환하고 온라인 수를 조정한다")
+    void shouldTrackCountOnlyOnChange() {
+        // given
+        OnlineBitmap snapshot = new OnlineBitmap();
+
+        // when
+        boolean first = snapshot.set(5_000, true);
+        boolean repeated = snapshot.set(5_000, true);
+        boolean unknownOffline = snapshot.set(900_000, false);
+        snapshot.set(3, true);
+        boolean offline = snapshot.set(5_000, false);
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(repeated).isFalse();
+        assertThat(unknownOffline).isFalse();
+        assertThat(offline).isTrue();
+        assertThat(snapshot.count()).isEqualTo(1);
+        assertThat(snapshot.get(3)).isTrue();
+    }
+
+    @Test
+    @DisplayName("전이 합치기 - 창 안의 반복 전이는 마지막 상태 하나로, 창이 지난 뒤에만 내보낸다")
+    void shouldCoalesceFlapsWithinWindow() {
+        // given
+        PresenceCoalescer coalescer = new PresenceCoalescer(1_000);
+        coalescer.offer("alice", false, 0);
+        coalescer.offer("alice", true, 200);
+        coalescer.offer("alice", false, 400);
+        coalescer.offer("alice", true, 600);
+        coalescer.offer("bob", false, 500);
+
+        // when
+        List<PresenceCoalescer.Transition> early = coalescer.drain(900);
+        List<PresenceCoalescer.Transition> due = coalescer.drain(1_000);
+        List<PresenceCoalescer.Transition> later = coalescer.drain(1_500);
+
+        // then
+        log.info("합치기: 제출={}, 합쳐짐={}", coalescer.getTotalOffered(), coalescer.getTotalCoalesced());
+        assertThat(early).isEmpty();
+        assertThat(due).containsExactly(new PresenceCoalescer.Transition("alice", true));
+        assertThat(later).containsExactly(new PresenceCoalescer.Transition("bob", false));
+        assertThat(coalescer.getTotalCoalesced()).isEqualTo(3);
+        assertThat(coalescer.pendingCount()).isZero();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ocean.scdemo.redispubsub.publisher;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+class AsyncPublishTransportTest {
+
+    /** 테스트가 직접 완료시키는 PUBLISH 응답 */
+    private final Deque<CompletableFuture<Long>> pending = new ArrayDeque<>();
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, Object> template;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedisAsyncCommands<byte[], byte[]> commands = mock(RedisAsyncCommands.class);
+        when(commands.publish(any(), any())).thenAnswer(invocation -> {
+            CompletableFuture<Long> response = new CompletableFuture<>();
+            pending.addLast(response);
+            RedisFuture<Long> redisFuture = mock(RedisFuture.class);
+            when(redisFuture.toCompletableFuture()).thenReturn(response);
+            return redisFuture;
+        });
+
+        StatefulRedisConnection<byte[], byte[]> connection = mock(StatefulRedisConnection.class);
+        when(connection.async()).thenReturn(commands);
+        RedisClient client = mock(RedisClient.class);
+        when(client.connect(ByteArrayCodec.INSTANCE)).thenReturn(connection);
+
+        connectionFactory = mock(LettuceConnectionFactory.class);
+        when(connectionFactory.getRequiredNativeClient()).thenReturn(client);
+        template = mock(RedisTemplate.class);
+        doReturn(RedisSerializer.json()).when(template).getValueSerializer();
+    }
+
+    @Test
+    @DisplayName("진행 중 상한 - 자리가 없으면 대기하지 않고 즉시 거부하며, 응답이 오면 자리를 반납한다")
+    void shouldRejectImmediatelyWhenInFlightLimitReached() throws Exception {
+        // given
+        AsyncPublishTransport transport = new AsyncPublishTransport(connectionFactory, template, true, 2, 5_000);
+        CompletableFuture<Long> first = transport.publish("chat:global", "m1");
+        CompletableFuture<Long> second = transport.publish("chat:global", "m2");
+
+        // when
+        CompletableFuture<Long> rejected = transport.publish("chat:global", "m3");
+        pending.pollFirst().complete(3L);
+        CompletableFuture<Long> afterRelease = transport.publish("chat:global", "m4");
+
+        // then
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::get).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(first.get()).isEqualTo(3L);
+        assertThat(second).isNotDone();
+        assertThat(afterRelease).isNotDone();
+
+        AsyncPublishTransport.AsyncPublishStats stats = transport.getStats();
+        log.info("비동기 전송 통계: {}", stats);
+        assertThat(stats.getInFlight()).isEqualTo(2);
+        assertThat(stats.getTotalRejected()).isEqualTo(1);
+        assertThat(stats.getTotalCompleted()).isEqualTo(1);
+        assertThat(stats.getMaxInFlightObserved()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("타임아웃 - 응답이 없는 발행은 타임아웃으로 실패하고 자리를 반납한다")
+    void shouldReleasePermitOnTimeout() {
+        // given
+        AsyncPublishTransport transport = new AsyncPublishTransport(connectionFactory, template, true, 1, 50);
+
+        // when
+        CompletableFuture<Long> stalled = transport.publish("chat:global", "m1");
+
+        // then
+        assertThatThrownBy(stalled::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(transport.getStats().getInFlight()).isZero();
+        assertThat(transport.getStats().getTotalFailed()).isEqualTo(1);
+        assertThat(transport.publish("chat:global", "m2")).isNotCompletedExceptionally();
+    }
+
+    @Test
+    @DisplayName("비활성화 - Lettuce 연결 팩토리가 아니면 사용할 수 없다고 알린다")
+    void shouldBeUnavailableWithoutLettuce() {
+        // given
+        RedisConnectionFactory other = mock(RedisConnectionFactory.class);
+
+        // when
+        AsyncPublishTransport transport = new AsyncPublishTransport(other, template, true, 16, 1_000);
+
+        // then
+        assertThat(transport.isAvailable()).isFalse();
+        assertThat(transport.getStats().isEnabled()).isFalse();
+    }
+}
@@ -0,0 +1,121 @@
+package com.ocean.scdemo.redispubsub.publisher;
+
+import com.ocean.scdemo.redispubsub.codec.MessageCodec;
+import com.ocean.scdemo.redispubsub.config.NodeIdentity;
+import com.ocean.scdemo.redispubsub.dedup.IdempotencyGate;
+import com.ocean.scdemo.redispubsub.dispatch.HandlerRegistry;
+import com.ocean.scdemo.redispubsub.message.BaseMessage;
+import com.ocean.scdemo.redispubsub.message.NotificationMessage;
+import com.ocean.scdemo.redispubsub.monitoring.EndToEndLatencyMonitor;
+import com.ocean.scdemo.redispubsub.replay.ReplayService;
+import com.ocean.scdemo.redispubsub.retry.RetryScheduler;
+import com.ocean.scdemo.redispubsub.subscriber.MessageSubscriber;
+import com.ocean.scdemo.redispubsub.transport.RedisStreamTransport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+class LocalLoopbackTest {
+
+    private static final String SELF = "node-a";
+
+    private static LocalLoopback loopback(boolean enabled) {
+        RedisStreamTransport streamTransport = mock(RedisStreamTransport.class);
+        when(streamTransport.isDurable(any())).thenAnswer(invocation ->
+                ((String) invocation.getArgument(0)).startsWith("event:"));
+        LocalLoopback loopback = new LocalLoopback(new NodeIdentity(SELF), streamTransport);
+        ReflectionTestUtils.setField(loopback, "enabled", enabled);
+        return loopback;
+    }
+
+    @Test
+    @DisplayName("에코 판별 - 자기 노드가 발행한 비내구 채널 메시지만 에코로 보고 폐기 건수를 센다")
+    void shouldDetectOwnEchoOnlyForNonDurableChannels() {
+        // given
+        LocalLoopback loopback = loopback(true);
+        LocalLoopback disabled = loopback(false);
+
+        // when / then
+        assertThat(loopback.isOwnEcho("chat:room:1", SELF)).isTrue();
+        assertThat(loopback.isOwnEcho("chat:room:1", "node-b")).isFalse();
+        assertThat(loopback.isOwnEcho("chat:room:1", null)).isFalse();
+        assertThat(loopback.isOwnEcho("event:user:1", SELF)).isFalse();
+        assertThat(disabled.isOwnEcho("chat:room:1", SELF)).isFalse();
+        log.info("루프백 통계: {}", loopback.getStats());
+        assertThat(loopback.getStats().getEchoesDropped()).isEqualTo(1);
+        assertThat(disabled.getStats().getEchoesDropped()).isZero();
+    }
+
+    @Test
+    @DisplayName("에코 폐기 - 자기 노드 에코는 헤더만 보고 버려 핸들러와 중복 판별까지 가지 않는다")
+    void shouldDropOwnEchoBeforeDispatch() throws Exception {
+        // given
+        LocalLoopback loopback = loopback(true);
+        byte[] payload = "{\"@type\":\"ChatMessage\"}".getBytes(StandardCharsets.UTF_8);
+        MessageCodec.MessageHeader header = new MessageCodec.MessageHeader();
+        header.setType("ChatMessage");
+        header.setMessageId("msg-1");
+        header.setOriginNodeId(SELF);
+        MessageCodec codec = mock(MessageCodec.class);
+        when(codec.peekHeader(payload)).thenReturn(header);
+        HandlerRegistry handlerRegistry = mock(HandlerRegistry.class);
+        IdempotencyGate idempotencyGate = mock(IdempotencyGate.class);
+        MessageSubscriber subscriber = new MessageSubscriber(handlerRegistry, codec, loopback,
+                mock(RetryScheduler.class), idempotencyGate, mock(ReplayService.class),
+                mock(EndToEndLatencyMonitor.class), Runnable::run);
+
+        // when
+        MessageSubscriber.DispatchResult result = subscriber.dispatch("chat:room:1", payload);
+
+        // then
+        assertThat(result).isEqualTo(MessageSubscriber.DispatchResult.IGNORED);
+        assertThat(loopback.getStats().getEchoesDropped()).isEqualTo(1);
+        verifyNoInteractions(handlerRegistry, idempotencyGate);
+    }
+
+    @Test
+    @DisplayName("사본 격리 - 로컬 핸들러가 사본 상태를 바꿔도 원본은 그대로이고 봉투 필드는 사본에 유지된다")
+    void shouldIsolateLocalCopyFromOriginal() {
+        // given
+        LocalLoopback loopback = loopback(true);
+        NotificationMessage original = NotificationMessage.createInfoNotification("user-1", "제목", "본문");
+        original.setRecipientIds(new ArrayList<>(List.of("user-1", "user-2")));
+        original.setOriginNodeId(SELF);
+        original.setPublishedAtMicros(1_700_000_000_000_000L);
+        original.setSequenceNumber(42L);
+
+        // when - 두 로컬 전달이 각자 사본을 받아 상태를 바꿈
+        NotificationMessage first = (NotificationMessage) loopback.localCopy(original);
+        NotificationMessage second = (NotificationMessage) loopback.localCopy(original);
+        first.setStatus("DELIVERED");
+        first.setDeliveredAt(LocalDateTime.now());
+        first.getRecipientIds().add("user-3");
+
+        // then
+        assertThat(first).isNotSameAs(original).isNotSameAs(second);
+        assertThat(original.getStatus()).isEqualTo("PENDING");
+        assertThat(original.getDeliveredAt()).isNull();
+        assertThat(original.getRecipientIds()).containsExactly("user-1", "user-2");
+        assertThat(second.getStatus()).isEqualTo("PENDING");
+        assertThat(second.getDeliveredAt()).isNull();
+        for (BaseMessage copy : List.<BaseMessage>of(first, second)) {
+            assertThat(copy.getMessageId()).isEqualTo(original.getMessageId());
+            assertThat(copy.getOriginNodeId()).isEqualTo(SELF);
+            assertThat(copy.getPublishedAtMicros()).isEqualTo(original.getPublishedAtMicros());
+            assertThat(copy.getSequenceNumber()).isEqualTo(42L);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.ocean.scdemo.redispubsub.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 반응형 디스패치 파이프라인 벤치마크
+ * <p>
+ * 처리기 지연(블로킹 I/O 가정)이 있는 메시지를 타입별 레인(동시 처리 상한 + 대기열)으로 처리할 때의
+ * 동시성 상한, 배압, 타입 격리와 처리량을 확인한다.
+ * 블로킹 경로(리스너 컨테이너 → MessageSubscriber)와의 비교는 Redis 연결이 필요하므로 여기서 하지 않는다.
+ */
+@Slf4j
+class ReactiveDispatchPipelineBenchmarkTest {
+
+    private static final int MESSAGES = 2_000;
+    private static final long HANDLER_MILLIS = 2;
+
+    private record Item(String type, int seq) {
+    }
+
+    private static Flux<Item> items(int count) {
+        return Flux.range(0, count).map(i -> new Item(i % 2 == 0 ? "ChatMessage" : "MetricsMessage", i));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("타입별 동시 처리 상한 - 타입마다 설정한 개수 이상 동시에 처리하지 않는다")
+    void shouldRespectPerTypeConcurrency() {
+        // given
+        Map<String, Integer> limits = Map.of("ChatMessage", 2, "MetricsMessage", 5);
+        ReactiveDispatchPipeline<Item, Integer> pipeline = new ReactiveDispatchPipeline<>(
+                Item::type, limits::get, item -> {
+                    sleep(1);
+                    return item.seq();
+                }, Schedulers.boundedElastic(), 64);
+
+        // when
+        Long processed = pipeline.apply(items(300)).count().block();
+
+        // then
+        Map<String, ReactiveDispatchPipeline.TypeStats> stats = pipeline.getStats();
+        log.info("타입별 통계: {}", stats);
+        assertThat(processed).isEqualTo(300);
+        assertThat(stats.get("ChatMessage").getMaxInFlight()).isBetween(1, 2);
+        assertThat(stats.get("MetricsMessage").getMaxInFlight()).isBetween(1, 5);
+        assertThat(stats.get("ChatMessage").getCompleted()).isEqualTo(150);
+        assertThat(stats.get("MetricsMessage").getCompleted()).isEqualTo(150);
+    }
+
+    @Test
+    @DisplayName("배압 - 처리기가 느리면 source 요청이 멈춰 미처리 메시지가 prefetch + 동시 처리 수를 넘지 않는다")
+    void shouldPropagateBackpressureToSource() {
+        // given
+        int prefetch = 16;
+        int concurrency = 4;
+        AtomicLong emitted = new AtomicLong();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong maxOutstanding = new AtomicLong();
+        AtomicInteger failures = new AtomicInteger();
+        ReactiveDispatchPipeline<Item, Integer> pipeline = new ReactiveDispatchPipeline<>(
+                item -> "ChatMessage", type -> concurrency, item -> {
+                    maxOutstanding.accumulateAndGet(emitted.get() - completed.get(), Math::max);
+                    sleep(1);
+                    if (item.seq() % 100 == 99) {
+                        failures.incrementAndGet();
+                        completed.incrementAndGet();
+                        throw new IllegalStateException("처리기 실패");
+                    }
+                    completed.incrementAndGet();
+                    return item.seq();
+                }, Schedulers.boundedElastic(), prefetch);
+
+        // when
+        Long processed = pipeline.apply(items(1_000).doOnNext(item -> emitted.incrementAndGet())).count().block();
+
+        // then
+        log.info("최대 미처리 메시지={}, prefetch={}, 동시 처리={}", maxOutstanding.get(), prefetch, concurrency);
+        assertThat(processed).isEqualTo(1_000 - failures.get());
+        assertThat(pipeline.getStats().get("ChatMessage").getFailed()).isEqualTo(failures.get());
+        assertThat(maxOutstanding.get()).isLessThanOrEqualTo(prefetch + 2L * concurrency);
+    }
+
+    @Test
+    @DisplayName("타입 격리 - 한 타입의 처리기가 멈춰도 그 타입 몫만 대기/폐기되고 다른 타입은 계속 처리된다")
+    void shouldNotLetSlowTypeBlockOthers() throws Exception {
+        // given - prefetch 16, 타입별 동시 처리 2 + 대기열 4, Slow 처리기는 release 전까지 멈춤
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastDone = new CountDownLatch(20);
+        AtomicInteger overflowed = new AtomicInteger();
+        ReactiveDispatchPipeline<Item, Integer> pipeline = new ReactiveDispatchPipeline<>(
+                Item::type, type -> 2, item -> {
+                    if (item.type().equals("Slow")) {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    } else {
+                        fastDone.countDown();
+                    }
+                    return item.seq();
+                }, Schedulers.boundedElastic(), 16, 4, item -> overflowed.incrementAndGet());
+        Flux<Item> source = Flux.concat(
+                Flux.range(0, 100).map(i -> new Item("Slow", i)),
+                Flux.range(0, 20).map(i -> new Item("Fast", i)));
+
+        // when - Slow 가 먼저 몰려 들어온 뒤 Fast 가 이어짐
+        CompletableFuture<Long> processed = pipeline.apply(source).count().toFuture();
+        boolean fastFinishedWhileSlowBlocked = fastDone.await(5, TimeUnit.SECONDS);
+        Map<String, ReactiveDispatchPipeline.TypeStats> blocked = pipeline.getStats();
+        release.countDown();
+
+        // then
+        log.info("Slow 정지 중 통계: {}", blocked);
+        assertThat(fastFinishedWhileSlowBlocked).isTrue();
+        assertThat(blocked.get("Slow").getQueued()).isEqualTo(4);
+        assertThat(blocked.get("Slow").getOverflowed()).isEqualTo(100 - 2 - 4);
+        assertThat(overflowed.get()).isEqualTo(100 - 2 - 4);
+        assertThat(processed.get(5, TimeUnit.SECONDS)).isEqualTo(20 + 2 + 4);
+        assertThat(pipeline.getStats().get("Fast").getCompleted()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("처리량 - 처리기 지연이 있어도 타입별 상한까지 병렬로 처리한다")
+    void reportPipelineThroughput() {
+        // given - 타입 2개 × 동시 처리 16
+        int concurrency = 16;
+        ReactiveDispatchPipeline<Item, Integer> pipeline = new ReactiveDispatchPipeline<>(
+                Item::type, type -> concurrency, item -> {
+                    sleep(HANDLER_MILLIS);
+                    return item.seq();
+                }, Schedulers.boundedElastic(), 256);
+
+        // when
+        long start = System.nanoTime();
+        Long processed = pipeline.apply(items(MESSAGES)).count().block();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // then - 직렬 처리 시간(MESSAGES × HANDLER_MILLIS)보다 확실히 빨라야 함
+        Map<String, ReactiveDispatchPipeline.TypeStats> stats = pipeline.getStats();
+        log.info("{}건 (처리기 {}ms, 타입별 동시 처리 {}): {}ms ({}/s), 직렬 기준 {}ms, 타입별 통계: {}",
+                MESSAGES, HANDLER_MILLIS, concurrency, elapsedMillis, MESSAGES * 1000L / Math.max(1, elapsedMillis),
+                MESSAGES * HANDLER_MILLIS, stats);
+        assertThat(processed).isEqualTo(MESSAGES);
+        assertThat(stats.get("ChatMessage").getMaxInFlight()).isBetween(2, concurrency);
+        assertThat(stats.get("MetricsMessage").getMaxInFlight()).isBetween(2, concurrency);
+        assertThat(elapsedMillis).isLessThan(MESSAGES * HANDLER_MILLIS / 2);
+    }
+}
@@ -0,0 +1,76 @@
+package com.ocean.scdemo.redispubsub.replay;
+
+import com.ocean.scdemo.redispubsub.message.ChatMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class SequenceGapDetectorTest {
+
+    @Test
+    @DisplayName("누락 탐지 - 건너뛴 구간을 발행 노드/채널별로 알려 주고 늦게 온 번호는 무시한다")
+    void shouldReportSkippedRangePerOrigin() {
+        // given
+        SequenceGapDetector detector = new SequenceGapDetector(100);
+        detector.observe("node-a", "metrics:usage", 1);
+        detector.observe("node-b", "metrics:usage", 7);
+
+        // when
+        SequenceGapDetector.Gap contiguous = detector.observe("node-a", "metrics:usage", 2);
+        SequenceGapDetector.Gap gap = detector.observe("node-a", "metrics:usage", 6);
+        SequenceGapDetector.Gap late = detector.observe("node-a", "metrics:usage", 4);
+        SequenceGapDetector.Gap otherOrigin = detector.observe("node-b", "metrics:usage", 8);
+
+        // then
+        assertThat(contiguous).isNull();
+        assertThat(gap).isEqualTo(new SequenceGapDetector.Gap("node-a", "metrics:usage", 3, 5));
+        assertThat(gap.size()).isEqualTo(3);
+        assertThat(late).isNull();
+        assertThat(otherOrigin).isNull();
+    }
+
+    @Test
+    @DisplayName("발행 측 재시작 - 1 번이 다시 오면 기준을 초기화하고 누락으로 보지 않는다")
+    void shouldResetBaselineWhenPublisherRestarts() {
+        // given
+        SequenceGapDetector detector = new SequenceGapDetector(100);
+        for (long seq = 1; seq <= 50; seq++) {
+            detector.observe("node-a", "chat:global", seq);
+        }
+
+        // when
+        SequenceGapDetector.Gap restart = detector.observe("node-a", "chat:global", 1);
+        SequenceGapDetector.Gap next = detector.observe("node-a", "chat:global", 2);
+
+        // then
+        assertThat(restart).isNull();
+        assertThat(next).isNull();
+    }
+
+    @Test
+    @DisplayName("재생 링 - 용량을 넘으면 오래된 항목을 덮어쓰고 잘린 요청은 truncated 로 알린다")
+    void shouldReplayFromOffsetAndFlagTruncation() {
+        // given
+        ReplayRing ring = new ReplayRing(4);
+        for (int i = 0; i < 6; i++) {
+            ring.append(ChatMessage.builder().messageId("m-" + i).build(), 1_000L + i);
+        }
+
+        // when
+        ReplayRing.Slice fromStart = ring.since(0, 10);
+        ReplayRing.Slice tail = ring.since(4, 1);
+
+        // then
+        assertThat(ring.oldestOffset()).isEqualTo(2);
+        assertThat(fromStart.truncated()).isTrue();
+        assertThat(fromStart.entries()).extracting(e -> e.message().getMessageId())
+                .containsExactly("m-2", "m-3", "m-4", "m-5");
+        assertThat(fromStart.nextOffset()).isEqualTo(6);
+        assertThat(tail.truncated()).isFalse();
+        assertThat(tail.entries()).extracting(ReplayRing.Entry::offset).containsExactly(4L);
+        assertThat(tail.nextOffset()).isEqualTo(5);
+    }
+}
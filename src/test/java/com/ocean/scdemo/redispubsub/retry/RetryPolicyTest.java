@@ -0,0 +1,58 @@
+package com.ocean.scdemo.redispubsub.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class RetryPolicyTest {
+
+    @Test
+    @DisplayName("지수 백오프 - 재시도마다 두 배, jitter 는 지연의 절반 범위 안에서만 흔든다")
+    void shouldBackOffExponentiallyWithEqualJitter() {
+        // given
+        RetryPolicy policy = new RetryPolicy(5, 200, 30_000, 2.0);
+
+        // when & then
+        assertThat(policy.backoffMillis(1, 0.0)).isEqualTo(100);
+        assertThat(policy.backoffMillis(1, 0.999)).isBetween(100L, 200L);
+        assertThat(policy.backoffMillis(2, 0.0)).isEqualTo(200);
+        assertThat(policy.backoffMillis(3, 0.0)).isEqualTo(400);
+        assertThat(policy.backoffMillis(3, 0.999)).isBetween(400L, 800L);
+    }
+
+    @Test
+    @DisplayName("최대 지연 - 재시도 횟수가 많아도 maxBackoff 를 넘지 않는다")
+    void shouldCapBackoffAtMaximum() {
+        // given
+        RetryPolicy policy = new RetryPolicy(50, 200, 30_000, 2.0);
+
+        // when
+        long delay = policy.backoffMillis(40, 0.999);
+
+        // then
+        assertThat(delay).isBetween(15_000L, 30_000L);
+    }
+
+    @Test
+    @DisplayName("정책 파싱 - 타입별 정책을 읽고 형식 오류는 거부한다")
+    void shouldParseTypePolicies() {
+        // given
+        String spec = "NOTIFICATION=5:500:60000, METRICS=0:0:0";
+
+        // when
+        Map<String, RetryPolicy> policies = RetryPolicy.parse(spec, 2.0);
+
+        // then
+        assertThat(policies).containsOnlyKeys("NOTIFICATION", "METRICS");
+        assertThat(policies.get("NOTIFICATION")).isEqualTo(new RetryPolicy(5, 500, 60_000, 2.0));
+        assertThat(policies.get("METRICS").maxRetries()).isZero();
+        assertThatThrownBy(() -> RetryPolicy.parse("CHAT=3:100", 2.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
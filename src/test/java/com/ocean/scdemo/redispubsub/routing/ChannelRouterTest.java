@@ -0,0 +1,99 @@
+package com.ocean.scdemo.redispubsub.routing;
+
+import com.ocean.scdemo.redispubsub.routing.SubscriptionCompiler.CompiledSubscriptions;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class ChannelRouterTest {
+
+    @Test
+    @DisplayName("구독 컴파일 - 포함되는 패턴/채널은 제외하고 최소 구독 집합만 남긴다")
+    void shouldCompileToNonOverlappingSubscriptions() {
+        // given
+        List<String> declared = List.of(
+                "chat:*", "chat:room:*",
+                "notification:user:*", "notification:system:*", "notification:broadcast",
+                "metrics:*", "metrics:cpu", "status:node-?");
+
+        // when
+        CompiledSubscriptions compiled = SubscriptionCompiler.compile(declared);
+
+        // then
+        log.info("유효 패턴={}, 유효 채널={}, 제외={}",
+                compiled.effectivePatterns(), compiled.effectiveChannels(), compiled.subsumedBy());
+        assertThat(compiled.effectivePatterns())
+                .containsExactlyInAnyOrder("chat:*", "notification:user:*", "notification:system:*",
+                        "metrics:*", "status:node-?");
+        assertThat(compiled.effectiveChannels()).containsExactly("notification:broadcast");
+        assertThat(compiled.subsumedBy())
+                .containsEntry("chat:room:*", "chat:*")
+                .containsEntry("metrics:cpu", "metrics:*");
+    }
+
+    @Test
+    @DisplayName("트라이 라우팅 - 여러 토픽에 매칭되어도 핸들러는 한 번만 반환된다")
+    void shouldMatchEachHandlerOnce() {
+        // given
+        ChannelTrie<String> trie = new ChannelTrie<>();
+        String chatHandler = "chat";
+        String roomHandler = "room";
+        trie.add("chat:*", chatHandler);
+        trie.add("chat:room:*", chatHandler);
+        trie.add("chat:room:[0-9]*", roomHandler);
+        trie.add("chat:room:42", roomHandler);
+
+        // when & then
+        assertThat(trie.match("chat:room:42")).containsExactly(chatHandler, roomHandler);
+        assertThat(trie.match("chat:room:abc")).containsExactly(chatHandler);
+        assertThat(trie.match("chat")).isEmpty();
+        assertThat(trie.match("notification:user:1")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("glob 매칭 - Redis 패턴 문법(*, ?, [...], 이스케이프)을 지원한다")
+    void shouldMatchRedisGlob() {
+        assertThat(TopicPattern.matches("h?llo", "hello")).isTrue();
+        assertThat(TopicPattern.matches("h*llo", "heeeello")).isTrue();
+        assertThat(TopicPattern.matches("h[ae]llo", "hallo")).isTrue();
+        assertThat(TopicPattern.matches("h[^e]llo", "hello")).isFalse();
+        assertThat(TopicPattern.matches("h[a-b]llo", "hbllo")).isTrue();
+        assertThat(TopicPattern.matches("h\\*llo", "h*llo")).isTrue();
+        assertThat(TopicPattern.matches("h\\*llo", "hello")).isFalse();
+    }
+
+    @Test
+    @DisplayName("중복 전달 - 겹치는 구독으로 두 번 도착해도 핸들러는 한 번만 처리한다")
+    void shouldDropDuplicateDeliveryFromOverlappingSubscription() {
+        // given
+        ChannelRouter router = new ChannelRouter();
+        AtomicInteger handled = new AtomicInteger();
+        MessageListener handler = (message, pattern) -> handled.incrementAndGet();
+        router.register("chat:*", handler);
+        router.register("chat:room:*", handler);
+
+        DefaultMessage message = new DefaultMessage(bytes("chat:room:1"), bytes("{}"));
+
+        // when - 이전 구독(chat:room:*)이 남아 있어 같은 publish 가 두 패턴으로 도착
+        router.onMessage(message, bytes("chat:*"));
+        router.onMessage(message, bytes("chat:room:*"));
+
+        // then
+        assertThat(handled.get()).isEqualTo(1);
+        assertThat(router.getReport().getTotalDuplicateDeliveries()).isEqualTo(1);
+        assertThat(router.getReport().getEffectivePatterns()).containsExactly("chat:*");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ocean.scdemo.redispubsub.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class SessionizerTest {
+
+    private static final long IDLE = 30_000;
+    private static final long TICK = 1_000;
+
+    private final List<SessionCloseEvent> closed = new ArrayList<>();
+
+    @Test
+    @DisplayName("유휴 만료 - 활동이 이어지면 연장되고 마지막 활동 후 유휴 시간이 지나면 종료된다")
+    void shouldExpireIdleSessionAfterLastActivity() {
+        // given
+        Sessionizer sessionizer = new Sessionizer(4, 100, IDLE, TICK, 0, closed::add);
+        sessionizer.record("alice", "s1", 1_000);
+        sessionizer.record("alice", "s1", 20_000);
+        sessionizer.record("alice", "s1", 40_000);
+
+        // when - 첫 타이머(31s)는 활동이 있어 재등록, 70s 에 만료
+        sessionizer.expire(60_000);
+        int beforeDeadline = closed.size();
+        sessionizer.expire(75_000);
+
+        // then
+        assertThat(beforeDeadline).isZero();
+        assertThat(closed).hasSize(1);
+        SessionCloseEvent event = closed.get(0);
+        log.info("종료 이벤트: {}", event);
+        assertThat(event.reason()).isEqualTo(SessionCloseEvent.Reason.IDLE_TIMEOUT);
+        assertThat(event.eventCount()).isEqualTo(3);
+        assertThat(event.durationMillis()).isEqualTo(39_000);
+        assertThat(sessionizer.activeSessions()).isZero();
+    }
+
+    @Test
+    @DisplayName("로그아웃 - 즉시 종료되고 남은 타이머는 무시된다")
+    void shouldCloseOnLogoutAndIgnoreStaleTimer() {
+        // given
+        Sessionizer sessionizer = new Sessionizer(4, 100, IDLE, TICK, 0, closed::add);
+        sessionizer.record("bob", "s1", 1_000);
+
+        // when
+        boolean closedByLogout = sessionizer.close("bob", "s1", 5_000);
+        sessionizer.expire(100_000);
+
+        // then
+        assertThat(closedByLogout).isTrue();
+        assertThat(closed).extracting(SessionCloseEvent::reason).containsExactly(SessionCloseEvent.Reason.LOGOUT);
+        assertThat(closed.get(0).durationMillis()).isEqualTo(4_000);
+    }
+
+    @Test
+    @DisplayName("메모리 상한 - 샤드가 가득 차면 가장 오래 쉰 세션을 축출한다")
+    void shouldEvictLeastRecentlyActiveSessionAtCapacity() {
+        // given - 샤드 1개, 최대 3 세션
+        Sessionizer sessionizer = new Sessionizer(1, 3, IDLE, TICK, 0, closed::add);
+        sessionizer.record("u1", "s", 1_000);
+        sessionizer.record("u2", "s", 2_000);
+        sessionizer.record("u3", "s", 3_000);
+        sessionizer.record("u1", "s", 4_000); // u1 갱신 → u2 가 가장 오래 쉼
+
+        // when
+        sessionizer.record("u4", "s", 5_000);
+
+        // then
+        assertThat(closed).hasSize(1);
+        assertThat(closed.get(0).userId()).isEqualTo("u2");
+        assertThat(closed.get(0).reason()).isEqualTo(SessionCloseEvent.Reason.CAPACITY);
+        assertThat(sessionizer.activeSessions()).isEqualTo(3);
+        assertThat(sessionizer.activeUsers()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("상한 축출/로그아웃 - 닫힌 세션의 타이머는 휠에서 제거되어 휠 항목이 활성 세션 수를 넘지 않는다")
+    void shouldCancelTimersOfEvictedAndClosedSessions() {
+        // given - 샤드 1개, 최대 10 세션
+        Sessionizer sessionizer = new Sessionizer(1, 10, IDLE, TICK, 0, closed::add);
+
+        // when - 유휴 시간 안에 1,000명이 차례로 들어오고 마지막 사용자는 로그아웃
+        for (int i = 0; i < 1_000; i++) {
+            sessionizer.record("user-" + i, "s1", 1_000 + i);
+        }
+        sessionizer.close("user-999", "s1", 2_000);
+        int pendingBeforeExpire = sessionizer.pendingTimers();
+        int expired = sessionizer.expire(100_000);
+
+        // then
+        log.info("축출 {}건, 남은 타이머 {}개", closed.size() - 1, pendingBeforeExpire);
+        assertThat(closed).filteredOn(event -> event.reason() == SessionCloseEvent.Reason.CAPACITY).hasSize(990);
+        assertThat(pendingBeforeExpire).isEqualTo(9).isEqualTo(sessionizer.activeSessions());
+        assertThat(expired).isEqualTo(9);
+        assertThat(sessionizer.pendingTimers()).isZero();
+    }
+}
@@ -0,0 +1,133 @@
+package com.ocean.scdemo.redispubsub.transport;
+
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig.ChannelFamily;
+import com.ocean.scdemo.redispubsub.subscriber.MessageSubscriber;
+import com.ocean.scdemo.redispubsub.subscriber.MessageSubscriber.DispatchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+class RedisStreamConsumerTest {
+
+    private static final String CHAT_STREAM = ChannelFamily.CHAT.getStreamKey();
+    private static final Duration CLAIM_IDLE = Duration.ofSeconds(30);
+
+    private RedisStreamTransport transport;
+    private MessageSubscriber subscriber;
+    private RedisStreamConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        transport = mock(RedisStreamTransport.class);
+        subscriber = mock(MessageSubscriber.class);
+        when(transport.getDurableFamilies()).thenReturn(Set.of(ChannelFamily.CHAT));
+        when(transport.ack(anyString(), anyList())).thenAnswer(invocation -> (long) ((List<?>) invocation.getArgument(1)).size());
+
+        consumer = new RedisStreamConsumer(transport, subscriber);
+        ReflectionTestUtils.setField(consumer, "batchSize", 100);
+        ReflectionTestUtils.setField(consumer, "claimIdleMillis", CLAIM_IDLE.toMillis());
+        ReflectionTestUtils.setField(consumer, "maxDeliveries", 5L);
+    }
+
+    @Test
+    @DisplayName("배치 ACK - FAILED 는 pending 으로 남기고 나머지 결과만 스트림별로 모아 ACK 한다")
+    void shouldAckAllButFailed() {
+        // given
+        ByteRecord processed = entry("1-0", "chat:room:1");
+        ByteRecord duplicate = entry("2-0", "chat:room:1");
+        ByteRecord failed = entry("3-0", "chat:room:2");
+        when(subscriber.dispatch(eq("chat:room:1"), any())).thenReturn(DispatchResult.PROCESSED, DispatchResult.DUPLICATE);
+        when(subscriber.dispatch(eq("chat:room:2"), any())).thenReturn(DispatchResult.FAILED);
+
+        // when
+        consumer.processBatch(List.of(processed, duplicate, failed));
+
+        // then
+        verify(transport).ack(CHAT_STREAM, List.of(processed.getId(), duplicate.getId()));
+        assertThat(consumer.getStats().getTotalAcked()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("pending 회수 - 유휴 시간이 짧은 엔트리는 건너뛰고, 소진 엔트리는 데드레터로, 나머지는 XCLAIM 후 재처리한다")
+    void shouldSplitPendingIntoClaimAndDeadLetter() {
+        // given
+        PendingMessage busy = pending("1-0", Duration.ofSeconds(5), 1);
+        PendingMessage stale = pending("2-0", Duration.ofMinutes(1), 2);
+        PendingMessage exhausted = pending("3-0", Duration.ofMinutes(1), 5);
+        when(transport.pending(ChannelFamily.CHAT, 100))
+                .thenReturn(new PendingMessages("pubsub-group", List.of(busy, stale, exhausted)));
+        when(transport.deadLetter(ChannelFamily.CHAT, List.of(exhausted))).thenReturn(1L);
+        ByteRecord reclaimed = entry("2-0", "chat:room:1");
+        when(transport.claim(eq(ChannelFamily.CHAT), anyString(), eq(CLAIM_IDLE), eq(List.of(stale.getId()))))
+                .thenReturn(List.of(reclaimed));
+        when(subscriber.dispatch(eq("chat:room:1"), any())).thenReturn(DispatchResult.PROCESSED);
+
+        // when
+        consumer.claimStalePending();
+
+        // then
+        RedisStreamConsumer.StreamConsumerStats stats = consumer.getStats();
+        log.info("컨슈머 통계: {}", stats);
+        verify(transport).deadLetter(ChannelFamily.CHAT, List.of(exhausted));
+        verify(transport).ack(CHAT_STREAM, List.of(reclaimed.getId()));
+        assertThat(stats.getTotalClaimed()).isEqualTo(1);
+        assertThat(stats.getTotalDeadLettered()).isEqualTo(1);
+        assertThat(stats.getTotalDropped()).isZero();
+    }
+
+    @Test
+    @DisplayName("소진 엔트리 - 본문이 트리밍되어 옮기지 못한 건수만 폐기로 집계하고 직접 ACK 하지 않는다")
+    void shouldCountTrimmedExhaustedAsDropped() {
+        // given
+        PendingMessage first = pending("1-0", Duration.ofMinutes(1), 6);
+        PendingMessage second = pending("2-0", Duration.ofMinutes(1), 9);
+        when(transport.pending(ChannelFamily.CHAT, 100))
+                .thenReturn(new PendingMessages("pubsub-group", List.of(first, second)));
+        when(transport.deadLetter(ChannelFamily.CHAT, List.of(first, second))).thenReturn(1L);
+        when(transport.claim(any(), anyString(), any(), anyList())).thenReturn(List.of());
+
+        // when
+        consumer.claimStalePending();
+
+        // then
+        verify(transport, never()).ack(anyString(), anyList());
+        assertThat(consumer.getStats().getTotalDeadLettered()).isEqualTo(1);
+        assertThat(consumer.getStats().getTotalDropped()).isEqualTo(1);
+    }
+
+    private static ByteRecord entry(String id, String channel) {
+        Map<byte[], byte[]> fields = new LinkedHashMap<>();
+        fields.put(RedisStreamTransport.FIELD_CHANNEL, RedisStreamTransport.bytes(channel));
+        fields.put(RedisStreamTransport.FIELD_PAYLOAD, RedisStreamTransport.bytes("{}"));
+        return StreamRecords.rawBytes(fields).withStreamKey(RedisStreamTransport.bytes(CHAT_STREAM)).withId(RecordId.of(id));
+    }
+
+    private static PendingMessage pending(String id, Duration idle, long deliveries) {
+        return new PendingMessage(RecordId.of(id), Consumer.from("pubsub-group", "dead-consumer"), idle, deliveries);
+    }
+}
@@ -0,0 +1,178 @@
+package com.ocean.scdemo.redispubsub.transport;
+
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig.ChannelFamily;
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig.DeliveryMode;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+class RedisStreamTransportTest {
+
+    private static final byte[] CHAT_STREAM = RedisStreamTransport.bytes(ChannelFamily.CHAT.getStreamKey());
+    private static final byte[] CHAT_DLQ = RedisStreamTransport.bytes(RedisStreamTransport.deadLetterKeyOf(ChannelFamily.CHAT));
+
+    private RedisTemplate<String, Object> template;
+    private RedisStreamCommands commands;
+    private RedisStreamTransport transport;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        commands = mock(RedisStreamCommands.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.streamCommands()).thenReturn(commands);
+
+        template = mock(RedisTemplate.class);
+        when(template.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+
+        transport = new RedisStreamTransport(template);
+        ReflectionTestUtils.setField(transport, "durableFamiliesProperty", "chat");
+        ReflectionTestUtils.setField(transport, "groupName", "pubsub-group");
+        ReflectionTestUtils.setField(transport, "deadLetterMaxLen", 1_000L);
+        transport.init();
+    }
+
+    @Test
+    @DisplayName("전송 모드 - DURABLE 로 지정한 패밀리만 스트림으로 보내고 나머지와 알 수 없는 채널은 fire-and-forget")
+    void shouldSelectModeByFamily() {
+        assertThat(transport.modeOf("chat:room:1")).isEqualTo(DeliveryMode.DURABLE);
+        assertThat(transport.isDurable("metrics:cpu")).isFalse();
+        assertThat(transport.modeOf("unknown:channel")).isEqualTo(DeliveryMode.FIRE_AND_FORGET);
+        assertThat(transport.getDurableFamilies()).containsExactly(ChannelFamily.CHAT);
+    }
+
+    @Test
+    @DisplayName("데드레터 - 소진된 엔트리를 원본 필드와 함께 DLQ 스트림에 복사한 뒤에 ACK 한다")
+    @SuppressWarnings("unchecked")
+    void shouldCopyToDeadLetterStreamBeforeAck() {
+        // given
+        RecordId id = RecordId.of("1700000000000-0");
+        when(commands.xRange(aryEq(CHAT_STREAM), eq(Range.closed(id.getValue(), id.getValue()))))
+                .thenReturn(List.of(entry(id, "chat:room:1", "{\"messageId\":\"m1\"}")));
+
+        // when
+        long moved = transport.deadLetter(ChannelFamily.CHAT, List.of(pending(id, 5)));
+
+        // then
+        ArgumentCaptor<MapRecord<byte[], byte[], byte[]>> captor = ArgumentCaptor.forClass(MapRecord.class);
+        InOrder order = inOrder(commands);
+        order.verify(commands).xAdd(captor.capture(), any(XAddOptions.class));
+        order.verify(commands).xAck(aryEq(CHAT_STREAM), eq("pubsub-group"), eq(id));
+
+        MapRecord<byte[], byte[], byte[]> copied = captor.getValue();
+        Map<String, String> fields = decode(copied.getValue());
+        log.info("DLQ 엔트리: {}", fields);
+        assertThat(moved).isEqualTo(1);
+        assertThat(copied.getStream()).isEqualTo(CHAT_DLQ);
+        assertThat(fields).containsEntry("channel", "chat:room:1")
+                .containsEntry("payload", "{\"messageId\":\"m1\"}")
+                .containsEntry("sourceId", id.getValue())
+                .containsEntry("deliveries", "5")
+                .containsKey("deadLetteredAt");
+        assertThat(transport.getStats().getTotalDeadLettered()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("데드레터 - 이미 트리밍되어 본문이 없는 엔트리는 복사 없이 ACK 만 하고 이동 건수에서 뺀다")
+    void shouldAckTrimmedEntriesWithoutCopy() {
+        // given - 본문이 남은 엔트리 1건, 트리밍된 엔트리 1건
+        RecordId alive = RecordId.of("1700000000000-0");
+        RecordId trimmed = RecordId.of("1690000000000-0");
+        when(commands.xRange(aryEq(CHAT_STREAM), eq(Range.closed(alive.getValue(), alive.getValue()))))
+                .thenReturn(List.of(entry(alive, "chat:room:1", "{}")));
+        when(commands.xRange(aryEq(CHAT_STREAM), eq(Range.closed(trimmed.getValue(), trimmed.getValue()))))
+                .thenReturn(List.of());
+
+        // when
+        long moved = transport.deadLetter(ChannelFamily.CHAT, List.of(pending(alive, 5), pending(trimmed, 7)));
+
+        // then
+        assertThat(moved).isEqualTo(1);
+        verify(commands).xAdd(any(MapRecord.class), any(XAddOptions.class));
+        verify(commands).xAck(aryEq(CHAT_STREAM), eq("pubsub-group"), eq(alive), eq(trimmed));
+    }
+
+    @Test
+    @DisplayName("데드레터 복사 실패 - XADD 가 실패하면 ACK 하지 않아 pending 에 남는다")
+    void shouldNotAckWhenCopyFails() {
+        // given
+        RecordId id = RecordId.of("1700000000000-0");
+        when(commands.xRange(aryEq(CHAT_STREAM), eq(Range.closed(id.getValue(), id.getValue()))))
+                .thenReturn(List.of(entry(id, "chat:room:1", "{}")));
+        when(commands.xAdd(any(MapRecord.class), any(XAddOptions.class))).thenThrow(new IllegalStateException("down"));
+
+        // when / then
+        assertThatThrownBy(() -> transport.deadLetter(ChannelFamily.CHAT, List.of(pending(id, 5))))
+                .isInstanceOf(IllegalStateException.class);
+        verify(commands, never()).xAck(any(byte[].class), anyString(), any(RecordId[].class));
+        assertThat(transport.getStats().getTotalDeadLettered()).isZero();
+    }
+
+    @Test
+    @DisplayName("빈 목록 - ACK / XCLAIM / 데드레터 모두 Redis 를 호출하지 않는다")
+    void shouldSkipRedisForEmptyBatches() {
+        // when
+        long acked = transport.ack(ChannelFamily.CHAT.getStreamKey(), List.of());
+        List<ByteRecord> claimed = transport.claim(ChannelFamily.CHAT, "consumer-1", Duration.ofSeconds(30), List.of());
+        long moved = transport.deadLetter(ChannelFamily.CHAT, List.of());
+
+        // then
+        assertThat(acked).isZero();
+        assertThat(claimed).isEmpty();
+        assertThat(moved).isZero();
+        verifyNoInteractions(template);
+    }
+
+    private static ByteRecord entry(RecordId id, String channel, String payload) {
+        Map<byte[], byte[]> fields = new LinkedHashMap<>();
+        fields.put(RedisStreamTransport.FIELD_CHANNEL, RedisStreamTransport.bytes(channel));
+        fields.put(RedisStreamTransport.FIELD_PAYLOAD, RedisStreamTransport.bytes(payload));
+        return StreamRecords.rawBytes(fields).withStreamKey(CHAT_STREAM).withId(id);
+    }
+
+    private static PendingMessage pending(RecordId id, long deliveries) {
+        return new PendingMessage(id, Consumer.from("pubsub-group", "dead-consumer"), Duration.ofMinutes(5), deliveries);
+    }
+
+    private static Map<String, String> decode(Map<byte[], byte[]> fields) {
+        Map<String, String> decoded = new LinkedHashMap<>();
+        fields.forEach((key, value) -> decoded.put(new String(key), new String(value)));
+        return decoded;
+    }
+}
@@ -0,0 +1,81 @@
+package com.ocean.scdemo.redispubsub.transport;
+
+import com.ocean.scdemo.redispubsub.config.RedisPubSubConfig;
+import com.ocean.scdemo.redispubsub.message.ChatMessage;
+import com.ocean.scdemo.redispubsub.routing.ChannelRouter;
+import com.ocean.scdemo.redispubsub.routing.SubscriptionCompiler.CompiledSubscriptions;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+class ShardedPubSubTransportTest {
+
+    @Test
+    @DisplayName("샤딩 활성화 - 기본 패턴 구독이 덮는 채널이어도 샤딩 패밀리는 SPUBLISH 로 발행하고, 그 패밀리 패턴은 Redis 구독에서 빠진다")
+    @SuppressWarnings("unchecked")
+    void shouldSelectSpublishForShardableChannels() {
+        // given - 기본 선언 토픽 (chat:* 가 chat:room:* 를 덮음)
+        ChannelRouter router = new ChannelRouter();
+        MessageListener handler = (message, pattern) -> {
+        };
+        List.of("chat:*", "chat:room:*", "notification:user:*", "event:user:*", "notification:broadcast")
+                .forEach(topic -> router.register(topic, handler));
+
+        byte[] payload = "{\"content\":\"안녕하세요\"}".getBytes(StandardCharsets.UTF_8);
+        RedisSerializer<Object> serializer = mock(RedisSerializer.class);
+        when(serializer.serialize(any())).thenReturn(payload);
+        RedisClusterConnection connection = mock(RedisClusterConnection.class);
+        when(connection.execute(eq("SPUBLISH"), any(byte[].class), anyList())).thenReturn(3L);
+        RedisTemplate<String, Object> template = mock(RedisTemplate.class);
+        when(template.getValueSerializer()).thenReturn((RedisSerializer) serializer);
+        when(template.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+
+        ShardedPubSubTransport transport = new ShardedPubSubTransport(
+                mock(RedisConnectionFactory.class), template, router, Runnable::run);
+        // init 은 클러스터 연결이 필요하므로 활성화 결과만 재현
+        ReflectionTestUtils.setField(transport, "active", true);
+        router.setShardedPrefixes(RedisPubSubConfig.Channels.SHARDABLE_PREFIXES);
+
+        // when
+        Long receivers = transport.publish("chat:room:42",
+                ChatMessage.createTextMessage("user-1", "발신자", "42", "안녕하세요"));
+        CompiledSubscriptions compiled = router.getCompiledSubscriptions();
+
+        // then
+        log.info("PSUBSCRIBE={}, SUBSCRIBE={}, 샤드 전용={}", compiled.effectivePatterns(),
+                compiled.effectiveChannels(), router.getReport().getShardedTopics());
+        assertThat(transport.appliesTo("chat:room:42")).isTrue();
+        assertThat(transport.appliesTo("notification:user:7")).isTrue();
+        assertThat(transport.appliesTo("chat:global")).isFalse();
+        verify(connection).execute(eq("SPUBLISH"), aryEq("chat:room:42".getBytes(StandardCharsets.UTF_8)),
+                eq(List.of(payload)));
+        verify(connection, never()).publish(any(), any());
+        assertThat(receivers).isEqualTo(3L);
+        assertThat(compiled.effectivePatterns()).containsExactly("chat:*");
+        assertThat(compiled.effectiveChannels()).containsExactly("notification:broadcast");
+        assertThat(router.getReport().getShardedTopics())
+                .containsExactlyInAnyOrder("chat:room:*", "notification:user:*", "event:user:*");
+    }
+}